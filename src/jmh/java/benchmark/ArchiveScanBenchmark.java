@@ -0,0 +1,87 @@
+package benchmark;
+
+import archive.ArchiveFilter;
+import archive.GameArchive;
+import model.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures scan queries over an archive of a million games, which are 16 segments of mapped files. The games are
+ * spread over 24 lanes, 500 bowlers and 10 seasons.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class ArchiveScanBenchmark {
+    private static final int numberOfGames = 1 << 20;
+    private static final int numberOfLanes = 24;
+    private static final int numberOfBowlers = 500;
+    private static final int numberOfSeasons = 10;
+
+    private Path directory;
+    private GameArchive archive;
+    private ArchiveFilter highGamesOnLane12;
+    private ArchiveFilter lastSeason;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("archive-benchmark");
+        archive = GameArchive.open(directory);
+        int[][] rolls = GameMix.RANDOM.games(42);
+        int[][] strikes = GameMix.ALL_STRIKE.games(42);
+        for (int g = 0; g < numberOfGames; g++) {
+            Game game = new Game(Collections.singletonList("Bowler " + g % numberOfBowlers));
+            game.addScores(g % 1000 == 0 ? strikes[0] : rolls[g % rolls.length]);
+            archive.append(g % numberOfLanes + 1, g, game);
+        }
+        highGamesOnLane12 = ArchiveFilter.all().onLane(12).withScoreAtLeast(250);
+        int season = numberOfGames / numberOfSeasons;
+        lastSeason = ArchiveFilter.all().between((long) (numberOfSeasons - 1) * season, numberOfGames);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        archive.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long[] highGamesOnLane() {
+        return archive.find(highGamesOnLane12);
+    }
+
+    @Benchmark
+    public Map<String, Double> averageByBowlerThisSeason() {
+        return archive.averageByBowler(lastSeason);
+    }
+
+    @Benchmark
+    public Map<String, Double> averageByBowlerAllTime() {
+        return archive.averageByBowler(ArchiveFilter.all());
+    }
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scoring.BulkScorer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures scoring a million archived games with BulkScorer. The score is in games per microsecond.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class BulkScorerBenchmark {
+    private static final int numberOfGames = 1 << 20;
+
+    @Param
+    public GameMix mix;
+
+    private final BulkScorer scorer = new BulkScorer();
+    private int[] rolls;
+    private int[] offsets;
+    private int[] frameScores;
+    private int[] totalScores;
+
+    @Setup
+    public void setUp() {
+        int[][] games = mix.games(42);
+        rolls = new int[numberOfGames * 21];
+        offsets = new int[numberOfGames + 1];
+        int numberOfRolls = 0;
+        for (int g = 0; g < numberOfGames; g++) {
+            offsets[g] = numberOfRolls;
+            int[] game = games[g % games.length];
+            System.arraycopy(game, 0, rolls, numberOfRolls, game.length);
+            numberOfRolls += game.length;
+        }
+        offsets[numberOfGames] = numberOfRolls;
+        frameScores = new int[numberOfGames * BulkScorer.framesPerGame];
+        totalScores = new int[numberOfGames];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(numberOfGames)
+    public int[] score() {
+        scorer.score(rolls, offsets, frameScores, totalScores);
+        return totalScores;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(numberOfGames)
+    public int[] scoreTotalsOnly() {
+        scorer.score(rolls, offsets, null, totalScores);
+        return totalScores;
+    }
+}
@@ -0,0 +1,83 @@
+package benchmark;
+
+import controller.GameController;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what the flight recorder events add to a roll through GameController, with no recording, with a recording
+ * that keeps the default 100us threshold so that no roll is slow enough to be recorded, and with a recording that
+ * keeps every roll
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class FlightRecorderBenchmark {
+    @Param({"off", "thresholded", "everyRoll"})
+    public String recording;
+
+    private int[][] pinMasks;
+    private int gameIndex;
+    private int rollIndex;
+    private GameController gameController;
+    private Recording flightRecording;
+
+    @Setup
+    public void setUp() {
+        int[][] rolls = GameMix.RANDOM.games(42);
+        pinMasks = new int[rolls.length][];
+        for (int g = 0; g < rolls.length; g++) {
+            pinMasks[g] = GameMix.toPinMasks(rolls[g]);
+        }
+        if (!recording.equals("off")) {
+            flightRecording = new Recording();
+            flightRecording.enable("bowling.Roll").withThreshold(recording.equals("everyRoll")
+                    ? Duration.ZERO : Duration.ofNanos(100_000));
+            flightRecording.enable("bowling.GameCompleted");
+            flightRecording.start();
+        }
+        gameController = newGameController();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (flightRecording != null) {
+            flightRecording.close();
+        }
+    }
+
+    @Benchmark
+    public GameController addPinMask() {
+        int[] masks = pinMasks[gameIndex];
+        gameController.addPinMask(masks[rollIndex++]);
+        if (rollIndex == masks.length) {
+            rollIndex = 0;
+            gameIndex = (gameIndex + 1) % pinMasks.length;
+            gameController = newGameController();
+        }
+        return gameController;
+    }
+
+    private static GameController newGameController() {
+        return new GameController(new ArrayList<>(Collections.singletonList("Bowler")));
+    }
+}
@@ -0,0 +1,132 @@
+package benchmark;
+
+import controller.GameController;
+import model.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding a single roll of pins through Game and through GameController. Each game is a single player game
+ * so that every roll goes to the same scorecard, and a new game is started once a game is over.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class GameBenchmark {
+    @Param
+    public GameMix mix;
+
+    private List<List<List<Boolean>>> games;
+    private int[][] pinMasks;
+    private int gameIndex;
+    private int rollIndex;
+    private Game game;
+    private GameController gameController;
+
+    @Setup
+    public void setUp() {
+        games = new ArrayList<>();
+        for (int[] rolls : mix.games(42)) {
+            games.add(GameMix.toPins(rolls));
+        }
+        int[][] rolls = mix.games(42);
+        pinMasks = new int[rolls.length][];
+        for (int g = 0; g < rolls.length; g++) {
+            pinMasks[g] = GameMix.toPinMasks(rolls[g]);
+        }
+        game = newGame();
+        gameController = newGameController();
+    }
+
+    @Benchmark
+    public Game gameAddScore() {
+        game.addScore(nextRoll());
+        if (rollIndex == 0) {
+            game = newGame();
+        }
+        return game;
+    }
+
+    @Benchmark
+    public GameController gameControllerAddScore() {
+        gameController.addScore(nextRoll());
+        if (rollIndex == 0) {
+            gameController = newGameController();
+        }
+        return gameController;
+    }
+
+    @Benchmark
+    public GameController gameControllerAddPinMask() {
+        int[] masks = pinMasks[gameIndex];
+        gameController.addPinMask(masks[rollIndex++]);
+        if (rollIndex == masks.length) {
+            rollIndex = 0;
+            gameIndex = (gameIndex + 1) % pinMasks.length;
+            gameController = newGameController();
+        }
+        return gameController;
+    }
+
+    /**
+     * Plays a whole game one pin mask at a time, to compare with gameControllerAddPinMasksBatch()
+     */
+    @Benchmark
+    public GameController gameControllerAddPinMasksOneAtATime() {
+        gameIndex = (gameIndex + 1) % pinMasks.length;
+        GameController wholeGame = newGameController();
+        for (int pinMask : pinMasks[gameIndex]) {
+            wholeGame.addPinMask(pinMask);
+        }
+        return wholeGame;
+    }
+
+    /**
+     * Plays a whole game as a single batch of pin masks
+     */
+    @Benchmark
+    public GameController gameControllerAddPinMasksBatch() {
+        gameIndex = (gameIndex + 1) % pinMasks.length;
+        GameController wholeGame = newGameController();
+        wholeGame.addPinMasks(pinMasks[gameIndex]);
+        return wholeGame;
+    }
+
+    /**
+     * @return the pins of the next roll. rollIndex is back at 0 once the last roll of a game has been returned
+     */
+    private List<Boolean> nextRoll() {
+        List<List<Boolean>> rolls = games.get(gameIndex);
+        List<Boolean> pins = rolls.get(rollIndex++);
+        if (rollIndex == rolls.size()) {
+            rollIndex = 0;
+            gameIndex = (gameIndex + 1) % games.size();
+        }
+        return pins;
+    }
+
+    private static Game newGame() {
+        return new Game(Collections.singletonList("Bowler"));
+    }
+
+    private static GameController newGameController() {
+        return new GameController(new ArrayList<>(Collections.singletonList("Bowler")));
+    }
+}
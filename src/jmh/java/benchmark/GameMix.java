@@ -0,0 +1,142 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The kinds of games the benchmarks are run over. Each mix produces legal roll sequences for complete single player
+ * games so that a benchmark can feed them into the model one roll at a time.
+ */
+public enum GameMix {
+    ALL_OPEN {
+        @Override
+        int firstBall(SplittableRandom random) {
+            return random.nextInt(10);
+        }
+
+        @Override
+        int secondBall(SplittableRandom random, int pinsStanding) {
+            return random.nextInt(pinsStanding);
+        }
+    },
+    ALL_STRIKE {
+        @Override
+        int firstBall(SplittableRandom random) {
+            return 10;
+        }
+
+        @Override
+        int secondBall(SplittableRandom random, int pinsStanding) {
+            return pinsStanding;
+        }
+    },
+    SPARE_HEAVY {
+        @Override
+        int firstBall(SplittableRandom random) {
+            return random.nextInt(10);
+        }
+
+        @Override
+        int secondBall(SplittableRandom random, int pinsStanding) {
+            return random.nextInt(5) == 0 ? random.nextInt(pinsStanding) : pinsStanding;
+        }
+    },
+    RANDOM {
+        @Override
+        int firstBall(SplittableRandom random) {
+            return random.nextInt(11);
+        }
+
+        @Override
+        int secondBall(SplittableRandom random, int pinsStanding) {
+            return random.nextInt(pinsStanding + 1);
+        }
+    };
+
+    private static final int numberOfGames = 64;
+
+    abstract int firstBall(SplittableRandom random);
+
+    abstract int secondBall(SplittableRandom random, int pinsStanding);
+
+    /**
+     * Creates the rolls for a number of complete games. The same seed always gives the same games.
+     * @param seed seed for the random number generator
+     * @return one array of rolls per game
+     */
+    public int[][] games(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][] games = new int[numberOfGames][];
+        for (int g = 0; g < numberOfGames; g++) {
+            int[] rolls = new int[21];
+            int count = 0;
+            for (int frame = 0; frame < 9; frame++) {
+                int first = firstBall(random);
+                rolls[count++] = first;
+                if (first < 10) {
+                    rolls[count++] = secondBall(random, 10 - first);
+                }
+            }
+            int first = firstBall(random);
+            rolls[count++] = first;
+            int second = first == 10 ? firstBall(random) : secondBall(random, 10 - first);
+            rolls[count++] = second;
+            if (first == 10 || first + second == 10) {
+                boolean isFreshRack = first + second == 10 || second == 10;
+                rolls[count++] = isFreshRack ? firstBall(random) : secondBall(random, 10 - second);
+            }
+            games[g] = Arrays.copyOf(rolls, count);
+        }
+        return games;
+    }
+
+    /**
+     * Converts rolls to the pin lists that the hardware sends, where true means the pin was knocked down
+     * @param rolls the rolls to convert
+     * @return one list of ten pins per roll
+     */
+    public static List<List<Boolean>> toPins(int[] rolls) {
+        List<List<Boolean>> pins = new ArrayList<>();
+        for (int roll : rolls) {
+            Boolean[] pinsOfRoll = new Boolean[10];
+            for (int pin = 0; pin < 10; pin++) {
+                pinsOfRoll[pin] = pin < roll;
+            }
+            pins.add(Arrays.asList(pinsOfRoll));
+        }
+        return pins;
+    }
+
+    /**
+     * Converts rolls to pin masks where each ball knocks down the lowest numbered pins that are still standing
+     * @param rolls the rolls of a complete game
+     * @return one mask per roll
+     */
+    public static int[] toPinMasks(int[] rolls) {
+        int allPins = (1 << 10) - 1;
+        int[] pinMasks = new int[rolls.length];
+        int pinsStanding = allPins;
+        int frame = 0;
+        int ball = 0;
+        for (int i = 0; i < rolls.length; i++) {
+            int pinMask = 0;
+            for (int pin = 0; pin < 10 && Integer.bitCount(pinMask) < rolls[i]; pin++) {
+                pinMask |= pinsStanding & (1 << pin);
+            }
+            pinMasks[i] = pinMask;
+            pinsStanding &= ~pinMask;
+            ball++;
+            boolean isEndOfFrame = frame < 9 && (pinsStanding == 0 || ball == 2);
+            if (isEndOfFrame) {
+                frame++;
+                ball = 0;
+            }
+            if (isEndOfFrame || pinsStanding == 0) {
+                pinsStanding = allPins;
+            }
+        }
+        return pinMasks;
+    }
+}
@@ -0,0 +1,47 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scoring.BulkScorer;
+import simulation.BowlerProfile;
+import simulation.GameSimulator;
+import simulation.SimulatedGames;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures simulating a batch of games for a mix of bowlers, on its own and straight into BulkScorer. The score is in
+ * games per microsecond.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class GameSimulatorBenchmark {
+    private final GameSimulator simulator = new GameSimulator(BowlerProfile.beginner(), BowlerProfile.league(),
+            BowlerProfile.professional());
+    private final BulkScorer scorer = new BulkScorer();
+    private long seed;
+
+    @Benchmark
+    @OperationsPerInvocation(GameSimulator.gamesPerBatch)
+    public SimulatedGames simulate() {
+        return simulator.simulate(GameSimulator.gamesPerBatch, seed++);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GameSimulator.gamesPerBatch)
+    public int[] simulateAndScore() {
+        return simulator.simulate(GameSimulator.gamesPerBatch, seed++).score(scorer);
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import controller.GameController;
+import controller.LaneManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many rolls per second a center can score with different numbers of worker threads. Each invocation
+ * plays one all-open game (20 rolls) on every lane, sending the rolls round robin across the lanes the way the
+ * pinsetters of a busy center would, and waits until every lane has scored its game.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class LaneManagerBenchmark {
+    private static final int numberOfLanes = 256;
+    private static final int rollsPerGame = 20;
+
+    @Param({"1", "8", "64"})
+    public int workerThreads;
+
+    private LaneManager laneManager;
+    private List<List<Boolean>>[] rolls;
+
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setUp() {
+        laneManager = new LaneManager(numberOfLanes, workerThreads);
+        int[][] games = GameMix.ALL_OPEN.games(42);
+        rolls = new List[numberOfLanes];
+        for (int lane = 0; lane < numberOfLanes; lane++) {
+            rolls[lane] = GameMix.toPins(games[lane % games.length]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        laneManager.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(numberOfLanes * rollsPerGame)
+    public boolean rolls() {
+        for (int lane = 1; lane <= numberOfLanes; lane++) {
+            laneManager.startGame(lane, Collections.singletonList("Bowler"));
+        }
+        for (int roll = 0; roll < rollsPerGame; roll++) {
+            for (int lane = 1; lane <= numberOfLanes; lane++) {
+                laneManager.addScore(lane, rolls[lane - 1].get(roll));
+            }
+        }
+        CompletableFuture<?>[] isGameOver = new CompletableFuture<?>[numberOfLanes];
+        for (int lane = 1; lane <= numberOfLanes; lane++) {
+            isGameOver[lane - 1] = laneManager.readLane(lane, GameController::isGameOver);
+        }
+        CompletableFuture.allOf(isGameOver).join();
+        return (Boolean) isGameOver[0].join();
+    }
+}
@@ -0,0 +1,86 @@
+package benchmark;
+
+import archive.ArchiveFilter;
+import archive.GameArchive;
+import archive.GameBitmap;
+import archive.PatternIndex;
+import model.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures pattern queries over a PatternIndex of a million archived games, with the same games as
+ * ArchiveScanBenchmark. One game in a thousand is perfect.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class PatternIndexBenchmark {
+    private static final int numberOfGames = 1 << 20;
+    private static final int numberOfLanes = 24;
+    private static final int numberOfBowlers = 500;
+
+    private Path directory;
+    private GameArchive archive;
+    private PatternIndex index;
+    private GameBitmap lastSeason;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("pattern-benchmark");
+        archive = GameArchive.open(directory);
+        int[][] rolls = GameMix.RANDOM.games(42);
+        int[][] strikes = GameMix.ALL_STRIKE.games(42);
+        for (int g = 0; g < numberOfGames; g++) {
+            Game game = new Game(Collections.singletonList("Bowler " + g % numberOfBowlers));
+            game.addScores(g % 1000 == 0 ? strikes[0] : rolls[g % rolls.length]);
+            archive.append(g % numberOfLanes + 1, g, game);
+        }
+        index = PatternIndex.build(archive);
+        lastSeason = index.matching(ArchiveFilter.all().between(numberOfGames - numberOfGames / 10, numberOfGames));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        archive.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public GameBitmap perfectThisSeason() {
+        return index.perfectGame().and(lastSeason);
+    }
+
+    @Benchmark
+    public GameBitmap fiveInARowThisSeason() {
+        return index.strikesInARow(5).and(lastSeason);
+    }
+
+    @Benchmark
+    public GameBitmap strikeOrSpareInTenthNotClean() {
+        return index.strikeInFrame(9).or(index.spareInFrame(9)).andNot(index.cleanGame());
+    }
+}
@@ -0,0 +1,127 @@
+package benchmark;
+
+import controller.LaneManager;
+import server.PinsetterProtocol;
+import server.PinsetterServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Connects one simulated pinsetter per lane to a PinsetterServer on the loopback address and has every pinsetter bowl
+ * all-open games as fast as the server acknowledges the rolls. Prints the rolls per second and the percentiles of the
+ * time from sending a roll to reading its acknowledgement.
+ *
+ * Not a JMH benchmark, since the point is thousands of concurrent connections rather than one method:
+ * mvn -Pbenchmark compile exec:exec -Dbenchmark.main=benchmark.PinsetterLoadGenerator -Djmh.args="1000 5"
+ * The arguments are the number of pinsetters (default 1000) and the number of games each bowls (default 5).
+ */
+public class PinsetterLoadGenerator {
+    private static final int rollsPerGame = 20;
+    // pins 1-3 with the first ball and pins 4-5 with the second, so every frame is open
+    private static final int firstBall = 0b00111;
+    private static final int secondBall = 0b11000;
+
+    public static void main(String[] args) throws Exception {
+        int numberOfPinsetters = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int gamesPerPinsetter = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int rollsPerPinsetter = gamesPerPinsetter * rollsPerGame;
+        long[][] latencies = new long[numberOfPinsetters][rollsPerPinsetter];
+        int[] rejected = new int[numberOfPinsetters];
+
+        try (LaneManager laneManager = new LaneManager(numberOfPinsetters, Runtime.getRuntime().availableProcessors());
+             PinsetterServer server = PinsetterServer.start(laneManager,
+                     new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+            CountDownLatch connected = new CountDownLatch(numberOfPinsetters);
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] pinsetters = new Thread[numberOfPinsetters];
+            for (int i = 0; i < numberOfPinsetters; i++) {
+                int lane = i + 1;
+                long[] laneLatencies = latencies[i];
+                pinsetters[i] = new Thread(null, () -> {
+                    try (SocketChannel channel = SocketChannel.open(address)) {
+                        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                        connected.countDown();
+                        start.await();
+                        rejected[lane - 1] = bowl(channel, laneManager, lane, gamesPerPinsetter, laneLatencies);
+                    } catch (IOException | InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }, "pinsetter-client-" + lane, 64 * 1024);
+                pinsetters[i].start();
+            }
+            connected.await();
+
+            long startTime = System.nanoTime();
+            start.countDown();
+            for (Thread pinsetter : pinsetters) {
+                pinsetter.join();
+            }
+            long elapsed = System.nanoTime() - startTime;
+
+            long[] all = new long[numberOfPinsetters * rollsPerPinsetter];
+            for (int i = 0; i < numberOfPinsetters; i++) {
+                System.arraycopy(latencies[i], 0, all, i * rollsPerPinsetter, rollsPerPinsetter);
+            }
+            Arrays.sort(all);
+            System.out.printf("%d pinsetters, %d rolls in %.2f s: %.0f rolls/s, %d rejected%n", numberOfPinsetters,
+                    all.length, elapsed / 1e9, all.length / (elapsed / 1e9), Arrays.stream(rejected).sum());
+            System.out.printf("roll to acknowledgement us: p50=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                    percentile(all, 0.5), percentile(all, 0.99), percentile(all, 0.999), all[all.length - 1] / 1e3);
+        }
+    }
+
+    /**
+     * Bowls the games on one lane, sending each roll once the previous one has been acknowledged
+     * @return the number of rolls that were rejected
+     */
+    private static int bowl(SocketChannel channel, LaneManager laneManager, int lane, int games, long[] latencies)
+            throws IOException {
+        ByteBuffer roll = ByteBuffer.allocateDirect(PinsetterProtocol.messageSize);
+        ByteBuffer acknowledgement = ByteBuffer.allocateDirect(PinsetterProtocol.messageSize);
+        int rejected = 0;
+        int sequence = 0;
+        for (int game = 0; game < games; game++) {
+            // goes through the lane's mailbox ahead of the rolls sent below
+            laneManager.startGame(lane, Collections.singletonList("Bowler" + lane));
+            for (int ball = 0; ball < rollsPerGame; ball++) {
+                roll.clear();
+                PinsetterProtocol.putRoll(roll, lane, ball % 2 == 0 ? firstBall : secondBall, sequence);
+                roll.flip();
+                long sent = System.nanoTime();
+                while (roll.hasRemaining()) {
+                    channel.write(roll);
+                }
+                acknowledgement.clear();
+                while (acknowledgement.hasRemaining()) {
+                    if (channel.read(acknowledgement) < 0) {
+                        throw new IOException("Server closed the connection");
+                    }
+                }
+                latencies[sequence] = System.nanoTime() - sent;
+                if (acknowledgement.getInt(0) != sequence) {
+                    throw new IOException("Acknowledgement for roll " + acknowledgement.getInt(0) + " instead of "
+                            + sequence);
+                }
+                if (acknowledgement.get(6) != PinsetterProtocol.scored) {
+                    rejected++;
+                }
+                sequence++;
+            }
+        }
+        return rejected;
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e3;
+    }
+}
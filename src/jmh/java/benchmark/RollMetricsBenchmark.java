@@ -0,0 +1,76 @@
+package benchmark;
+
+import controller.GameController;
+import metrics.RollMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what RollMetrics adds to a roll through GameController, with metrics stopped, started with the default
+ * phase sampling, and started with the phases of every roll timed
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class RollMetricsBenchmark {
+    @Param({"off", "sampled", "everyRoll"})
+    public String metrics;
+
+    private int[][] pinMasks;
+    private int gameIndex;
+    private int rollIndex;
+    private GameController gameController;
+
+    @Setup
+    public void setUp() {
+        int[][] rolls = GameMix.RANDOM.games(42);
+        pinMasks = new int[rolls.length][];
+        for (int g = 0; g < rolls.length; g++) {
+            pinMasks[g] = GameMix.toPinMasks(rolls[g]);
+        }
+        if (!metrics.equals("off")) {
+            RollMetrics.start();
+            RollMetrics.setSampleRate(metrics.equals("everyRoll") ? 1 : 16);
+        }
+        gameController = newGameController();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RollMetrics.stop();
+        RollMetrics.setSampleRate(16);
+    }
+
+    @Benchmark
+    public GameController addPinMask() {
+        int[] masks = pinMasks[gameIndex];
+        gameController.addPinMask(masks[rollIndex++]);
+        if (rollIndex == masks.length) {
+            rollIndex = 0;
+            gameIndex = (gameIndex + 1) % pinMasks.length;
+            gameController = newGameController();
+        }
+        return gameController;
+    }
+
+    private static GameController newGameController() {
+        return new GameController(new ArrayList<>(Collections.singletonList("Bowler")));
+    }
+}
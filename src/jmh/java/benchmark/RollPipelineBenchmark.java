@@ -0,0 +1,205 @@
+package benchmark;
+
+import controller.GameController;
+import controller.RollPipeline;
+import controller.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the ring buffer of RollPipeline with each of its wait strategies against the same center built on plain
+ * BlockingQueues, one per consumer, with a new object for every roll. burst plays one all-open game on every lane at
+ * once and reports rolls per second; roll sends a single roll and waits until it is scored, and reports the latency
+ * distribution.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class RollPipelineBenchmark {
+    private static final int numberOfLanes = 256;
+    private static final int numberOfConsumers = 2;
+    private static final int bufferSize = 1024;
+    private static final int rollsPerGame = 20;
+    // pins 1-3 with the first ball and pins 4-6 with the second, so every frame is open
+    private static final int firstBall = 0b000111;
+    private static final int secondBall = 0b111000;
+
+    @Param({"BUSY_SPIN", "YIELD", "PARK", "BLOCKING_QUEUE"})
+    public String center;
+
+    private Center target;
+    private int rollsOnLaneOne;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (center.equals("BLOCKING_QUEUE")) {
+            target = new BlockingQueueCenter(numberOfLanes, numberOfConsumers, bufferSize);
+        } else {
+            target = new PipelineCenter(new RollPipeline(numberOfLanes, numberOfConsumers, bufferSize,
+                    WaitStrategy.valueOf(center)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        target.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(numberOfLanes * rollsPerGame)
+    public void burst() throws InterruptedException {
+        for (int lane = 1; lane <= numberOfLanes; lane++) {
+            target.startGame(lane);
+        }
+        for (int roll = 0; roll < rollsPerGame; roll++) {
+            int pinMask = roll % 2 == 0 ? firstBall : secondBall;
+            for (int lane = 1; lane <= numberOfLanes; lane++) {
+                target.addPinMask(lane, pinMask);
+            }
+        }
+        target.awaitProcessed();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void roll() throws InterruptedException {
+        if (rollsOnLaneOne % rollsPerGame == 0) {
+            target.startGame(1);
+        }
+        target.addPinMask(1, rollsOnLaneOne % 2 == 0 ? firstBall : secondBall);
+        rollsOnLaneOne++;
+        target.awaitProcessed();
+    }
+
+    private interface Center {
+        void startGame(int laneNumber) throws InterruptedException;
+
+        void addPinMask(int laneNumber, int pinMask) throws InterruptedException;
+
+        void awaitProcessed();
+
+        void close();
+    }
+
+    private static class PipelineCenter implements Center {
+        private static final List<String> names = Collections.singletonList("Bowler");
+        private final RollPipeline pipeline;
+
+        PipelineCenter(RollPipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public void startGame(int laneNumber) {
+            pipeline.startGame(laneNumber, names);
+        }
+
+        @Override
+        public void addPinMask(int laneNumber, int pinMask) {
+            pipeline.addPinMask(laneNumber, pinMask);
+        }
+
+        @Override
+        public void awaitProcessed() {
+            pipeline.awaitProcessed();
+        }
+
+        @Override
+        public void close() {
+            pipeline.close();
+        }
+    }
+
+    /**
+     * The baseline: each consumer takes roll objects from a bounded queue of its own and applies them to its lanes
+     */
+    private static class BlockingQueueCenter implements Center {
+        private final List<BlockingQueue<int[]>> queues = new ArrayList<>();
+        private final List<Thread> consumers = new ArrayList<>();
+        private final GameController[] games;
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+
+        BlockingQueueCenter(int numberOfLanes, int numberOfConsumers, int capacity) {
+            games = new GameController[numberOfLanes];
+            for (int i = 0; i < numberOfConsumers; i++) {
+                BlockingQueue<int[]> queue = new ArrayBlockingQueue<>(capacity);
+                queues.add(queue);
+                Thread consumer = new Thread(() -> consume(queue), "queue-consumer-" + queues.size());
+                consumer.setDaemon(true);
+                consumers.add(consumer);
+                consumer.start();
+            }
+        }
+
+        @Override
+        public void startGame(int laneNumber) throws InterruptedException {
+            addPinMask(laneNumber, -1);
+        }
+
+        @Override
+        public void addPinMask(int laneNumber, int pinMask) throws InterruptedException {
+            sent.incrementAndGet();
+            queues.get((laneNumber - 1) % queues.size()).put(new int[]{laneNumber, pinMask});
+        }
+
+        @Override
+        public void awaitProcessed() {
+            long target = sent.get();
+            while (processed.get() < target) {
+                Thread.onSpinWait();
+            }
+        }
+
+        @Override
+        public void close() {
+            for (Thread consumer : consumers) {
+                consumer.interrupt();
+            }
+        }
+
+        private void consume(BlockingQueue<int[]> queue) {
+            try {
+                while (true) {
+                    int[] roll = queue.take();
+                    try {
+                        if (roll[1] == -1) {
+                            games[roll[0] - 1] = new GameController(new ArrayList<>(Collections.singletonList("Bowler")));
+                        } else {
+                            games[roll[0] - 1].addPinMask(roll[1]);
+                        }
+                    } catch (RuntimeException e) {
+                        // rejected rolls are ignored like in a RollPipeline without a rejection handler
+                    }
+                    processed.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                // closed
+            }
+        }
+    }
+}
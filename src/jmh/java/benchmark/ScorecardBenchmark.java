@@ -0,0 +1,79 @@
+package benchmark;
+
+import model.Scorecard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding a single roll to a Scorecard and rescoring a complete Scorecard from scratch.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class ScorecardBenchmark {
+    @Param
+    public GameMix mix;
+
+    private int[][] games;
+    private int gameIndex;
+    private int rollIndex;
+    private Scorecard scorecard;
+    private Scorecard[] completeScorecards;
+
+    @Setup
+    public void setUp() {
+        games = mix.games(42);
+        scorecard = new Scorecard();
+        completeScorecards = new Scorecard[games.length];
+        for (int g = 0; g < games.length; g++) {
+            completeScorecards[g] = new Scorecard();
+            for (int roll : games[g]) {
+                completeScorecards[g].addScoreToScorecard(roll);
+            }
+        }
+    }
+
+    /**
+     * Adds the next roll of the current game, starting a new scorecard once a game is finished
+     */
+    @Benchmark
+    public Scorecard addScoreToScorecard() {
+        int[] rolls = games[gameIndex];
+        scorecard.addScoreToScorecard(rolls[rollIndex++]);
+        if (rollIndex == rolls.length) {
+            rollIndex = 0;
+            gameIndex = (gameIndex + 1) % games.length;
+            scorecard = new Scorecard();
+        }
+        return scorecard;
+    }
+
+    /**
+     * Adds the next roll like addScoreToScorecard() and then reads what the overhead display shows after every roll
+     */
+    @Benchmark
+    public int addScoreAndRefreshDisplay() {
+        Scorecard current = addScoreToScorecard();
+        return current.getTotalScore() + current.getMaxPossibleScore() + current.getProjectedScore();
+    }
+
+    @Benchmark
+    public int calculateScore() {
+        gameIndex = (gameIndex + 1) % completeScorecards.length;
+        return completeScorecards[gameIndex].calculateScore();
+    }
+}
@@ -0,0 +1,85 @@
+package tournament;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures re-ranking the qualifying standings of a tournament and publishing them, as the tournament does after every
+ * frame and game. gameOver moves the four entrants of one game, squad moves an eighth of the field at once, which
+ * takes the parallel sort. It is in the tournament package because the ranking is not public.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class RankingBenchmark {
+    private static final int bowlersPerLane = 4;
+
+    @Param({"1000", "10000"})
+    public int numberOfEntrants;
+
+    private final Random random = new Random(42);
+    private Ranking ranking;
+    private List<String> names;
+    private int[] pinfalls;
+    private int[] gamesBowled;
+    private int[] gameEntrants;
+    private int[] gamePinfalls;
+    private int[] squadEntrants;
+    private int[] squadPinfalls;
+    private long version;
+
+    @Setup
+    public void setUp() {
+        ranking = new Ranking(numberOfEntrants);
+        names = new ArrayList<>();
+        pinfalls = new int[numberOfEntrants];
+        gamesBowled = new int[numberOfEntrants];
+        for (int entrant = 0; entrant < numberOfEntrants; entrant++) {
+            names.add("Bowler " + entrant);
+        }
+        gameEntrants = new int[bowlersPerLane];
+        gamePinfalls = new int[bowlersPerLane];
+        squadEntrants = new int[numberOfEntrants / 8 + 1];
+        squadPinfalls = new int[squadEntrants.length];
+    }
+
+    @Benchmark
+    public Standings gameOver() {
+        int first = random.nextInt(numberOfEntrants - bowlersPerLane);
+        return update(first, gameEntrants, gamePinfalls);
+    }
+
+    @Benchmark
+    public Standings squad() {
+        int first = random.nextInt(numberOfEntrants - squadEntrants.length);
+        return update(first, squadEntrants, squadPinfalls);
+    }
+
+    private Standings update(int first, int[] entrants, int[] newPinfalls) {
+        for (int i = 0; i < entrants.length; i++) {
+            entrants[i] = first + i;
+            // keeps the pinfall in the range of a series so that entrants move around the whole field
+            pinfalls[first + i] = random.nextInt(8 * 300);
+            newPinfalls[i] = pinfalls[first + i];
+        }
+        ranking.update(entrants, newPinfalls, entrants.length);
+        return new Standings(++version, names, ranking, gamesBowled);
+    }
+}
@@ -0,0 +1,88 @@
+package archive;
+
+/**
+ * Picks the archived games a scan looks at. A filter is immutable and each method returns a narrower copy, so a
+ * filter can be kept and narrowed again for another query.
+ *
+ * Usage example:
+ * ArchiveFilter season = ArchiveFilter.all().between(seasonStart, seasonEnd);
+ * long[] games = archive.find(season.onLane(12).withScoreAtLeast(250));
+ */
+public final class ArchiveFilter {
+    static final int anyLane = -1;
+    private static final ArchiveFilter all = new ArchiveFilter(anyLane, 0, 300, Long.MIN_VALUE, Long.MAX_VALUE, null);
+    private final int lane;
+    private final int minScore;
+    private final int maxScore;
+    private final long fromTimestamp;
+    private final long toTimestamp;
+    private final String bowler;
+
+    private ArchiveFilter(int lane, int minScore, int maxScore, long fromTimestamp, long toTimestamp, String bowler) {
+        this.lane = lane;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.fromTimestamp = fromTimestamp;
+        this.toTimestamp = toTimestamp;
+        this.bowler = bowler;
+    }
+
+    /**
+     * @return a filter that matches every game
+     */
+    public static ArchiveFilter all() {
+        return all;
+    }
+
+    public ArchiveFilter onLane(int lane) {
+        return new ArchiveFilter(lane, minScore, maxScore, fromTimestamp, toTimestamp, bowler);
+    }
+
+    public ArchiveFilter withScoreAtLeast(int minScore) {
+        return new ArchiveFilter(lane, minScore, maxScore, fromTimestamp, toTimestamp, bowler);
+    }
+
+    public ArchiveFilter withScoreAtMost(int maxScore) {
+        return new ArchiveFilter(lane, minScore, maxScore, fromTimestamp, toTimestamp, bowler);
+    }
+
+    /**
+     * @param fromTimestamp the earliest time a game finished, in milliseconds since the epoch
+     * @param toTimestamp the time that games must have finished before, in milliseconds since the epoch
+     * @return the narrower filter
+     */
+    public ArchiveFilter between(long fromTimestamp, long toTimestamp) {
+        return new ArchiveFilter(lane, minScore, maxScore, fromTimestamp, toTimestamp, bowler);
+    }
+
+    public ArchiveFilter byBowler(String bowler) {
+        return new ArchiveFilter(lane, minScore, maxScore, fromTimestamp, toTimestamp, bowler);
+    }
+
+    int getLane() {
+        return lane;
+    }
+
+    int getMinScore() {
+        return minScore;
+    }
+
+    int getMaxScore() {
+        return maxScore;
+    }
+
+    long getFromTimestamp() {
+        return fromTimestamp;
+    }
+
+    long getToTimestamp() {
+        return toTimestamp;
+    }
+
+    /**
+     * @return the name of the bowler, or null for any bowler
+     */
+    String getBowler() {
+        return bowler;
+    }
+}
@@ -0,0 +1,214 @@
+package archive;
+
+import model.ErrorMessages;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory mapped file of a GameArchive holding up to capacity archived games, one per bowler per game. The file is
+ * laid out by column rather than by game, so a scan that only looks at the lane and the score reads only those
+ * columns. Every column starts on an 8 byte boundary.
+ *
+ * HEADER (64 bytes): magic at 0, version at 8, capacity at 12, number of games at 16, first timestamp at 24, last
+ *                    timestamp at 32
+ * COLUMNS:           timestamp (8 bytes), bowler id (4), lane (2), total score (2), a column of running score for each
+ *                    of the ten frames (2 each), number of rolls (1), rolls (4 bits per roll, 11 bytes), pin masks (2
+ *                    bytes per roll, 42 bytes, with bit 15 set if the roll has a pin mask)
+ *
+ * The number of games is written after the columns of a game, so a game cut short by a crash is not read back.
+ */
+class ArchiveSegment {
+    static final long magic = 0x424f574c41524348L; // "BOWLARCH"
+    static final int version = 2;
+    static final int framesPerGame = 10;
+    static final int maxRolls = 21;
+    private static final int rollBytes = (maxRolls + 1) / 2;
+    private static final int pinMaskBytes = maxRolls * Short.BYTES;
+    private static final int pinMaskPresent = 1 << 15;
+    private static final int headerSize = 64;
+    private static final int magicOffset = 0;
+    private static final int versionOffset = 8;
+    private static final int capacityOffset = 12;
+    private static final int numberOfGamesOffset = 16;
+    private static final int firstTimestampOffset = 24;
+    private static final int lastTimestampOffset = 32;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int timestamps;
+    private final int bowlers;
+    private final int lanes;
+    private final int totalScores;
+    private final int frameScores;
+    private final int rollCounts;
+    private final int rolls;
+    private final int pinMasks;
+    // only written by the archive while it holds its lock, the number of games readers may see is kept by the archive
+    private int numberOfGames;
+
+    private ArchiveSegment(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.timestamps = headerSize;
+        this.bowlers = timestamps + capacity * Long.BYTES;
+        this.lanes = bowlers + capacity * Integer.BYTES;
+        this.totalScores = lanes + capacity * Short.BYTES;
+        this.frameScores = totalScores + capacity * Short.BYTES;
+        this.rollCounts = frameScores + framesPerGame * capacity * Short.BYTES;
+        this.rolls = rollCounts + align(capacity);
+        this.pinMasks = rolls + align(capacity * rollBytes);
+        this.numberOfGames = buffer.getInt(numberOfGamesOffset);
+    }
+
+    /**
+     * Maps a segment file, creating it if it does not exist
+     * @param path the segment file
+     * @param capacity the number of games a segment holds, a multiple of 8
+     * @return the segment
+     * @throws IOException if the file cannot be read or written
+     * @throws RuntimeException if the file is not a segment with the same capacity
+     */
+    static ArchiveSegment open(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean isNew = channel.size() == 0;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size(capacity));
+            if (isNew) {
+                buffer.putLong(magicOffset, magic);
+                buffer.putInt(versionOffset, version);
+                buffer.putInt(capacityOffset, capacity);
+                buffer.putLong(firstTimestampOffset, Long.MAX_VALUE);
+                buffer.putLong(lastTimestampOffset, Long.MIN_VALUE);
+            } else if (buffer.getLong(magicOffset) != magic || buffer.getInt(versionOffset) != version
+                    || buffer.getInt(capacityOffset) != capacity) {
+                throw new RuntimeException(String.format(ErrorMessages.notAnArchiveSegment, path));
+            }
+            return new ArchiveSegment(channel, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static long size(int capacity) {
+        int rowSize = Long.BYTES + Integer.BYTES + Short.BYTES + Short.BYTES + framesPerGame * Short.BYTES;
+        return headerSize + (long) capacity * rowSize + align(capacity) + align(capacity * rollBytes)
+                + (long) capacity * pinMaskBytes;
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    int getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    boolean isFull() {
+        return numberOfGames == capacity;
+    }
+
+    /**
+     * @return the earliest timestamp of the games in the segment, or Long.MAX_VALUE if it has none
+     */
+    long getFirstTimestamp() {
+        return buffer.getLong(firstTimestampOffset);
+    }
+
+    /**
+     * @return the latest timestamp of the games in the segment, or Long.MIN_VALUE if it has none
+     */
+    long getLastTimestamp() {
+        return buffer.getLong(lastTimestampOffset);
+    }
+
+    /**
+     * Writes a game after the last game of the segment, which must not be full
+     * @param timestamp when the game was finished
+     * @param bowler the id of the bowler
+     * @param lane the lane it was bowled on
+     * @param frameScores the running score of each of the ten frames
+     * @param pins the pins knocked down by each roll
+     * @param pinMasks the pin mask of each roll, or -1 if the roll has none
+     * @param numberOfRolls the number of rolls
+     */
+    void append(long timestamp, int bowler, int lane, int[] frameScores, int[] pins, int[] pinMasks,
+                int numberOfRolls) {
+        int game = numberOfGames;
+        buffer.putLong(timestamps + game * Long.BYTES, timestamp);
+        buffer.putInt(bowlers + game * Integer.BYTES, bowler);
+        buffer.putShort(lanes + game * Short.BYTES, (short) lane);
+        buffer.putShort(totalScores + game * Short.BYTES, (short) frameScores[framesPerGame - 1]);
+        for (int frame = 0; frame < framesPerGame; frame++) {
+            buffer.putShort(this.frameScores + (frame * capacity + game) * Short.BYTES, (short) frameScores[frame]);
+        }
+        buffer.put(rollCounts + game, (byte) numberOfRolls);
+        int rollStart = rolls + game * rollBytes;
+        for (int b = 0; b < rollBytes; b++) {
+            int low = 2 * b < numberOfRolls ? pins[2 * b] : 0;
+            int high = 2 * b + 1 < numberOfRolls ? pins[2 * b + 1] : 0;
+            buffer.put(rollStart + b, (byte) (high << 4 | low));
+        }
+        int pinMaskStart = this.pinMasks + game * pinMaskBytes;
+        for (int roll = 0; roll < maxRolls; roll++) {
+            int pinMask = roll < numberOfRolls && pinMasks[roll] != -1 ? pinMasks[roll] | pinMaskPresent : 0;
+            buffer.putShort(pinMaskStart + roll * Short.BYTES, (short) pinMask);
+        }
+        buffer.putLong(firstTimestampOffset, Math.min(timestamp, getFirstTimestamp()));
+        buffer.putLong(lastTimestampOffset, Math.max(timestamp, getLastTimestamp()));
+        numberOfGames = game + 1;
+        buffer.putInt(numberOfGamesOffset, numberOfGames);
+    }
+
+    long getTimestamp(int game) {
+        return buffer.getLong(timestamps + game * Long.BYTES);
+    }
+
+    int getBowler(int game) {
+        return buffer.getInt(bowlers + game * Integer.BYTES);
+    }
+
+    int getLane(int game) {
+        return buffer.getShort(lanes + game * Short.BYTES);
+    }
+
+    int getTotalScore(int game) {
+        return buffer.getShort(totalScores + game * Short.BYTES);
+    }
+
+    int getFrameScore(int game, int frameIndex) {
+        return buffer.getShort(frameScores + (frameIndex * capacity + game) * Short.BYTES);
+    }
+
+    int getNumberOfRolls(int game) {
+        return buffer.get(rollCounts + game);
+    }
+
+    int getRoll(int game, int roll) {
+        int packed = buffer.get(rolls + game * rollBytes + roll / 2);
+        return (roll % 2 == 0 ? packed : packed >>> 4) & 0xF;
+    }
+
+    /**
+     * @return the pin mask of the roll, or -1 if the roll was archived without one
+     */
+    int getPinMask(int game, int roll) {
+        int pinMask = buffer.getShort(pinMasks + game * pinMaskBytes + roll * Short.BYTES) & 0xFFFF;
+        return (pinMask & pinMaskPresent) == 0 ? -1 : pinMask & ~pinMaskPresent;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,406 @@
+package archive;
+
+import model.ErrorMessages;
+import model.Game;
+import model.GameListener;
+import model.Player;
+import model.PlayerView;
+import model.ScorecardView;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An archive of finished games kept in a directory of memory mapped segment files, see ArchiveSegment. Each bowler's
+ * game is one archived game with its own id, and the games are stored by column, so a scan only reads the columns it
+ * needs straight from the mapped files and never builds a Game or a Scorecard. The archive keeps nothing on the heap
+ * per game, only the names of the bowlers, so its heap use does not grow with the number of games.
+ *
+ * Games are appended by one thread at a time and can be scanned from any thread while they are appended. A scan sees
+ * every game that was appended before it started.
+ *
+ * Usage example:
+ * GameArchive archive = GameArchive.open(Paths.get("archive"));
+ * archive.follow(12, game);
+ * long[] games = archive.find(ArchiveFilter.all().onLane(12).withScoreAtLeast(250));
+ * Map<String, Double> averages = archive.averageByBowler(ArchiveFilter.all().between(seasonStart, seasonEnd));
+ * archive.close();
+ */
+public class GameArchive implements AutoCloseable {
+    private static final int defaultSegmentCapacity = 1 << 16;
+    private static final String bowlersFileName = "bowlers";
+    private static final String segmentFileFormat = "segment-%08d";
+    private final Path directory;
+    private final int segmentCapacity;
+    private final DataOutputStream bowlersFile;
+    private final Map<String, Integer> bowlerIds = new HashMap<>();
+    // the names by bowler id, grown while the archive holds its lock. A new name is in place before any game of the
+    // bowler is counted in numberOfGames, so a scan reads numberOfGames first and the names after.
+    private volatile String[] bowlers;
+    private volatile ArchiveSegment[] segments;
+    // written after the columns of a game, so a scan that reads it sees every column of the games before it
+    private volatile long numberOfGames;
+
+    private GameArchive(Path directory, int segmentCapacity, DataOutputStream bowlersFile) {
+        this.directory = directory;
+        this.segmentCapacity = segmentCapacity;
+        this.bowlersFile = bowlersFile;
+    }
+
+    /**
+     * Opens an archive, creating the directory if it does not exist
+     * @param directory the directory of the archive
+     * @return the opened archive
+     * @throws IOException if the files cannot be read or written
+     * @throws RuntimeException if a file in the directory is not a segment of the archive
+     */
+    public static GameArchive open(Path directory) throws IOException {
+        return open(directory, defaultSegmentCapacity);
+    }
+
+    /**
+     * Opens an archive whose segments hold segmentCapacity games, a multiple of 8
+     */
+    static GameArchive open(Path directory, int segmentCapacity) throws IOException {
+        Files.createDirectories(directory);
+        Path bowlersPath = directory.resolve(bowlersFileName);
+        List<String> names = new ArrayList<>();
+        if (Files.exists(bowlersPath)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(bowlersPath)))) {
+                while (true) {
+                    names.add(in.readUTF());
+                }
+            } catch (EOFException e) {
+                // every name has been read
+            }
+        }
+        GameArchive archive = new GameArchive(directory, segmentCapacity, new DataOutputStream(
+                Files.newOutputStream(bowlersPath, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+        for (String name : names) {
+            archive.bowlerIds.put(name, archive.bowlerIds.size());
+        }
+        archive.bowlers = names.toArray(new String[Math.max(16, names.size())]);
+        List<ArchiveSegment> opened = new ArrayList<>();
+        try {
+            for (int index = 0; Files.exists(archive.segmentPath(index)); index++) {
+                opened.add(ArchiveSegment.open(archive.segmentPath(index), segmentCapacity));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (ArchiveSegment segment : opened) {
+                segment.close();
+            }
+            archive.bowlersFile.close();
+            throw e;
+        }
+        archive.segments = opened.toArray(new ArchiveSegment[0]);
+        long count = 0;
+        for (ArchiveSegment segment : archive.segments) {
+            count += segment.getNumberOfGames();
+        }
+        archive.numberOfGames = count;
+        return archive;
+    }
+
+    /**
+     * @return the number of archived games, one for each bowler of each game
+     */
+    public long getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    /**
+     * Archives every bowler's game of a game that is over
+     * @param lane the lane the game was bowled on
+     * @param timestamp when the game finished, in milliseconds since the epoch
+     * @param game the game
+     * @throws RuntimeException if the game is not over
+     */
+    public synchronized void append(int lane, long timestamp, Game game) throws RuntimeException {
+        if (!game.isGameOver()) {
+            throw new RuntimeException(ErrorMessages.cannotArchiveUnfinishedGame);
+        }
+        int[] frameScores = new int[ArchiveSegment.framesPerGame];
+        int[] pins = new int[ArchiveSegment.maxRolls];
+        int[] pinMasks = new int[ArchiveSegment.maxRolls];
+        List<PlayerView> players = game.getView().getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            Player player = game.getPlayers().get(i);
+            ScorecardView scorecard = players.get(i).getScorecard();
+            for (int frame = 0; frame < frameScores.length; frame++) {
+                frameScores[frame] = scorecard.getFrameScore(frame).get();
+            }
+            int numberOfRolls = player.getScorecard().getRolls(pins, pinMasks);
+            ArchiveSegment segment = this.segmentForAppend();
+            segment.append(timestamp, this.getBowlerId(player.getName()), lane, frameScores, pins, pinMasks,
+                    numberOfRolls);
+            numberOfGames++;
+        }
+    }
+
+    /**
+     * Archives a game when it is over
+     * @param lane the lane the game is bowled on
+     * @param game the game, which is archived on the thread that adds its last roll
+     */
+    public void follow(int lane, Game game) {
+        game.addGameListener(new GameListener() {
+            @Override
+            public void rollAccepted(Game game, int playerIndex, int frameIndex, int ball, int pinCount, int pinMask) {
+            }
+
+            @Override
+            public void gameOver(Game game) {
+                append(lane, System.currentTimeMillis(), game);
+            }
+        });
+    }
+
+    /**
+     * @param filter the games to count
+     * @return the number of archived games that match the filter
+     */
+    public long count(ArchiveFilter filter) {
+        long[] matches = new long[1];
+        this.scan(filter, numberOfGames, (segment, game, gameId) -> matches[0]++);
+        return matches[0];
+    }
+
+    /**
+     * @param filter the games to find
+     * @return the ids of the archived games that match the filter, oldest first
+     */
+    public long[] find(ArchiveFilter filter) {
+        long[][] found = {new long[16]};
+        int[] size = new int[1];
+        this.scan(filter, numberOfGames, (segment, game, gameId) -> {
+            if (size[0] == found[0].length) {
+                found[0] = Arrays.copyOf(found[0], size[0] * 2);
+            }
+            found[0][size[0]++] = gameId;
+        });
+        return Arrays.copyOf(found[0], size[0]);
+    }
+
+    /**
+     * @param filter the games to average, for example the games of a season
+     * @return the average score of each bowler who has a game that matches the filter, in the order they were first
+     * archived
+     */
+    public Map<String, Double> averageByBowler(ArchiveFilter filter) {
+        long count = numberOfGames;
+        String[] names = bowlers;
+        long[] pinfall = new long[names.length];
+        int[] games = new int[names.length];
+        this.scan(filter, count, (segment, game, gameId) -> {
+            int bowler = segment.getBowler(game);
+            pinfall[bowler] += segment.getTotalScore(game);
+            games[bowler]++;
+        });
+        Map<String, Double> averages = new LinkedHashMap<>();
+        for (int bowler = 0; bowler < names.length; bowler++) {
+            if (games[bowler] > 0) {
+                averages.put(names[bowler], (double) pinfall[bowler] / games[bowler]);
+            }
+        }
+        return averages;
+    }
+
+    public String getBowler(long gameId) {
+        return bowlers[segmentOf(gameId).getBowler(gameOf(gameId))];
+    }
+
+    public int getLane(long gameId) {
+        return segmentOf(gameId).getLane(gameOf(gameId));
+    }
+
+    /**
+     * @return when the game finished, in milliseconds since the epoch
+     */
+    public long getTimestamp(long gameId) {
+        return segmentOf(gameId).getTimestamp(gameOf(gameId));
+    }
+
+    public int getTotalScore(long gameId) {
+        return segmentOf(gameId).getTotalScore(gameOf(gameId));
+    }
+
+    /**
+     * @param gameId the id of an archived game
+     * @param frameIndex the index of the frame
+     * @return the bowler's score up to and including the frame
+     */
+    public int getFrameScore(long gameId, int frameIndex) {
+        return segmentOf(gameId).getFrameScore(gameOf(gameId), frameIndex);
+    }
+
+    /**
+     * @param gameId the id of an archived game
+     * @param pins filled in with the pins knocked down by each roll, needs room for 21 rolls
+     * @return the number of rolls
+     */
+    public int getRolls(long gameId, int[] pins) {
+        ArchiveSegment segment = segmentOf(gameId);
+        int game = gameOf(gameId);
+        int numberOfRolls = segment.getNumberOfRolls(game);
+        for (int roll = 0; roll < numberOfRolls; roll++) {
+            pins[roll] = segment.getRoll(game, roll);
+        }
+        return numberOfRolls;
+    }
+
+    /**
+     * @param gameId the id of an archived game
+     * @param pinMasks filled in with the pins knocked down by each roll as a mask, or -1 for a roll that was added as
+     * a number of pins, needs room for 21 rolls
+     * @return the number of rolls
+     */
+    public int getPinMasks(long gameId, int[] pinMasks) {
+        ArchiveSegment segment = segmentOf(gameId);
+        int game = gameOf(gameId);
+        int numberOfRolls = segment.getNumberOfRolls(game);
+        for (int roll = 0; roll < numberOfRolls; roll++) {
+            pinMasks[roll] = segment.getPinMask(game, roll);
+        }
+        return numberOfRolls;
+    }
+
+    /**
+     * Forces every archived game to disk
+     */
+    public void sync() {
+        for (ArchiveSegment segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (ArchiveSegment segment : segments) {
+            segment.close();
+        }
+        bowlersFile.close();
+    }
+
+    /**
+     * Called for every game that a scan matches
+     */
+    private interface Visitor {
+        void visit(ArchiveSegment segment, int game, long gameId);
+    }
+
+    /**
+     * Goes through the first count games of the archive. A segment whose games all finished outside the
+     * filter's time range is skipped without reading its columns. Within a segment the cheapest checks come first.
+     */
+    private void scan(ArchiveFilter filter, long count, Visitor visitor) {
+        ArchiveSegment[] scanned = segments;
+        int bowler = -1;
+        if (filter.getBowler() != null) {
+            Integer id = this.findBowlerId(filter.getBowler());
+            if (id == null) {
+                return;
+            }
+            bowler = id;
+        }
+        int lane = filter.getLane();
+        int minScore = filter.getMinScore();
+        int maxScore = filter.getMaxScore();
+        long from = filter.getFromTimestamp();
+        long to = filter.getToTimestamp();
+        boolean isTimeFiltered = from != Long.MIN_VALUE || to != Long.MAX_VALUE;
+        for (int index = 0; index < scanned.length && (long) index * segmentCapacity < count; index++) {
+            ArchiveSegment segment = scanned[index];
+            int games = (int) Math.min(segmentCapacity, count - (long) index * segmentCapacity);
+            if (segment.getLastTimestamp() < from || segment.getFirstTimestamp() >= to) {
+                continue;
+            }
+            long firstGameId = (long) index * segmentCapacity;
+            for (int game = 0; game < games; game++) {
+                if (lane != ArchiveFilter.anyLane && segment.getLane(game) != lane) {
+                    continue;
+                }
+                int score = segment.getTotalScore(game);
+                if (score < minScore || score > maxScore) {
+                    continue;
+                }
+                if (bowler != -1 && segment.getBowler(game) != bowler) {
+                    continue;
+                }
+                if (isTimeFiltered) {
+                    long timestamp = segment.getTimestamp(game);
+                    if (timestamp < from || timestamp >= to) {
+                        continue;
+                    }
+                }
+                visitor.visit(segment, game, firstGameId + game);
+            }
+        }
+    }
+
+    private synchronized Integer findBowlerId(String name) {
+        return bowlerIds.get(name);
+    }
+
+    private int getBowlerId(String name) {
+        Integer id = bowlerIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        try {
+            bowlersFile.writeUTF(name);
+            bowlersFile.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        id = bowlerIds.size();
+        String[] names = bowlers;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, id * 2);
+        }
+        names[id] = name;
+        bowlers = names;
+        bowlerIds.put(name, id);
+        return id;
+    }
+
+    private ArchiveSegment segmentForAppend() {
+        ArchiveSegment[] current = segments;
+        if (current.length > 0 && !current[current.length - 1].isFull()) {
+            return current[current.length - 1];
+        }
+        try {
+            ArchiveSegment segment = ArchiveSegment.open(segmentPath(current.length), segmentCapacity);
+            ArchiveSegment[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = segment;
+            segments = grown;
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format(segmentFileFormat, index));
+    }
+
+    private ArchiveSegment segmentOf(long gameId) {
+        return segments[(int) (gameId / segmentCapacity)];
+    }
+
+    private int gameOf(long gameId) {
+        return (int) (gameId % segmentCapacity);
+    }
+}
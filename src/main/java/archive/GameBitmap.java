@@ -0,0 +1,308 @@
+package archive;
+
+import java.util.Arrays;
+
+/**
+ * A compressed set of archived game ids in the style of a roaring bitmap. The ids are split into chunks of 65536 by
+ * their high bits, which lines up with the segments of the archive, and each chunk is kept in whichever container is
+ * smaller: a sorted array of the low 16 bits while it holds up to 4096 ids, or a bitmap of 1024 words once it holds
+ * more. A rare pattern such as a perfect game costs a few bytes per game that has it, while a common one such as a
+ * strike in the first frame costs 8 KB per chunk.
+ *
+ * Combining two bitmaps works chunk by chunk on 64 games per word, so intersecting predicates over millions of games
+ * touches a few hundred kilobytes. A GameBitmap is immutable from outside the archive package.
+ *
+ * Usage example:
+ * GameBitmap converted = index.splitConverted(7, 10).and(index.matching(thisYear));
+ * for (long gameId : converted.toArray()) { ... }
+ */
+public final class GameBitmap {
+    private static final int chunkBits = 16;
+    private static final int lowMask = (1 << chunkBits) - 1;
+    private static final int bitmapWords = (1 << chunkBits) / Long.SIZE;
+    // the most ids an array container holds, which is where an array and a bitmap take the same space
+    private static final int arrayLimit = 4096;
+    private static final GameBitmap empty = new GameBitmap();
+    // the high bits of each chunk, in order, with the container of the chunk and the number of ids in it. A container
+    // is a char[] of sorted low bits or a long[] bitmap.
+    private int[] keys;
+    private Object[] containers;
+    private int[] cardinalities;
+    private int numberOfChunks;
+
+    GameBitmap() {
+        this(new int[4], new Object[4], new int[4], 0);
+    }
+
+    private GameBitmap(int[] keys, Object[] containers, int[] cardinalities, int numberOfChunks) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinalities = cardinalities;
+        this.numberOfChunks = numberOfChunks;
+    }
+
+    /**
+     * @return a bitmap with no games
+     */
+    public static GameBitmap empty() {
+        return empty;
+    }
+
+    /**
+     * @param gameIds the ids of archived games, in increasing order, for example from GameArchive.find()
+     * @return a bitmap of the games
+     */
+    public static GameBitmap of(long[] gameIds) {
+        GameBitmap bitmap = new GameBitmap();
+        for (long gameId : gameIds) {
+            bitmap.add((int) gameId);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Adds a game, which must have a higher id than every game already in the bitmap
+     * @param gameId the id of the game
+     */
+    void add(int gameId) {
+        int key = gameId >>> chunkBits;
+        if (numberOfChunks == 0 || keys[numberOfChunks - 1] != key) {
+            if (numberOfChunks == keys.length) {
+                keys = Arrays.copyOf(keys, numberOfChunks * 2);
+                containers = Arrays.copyOf(containers, numberOfChunks * 2);
+                cardinalities = Arrays.copyOf(cardinalities, numberOfChunks * 2);
+            }
+            keys[numberOfChunks] = key;
+            containers[numberOfChunks] = new char[8];
+            cardinalities[numberOfChunks++] = 0;
+        }
+        int chunk = numberOfChunks - 1;
+        int cardinality = cardinalities[chunk];
+        if (containers[chunk] instanceof char[]) {
+            char[] array = (char[]) containers[chunk];
+            if (cardinality == arrayLimit) {
+                long[] words = toWords(array, cardinality);
+                words[(gameId & lowMask) >>> 6] |= 1L << gameId;
+                containers[chunk] = words;
+            } else {
+                if (cardinality == array.length) {
+                    array = Arrays.copyOf(array, Math.min(arrayLimit, cardinality * 2));
+                    containers[chunk] = array;
+                }
+                array[cardinality] = (char) gameId;
+            }
+        } else {
+            ((long[]) containers[chunk])[(gameId & lowMask) >>> 6] |= 1L << gameId;
+        }
+        cardinalities[chunk] = cardinality + 1;
+    }
+
+    /**
+     * @return a copy that does not change when games are added to this bitmap. Only the last chunk can still change,
+     * so it is the only one copied.
+     */
+    GameBitmap snapshot() {
+        Object[] copied = Arrays.copyOf(containers, numberOfChunks);
+        if (numberOfChunks > 0) {
+            Object last = copied[numberOfChunks - 1];
+            copied[numberOfChunks - 1] = last instanceof char[] ? ((char[]) last).clone() : ((long[]) last).clone();
+        }
+        return new GameBitmap(Arrays.copyOf(keys, numberOfChunks), copied, Arrays.copyOf(cardinalities, numberOfChunks),
+                numberOfChunks);
+    }
+
+    /**
+     * @return the number of games in the bitmap
+     */
+    public long getCardinality() {
+        long cardinality = 0;
+        for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+            cardinality += cardinalities[chunk];
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return numberOfChunks == 0;
+    }
+
+    public boolean contains(long gameId) {
+        int chunk = Arrays.binarySearch(keys, 0, numberOfChunks, (int) (gameId >>> chunkBits));
+        if (chunk < 0) {
+            return false;
+        }
+        int low = (int) gameId & lowMask;
+        if (containers[chunk] instanceof char[]) {
+            return Arrays.binarySearch((char[]) containers[chunk], 0, cardinalities[chunk], (char) low) >= 0;
+        }
+        return (((long[]) containers[chunk])[low >>> 6] & 1L << low) != 0;
+    }
+
+    /**
+     * @return the ids of the games in the bitmap, in increasing order
+     */
+    public long[] toArray() {
+        long[] gameIds = new long[(int) getCardinality()];
+        int size = 0;
+        for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+            long high = (long) keys[chunk] << chunkBits;
+            if (containers[chunk] instanceof char[]) {
+                char[] array = (char[]) containers[chunk];
+                for (int i = 0; i < cardinalities[chunk]; i++) {
+                    gameIds[size++] = high | array[i];
+                }
+            } else {
+                long[] words = (long[]) containers[chunk];
+                for (int word = 0; word < bitmapWords; word++) {
+                    for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                        gameIds[size++] = high | (long) word << 6 | Long.numberOfTrailingZeros(bits);
+                    }
+                }
+            }
+        }
+        return gameIds;
+    }
+
+    /**
+     * @return the games that are in both bitmaps
+     */
+    public GameBitmap and(GameBitmap other) {
+        GameBitmap result = new GameBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < numberOfChunks && j < other.numberOfChunks) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.addChunk(keys[i], and(containers[i], cardinalities[i], other.containers[j],
+                        other.cardinalities[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the games that are in either bitmap
+     */
+    public GameBitmap or(GameBitmap other) {
+        GameBitmap result = new GameBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < numberOfChunks || j < other.numberOfChunks) {
+            if (j == other.numberOfChunks || i < numberOfChunks && keys[i] < other.keys[j]) {
+                result.addChunk(keys[i], words(containers[i], cardinalities[i]));
+                i++;
+            } else if (i == numberOfChunks || keys[i] > other.keys[j]) {
+                result.addChunk(other.keys[j], words(other.containers[j], other.cardinalities[j]));
+                j++;
+            } else {
+                long[] words = words(containers[i], cardinalities[i]).clone();
+                long[] otherWords = words(other.containers[j], other.cardinalities[j]);
+                for (int word = 0; word < bitmapWords; word++) {
+                    words[word] |= otherWords[word];
+                }
+                result.addChunk(keys[i], words);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the games that are in this bitmap but not in the other
+     */
+    public GameBitmap andNot(GameBitmap other) {
+        GameBitmap result = new GameBitmap();
+        int j = 0;
+        for (int i = 0; i < numberOfChunks; i++) {
+            while (j < other.numberOfChunks && other.keys[j] < keys[i]) {
+                j++;
+            }
+            long[] words = words(containers[i], cardinalities[i]);
+            if (j < other.numberOfChunks && other.keys[j] == keys[i]) {
+                words = words.clone();
+                long[] otherWords = words(other.containers[j], other.cardinalities[j]);
+                for (int word = 0; word < bitmapWords; word++) {
+                    words[word] &= ~otherWords[word];
+                }
+            }
+            result.addChunk(keys[i], words);
+        }
+        return result;
+    }
+
+    /**
+     * Intersects two containers. An array is filtered by the other container rather than made into a bitmap.
+     */
+    private static long[] and(Object container, int cardinality, Object otherContainer, int otherCardinality) {
+        if (otherContainer instanceof char[] && !(container instanceof char[])) {
+            return and(otherContainer, otherCardinality, container, cardinality);
+        }
+        long[] otherWords = words(otherContainer, otherCardinality);
+        long[] words = new long[bitmapWords];
+        if (container instanceof char[]) {
+            char[] array = (char[]) container;
+            for (int i = 0; i < cardinality; i++) {
+                words[array[i] >>> 6] |= otherWords[array[i] >>> 6] & 1L << array[i];
+            }
+        } else {
+            long[] thisWords = (long[]) container;
+            for (int word = 0; word < bitmapWords; word++) {
+                words[word] = thisWords[word] & otherWords[word];
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return the container as a bitmap, which must not be changed if the container already is one
+     */
+    private static long[] words(Object container, int cardinality) {
+        return container instanceof long[] ? (long[]) container : toWords((char[]) container, cardinality);
+    }
+
+    private static long[] toWords(char[] array, int cardinality) {
+        long[] words = new long[bitmapWords];
+        for (int i = 0; i < cardinality; i++) {
+            words[array[i] >>> 6] |= 1L << array[i];
+        }
+        return words;
+    }
+
+    /**
+     * Adds the result of combining a chunk, as an array if it is small enough and not at all if it is empty
+     */
+    private void addChunk(int key, long[] words) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        if (cardinality == 0) {
+            return;
+        }
+        Object container = words;
+        if (cardinality <= arrayLimit) {
+            char[] array = new char[cardinality];
+            int size = 0;
+            for (int word = 0; word < bitmapWords; word++) {
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    array[size++] = (char) (word << 6 | Long.numberOfTrailingZeros(bits));
+                }
+            }
+            container = array;
+        }
+        if (numberOfChunks == keys.length) {
+            keys = Arrays.copyOf(keys, numberOfChunks * 2);
+            containers = Arrays.copyOf(containers, numberOfChunks * 2);
+            cardinalities = Arrays.copyOf(cardinalities, numberOfChunks * 2);
+        }
+        keys[numberOfChunks] = key;
+        containers[numberOfChunks] = container;
+        cardinalities[numberOfChunks++] = cardinality;
+    }
+}
@@ -0,0 +1,304 @@
+package archive;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bitmaps of the archived games that match common questions about how a game was bowled, so that they can be answered
+ * by combining bitmaps instead of replaying rolls through a Scorecard. There is one bitmap for each of:
+ * + a strike or a spare in each frame
+ * + at least n strikes in a row, from 1 to 12, counting the balls of the tenth frame
+ * + a split left by any ball on a full rack, a split converted, and each split leave that was converted
+ * + a clean game, with no open frames, and a perfect game
+ * Splits need the pin masks of the rolls, so games archived from pin counts are never in the split bitmaps.
+ *
+ * The index is built from the rolls and pin masks in the archive and is brought up to date with update(), which only
+ * reads the games archived since the last update. Every bitmap it returns is a copy that later updates do not change.
+ *
+ * Usage example:
+ * PatternIndex index = PatternIndex.build(archive);
+ * GameBitmap perfectThisYear = index.perfectGame().and(index.matching(ArchiveFilter.all().between(yearStart, now)));
+ * GameBitmap longRuns = index.strikesInARow(5);
+ * GameBitmap sevenTen = index.splitConverted(7, 10);
+ */
+public class PatternIndex {
+    public static final int maxStrikesInARow = 12;
+    private static final int framesPerGame = 10;
+    private static final int maxPins = 10;
+    private static final int allPins = (1 << maxPins) - 1;
+    private static final int headPin = 1;
+    // the place of each pin on the deck: its row from the head pin back, and across in half pin spacings
+    private static final int[] pinRows = {0, 1, 1, 2, 2, 2, 3, 3, 3, 3};
+    private static final int[] pinColumns = {0, -1, 1, -2, 0, 2, -3, -1, 1, 3};
+    private static final boolean[] isSplit = new boolean[1 << maxPins];
+    private final GameArchive archive;
+    private final GameBitmap[] strikeInFrame = new GameBitmap[framesPerGame];
+    private final GameBitmap[] spareInFrame = new GameBitmap[framesPerGame];
+    // index n - 1 holds the games with at least n strikes in a row
+    private final GameBitmap[] strikesInARow = new GameBitmap[maxStrikesInARow];
+    private final GameBitmap splitLeft = new GameBitmap();
+    private final GameBitmap splitConverted = new GameBitmap();
+    private final Map<Integer, GameBitmap> convertedByLeave = new HashMap<>();
+    private final GameBitmap cleanGame = new GameBitmap();
+    private final GameBitmap perfectGame = new GameBitmap();
+    private final int[] pins = new int[ArchiveSegment.maxRolls];
+    private final int[] pinMasks = new int[ArchiveSegment.maxRolls];
+    // the split leaves converted in the game being indexed, one bit per leave, so a game converting the same leave in
+    // two frames is added to its bitmap once
+    private final long[] convertedLeaves = new long[(allPins + 1) / Long.SIZE];
+    private long numberOfGames;
+
+    static {
+        for (int leave = 0; leave <= allPins; leave++) {
+            isSplit[leave] = isSplitLeave(leave);
+        }
+    }
+
+    private PatternIndex(GameArchive archive) {
+        this.archive = archive;
+        for (int frame = 0; frame < framesPerGame; frame++) {
+            strikeInFrame[frame] = new GameBitmap();
+            spareInFrame[frame] = new GameBitmap();
+        }
+        for (int run = 0; run < maxStrikesInARow; run++) {
+            strikesInARow[run] = new GameBitmap();
+        }
+    }
+
+    /**
+     * Indexes every game in an archive
+     * @param archive the archive
+     * @return the index
+     */
+    public static PatternIndex build(GameArchive archive) {
+        PatternIndex index = new PatternIndex(archive);
+        index.update();
+        return index;
+    }
+
+    /**
+     * Indexes the games archived since the index was built or last updated
+     */
+    public synchronized void update() {
+        long archived = archive.getNumberOfGames();
+        for (; numberOfGames < archived; numberOfGames++) {
+            this.index((int) numberOfGames);
+        }
+    }
+
+    /**
+     * @return the number of archived games in the index
+     */
+    public synchronized long getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    /**
+     * @param frameIndex the index of the frame, from 0 to 9
+     * @return the games with a strike on the first ball of the frame
+     */
+    public synchronized GameBitmap strikeInFrame(int frameIndex) {
+        return strikeInFrame[frameIndex].snapshot();
+    }
+
+    /**
+     * @param frameIndex the index of the frame, from 0 to 9
+     * @return the games with a spare in the frame
+     */
+    public synchronized GameBitmap spareInFrame(int frameIndex) {
+        return spareInFrame[frameIndex].snapshot();
+    }
+
+    /**
+     * @param count the number of strikes
+     * @return the games with at least count strikes in a row, which is none if count is more than 12
+     */
+    public synchronized GameBitmap strikesInARow(int count) {
+        if (count > maxStrikesInARow) {
+            return GameBitmap.empty();
+        }
+        return strikesInARow[Math.max(count, 1) - 1].snapshot();
+    }
+
+    /**
+     * @return the games where a ball on a full rack left a split
+     */
+    public synchronized GameBitmap splitLeft() {
+        return splitLeft.snapshot();
+    }
+
+    /**
+     * @return the games where a split was knocked down with the next ball
+     */
+    public synchronized GameBitmap splitConverted() {
+        return splitConverted.snapshot();
+    }
+
+    /**
+     * @param leave the pins of the split, numbered from 1 to 10, for example 7 and 10
+     * @return the games where that split was left and then knocked down with the next ball
+     */
+    public synchronized GameBitmap splitConverted(int... leave) {
+        int leaveMask = 0;
+        for (int pin : leave) {
+            leaveMask |= 1 << (pin - 1);
+        }
+        GameBitmap converted = convertedByLeave.get(leaveMask);
+        return converted == null ? GameBitmap.empty() : converted.snapshot();
+    }
+
+    /**
+     * @return the games with a strike or a spare in every frame
+     */
+    public synchronized GameBitmap cleanGame() {
+        return cleanGame.snapshot();
+    }
+
+    /**
+     * @return the games with twelve strikes in a row
+     */
+    public synchronized GameBitmap perfectGame() {
+        return perfectGame.snapshot();
+    }
+
+    /**
+     * Scans the archive for the games that match a filter, so that a time range, a lane or a bowler can be combined
+     * with the patterns
+     * @param filter the games to find
+     * @return the games that match the filter
+     */
+    public GameBitmap matching(ArchiveFilter filter) {
+        return GameBitmap.of(archive.find(filter));
+    }
+
+    /**
+     * @param leave the pins left standing, bit 0 being the head pin
+     * @return true if the pins are a split
+     */
+    static boolean isSplit(int leave) {
+        return isSplit[leave & allPins];
+    }
+
+    /**
+     * A leave is a split when the head pin is down, at least two pins are standing, and either the standing pins are
+     * not all next to each other or a pin is down just in front of and between two pins standing side by side, such
+     * as the 5-6. A pin straight behind another, such as the 2-8, counts as next to it since no pin is down between.
+     */
+    private static boolean isSplitLeave(int leave) {
+        if ((leave & headPin) != 0 || Integer.bitCount(leave) < 2) {
+            return false;
+        }
+        for (int a = 0; a < maxPins; a++) {
+            for (int b = a + 1; b < maxPins; b++) {
+                boolean isSideBySide = pinRows[a] == pinRows[b] && pinColumns[b] - pinColumns[a] == 2;
+                if (isSideBySide && (leave & 1 << a) != 0 && (leave & 1 << b) != 0
+                        && (leave & 1 << pinAt(pinRows[a] - 1, pinColumns[a] + 1)) == 0) {
+                    return true;
+                }
+            }
+        }
+        int first = Integer.numberOfTrailingZeros(leave);
+        int reached = 1 << first;
+        for (int added = reached; added != 0; ) {
+            int next = reached;
+            for (int pin = 0; pin < maxPins; pin++) {
+                if ((added & 1 << pin) != 0) {
+                    next |= neighbours(pin) & leave;
+                }
+            }
+            added = next & ~reached;
+            reached = next;
+        }
+        return reached != leave;
+    }
+
+    private static int pinAt(int row, int column) {
+        for (int pin = 0; pin < maxPins; pin++) {
+            if (pinRows[pin] == row && pinColumns[pin] == column) {
+                return pin;
+            }
+        }
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * @return the pins beside, diagonally behind or in front of, and straight behind or in front of a pin
+     */
+    private static int neighbours(int pin) {
+        int neighbours = 0;
+        for (int other = 0; other < maxPins; other++) {
+            int rows = Math.abs(pinRows[other] - pinRows[pin]);
+            int columns = Math.abs(pinColumns[other] - pinColumns[pin]);
+            if (rows == 0 && columns == 2 || rows == 1 && columns == 1 || rows == 2 && columns == 0) {
+                neighbours |= 1 << other;
+            }
+        }
+        return neighbours;
+    }
+
+    /**
+     * Walks the balls of an archived game frame by frame and adds it to the bitmaps it belongs in
+     */
+    private void index(int gameId) {
+        int numberOfRolls = archive.getRolls(gameId, pins);
+        archive.getPinMasks(gameId, pinMasks);
+        int roll = 0;
+        int run = 0;
+        int longestRun = 0;
+        boolean isClean = true;
+        boolean isSplitLeft = false;
+        boolean isSplitConverted = false;
+        for (int frame = 0; frame < framesPerGame && roll < numberOfRolls; frame++) {
+            int ballsInFrame = frame < framesPerGame - 1 ? (pins[roll] == maxPins ? 1 : 2) : numberOfRolls - roll;
+            int standing = maxPins;
+            for (int ball = 0; ball < ballsInFrame; ball++) {
+                int pinCount = pins[roll + ball];
+                boolean isFullRack = standing == maxPins;
+                run = isFullRack && pinCount == maxPins ? run + 1 : 0;
+                longestRun = Math.max(longestRun, run);
+                int pinMask = pinMasks[roll + ball];
+                if (isFullRack && pinCount < maxPins && pinMask != -1 && isSplit(allPins & ~pinMask)) {
+                    isSplitLeft = true;
+                    if (ball + 1 < ballsInFrame && pinCount + pins[roll + ball + 1] == maxPins) {
+                        isSplitConverted = true;
+                        int leave = allPins & ~pinMask;
+                        convertedLeaves[leave >>> 6] |= 1L << leave;
+                    }
+                }
+                standing = pinCount == standing ? maxPins : standing - pinCount;
+            }
+            int first = pins[roll];
+            int second = ballsInFrame > 1 ? pins[roll + 1] : 0;
+            if (first == maxPins) {
+                strikeInFrame[frame].add(gameId);
+            } else if (first + second == maxPins) {
+                spareInFrame[frame].add(gameId);
+            } else {
+                isClean = false;
+            }
+            roll += ballsInFrame;
+        }
+        for (int count = 1; count <= longestRun; count++) {
+            strikesInARow[count - 1].add(gameId);
+        }
+        if (isSplitLeft) {
+            splitLeft.add(gameId);
+        }
+        if (isSplitConverted) {
+            splitConverted.add(gameId);
+            for (int word = 0; word < convertedLeaves.length; word++) {
+                for (long bits = convertedLeaves[word]; bits != 0; bits &= bits - 1) {
+                    int leave = word << 6 | Long.numberOfTrailingZeros(bits);
+                    convertedByLeave.computeIfAbsent(leave, l -> new GameBitmap()).add(gameId);
+                }
+                convertedLeaves[word] = 0;
+            }
+        }
+        if (isClean) {
+            cleanGame.add(gameId);
+        }
+        if (longestRun == maxStrikesInARow) {
+            perfectGame.add(gameId);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package controller;
 
+import metrics.LaneMetrics;
+import metrics.RollMetrics;
+import metrics.RollPhase;
 import model.Game;
+import model.GameEvent;
+import model.GameView;
 import model.Player;
+import model.RollError;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Flow;
 
 /**
  * GameController is the go-between for the view and the model. It is also
@@ -17,21 +24,129 @@ import java.util.List;
  *
  * List<Boolean> fivePins = Arrays.asList(true, true, true, true, true, false, false, false, false, false);
  * gameController.addScore(fivePins);
+ *
+ * gameController.addPinMask(0b0000011111);
  */
 public class GameController {
     private Game game;
+    private final LaneMetrics laneMetrics;
 
     public GameController(ArrayList<String> names) {
         this.game = new Game(names);
+        this.laneMetrics = null;
+    }
+
+    /**
+     * Takes over a game that is already running, for example one recovered from a RollJournal
+     * @param game the game to control
+     */
+    public GameController(Game game) {
+        this(game, null);
     }
 
+    /**
+     * Takes over a game bowled on a lane, counting its rolls in the lane's metrics
+     * @param game the game to control
+     * @param laneMetrics the metrics of the lane, or null to only count the rolls for the center
+     */
+    GameController(Game game, LaneMetrics laneMetrics) {
+        this.game = game;
+        this.laneMetrics = laneMetrics;
+    }
+
+    /**
+     * @return the live players of the game. These are changed as rolls are added, so a reader on another thread should
+     * use getView() instead
+     */
     public List<Player> getPlayers() {
         return this.game.getPlayers();
     }
 
+    /**
+     * @return the latest immutable view of the game, safe to read from any thread, see GameView
+     */
+    public GameView getView() {
+        return this.game.getView();
+    }
+
+    /**
+     * @return a publisher of the rolls, frame scores, turn changes and end of the game, see Game.getChanges()
+     */
+    public Flow.Publisher<GameEvent> getChanges() {
+        return this.game.getChanges();
+    }
+
     // true means pins are there, false is pins aren't there
     public void addScore(List<Boolean> pins) {
+        long start = RollMetrics.startTimer();
         this.game.addScore(pins);
+        this.rollAccepted(start);
+    }
+
+    /**
+     * Adds the pins knocked down by a ball, as a mask straight from the pinsetter. Bit 0 is the head pin (pin 1) and bit
+     * 9 is pin 10. Nothing is allocated on the way down to the scorecard.
+     * @param pinMask the pins that were knocked down by this ball
+     */
+    public void addPinMask(int pinMask) {
+        long start = RollMetrics.startTimer();
+        this.game.addPinMask(pinMask);
+        this.rollAccepted(start);
+    }
+
+    /**
+     * Adds the pins knocked down by a ball like addPinMask(), but returns a roll result instead of throwing when the
+     * ball is rejected
+     * @param pinMask the pins that were knocked down by this ball
+     * @return the roll result, see RollError
+     */
+    public long tryAddPinMask(int pinMask) {
+        long start = RollMetrics.startTimer();
+        long result = this.game.tryAddPinMask(pinMask);
+        if (RollError.isAccepted(result)) {
+            this.rollAccepted(start);
+        }
+        return result;
+    }
+
+    /**
+     * Records the end to end latency of a roll that was accepted and counts it for the lane
+     * @param start when the roll came in, from RollMetrics.startTimer(), or 0 if it was not timed
+     */
+    private void rollAccepted(long start) {
+        RollMetrics.record(RollPhase.END_TO_END, start);
+        if (laneMetrics != null) {
+            laneMetrics.rollAccepted();
+        }
+    }
+
+    /**
+     * Adds a batch of pin masks at once, for example when re-importing a game or recovering after a restart. Either
+     * the whole batch is added or, if any ball is rejected, none of it is.
+     * @param pinMasks the pins knocked down by each ball, see addPinMask()
+     */
+    public void addPinMasks(int[] pinMasks) {
+        this.game.addPinMasks(pinMasks);
+        this.rollsAccepted(pinMasks.length);
+    }
+
+    /**
+     * Adds a batch of pin counts at once. Either the whole batch is added or, if any ball is rejected, none of it is.
+     * @param scores the number of pins knocked down by each ball
+     */
+    public void addScores(int[] scores) {
+        this.game.addScores(scores);
+        this.rollsAccepted(scores.length);
+    }
+
+    /**
+     * Counts the rolls of a batch that was accepted for the lane
+     * @param count the number of rolls in the batch
+     */
+    private void rollsAccepted(int count) {
+        if (laneMetrics != null) {
+            laneMetrics.rollsAccepted(count);
+        }
     }
 
     public boolean isGameOver() { return this.game.isGameOver(); }
@@ -0,0 +1,178 @@
+package controller;
+
+import logging.EventLog;
+import logging.EventType;
+import metrics.RollMetrics;
+import model.ErrorMessages;
+import model.Game;
+import model.GameListener;
+import persistence.RollJournal;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A lane of the bowling center. Work for a lane is put in the lane's mailbox and run by a worker of the center one
+ * piece at a time, so only one thread ever touches the lane's game at once even though the game itself is not
+ * thread safe. A lane only holds on to a worker while it has work, so a small number of workers can serve any number
+ * of lanes.
+ */
+class Lane implements Runnable {
+    private static final int maxTasksPerRun = 256;
+    private final int laneNumber;
+    private final Executor workers;
+    private final BiConsumer<Integer, RuntimeException> rejectionHandler;
+    private final RollJournal journal;
+    private final Queue<Consumer<Lane>> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean isScheduled = new AtomicBoolean();
+    private volatile boolean isClosed;
+    // only read or written by the worker that is running the lane
+    private GameController gameController;
+    // the same game as gameController, for readers on other threads that only look at its view
+    private volatile Game game;
+
+    /**
+     * @param laneNumber the number of the lane
+     * @param workers runs the lane's work
+     * @param rejectionHandler called with the lane number and the exception when a piece of work fails
+     * @param journal where the games started on the lane are journaled, or null to not journal them
+     */
+    Lane(int laneNumber, Executor workers, BiConsumer<Integer, RuntimeException> rejectionHandler, RollJournal journal) {
+        this.laneNumber = laneNumber;
+        this.workers = workers;
+        this.rejectionHandler = rejectionHandler;
+        this.journal = journal;
+    }
+
+    int getLaneNumber() {
+        return laneNumber;
+    }
+
+    GameController getGameController() {
+        return gameController;
+    }
+
+    /**
+     * @return the game on the lane, or null if no game has been started. Only its view may be read off the worker.
+     */
+    Game getGame() {
+        return game;
+    }
+
+    /**
+     * @param names the names of the players
+     * @param listener a listener to add to the game before any roll, or null
+     */
+    void startGame(ArrayList<String> names, GameListener listener) {
+        if (this.game != null) {
+            this.game.abandon();
+        }
+        Game game = new Game(names);
+        if (listener != null) {
+            game.addGameListener(listener);
+        }
+        if (journal != null) {
+            journal.startGame(laneNumber, game);
+        }
+        game.setLaneNumber(laneNumber);
+        this.gameController = new GameController(game, RollMetrics.getLane(laneNumber));
+        this.game = game;
+    }
+
+    /**
+     * Puts a game that is already running on the lane
+     * @param game the game, which is expected to be journaled already if the center has a journal
+     */
+    void resumeGame(Game game) {
+        game.setLaneNumber(laneNumber);
+        this.gameController = new GameController(game, RollMetrics.getLane(laneNumber));
+        this.game = game;
+    }
+
+    /**
+     * Puts work in the lane's mailbox and makes sure the lane is scheduled to run it
+     * @param task the work to run against the lane
+     * @throws RuntimeException if the lane is closed
+     */
+    void send(Consumer<Lane> task) throws RuntimeException {
+        if (isClosed) {
+            throw new RuntimeException(String.format(ErrorMessages.laneManagerClosed, laneNumber));
+        }
+        mailbox.offer(task);
+        schedule();
+    }
+
+    /**
+     * Stops the lane from taking more work
+     * @return a future that is completed once the work already in the mailbox has run
+     */
+    CompletableFuture<Void> close() {
+        if (isClosed) {
+            return CompletableFuture.completedFuture(null);
+        }
+        isClosed = true;
+        CompletableFuture<Void> drained = new CompletableFuture<>();
+        mailbox.offer(lane -> drained.complete(null));
+        schedule();
+        return drained;
+    }
+
+    /**
+     * Runs the work in the mailbox. To keep one busy lane from holding a worker forever, the lane gives the worker back
+     * after maxTasksPerRun pieces of work and schedules itself again.
+     */
+    @Override
+    public void run() {
+        for (int i = 0; i < maxTasksPerRun; i++) {
+            Consumer<Lane> task = mailbox.poll();
+            if (task == null) {
+                break;
+            }
+            try {
+                task.accept(this);
+            } catch (RuntimeException e) {
+                reject(e);
+            }
+        }
+        isScheduled.set(false);
+        if (!mailbox.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Logs work that the lane's game rejected and passes it to the rejection handler. The message is only formatted
+     * if the rejection is going to be logged.
+     * @param e why the work was rejected
+     */
+    void reject(RuntimeException e) {
+        if (EventLog.isLoggable(EventType.WORK_REJECTED)) {
+            EventLog.log(EventType.WORK_REJECTED, laneNumber, 0, e.getMessage());
+        }
+        rejectionHandler.accept(laneNumber, e);
+    }
+
+    /**
+     * Hands the lane to a worker if it does not have one. If the workers have been shut down, the work left in the
+     * mailbox can never run, so each piece of it is passed to the rejection handler and the lane is left unscheduled.
+     */
+    private void schedule() {
+        if (isScheduled.compareAndSet(false, true)) {
+            try {
+                workers.execute(this);
+            } catch (RejectedExecutionException e) {
+                isScheduled.set(false);
+                while (mailbox.poll() != null) {
+                    reject(new RuntimeException(String.format(ErrorMessages.laneManagerClosed, laneNumber), e));
+                }
+            }
+        }
+    }
+}
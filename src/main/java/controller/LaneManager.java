@@ -0,0 +1,243 @@
+package controller;
+
+import model.ErrorMessages;
+import model.Game;
+import model.GameListener;
+import model.GameView;
+import model.RollError;
+import model.RollRejectedException;
+import persistence.RollJournal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * LaneManager runs a whole bowling center. It owns a lane for every lane number and routes the pins sent by each
+ * lane's pinsetter to the game on that lane. Every lane is a single writer: the work for a lane runs in the order it
+ * was sent and never on two threads at once, while different lanes run in parallel on a shared set of workers.
+ *
+ * Sending pins does not wait for the roll to be scored. A roll that is rejected by the game is passed to the
+ * rejection handler. Anything read from a lane goes through readLane() so that it sees every roll sent before it.
+ *
+ * Usage example:
+ * LaneManager laneManager = new LaneManager(24, 4);
+ * laneManager.startGame(7, Arrays.asList("Billy", "Joe"));
+ * laneManager.addScore(7, fivePins);
+ * int score = laneManager.readLane(7, controller -> controller.getPlayers().get(0).getScorecard().getTotalScore()).join();
+ * laneManager.close();
+ */
+public class LaneManager implements AutoCloseable {
+    private final Lane[] lanes;
+    private final ExecutorService workers;
+
+    /**
+     * Creates a center where rejected rolls are ignored
+     * @param numberOfLanes the number of lanes, numbered from 1
+     * @param numberOfWorkers the number of threads that run the lanes
+     */
+    public LaneManager(int numberOfLanes, int numberOfWorkers) {
+        this(numberOfLanes, numberOfWorkers, (laneNumber, e) -> { });
+    }
+
+    /**
+     * @param numberOfLanes the number of lanes, numbered from 1
+     * @param numberOfWorkers the number of threads that run the lanes
+     * @param rejectionHandler called on a worker thread with the lane number and the exception whenever a lane rejects
+     * a roll or a game cannot be started
+     */
+    public LaneManager(int numberOfLanes, int numberOfWorkers, BiConsumer<Integer, RuntimeException> rejectionHandler) {
+        this(numberOfLanes, numberOfWorkers, rejectionHandler, null);
+    }
+
+    /**
+     * Creates a center that journals every game started on it, and puts the open games recovered by the journal back
+     * on their lanes
+     * @param numberOfLanes the number of lanes, numbered from 1
+     * @param numberOfWorkers the number of threads that run the lanes
+     * @param rejectionHandler called on a worker thread with the lane number and the exception whenever a lane rejects
+     * a roll or a game cannot be started
+     * @param journal the journal to write to, or null to not journal the games
+     * @throws RuntimeException if the journal has a game on a lane that is not a lane of the center
+     */
+    public LaneManager(int numberOfLanes, int numberOfWorkers, BiConsumer<Integer, RuntimeException> rejectionHandler,
+                       RollJournal journal) throws RuntimeException {
+        AtomicInteger workerNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(numberOfWorkers, runnable -> {
+            Thread thread = new Thread(runnable, "lane-worker-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lanes = new Lane[numberOfLanes];
+        for (int i = 0; i < numberOfLanes; i++) {
+            lanes[i] = new Lane(i + 1, workers, rejectionHandler, journal);
+        }
+        if (journal != null) {
+            for (Map.Entry<Integer, Game> openGame : journal.getOpenGames().entrySet()) {
+                Game game = openGame.getValue();
+                getLane(openGame.getKey()).send(lane -> lane.resumeGame(game));
+            }
+        }
+    }
+
+    public int getNumberOfLanes() {
+        return lanes.length;
+    }
+
+    /**
+     * Starts a new game on a lane, replacing any game that was on it
+     * @param laneNumber the lane to start the game on
+     * @param names the names of the players
+     * @throws RuntimeException if the lane number is not a lane of the center or the center is closed
+     */
+    public void startGame(int laneNumber, List<String> names) throws RuntimeException {
+        ArrayList<String> copyOfNames = new ArrayList<>(names);
+        getLane(laneNumber).send(lane -> lane.startGame(copyOfNames, null));
+    }
+
+    /**
+     * Starts a new game on a lane like startGame(), with a listener that follows the game from its first roll
+     * @param laneNumber the lane to start the game on
+     * @param names the names of the players
+     * @param listener the listener, which is called on a worker thread
+     * @throws RuntimeException if the lane number is not a lane of the center or the center is closed
+     */
+    public void startGame(int laneNumber, List<String> names, GameListener listener) throws RuntimeException {
+        ArrayList<String> copyOfNames = new ArrayList<>(names);
+        getLane(laneNumber).send(lane -> lane.startGame(copyOfNames, listener));
+    }
+
+    /**
+     * Sends the pins of a roll to the game on a lane
+     * @param laneNumber the lane the roll was bowled on
+     * @param pins the pins from the pinsetter, see GameController.addScore()
+     * @throws RuntimeException if the lane number is not a lane of the center or the center is closed
+     */
+    public void addScore(int laneNumber, List<Boolean> pins) throws RuntimeException {
+        getLane(laneNumber).send(lane -> getGameController(lane).addScore(pins));
+    }
+
+    /**
+     * Sends the pins of a roll to the game on a lane as a mask, see GameController.addPinMask()
+     * @param laneNumber the lane the roll was bowled on
+     * @param pinMask the pins that were knocked down by the ball
+     * @throws RuntimeException if the lane number is not a lane of the center or the center is closed
+     */
+    public void addPinMask(int laneNumber, int pinMask) throws RuntimeException {
+        getLane(laneNumber).send(lane -> {
+            long result = getGameController(lane).tryAddPinMask(pinMask);
+            if (!RollError.isAccepted(result)) {
+                lane.reject(RollRejectedException.of(result));
+            }
+        });
+    }
+
+    /**
+     * Sends the pins of a roll to the game on a lane like addPinMask(), and tells the caller when the roll has been
+     * scored. A rejected roll fails the future instead of going to the rejection handler.
+     * @param laneNumber the lane the roll was bowled on
+     * @param pinMask the pins that were knocked down by the ball
+     * @return a future that completes with the view of the game after the roll, or exceptionally if the roll was
+     * rejected or there is no game on the lane
+     * @throws RuntimeException if the lane number is not a lane of the center or the center is closed
+     */
+    public CompletableFuture<GameView> scorePinMask(int laneNumber, int pinMask) throws RuntimeException {
+        CompletableFuture<GameView> result = new CompletableFuture<>();
+        getLane(laneNumber).send(lane -> {
+            try {
+                GameController gameController = getGameController(lane);
+                long rollResult = gameController.tryAddPinMask(pinMask);
+                if (RollError.isAccepted(rollResult)) {
+                    result.complete(gameController.getView());
+                } else {
+                    result.completeExceptionally(RollRejectedException.of(rollResult));
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Reads from the game on a lane after every piece of work that was already sent to the lane has run
+     * @param laneNumber the lane to read
+     * @param reader what to read from the lane's game. It runs on a worker and must not keep hold of the controller
+     * @return a future that completes with what was read, or exceptionally if there is no game on the lane
+     * @throws RuntimeException if the lane number is not a lane of the center or the center is closed
+     */
+    public <T> CompletableFuture<T> readLane(int laneNumber, Function<GameController, T> reader) throws RuntimeException {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        getLane(laneNumber).send(lane -> {
+            try {
+                result.complete(reader.apply(getGameController(lane)));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Gets the latest view of the game on a lane without waiting for the lane's worker. The view can be behind rolls
+     * that have been sent to the lane but not yet run, see readLane() to wait for them.
+     * @param laneNumber the lane to read
+     * @return the view, see GameView
+     * @throws RuntimeException if the lane number is not a lane of the center or there is no game on the lane
+     */
+    public GameView getView(int laneNumber) throws RuntimeException {
+        Game game = getLane(laneNumber).getGame();
+        if (game == null) {
+            throw new RuntimeException(String.format(ErrorMessages.noGameOnLane, laneNumber));
+        }
+        return game.getView();
+    }
+
+    /**
+     * Stops the lanes from taking more work, waits for the work that was already sent to them to run and then stops
+     * the workers. Work sent after the center is closed is refused with an exception.
+     */
+    @Override
+    public void close() {
+        CompletableFuture<?>[] drained = new CompletableFuture<?>[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            drained[i] = lanes[i].close();
+        }
+        try {
+            CompletableFuture.allOf(drained).get(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // the workers are stopped anyway, and whatever is left is passed to the rejection handler
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Lane getLane(int laneNumber) throws RuntimeException {
+        if (laneNumber < 1 || laneNumber > lanes.length) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidLaneNumber, laneNumber, lanes.length));
+        }
+        return lanes[laneNumber - 1];
+    }
+
+    private static GameController getGameController(Lane lane) throws RuntimeException {
+        if (lane.getGameController() == null) {
+            throw new RuntimeException(String.format(ErrorMessages.noGameOnLane, lane.getLaneNumber()));
+        }
+        return lane.getGameController();
+    }
+}
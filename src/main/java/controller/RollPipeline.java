@@ -0,0 +1,276 @@
+package controller;
+
+import model.ErrorMessages;
+import model.GameView;
+import model.RollError;
+import model.RollRejectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * A center like LaneManager for bursts of rolls, such as the start of a league night when every lane throws at once.
+ * Rolls go into a ring buffer of slots that are allocated once, so sending a roll allocates nothing and takes no lock.
+ * Any number of threads can send rolls. Each of a fixed set of consumer threads owns the lanes whose number modulo
+ * the number of consumers is its index, and reads the ring buffer in batches, applying the rolls for its lanes to
+ * their games. So every lane still has a single writer and sees its rolls in the order they were sent.
+ *
+ * When the ring buffer is full, senders wait for the slowest consumer, so a slow center slows down its pinsetters
+ * instead of running out of memory. How the threads wait is set by the WaitStrategy.
+ *
+ * Usage example:
+ * RollPipeline pipeline = new RollPipeline(24, 2, 1024, WaitStrategy.YIELD);
+ * pipeline.startGame(7, Arrays.asList("Billy", "Joe"));
+ * pipeline.addPinMask(7, 0b0000011111);
+ * pipeline.awaitProcessed();
+ * int score = pipeline.getView(7).getPlayers().get(0).getScorecard().getTotalScore();
+ * pipeline.close();
+ */
+public class RollPipeline implements AutoCloseable {
+    private static final int maxBatchSize = 256;
+    // the pin mask of a slot that starts a game with the names in the slot
+    private static final int startGameSlot = -1;
+    private final Lane[] lanes;
+    private final WaitStrategy waitStrategy;
+    private final BiConsumer<Integer, RuntimeException> rejectionHandler;
+    private final int indexMask;
+    private final int roundShift;
+    // the slots of the ring buffer
+    private final int[] laneNumbers;
+    private final int[] pinMasks;
+    private final Object[] names;
+    // the round in which each slot was last written, so a consumer knows the slot holds the sequence it expects
+    private final AtomicIntegerArray published;
+    // the next sequence to be claimed by a sender
+    private final AtomicLong claimed = new AtomicLong();
+    // the lowest sequence every consumer has finished with, as last seen by a sender
+    private volatile long cachedProcessed = -1;
+    private final Consumer[] consumers;
+    private volatile boolean isClosed;
+
+    /**
+     * Creates a pipeline where rejected rolls are ignored
+     * @param numberOfLanes the number of lanes, numbered from 1
+     * @param numberOfConsumers the number of threads that apply the rolls to the games
+     * @param bufferSize the number of slots in the ring buffer, a power of two
+     * @param waitStrategy how idle consumers and senders that find the buffer full wait
+     */
+    public RollPipeline(int numberOfLanes, int numberOfConsumers, int bufferSize, WaitStrategy waitStrategy) {
+        this(numberOfLanes, numberOfConsumers, bufferSize, waitStrategy, (laneNumber, e) -> { });
+    }
+
+    /**
+     * @param numberOfLanes the number of lanes, numbered from 1
+     * @param numberOfConsumers the number of threads that apply the rolls to the games
+     * @param bufferSize the number of slots in the ring buffer, a power of two
+     * @param waitStrategy how idle consumers and senders that find the buffer full wait
+     * @param rejectionHandler called on a consumer thread with the lane number and the exception whenever a lane
+     * rejects a roll
+     * @throws RuntimeException if the buffer size is not a power of two
+     */
+    public RollPipeline(int numberOfLanes, int numberOfConsumers, int bufferSize, WaitStrategy waitStrategy,
+                        BiConsumer<Integer, RuntimeException> rejectionHandler) {
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidBufferSize, bufferSize));
+        }
+        this.waitStrategy = waitStrategy;
+        this.rejectionHandler = rejectionHandler;
+        this.indexMask = bufferSize - 1;
+        this.roundShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.laneNumbers = new int[bufferSize];
+        this.pinMasks = new int[bufferSize];
+        this.names = new Object[bufferSize];
+        this.published = new AtomicIntegerArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            published.set(i, -1);
+        }
+        this.lanes = new Lane[numberOfLanes];
+        for (int i = 0; i < numberOfLanes; i++) {
+            // the consumers run the lanes directly, so no work is ever sent through the lanes' mailboxes
+            lanes[i] = new Lane(i + 1, null, rejectionHandler, null);
+        }
+        this.consumers = new Consumer[numberOfConsumers];
+        for (int i = 0; i < numberOfConsumers; i++) {
+            consumers[i] = new Consumer(i);
+        }
+        for (Consumer consumer : consumers) {
+            consumer.thread.start();
+        }
+    }
+
+    public int getNumberOfLanes() {
+        return lanes.length;
+    }
+
+    /**
+     * Starts a new game on a lane, replacing any game that was on it. The game starts after every roll sent to the
+     * lane before it.
+     * @param laneNumber the lane to start the game on
+     * @param names the names of the players
+     * @throws RuntimeException if the lane number is not a lane of the center or the pipeline is closed
+     */
+    public void startGame(int laneNumber, List<String> names) throws RuntimeException {
+        send(laneNumber, startGameSlot, new ArrayList<>(names));
+    }
+
+    /**
+     * Sends the pins knocked down by a roll to the game on a lane, see GameController.addPinMask(). Waits only if the
+     * ring buffer is full.
+     * @param laneNumber the lane the roll was bowled on
+     * @param pinMask the pins that were knocked down by the ball
+     * @throws RuntimeException if the lane number is not a lane of the center or the pipeline is closed
+     */
+    public void addPinMask(int laneNumber, int pinMask) throws RuntimeException {
+        send(laneNumber, pinMask, null);
+    }
+
+    /**
+     * Waits until every roll sent before the call has been applied to its game
+     */
+    public void awaitProcessed() {
+        long target = claimed.get() - 1;
+        int attempt = 0;
+        while (getProcessed() < target) {
+            waitStrategy.idle(attempt++);
+        }
+    }
+
+    /**
+     * Gets the latest view of the game on a lane. It can be behind rolls that have been sent but not yet applied, see
+     * awaitProcessed().
+     * @param laneNumber the lane to read
+     * @return the view, see GameView
+     * @throws RuntimeException if the lane number is not a lane of the center or there is no game on the lane
+     */
+    public GameView getView(int laneNumber) throws RuntimeException {
+        Lane lane = getLane(laneNumber);
+        if (lane.getGame() == null) {
+            throw new RuntimeException(String.format(ErrorMessages.noGameOnLane, laneNumber));
+        }
+        return lane.getGame().getView();
+    }
+
+    /**
+     * Stops taking rolls and stops the consumers once they have applied the rolls that were already sent. A roll sent
+     * while the pipeline is closing may not be applied.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        for (Consumer consumer : consumers) {
+            try {
+                consumer.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void send(int laneNumber, int pinMask, ArrayList<String> gameNames) throws RuntimeException {
+        getLane(laneNumber);
+        if (isClosed) {
+            throw new RuntimeException(ErrorMessages.pipelineClosed);
+        }
+        long sequence = claimed.getAndIncrement();
+        // the slot is free once every consumer is done with the sequence one buffer length back
+        long wrapPoint = sequence - laneNumbers.length;
+        if (wrapPoint > cachedProcessed) {
+            int attempt = 0;
+            long processed;
+            while (wrapPoint > (processed = getProcessed())) {
+                waitStrategy.idle(attempt++);
+            }
+            cachedProcessed = processed;
+        }
+        int index = (int) sequence & indexMask;
+        laneNumbers[index] = laneNumber;
+        pinMasks[index] = pinMask;
+        names[index] = gameNames;
+        // a volatile write, so a consumer that reads the round also sees the slot
+        published.set(index, (int) (sequence >>> roundShift));
+    }
+
+    private long getProcessed() {
+        long processed = Long.MAX_VALUE;
+        for (Consumer consumer : consumers) {
+            processed = Math.min(processed, consumer.processed.get());
+        }
+        return processed;
+    }
+
+    private Lane getLane(int laneNumber) throws RuntimeException {
+        if (laneNumber < 1 || laneNumber > lanes.length) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidLaneNumber, laneNumber, lanes.length));
+        }
+        return lanes[laneNumber - 1];
+    }
+
+    /**
+     * Reads every slot of the ring buffer and applies the ones for its lanes
+     */
+    private final class Consumer implements Runnable {
+        private final int consumerIndex;
+        private final Thread thread;
+        // the last sequence this consumer is done with, read by senders waiting for a slot
+        private final AtomicLong processed = new AtomicLong(-1);
+
+        Consumer(int consumerIndex) {
+            this.consumerIndex = consumerIndex;
+            this.thread = new Thread(this, "roll-consumer-" + (consumerIndex + 1));
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long next = 0;
+            int attempt = 0;
+            while (true) {
+                long end = next;
+                while (end - next < maxBatchSize
+                        && published.get((int) end & indexMask) == (int) (end >>> roundShift)) {
+                    end++;
+                }
+                if (end == next) {
+                    if (isClosed && next >= claimed.get()) {
+                        return;
+                    }
+                    waitStrategy.idle(attempt++);
+                    continue;
+                }
+                for (long sequence = next; sequence < end; sequence++) {
+                    apply((int) sequence & indexMask);
+                }
+                processed.lazySet(end - 1);
+                next = end;
+                attempt = 0;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void apply(int index) {
+            int laneNumber = laneNumbers[index];
+            if ((laneNumber - 1) % consumers.length != consumerIndex) {
+                return;
+            }
+            Lane lane = lanes[laneNumber - 1];
+            try {
+                if (pinMasks[index] == startGameSlot) {
+                    lane.startGame((ArrayList<String>) names[index], null);
+                } else if (lane.getGameController() == null) {
+                    throw new RuntimeException(String.format(ErrorMessages.noGameOnLane, laneNumber));
+                } else {
+                    long result = lane.getGameController().tryAddPinMask(pinMasks[index]);
+                    if (!RollError.isAccepted(result)) {
+                        lane.reject(RollRejectedException.of(result));
+                    }
+                }
+            } catch (RuntimeException e) {
+                lane.reject(e);
+            }
+        }
+    }
+}
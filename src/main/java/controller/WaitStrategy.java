@@ -0,0 +1,48 @@
+package controller;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * What a thread of a RollPipeline does while it has nothing to do: a consumer waiting for rolls, or a producer waiting
+ * for a free slot. The strategies trade CPU for latency, from BUSY_SPIN, which never gives up its core, to PARK, which
+ * uses almost no CPU when the center is quiet but takes up to parkNanos to notice new rolls.
+ */
+public enum WaitStrategy {
+    BUSY_SPIN {
+        @Override
+        void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+    YIELD {
+        @Override
+        void idle(int attempt) {
+            if (attempt < spinAttempts) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+    PARK {
+        @Override
+        void idle(int attempt) {
+            if (attempt < spinAttempts) {
+                Thread.onSpinWait();
+            } else if (attempt < spinAttempts * 2) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+            }
+        }
+    };
+
+    static final int spinAttempts = 100;
+    static final long parkNanos = 50_000;
+
+    /**
+     * Waits a little
+     * @param attempt the number of times the thread has waited since it last found something to do
+     */
+    abstract void idle(int attempt);
+}
@@ -0,0 +1,129 @@
+package logging;
+
+import model.ErrorMessages;
+
+import java.io.Writer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.logging.Level;
+
+/**
+ * A structured event log for the roll, frame and game events of the scorekeeper. Events are typed (see EventType)
+ * and carry primitive fields, so logging an event never builds a string on the calling thread. Events are put into a
+ * fixed size buffer and written in batches by a background thread.
+ *
+ * Nothing is logged until the log is started, and each subsystem can be filtered by level and sampled so that only
+ * one in every n events is kept. When an event is filtered out, logging it costs a couple of reads and allocates
+ * nothing. If the buffer is full the event is dropped rather than making the caller wait.
+ *
+ * Example usage:
+ * EventLog.setLevel(Subsystem.GAME, Level.FINE);
+ * EventLog.setSampleRate(Subsystem.SCORECARD, 100);
+ * EventLog.start(new OutputStreamWriter(System.out));
+ * ...
+ * EventLog.log(EventType.ROLL_ADDED, 7, 3, null);
+ * ...
+ * EventLog.stop();
+ */
+public class EventLog {
+    private static final int defaultCapacity = 8192;
+    private static final AtomicIntegerArray levels = new AtomicIntegerArray(Subsystem.values().length);
+    private static final AtomicIntegerArray sampleRates = new AtomicIntegerArray(Subsystem.values().length);
+    private static volatile EventWriter writer;
+
+    static {
+        for (Subsystem subsystem : Subsystem.values()) {
+            levels.set(subsystem.ordinal(), Level.INFO.intValue());
+            sampleRates.set(subsystem.ordinal(), 1);
+        }
+    }
+
+    private EventLog() {
+    }
+
+    /**
+     * Starts writing events to the writer on a background thread. Any log that was already started is stopped first.
+     * @param out where the events are written, one line per event
+     */
+    public static synchronized void start(Writer out) {
+        start(out, defaultCapacity);
+    }
+
+    /**
+     * Starts writing events to the writer on a background thread. Any log that was already started is stopped first.
+     * @param out where the events are written, one line per event
+     * @param capacity the number of events that can wait to be written before new events are dropped
+     */
+    public static synchronized void start(Writer out, int capacity) {
+        stop();
+        EventWriter eventWriter = new EventWriter(out, capacity);
+        eventWriter.start();
+        writer = eventWriter;
+    }
+
+    /**
+     * Stops the log after writing every event that was logged before the call
+     */
+    public static synchronized void stop() {
+        EventWriter eventWriter = writer;
+        writer = null;
+        if (eventWriter != null) {
+            eventWriter.stop();
+        }
+    }
+
+    /**
+     * @param subsystem the subsystem to filter
+     * @param level the lowest level of event that is logged for the subsystem. Level.OFF turns the subsystem off
+     */
+    public static void setLevel(Subsystem subsystem, Level level) {
+        levels.set(subsystem.ordinal(), level.intValue());
+    }
+
+    /**
+     * @param subsystem the subsystem to sample
+     * @param sampleRate one in every sampleRate events of the subsystem is logged. 1 logs every event
+     * @throws RuntimeException if the sample rate is less than 1
+     */
+    public static void setSampleRate(Subsystem subsystem, int sampleRate) {
+        if (sampleRate < 1) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidSampleRate, sampleRate));
+        }
+        sampleRates.set(subsystem.ordinal(), sampleRate);
+    }
+
+    /**
+     * @param type the type of event
+     * @return true if an event of this type would be logged before sampling is applied
+     */
+    public static boolean isLoggable(EventType type) {
+        return writer != null && type.getLevel().intValue() >= levels.get(type.getSubsystem().ordinal());
+    }
+
+    /**
+     * @return the number of events that were dropped because the buffer was full since the log was started
+     */
+    public static long getDroppedCount() {
+        EventWriter eventWriter = writer;
+        return eventWriter == null ? 0 : eventWriter.getDroppedCount();
+    }
+
+    /**
+     * Logs an event if its subsystem is enabled at the event's level and the event is picked by sampling
+     * @param type the type of event
+     * @param first the first number of the event
+     * @param second the second number of the event, ignored if the event type does not have one
+     * @param text the text of the event, ignored if the event type does not have one
+     */
+    public static void log(EventType type, int first, int second, String text) {
+        EventWriter eventWriter = writer;
+        if (eventWriter == null || type.getLevel().intValue() < levels.get(type.getSubsystem().ordinal())) {
+            return;
+        }
+        int sampleRate = sampleRates.get(type.getSubsystem().ordinal());
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        eventWriter.offer(type, first, second, text);
+    }
+}
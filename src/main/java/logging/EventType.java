@@ -0,0 +1,65 @@
+package logging;
+
+import java.util.logging.Level;
+
+/**
+ * The kinds of events that can be written to the event log. Each event carries up to two numbers and one piece of
+ * text, and the event type names them so that the written line reads as key=value pairs.
+ *
+ * Example line:
+ * 2026-10-18T10:15:30.120Z GAME SCORE_ADDED pins=7 player=0 name=Billy
+ */
+public enum EventType {
+    SCORE_ADDED(Subsystem.GAME, Level.FINE, "pins", "player", "name"),
+    ACTIVE_PLAYER_CHANGED(Subsystem.GAME, Level.FINE, "player", null, "name"),
+    BATCH_ADDED(Subsystem.GAME, Level.FINE, "rolls", "player", null),
+    GAME_OVER(Subsystem.GAME, Level.INFO, "players", null, null),
+    ROLL_ADDED(Subsystem.SCORECARD, Level.FINE, "pins", "frame", null),
+    FRAME_STARTED(Subsystem.SCORECARD, Level.FINER, "frame", null, null),
+    FRAME_SCORED(Subsystem.SCORECARD, Level.FINE, "frame", "score", null),
+    WORK_REJECTED(Subsystem.CENTER, Level.WARNING, "lane", null, "reason"),
+    CONNECTION_ACCEPTED(Subsystem.CENTER, Level.FINE, "connections", null, null),
+    CONNECTION_FAILED(Subsystem.CENTER, Level.WARNING, null, null, "reason"),
+    JOURNAL_NOT_ROTATED(Subsystem.CENTER, Level.WARNING, null, null, "reason");
+
+    private final Subsystem subsystem;
+    private final Level level;
+    private final String firstField;
+    private final String secondField;
+    private final String textField;
+
+    EventType(Subsystem subsystem, Level level, String firstField, String secondField, String textField) {
+        this.subsystem = subsystem;
+        this.level = level;
+        this.firstField = firstField;
+        this.secondField = secondField;
+        this.textField = textField;
+    }
+
+    public Subsystem getSubsystem() {
+        return subsystem;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Appends the fields of an event of this type as key=value pairs
+     * @param line the line to append to
+     * @param first the first number of the event
+     * @param second the second number of the event
+     * @param text the text of the event
+     */
+    void appendFields(StringBuilder line, int first, int second, String text) {
+        if (firstField != null) {
+            line.append(' ').append(firstField).append('=').append(first);
+        }
+        if (secondField != null) {
+            line.append(' ').append(secondField).append('=').append(second);
+        }
+        if (textField != null) {
+            line.append(' ').append(textField).append('=').append(text);
+        }
+    }
+}
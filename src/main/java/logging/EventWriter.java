@@ -0,0 +1,150 @@
+package logging;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Holds the events that are waiting to be written and the background thread that writes them. The events are kept
+ * in preallocated arrays used as a ring, so offering an event only copies its fields. Any number of threads can offer
+ * events and a single background thread writes them.
+ */
+class EventWriter implements Runnable {
+    private static final long idleWaitNanos = 1_000_000;
+    private final Writer out;
+    private final int mask;
+    private final EventType[] types;
+    private final long[] timestamps;
+    private final int[] firsts;
+    private final int[] seconds;
+    private final String[] texts;
+    // published holds sequence + 1 of the event in each slot once the slot has been filled in
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final StringBuilder line = new StringBuilder();
+    private final Thread thread;
+    private volatile long written;
+    private volatile boolean isRunning = true;
+
+    /**
+     * @param out where the events are written
+     * @param capacity the number of events that can wait to be written. Rounded up to a power of two
+     */
+    EventWriter(Writer out, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.out = out;
+        this.mask = size - 1;
+        this.types = new EventType[size];
+        this.timestamps = new long[size];
+        this.firsts = new int[size];
+        this.seconds = new int[size];
+        this.texts = new String[size];
+        this.published = new AtomicLongArray(size);
+        this.thread = new Thread(this, "event-log-writer");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Writes the events that are waiting and stops the background thread
+     */
+    void stop() {
+        isRunning = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Puts an event in the next free slot, or drops it if there are no free slots
+     */
+    void offer(EventType type, int first, int second, String text) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - written > mask) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        int slot = (int) sequence & mask;
+        types[slot] = type;
+        timestamps[slot] = System.currentTimeMillis();
+        firsts[slot] = first;
+        seconds[slot] = second;
+        texts[slot] = text;
+        published.lazySet(slot, sequence + 1);
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            boolean wasRunning = isRunning;
+            int count = writeBatch();
+            if (count == 0) {
+                if (!wasRunning && written == claimed.get()) {
+                    break;
+                }
+                LockSupport.parkNanos(this, idleWaitNanos);
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Writes every event that has been published and flushes the writer once for the whole batch
+     * @return the number of events written
+     */
+    private int writeBatch() {
+        long sequence = written;
+        int count = 0;
+        while (published.get((int) sequence & mask) == sequence + 1) {
+            int slot = (int) sequence & mask;
+            format(slot);
+            texts[slot] = null;
+            sequence++;
+            count++;
+            written = sequence;
+        }
+        if (count > 0) {
+            flush();
+        }
+        return count;
+    }
+
+    private void format(int slot) {
+        EventType type = types[slot];
+        line.setLength(0);
+        line.append(Instant.ofEpochMilli(timestamps[slot])).append(' ').append(type.getSubsystem()).append(' ')
+                .append(type);
+        type.appendFields(line, firsts[slot], seconds[slot], texts[slot]);
+        line.append(System.lineSeparator());
+        try {
+            out.append(line);
+        } catch (IOException e) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            // the events have already been handed to the writer, there is nothing left to retry
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package logging;
+
+/**
+ * The parts of the scorekeeper that write to the event log. Each subsystem has its own level and sample rate.
+ */
+public enum Subsystem {
+    GAME,
+    SCORECARD,
+    CENTER
+}
@@ -0,0 +1,58 @@
+package metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The rolls, rejected rolls and completed games of every game in the center
+ */
+class CenterMetrics implements CenterMetricsMXBean {
+    private final LongAdder rolls = new LongAdder();
+    private final LongAdder gamesCompleted = new LongAdder();
+    private final Map<String, LongAdder> rejectedRolls = new ConcurrentHashMap<>();
+    private final RateMeter rate = new RateMeter(rolls::sum);
+
+    void rollAccepted() {
+        rolls.increment();
+    }
+
+    void rollsAccepted(int count) {
+        rolls.add(count);
+    }
+
+    void rollRejected(String reason) {
+        rejectedRolls.computeIfAbsent(reason, r -> new LongAdder()).increment();
+    }
+
+    void gameCompleted() {
+        gamesCompleted.increment();
+    }
+
+    void sampleRate() {
+        rate.sample();
+    }
+
+    @Override
+    public long getRolls() {
+        return rolls.sum();
+    }
+
+    @Override
+    public double getRollsPerSecond() {
+        return rate.perSecond();
+    }
+
+    @Override
+    public long getGamesCompleted() {
+        return gamesCompleted.sum();
+    }
+
+    @Override
+    public Map<String, Long> getRejectedRolls() {
+        Map<String, Long> counts = new TreeMap<>();
+        rejectedRolls.forEach((reason, count) -> counts.put(reason, count.sum()));
+        return counts;
+    }
+}
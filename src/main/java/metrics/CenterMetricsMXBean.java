@@ -0,0 +1,22 @@
+package metrics;
+
+import java.util.Map;
+
+/**
+ * The rolls and games of every lane of the center, as read by a JMX client
+ */
+public interface CenterMetricsMXBean {
+    long getRolls();
+
+    /**
+     * @return the rolls per second over the last second, which is sampled once a second while metrics are started
+     */
+    double getRollsPerSecond();
+
+    long getGamesCompleted();
+
+    /**
+     * @return the number of rejected rolls by the reason they were rejected, see RollError
+     */
+    Map<String, Long> getRejectedRolls();
+}
@@ -0,0 +1,37 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A JDK Flight Recorder event for a frame that is finished, either by the ball that finishes it or by a whole frame
+ * being added to a scorecard, for example when a game is imported. The duration is that of the ball or of adding the
+ * frame. Only frames that take longer than the threshold are recorded, 100us unless a recording sets
+ * bowling.Frame#threshold. The frames finished by a batch of rolls are only recorded once the whole batch is kept.
+ */
+@Name("bowling.Frame")
+@Label("Frame Finished")
+@Category("Bowling")
+@Description("A frame that is finished")
+@StackTrace(false)
+@Threshold("100 us")
+public class FrameEvent extends jdk.jfr.Event {
+    @Label("Lane")
+    @Description("The lane number, or 0 if the game is not on a lane")
+    public int lane;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Frame")
+    @Description("The index of the frame")
+    public int frame;
+
+    @Label("Pin Count")
+    @Description("The pins knocked down by every ball of the frame")
+    public int pinCount;
+}
@@ -0,0 +1,31 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event for a game that is over, recorded when the last ball of the game is bowled
+ */
+@Name("bowling.GameCompleted")
+@Label("Game Completed")
+@Category("Bowling")
+@Description("A game that is over")
+@StackTrace(false)
+public class GameCompletedEvent extends jdk.jfr.Event {
+    @Label("Lane")
+    @Description("The lane number, or 0 if the game is not on a lane")
+    public int lane;
+
+    @Label("Winner")
+    @Description("The player with the highest score, the first of them if there is a tie")
+    public String player;
+
+    @Label("Players")
+    public int players;
+
+    @Label("Winning Score")
+    public int score;
+}
@@ -0,0 +1,54 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The rolls scored on one lane. A lane keeps hold of its LaneMetrics so that counting a roll is one increment.
+ */
+public class LaneMetrics implements LaneMetricsMXBean {
+    private final int laneNumber;
+    private final LongAdder rolls = new LongAdder();
+    private final RateMeter rate = new RateMeter(rolls::sum);
+
+    LaneMetrics(int laneNumber) {
+        this.laneNumber = laneNumber;
+    }
+
+    /**
+     * Counts a roll that was scored on the lane, if metrics are started
+     */
+    public void rollAccepted() {
+        if (RollMetrics.isEnabled()) {
+            rolls.increment();
+        }
+    }
+
+    /**
+     * Counts the rolls of a batch that was scored on the lane, if metrics are started
+     * @param count the number of rolls in the batch
+     */
+    public void rollsAccepted(int count) {
+        if (RollMetrics.isEnabled()) {
+            rolls.add(count);
+        }
+    }
+
+    void sampleRate() {
+        rate.sample();
+    }
+
+    @Override
+    public int getLaneNumber() {
+        return laneNumber;
+    }
+
+    @Override
+    public long getRolls() {
+        return rolls.sum();
+    }
+
+    @Override
+    public double getRollsPerSecond() {
+        return rate.perSecond();
+    }
+}
@@ -0,0 +1,15 @@
+package metrics;
+
+/**
+ * The rolls of one lane, as read by a JMX client
+ */
+public interface LaneMetricsMXBean {
+    int getLaneNumber();
+
+    long getRolls();
+
+    /**
+     * @return the rolls per second over the last second, which is sampled once a second while metrics are started
+     */
+    double getRollsPerSecond();
+}
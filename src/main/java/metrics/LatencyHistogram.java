@@ -0,0 +1,143 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds with fixed buckets in the style of HdrHistogram. Latencies under 16ns each
+ * have a bucket, and every power of two above that is split into 8 buckets, so a bucket is never more than 12.5% wide.
+ * Latencies above about 18 minutes go into the last bucket.
+ *
+ * Each bucket is a LongAdder, so threads recording at once do not contend on one counter and recording never takes a
+ * lock or allocates. Reading the histogram while it is recorded into gives counts that may be a few recordings apart.
+ *
+ * Usage example:
+ * LatencyHistogram histogram = new LatencyHistogram();
+ * long start = System.nanoTime();
+ * ...
+ * histogram.record(System.nanoTime() - start);
+ * long p99 = histogram.getPercentile(99);
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+    private static final int subBucketBits = 3;
+    private static final int subBucketMask = (1 << subBucketBits) - 1;
+    private static final int maxExponent = 40;
+    private static final long maxValue = (1L << (maxExponent + 1)) - 1;
+    static final int numberOfBuckets = (maxExponent - subBucketBits + 2) << subBucketBits;
+    private final LongAdder[] buckets = new LongAdder[numberOfBuckets];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < numberOfBuckets; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param nanos a latency, negative latencies count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), maxValue);
+        buckets[bucketOf(value)].increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    static int bucketOf(long nanos) {
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent < subBucketBits) {
+            return (int) nanos;
+        }
+        int shift = exponent - subBucketBits;
+        return (shift + 1) << subBucketBits | (int) (nanos >>> shift) & subBucketMask;
+    }
+
+    /**
+     * @return the highest latency that goes into the bucket
+     */
+    static long highestInBucket(int bucket) {
+        if (bucket < 2 << subBucketBits) {
+            return bucket;
+        }
+        int shift = (bucket >>> subBucketBits) - 1;
+        long lowest = (long) (1 << subBucketBits | bucket & subBucketMask) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    @Override
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @param percentile from 0 to 100
+     * @return the highest latency in the bucket that the percentile falls in, or 0 if nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = new long[numberOfBuckets];
+        long count = 0;
+        for (int i = 0; i < numberOfBuckets; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < numberOfBuckets; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestInBucket(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return getPercentile(50);
+    }
+
+    @Override
+    public long getP90Nanos() {
+        return getPercentile(90);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return getPercentile(99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return getPercentile(99.9);
+    }
+
+    /**
+     * Empties the histogram. Recordings made while it is being reset may be kept.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+}
@@ -0,0 +1,21 @@
+package metrics;
+
+/**
+ * The latency of one phase of adding a roll, as read by a JMX client. Percentiles are the highest latency in the bucket
+ * of the percentile, so they are at most 12.5% above the real value.
+ */
+public interface LatencyHistogramMXBean {
+    long getCount();
+
+    double getMeanNanos();
+
+    long getMaxNanos();
+
+    long getP50Nanos();
+
+    long getP90Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+}
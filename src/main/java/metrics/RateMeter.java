@@ -0,0 +1,43 @@
+package metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Works out a rate from a counter that only goes up. The counter is sampled once every second by RollMetrics while
+ * metrics are started, and the rate is the increase between the last two samples, so reading it changes nothing and
+ * every reader sees the same rate.
+ */
+class RateMeter {
+    private final LongSupplier counter;
+    private long lastCount;
+    private long lastNanos;
+    private volatile double rate;
+
+    /**
+     * @param counter the counter to work out the rate of
+     */
+    RateMeter(LongSupplier counter) {
+        this.counter = counter;
+    }
+
+    /**
+     * Samples the counter and works out the rate since the last sample
+     */
+    synchronized void sample() {
+        long now = System.nanoTime();
+        long count = counter.getAsLong();
+        long elapsed = now - lastNanos;
+        if (lastNanos != 0 && elapsed > 0) {
+            rate = (count - lastCount) * 1e9 / elapsed;
+        }
+        lastCount = count;
+        lastNanos = now;
+    }
+
+    /**
+     * @return the increase of the counter per second between the last two samples, or 0 before there are two
+     */
+    double perSecond() {
+        return rate;
+    }
+}
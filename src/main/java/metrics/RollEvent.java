@@ -0,0 +1,46 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A JDK Flight Recorder event for a roll added to a game, from the pins reaching the game to the turn change. Only
+ * rolls that take longer than the threshold are recorded, 100us unless a recording sets bowling.Roll#threshold.
+ *
+ * Usage example:
+ * RollEvent event = new RollEvent();
+ * event.begin();
+ * ...
+ * if (event.shouldCommit()) {
+ *     event.lane = laneNumber;
+ *     event.commit();
+ * }
+ */
+@Name("bowling.Roll")
+@Label("Roll")
+@Category("Bowling")
+@Description("A roll added to a game")
+@StackTrace(false)
+@Threshold("100 us")
+public class RollEvent extends jdk.jfr.Event {
+    @Label("Lane")
+    @Description("The lane number, or 0 if the game is not on a lane")
+    public int lane;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Frame")
+    @Description("The index of the frame the ball was bowled in")
+    public int frame;
+
+    @Label("Pin Count")
+    public int pinCount;
+
+    @Label("Accepted")
+    public boolean accepted;
+}
@@ -0,0 +1,253 @@
+package metrics;
+
+import model.ErrorMessages;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms and throughput counters for the rolls of the center, published as MXBeans on the platform
+ * MBeanServer so that any local JMX client, such as jconsole, can read them:
+ * + bowling:type=RollLatency,phase=END_TO_END and one for each other RollPhase
+ * + bowling:type=Center for the rolls, rolls per second, rejected rolls by reason and games completed
+ * + bowling:type=Lane,lane=n for the rolls and rolls per second of each lane
+ *
+ * The rates are worked out by a background thread that samples the roll counters once a second, so every JMX client
+ * reads the same rate over the last second no matter how often it polls.
+ *
+ * Nothing is recorded until metrics are started, and until then each call costs one volatile read. Once started, every
+ * roll is counted but only one in every sampleRate rolls is timed, because reading the clock costs 20 to 40ns and a
+ * timed roll reads it six times. The histograms are still a fair picture of the latencies, just with fewer of them.
+ *
+ * Usage example:
+ * RollMetrics.start();
+ * ...
+ * long p99 = RollMetrics.getLatency(RollPhase.END_TO_END).getP99Nanos();
+ * RollMetrics.stop();
+ */
+public final class RollMetrics {
+    public static final String domain = "bowling";
+    private static final int defaultSampleRate = 16;
+    private static final LatencyHistogram[] latencies = new LatencyHistogram[RollPhase.values().length];
+    private static final CenterMetrics center = new CenterMetrics();
+    private static final Map<Integer, LaneMetrics> lanes = new ConcurrentHashMap<>();
+    private static volatile boolean isEnabled;
+    private static volatile int sampleRate = defaultSampleRate;
+    private static ScheduledExecutorService rateSampler;
+
+    static {
+        for (RollPhase phase : RollPhase.values()) {
+            latencies[phase.ordinal()] = new LatencyHistogram();
+        }
+    }
+
+    private RollMetrics() {
+    }
+
+    /**
+     * Registers the MXBeans and starts recording. Starting metrics that are already started does nothing.
+     * @throws RuntimeException if the MXBeans cannot be registered
+     */
+    public static synchronized void start() throws RuntimeException {
+        if (isEnabled) {
+            return;
+        }
+        for (RollPhase phase : RollPhase.values()) {
+            register(latencyName(phase), latencies[phase.ordinal()]);
+        }
+        register(centerName(), center);
+        for (LaneMetrics lane : lanes.values()) {
+            register(laneName(lane.getLaneNumber()), lane);
+        }
+        isEnabled = true;
+        rateSampler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "roll-metrics-rate-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rateSampler.scheduleAtFixedRate(RollMetrics::sampleRates, 0, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops recording and unregisters the MXBeans. What was recorded is kept for when metrics are started again.
+     */
+    public static synchronized void stop() {
+        if (!isEnabled) {
+            return;
+        }
+        isEnabled = false;
+        rateSampler.shutdownNow();
+        rateSampler = null;
+        for (RollPhase phase : RollPhase.values()) {
+            unregister(latencyName(phase));
+        }
+        unregister(centerName());
+        for (Integer laneNumber : lanes.keySet()) {
+            unregister(laneName(laneNumber));
+        }
+    }
+
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * @param sampleRate one in every sampleRate rolls is timed. 1 times every roll
+     * @throws RuntimeException if the sample rate is less than 1
+     */
+    public static void setSampleRate(int sampleRate) {
+        if (sampleRate < 1) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidSampleRate, sampleRate));
+        }
+        RollMetrics.sampleRate = sampleRate;
+    }
+
+    public static LatencyHistogram getLatency(RollPhase phase) {
+        return latencies[phase.ordinal()];
+    }
+
+    public static CenterMetricsMXBean getCenter() {
+        return center;
+    }
+
+    /**
+     * @param laneNumber the number of the lane
+     * @return the metrics of the lane, which are registered as an MXBean if metrics are started
+     */
+    public static LaneMetrics getLane(int laneNumber) {
+        LaneMetrics lane = lanes.get(laneNumber);
+        if (lane != null) {
+            return lane;
+        }
+        synchronized (RollMetrics.class) {
+            return lanes.computeIfAbsent(laneNumber, number -> {
+                LaneMetrics created = new LaneMetrics(number);
+                if (isEnabled) {
+                    register(laneName(number), created);
+                }
+                return created;
+            });
+        }
+    }
+
+    /**
+     * @return the time to measure a roll or its first phase from, or 0 if metrics are not started or this one is not
+     * sampled
+     */
+    public static long startTimer() {
+        if (!isEnabled) {
+            return 0;
+        }
+        int sampleRate = RollMetrics.sampleRate;
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the latency of a phase that started at a time from startTimer()
+     * @param phase the phase
+     * @param start when the phase started, or 0 if it was not timed
+     * @return when the phase ended, to measure the next phase from, or 0 if it was not timed
+     */
+    public static long record(RollPhase phase, long start) {
+        if (start == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        latencies[phase.ordinal()].record(now - start);
+        return now;
+    }
+
+    public static void rollAccepted() {
+        if (isEnabled) {
+            center.rollAccepted();
+        }
+    }
+
+    /**
+     * @param count the number of rolls in a batch that was added
+     */
+    public static void rollsAccepted(int count) {
+        if (isEnabled) {
+            center.rollsAccepted(count);
+        }
+    }
+
+    /**
+     * @param reason why the roll was rejected, the name of its RollError
+     */
+    public static void rollRejected(String reason) {
+        if (isEnabled) {
+            center.rollRejected(reason);
+        }
+    }
+
+    public static void gameCompleted() {
+        if (isEnabled) {
+            center.gameCompleted();
+        }
+    }
+
+    /**
+     * Samples the roll counters of the center and of every lane for their rates
+     */
+    static void sampleRates() {
+        center.sampleRate();
+        for (LaneMetrics lane : lanes.values()) {
+            lane.sampleRate();
+        }
+    }
+
+    static ObjectName latencyName(RollPhase phase) {
+        return name("type=RollLatency,phase=" + phase.name());
+    }
+
+    static ObjectName centerName() {
+        return name("type=Center");
+    }
+
+    static ObjectName laneName(int laneNumber) {
+        return name("type=Lane,lane=" + laneNumber);
+    }
+
+    private static ObjectName name(String properties) throws RuntimeException {
+        try {
+            return new ObjectName(domain + ":" + properties);
+        } catch (JMException e) {
+            throw new RuntimeException(String.format(ErrorMessages.cannotRegisterMetrics, e.getMessage()), e);
+        }
+    }
+
+    private static void register(ObjectName name, Object mxBean) throws RuntimeException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mxBean, name);
+        } catch (JMException e) {
+            throw new RuntimeException(String.format(ErrorMessages.cannotRegisterMetrics, e.getMessage()), e);
+        }
+    }
+
+    private static void unregister(ObjectName name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            // another thread unregistered it first
+        }
+    }
+}
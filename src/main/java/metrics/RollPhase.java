@@ -0,0 +1,17 @@
+package metrics;
+
+/**
+ * The parts of adding a roll that are timed. END_TO_END is the whole call to the GameController, and the other phases
+ * are the steps inside it.
+ */
+public enum RollPhase {
+    END_TO_END,
+    // counting the pins from the pinsetter's list of pins standing
+    PIN_COUNT,
+    // checking the roll and putting it on the scorecard
+    SCORECARD_UPDATE,
+    // scoring the frames that were waiting on the roll
+    CALCULATE_SCORE,
+    // moving to the next player, publishing the view and telling the listeners
+    TURN_CHANGE
+}
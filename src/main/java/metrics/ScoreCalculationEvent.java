@@ -0,0 +1,39 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A JDK Flight Recorder event for working out the frame scores of a scorecard, either the frames still waiting on
+ * bonus balls after each roll of a game or a full pass by Scorecard.calculateScore(). Only calculations that take
+ * longer than the threshold are recorded, 100us unless a recording sets bowling.ScoreCalculation#threshold.
+ */
+@Name("bowling.ScoreCalculation")
+@Label("Score Calculation")
+@Category("Bowling")
+@Description("Working out the frame scores of a scorecard")
+@StackTrace(false)
+@Threshold("100 us")
+public class ScoreCalculationEvent extends jdk.jfr.Event {
+    @Label("Lane")
+    @Description("The lane number, or 0 if the game is not on a lane")
+    public int lane;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Frames")
+    @Description("The number of frames scored")
+    public int frames;
+
+    @Label("Score")
+    public int score;
+
+    @Label("Full Pass")
+    @Description("True if every frame was scored, false if only the frames that were not settled")
+    public boolean fullPass;
+}
@@ -0,0 +1,168 @@
+package model;
+
+import java.util.Optional;
+
+/**
+ * The balls of a frame that has been completed. There are only 66 ways to complete one of the first nine frames and
+ * 241 ways to complete the last frame, so every one of them is made once and shared: two completed frames with the
+ * same balls are the same object and can be compared with ==. The score of a frame depends on the frames after it,
+ * so it is not part of a completed frame and stays with the scorecard.
+ *
+ * Usage example:
+ * CompletedFrame frame = scorecardView.getCompletedFrame(3).get();
+ * if (frame == CompletedFrame.of(10, 0)) { ... }
+ */
+public final class CompletedFrame {
+    private static final int maxPins = 10;
+    // indexed by the pins and last frame flag of a packed frame, see Frame.withoutFrameScore()
+    private static final CompletedFrame[] frames = new CompletedFrame[1 << 13];
+    private static int numberOfFrames;
+    private final int firstPinCount;
+    private final int secondPinCount;
+    private final int thirdPinCount;
+    private final boolean isLastFrame;
+
+    static {
+        for (int first = 0; first <= maxPins; first++) {
+            if (first == maxPins) {
+                intern(first, 0, Frame.emptyPinCount, false);
+                // after a strike in the last frame the pins are reset for the second ball
+                for (int second = 0; second <= maxPins; second++) {
+                    int standing = second == maxPins ? maxPins : maxPins - second;
+                    for (int third = 0; third <= standing; third++) {
+                        intern(first, second, third, true);
+                    }
+                }
+                continue;
+            }
+            for (int second = 0; second <= maxPins - first; second++) {
+                intern(first, second, Frame.emptyPinCount, false);
+                if (first + second < maxPins) {
+                    intern(first, second, Frame.emptyPinCount, true);
+                } else {
+                    for (int third = 0; third <= maxPins; third++) {
+                        intern(first, second, third, true);
+                    }
+                }
+            }
+        }
+    }
+
+    private CompletedFrame(int firstPinCount, int secondPinCount, int thirdPinCount, boolean isLastFrame) {
+        this.firstPinCount = firstPinCount;
+        this.secondPinCount = secondPinCount;
+        this.thirdPinCount = thirdPinCount;
+        this.isLastFrame = isLastFrame;
+    }
+
+    /**
+     * Gets one of the first nine frames. A strike is 10 and 0.
+     * @param firstPinCount the pins knocked down by the first ball
+     * @param secondPinCount the pins knocked down by the second ball
+     * @return the shared frame
+     * @throws RuntimeException if the balls are not a completed frame
+     */
+    public static CompletedFrame of(int firstPinCount, int secondPinCount) throws RuntimeException {
+        return lookUp(firstPinCount, secondPinCount, Frame.emptyPinCount, false);
+    }
+
+    /**
+     * Gets a last frame
+     * @param firstPinCount the pins knocked down by the first ball
+     * @param secondPinCount the pins knocked down by the second ball
+     * @param thirdPinCount the pins knocked down by the fill ball, or -1 if the frame was open
+     * @return the shared frame
+     * @throws RuntimeException if the balls are not a completed last frame
+     */
+    public static CompletedFrame ofLastFrame(int firstPinCount, int secondPinCount, int thirdPinCount)
+            throws RuntimeException {
+        return lookUp(firstPinCount, secondPinCount, thirdPinCount, true);
+    }
+
+    /**
+     * @return the number of different completed frames there are
+     */
+    static int getNumberOfFrames() {
+        return numberOfFrames;
+    }
+
+    /**
+     * @param word a packed frame, see Frame
+     * @return the shared completed frame with the balls of the packed frame, or null if it is not completed
+     */
+    static CompletedFrame fromWord(int word) {
+        return frames[Frame.withoutFrameScore(word)];
+    }
+
+    public int getFirstPinCount() {
+        return firstPinCount;
+    }
+
+    public int getSecondPinCount() {
+        return secondPinCount;
+    }
+
+    public Optional<Integer> getThirdPinCount() {
+        return thirdPinCount == Frame.emptyPinCount ? Optional.empty() : Optional.of(thirdPinCount);
+    }
+
+    public boolean isLastFrame() {
+        return isLastFrame;
+    }
+
+    public boolean wasStrike() {
+        return firstPinCount == maxPins;
+    }
+
+    public boolean wasSpare() {
+        return firstPinCount != maxPins && firstPinCount + secondPinCount == maxPins;
+    }
+
+    /**
+     * @return the frame as it is written on a score sheet, for example "X", "7/", "81" or "X9/"
+     */
+    @Override
+    public String toString() {
+        StringBuilder marks = new StringBuilder(3);
+        marks.append(firstPinCount == maxPins ? "X" : mark(firstPinCount));
+        if (!isLastFrame && firstPinCount == maxPins) {
+            return marks.toString();
+        }
+        marks.append(this.wasSpare() ? "/" : firstPinCount == maxPins && secondPinCount == maxPins ? "X"
+                : mark(secondPinCount));
+        if (thirdPinCount != Frame.emptyPinCount) {
+            boolean isFreshRack = this.wasSpare() || secondPinCount == maxPins;
+            marks.append(thirdPinCount == maxPins && isFreshRack ? "X"
+                    : !isFreshRack && secondPinCount + thirdPinCount == maxPins ? "/" : mark(thirdPinCount));
+        }
+        return marks.toString();
+    }
+
+    private static String mark(int pinCount) {
+        return pinCount == 0 ? "-" : Integer.toString(pinCount);
+    }
+
+    private static void intern(int first, int second, int third, boolean isLastFrame) {
+        frames[key(first, second, third, isLastFrame)] = new CompletedFrame(first, second, third, isLastFrame);
+        numberOfFrames++;
+    }
+
+    private static CompletedFrame lookUp(int first, int second, int third, boolean isLastFrame) throws RuntimeException {
+        boolean isInRange = first >= 0 && first <= maxPins && second >= 0 && second <= maxPins
+                && third >= Frame.emptyPinCount && third <= maxPins;
+        CompletedFrame frame = isInRange ? frames[key(first, second, third, isLastFrame)] : null;
+        if (frame == null) {
+            throw new RuntimeException(String.format(ErrorMessages.notACompletedFrame, first, second, third,
+                    isLastFrame ? "last" : "regular"));
+        }
+        return frame;
+    }
+
+    private static int key(int first, int second, int third, boolean isLastFrame) {
+        int word = Frame.withSecondPins(Frame.withFirstPins(0, first), second);
+        if (third != Frame.emptyPinCount) {
+            word = Frame.withThirdPins(word, third);
+        }
+        return isLastFrame ? Frame.withLastFrame(word) : word;
+    }
+}
@@ -6,6 +6,7 @@ public class ErrorMessages {
     public static final String noThirdPinIfNoStrikeOrSpare= "Cannot set third pin if no strike or spare was achieved";
     public static final String noThirdPinValueExceedsMaxGivenStrike = "Value of third pin(%s) exceeds maximum possible given the max " +
             "pins(%s) and second pin value(%s)";
+    public static final String pinBelowMinValue = "Pin value(%s) cannot be negative";
     public static final String pinExceedsMaxValue = "Pin value(%s) exceeds max value(%s)";
     public static final String firstPinMustBePresentBeforeSecond = "First pin must be present before setting second pin";
     public static final String firstPlusSecondExceedsMax = "First pin count(%s) plus second pin count (%s) exceeds total number of pins possible(%s)";
@@ -15,4 +16,36 @@ public class ErrorMessages {
     public static final String cannotStartGameWithNoNames = "Cannot start game with no player names";
     public static final String numberOfFramesExceedsMax = "The number of frames(%s) has exceeded the max number of frames(%s)";
     public static final String cannotAddScoreIfTheGameIsOver = "The game is over so a score cannot be added";
+    public static final String cannotAddScoreIfTheGameWasAbandoned = "The game was abandoned so a score cannot be added";
+    public static final String invalidPinMask = "Pin mask(%s) has bits set other than the %s pins";
+    public static final String pinMaskKnocksDownFallenPin = "Pin mask(%s) knocks down pins that are not standing(%s)";
+    public static final String rollInBatchRejected = "Roll %s of the batch was rejected so none of the batch was added: %s";
+    public static final String notARollJournal = "The file is not a roll journal or was written by another version";
+    public static final String invalidLaneNumber = "Lane number(%s) must be between 1 and %s";
+    public static final String notAGameSnapshot = "The data is not a game snapshot or was written by another version";
+    public static final String invalidActivePlayerIndex = "Active player index(%s) must be less than the number of players(%s)";
+    public static final String invalidRollInGame = "Game %s was rejected at ball %s(%s): %s";
+    public static final String invalidSubscriptionRequest = "A subscription must request more than 0 events, not %s";
+    public static final String noGameOnLane = "There is no game on lane %s";
+    public static final String pipelineClosed = "The roll pipeline is closed and cannot take more rolls";
+    public static final String invalidBufferSize = "Buffer size(%s) must be a power of two";
+    public static final String notACompletedFrame = "Pins %s, %s, %s are not a completed %s frame";
+    public static final String cannotStartTournamentWithNoEntrants = "Cannot start a tournament with no entrants";
+    public static final String invalidGamesPerSeries = "Games per series(%s) must be between %s and %s";
+    public static final String invalidLaneSchedule = "Cannot schedule %s bowlers per lane on %s lanes";
+    public static final String qualifyingIsOver = "Qualifying is over so no more qualifying games can be added";
+    public static final String seriesAlreadyBowled = "%s has already bowled all %s games of the series";
+    public static final String invalidGameScore = "Invalid game score %s. Must be between 0 and 300";
+    public static final String qualifyingNotFinished = "Qualifying is not finished, %s has bowled %s of %s games";
+    public static final String invalidNumberOfQualifiers = "Number of qualifiers(%s) must be between 2 and the number of entrants(%s)";
+    public static final String matchNotReady = "Match %s of round %s is not ready to be bowled";
+    public static final String notAnArchiveSegment = "%s is not a segment of this game archive or was written by another version";
+    public static final String cannotArchiveUnfinishedGame = "Only a game that is over can be archived";
+    public static final String invalidProbability = "%s(%s) must be between 0 and 1";
+    public static final String invalidLeaveWeights = "Leave weights must be %s weights that are not negative and do not all add up to 0";
+    public static final String noBowlerProfiles = "A simulation needs at least one bowler profile";
+    public static final String notAGameCorpus = "%s is not a game corpus or was written by another version";
+    public static final String laneManagerClosed = "Lane %s is closed and cannot take more work";
+    public static final String cannotRegisterMetrics = "Metrics could not be registered with JMX: %s";
+    public static final String invalidSampleRate = "Sample rate(%s) must be at least 1";
 }
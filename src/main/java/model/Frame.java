@@ -5,111 +5,104 @@ import java.util.Optional;
  * Encapsulates a frame in bowling and has the following attributes:
  * firstPinCount, secondPinCount, thirdPinCount, frameScore, and isLastFrame
  *
+ * All of the attributes are packed into a single int. A frame that belongs to a scorecard is a view over the
+ * scorecard's storage, so reading or writing it reads or writes the scorecard. A frame created on its own has a
+ * storage of its own.
+ *
  * Example usage:
  *  Frame newFrame = new Frame();
  *  newFrame.setFirstPinCount(5);
  *  newFrame.setSecondPinCount(3);
  */
 public class Frame {
-    private Boolean isLastFrame;
-    private Optional<Integer> firstPinCount;
-    private Optional<Integer> secondPinCount;
-    private Optional<Integer> thirdPinCount;
-    private Optional<Integer> frameScore;
+    // Each pin count is stored as count + 1 in 4 bits so that 0 can mean the pin count is not present
+    private static final int pinCountMask = 0xF;
+    private static final int firstPinShift = 0;
+    private static final int secondPinShift = 4;
+    private static final int thirdPinShift = 8;
+    private static final int lastFrameFlag = 1 << 12;
+    // The frame score is stored as score + 1 in 9 bits for the same reason
+    private static final int frameScoreMask = 0x1FF;
+    private static final int frameScoreShift = 13;
     private static final int maxPins = 10;
+    static final int emptyPinCount = -1;
+
+    private int[] words;
+    private int index;
 
     /**
      * Sets all three pin counts to empty and last frame to false
      */
     public Frame() {
-        this.firstPinCount = Optional.empty();
-        this.secondPinCount = Optional.empty();
-        this.thirdPinCount = Optional.empty();
-        this.frameScore = Optional.empty();
-        this.isLastFrame = false;
+        this(new int[1], 0);
+    }
+
+    /**
+     * Creates a view over a frame that is stored in a scorecard
+     * @param words the storage of the scorecard
+     * @param index the index of the frame in the storage
+     */
+    Frame(int[] words, int index) {
+        this.words = words;
+        this.index = index;
     }
 
     public Optional<Integer> getFirstPinCount() {
-        return firstPinCount;
+        return toOptional(getFirstPins(getWord()));
     }
 
     public Optional<Integer> getSecondPinCount() {
-        return secondPinCount;
+        return toOptional(getSecondPins(getWord()));
     }
 
     public Optional<Integer> getThirdPinCount() {
-        return thirdPinCount;
+        return toOptional(getThirdPins(getWord()));
     }
 
     public Optional<Integer> getFrameScore() {
-        return frameScore;
+        return toOptional(getFrameScore(getWord()));
     }
 
     public Boolean getLastFrame() {
-        return isLastFrame;
+        return isLastFrame(getWord());
     }
 
     public void setLastFrame(Boolean lastFrame) {
-        isLastFrame = lastFrame;
+        setWord(lastFrame ? getWord() | lastFrameFlag : getWord() & ~lastFrameFlag);
     }
 
     /**
      * Sets the number of pins that were knocked down as part of the first throw of the frame.
      * @param firstPinCount the number of pins knocked down
-     * @throws RuntimeException if pin count exceeds the maximum
+     * @throws RuntimeException if pin count exceeds the maximum or is negative
      */
     public boolean setFirstPinCount(int firstPinCount) throws RuntimeException {
-        if (firstPinCount <= maxPins) {
-            this.firstPinCount = Optional.of(firstPinCount);
-            return true;
-        }
-        throw new RuntimeException(String.format(ErrorMessages.pinExceedsMaxValue, firstPinCount, maxPins));
+        throwIfRejected(checkFirstPins(firstPinCount));
+        setWord(withFirstPins(getWord(), firstPinCount));
+        return true;
     }
 
     /**
      * Sets the number of pins that were knocked down as part of the second throw of the frame.
      * @param secondPinCount the number of pins knocked down
-     * @throws RuntimeException if the pin count exceeds the maximum, the first pin hasn't been set, or the addition of
-     * the first and second pin counts are more than the maximum
+     * @throws RuntimeException if the pin count exceeds the maximum or is negative, the first pin hasn't been set, or
+     * the addition of the first and second pin counts are more than the maximum
      */
     public boolean setSecondPinCount(int secondPinCount) throws RuntimeException {
-        if (!firstPinCount.isPresent()) {
-            throw new RuntimeException(ErrorMessages.firstPinMustBePresentBeforeSecond);
-        }
-        if (secondPinCount > maxPins) {
-            throw new RuntimeException(String.format(ErrorMessages.pinExceedsMaxValue, secondPinCount, maxPins));
-        }
-        if (secondPinCount > maxPins - firstPinCount.get() && !isLastFrame) {
-            throw new RuntimeException(String.format(ErrorMessages.firstPlusSecondExceedsMax, firstPinCount.get(), secondPinCount, maxPins));
-        }
-        this.secondPinCount = Optional.of(secondPinCount);
+        throwIfRejected(checkSecondPins(getWord(), secondPinCount));
+        setWord(withSecondPins(getWord(), secondPinCount));
         return true;
     }
     /**
      * Sets the number of pins that were knocked down as part of the third throw of the frame.
      * @param thirdPinCount the number of pins knocked down
-     * @throws RuntimeException if the pin count exceeds the maximum, the first or second pins haven't been set, the
-     * addition of the second and third pin exceeds the max if first throw was a strike counts, or it's not the last
-     * frame, or the second pin has not been set
+     * @throws RuntimeException if the pin count exceeds the maximum or is negative, the first or second pins haven't
+     * been set, the addition of the second and third pin exceeds the max if first throw was a strike counts, or it's
+     * not the last frame, or the second pin has not been set
      */
     public boolean setThirdPinCount(int thirdPinCount) throws RuntimeException {
-        if (!isLastFrame) {
-            throw new RuntimeException(ErrorMessages.noThirdPinIfNotLastFrame);
-        }
-        if (!secondPinCount.isPresent()) {
-            throw new RuntimeException(ErrorMessages.noThirdPinIfNoSecondPin);
-        }
-        if (thirdPinCount > maxPins) {
-            throw new RuntimeException(String.format(ErrorMessages.pinExceedsMaxValue, thirdPinCount, maxPins));
-        }
-        int valOfSecondPinCount = secondPinCount.get();
-        if (!wasSpare() && !wasStrike()) {
-            throw new RuntimeException(ErrorMessages.noThirdPinIfNoStrikeOrSpare);
-        } else if (wasStrike() && valOfSecondPinCount != maxPins && valOfSecondPinCount + thirdPinCount > maxPins) {
-            throw new RuntimeException(String.format(ErrorMessages.noThirdPinValueExceedsMaxGivenStrike, thirdPinCount,
-                    maxPins, valOfSecondPinCount));
-        }
-        this.thirdPinCount = Optional.of(thirdPinCount);
+        throwIfRejected(checkThirdPins(getWord(), thirdPinCount));
+        setWord(withThirdPins(getWord(), thirdPinCount));
         return true;
     }
 
@@ -120,7 +113,7 @@ public class Frame {
      */
     public void setFrameScore(int frameScore) throws RuntimeException  {
         if (frameScore >= 0 && frameScore <= 300) {
-            this.frameScore = Optional.of(frameScore);
+            setWord(withFrameScore(getWord(), frameScore));
         } else {
             throw new RuntimeException(String.format(ErrorMessages.invalidFrameScore, frameScore));
         }
@@ -132,9 +125,7 @@ public class Frame {
      * @return Boolean representing if the frame has a strike
      */
     public Boolean wasStrike() {
-        if (firstPinCount.isPresent() && firstPinCount.get() == maxPins)
-            return true;
-        else return false;
+        return isStrike(getWord());
     }
 
     /**
@@ -143,9 +134,157 @@ public class Frame {
      * @return Boolean representing if the frame has a spare
      */
     public Boolean wasSpare() {
-        if (firstPinCount.isPresent() && secondPinCount.isPresent() && firstPinCount.get() != maxPins
-                && (firstPinCount.get() + secondPinCount.get()) == maxPins) {
-            return true;
-        } else return false;
+        return isSpare(getWord());
+    }
+
+    /**
+     * @return the shared immutable copy of the frame's balls, or empty if the frame has not been completed
+     */
+    public Optional<CompletedFrame> toCompletedFrame() {
+        return Optional.ofNullable(CompletedFrame.fromWord(getWord()));
+    }
+
+    int getWord() {
+        return words[index];
+    }
+
+    private void setWord(int word) {
+        words[index] = word;
+    }
+
+    /**
+     * Points this frame at a frame stored in a scorecard. Used when a frame that was built on its own is added to a
+     * scorecard so that later changes to it are seen by the scorecard.
+     * @param words the storage of the scorecard
+     * @param index the index of the frame in the storage
+     */
+    void bind(int[] words, int index) {
+        this.words = words;
+        this.index = index;
+    }
+
+    private static void throwIfRejected(long result) throws RuntimeException {
+        if (!RollError.isAccepted(result)) {
+            throw RollRejectedException.of(result);
+        }
+    }
+
+    private static Optional<Integer> toOptional(int value) {
+        return value == emptyPinCount ? Optional.empty() : Optional.of(value);
+    }
+
+    // The methods below check a ball against a packed frame without changing it, and return a roll result, see
+    // RollError. A negative pin count cannot be stored, so it is rejected before any other check.
+
+    static long checkFirstPins(int pinCount) {
+        if (pinCount < 0) {
+            return RollError.rejected(RollError.PIN_BELOW_MIN_VALUE, pinCount, 0);
+        }
+        if (pinCount > maxPins) {
+            return RollError.rejected(RollError.PIN_EXCEEDS_MAX_VALUE, pinCount, 0);
+        }
+        return RollError.accepted(0);
+    }
+
+    static long checkSecondPins(int word, int pinCount) {
+        if (pinCount < 0) {
+            return RollError.rejected(RollError.PIN_BELOW_MIN_VALUE, pinCount, 0);
+        }
+        int firstPinCount = getFirstPins(word);
+        if (firstPinCount == emptyPinCount) {
+            return RollError.rejected(RollError.FIRST_PIN_MUST_BE_PRESENT_BEFORE_SECOND, pinCount, 0);
+        }
+        if (pinCount > maxPins) {
+            return RollError.rejected(RollError.PIN_EXCEEDS_MAX_VALUE, pinCount, 0);
+        }
+        // only a strike in the last frame resets the pins for the second ball
+        boolean isFreshRack = isLastFrame(word) && firstPinCount == maxPins;
+        if (pinCount > maxPins - firstPinCount && !isFreshRack) {
+            return RollError.rejected(RollError.FIRST_PLUS_SECOND_EXCEEDS_MAX, pinCount, firstPinCount);
+        }
+        return RollError.accepted(1);
+    }
+
+    static long checkThirdPins(int word, int pinCount) {
+        if (pinCount < 0) {
+            return RollError.rejected(RollError.PIN_BELOW_MIN_VALUE, pinCount, 0);
+        }
+        if (!isLastFrame(word)) {
+            return RollError.rejected(RollError.NO_THIRD_PIN_IF_NOT_LAST_FRAME, pinCount, 0);
+        }
+        int secondPinCount = getSecondPins(word);
+        if (secondPinCount == emptyPinCount) {
+            return RollError.rejected(RollError.NO_THIRD_PIN_IF_NO_SECOND_PIN, pinCount, 0);
+        }
+        if (pinCount > maxPins) {
+            return RollError.rejected(RollError.PIN_EXCEEDS_MAX_VALUE, pinCount, 0);
+        }
+        if (!isSpare(word) && !isStrike(word)) {
+            return RollError.rejected(RollError.NO_THIRD_PIN_IF_NO_STRIKE_OR_SPARE, pinCount, 0);
+        }
+        if (isStrike(word) && secondPinCount != maxPins && secondPinCount + pinCount > maxPins) {
+            return RollError.rejected(RollError.THIRD_PIN_EXCEEDS_MAX_GIVEN_STRIKE, pinCount, secondPinCount);
+        }
+        return RollError.accepted(2);
+    }
+
+    // The methods below read and write a packed frame. A value that is not present is returned as emptyPinCount.
+
+    static int getFirstPins(int word) {
+        return ((word >>> firstPinShift) & pinCountMask) - 1;
+    }
+
+    static int getSecondPins(int word) {
+        return ((word >>> secondPinShift) & pinCountMask) - 1;
+    }
+
+    static int getThirdPins(int word) {
+        return ((word >>> thirdPinShift) & pinCountMask) - 1;
+    }
+
+    static int getFrameScore(int word) {
+        return ((word >>> frameScoreShift) & frameScoreMask) - 1;
+    }
+
+    static boolean isLastFrame(int word) {
+        return (word & lastFrameFlag) != 0;
+    }
+
+    static boolean isStrike(int word) {
+        return getFirstPins(word) == maxPins;
+    }
+
+    static boolean isSpare(int word) {
+        int firstPinCount = getFirstPins(word);
+        int secondPinCount = getSecondPins(word);
+        return firstPinCount != emptyPinCount && secondPinCount != emptyPinCount && firstPinCount != maxPins
+                && firstPinCount + secondPinCount == maxPins;
+    }
+
+    static int withFirstPins(int word, int pinCount) {
+        return (word & ~(pinCountMask << firstPinShift)) | ((pinCount + 1) << firstPinShift);
+    }
+
+    static int withSecondPins(int word, int pinCount) {
+        return (word & ~(pinCountMask << secondPinShift)) | ((pinCount + 1) << secondPinShift);
+    }
+
+    static int withThirdPins(int word, int pinCount) {
+        return (word & ~(pinCountMask << thirdPinShift)) | ((pinCount + 1) << thirdPinShift);
+    }
+
+    static int withFrameScore(int word, int frameScore) {
+        return (word & ~(frameScoreMask << frameScoreShift)) | ((frameScore + 1) << frameScoreShift);
+    }
+
+    static int withLastFrame(int word) {
+        return word | lastFrameFlag;
+    }
+
+    /**
+     * @return the pins and last frame flag of a packed frame without its score
+     */
+    static int withoutFrameScore(int word) {
+        return word & ((1 << frameScoreShift) - 1);
     }
 }
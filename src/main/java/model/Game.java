@@ -1,10 +1,19 @@
 package model;
 
+import logging.EventLog;
+import logging.EventType;
+import metrics.GameCompletedEvent;
+import metrics.RollEvent;
+import metrics.RollMetrics;
+import metrics.RollPhase;
+import metrics.ScoreCalculationEvent;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Encapsulates a game or lane of bowling with the following properties:
@@ -15,11 +24,21 @@ import java.util.logging.Logger;
  * Game game = new Game(playerNames);
  * List<Boolean> threePins = Arrays.asList(true, true, true, false, false, false, false, false, false, false);
  * game.addScore(threePins)
+ * game.addPinMask(0b1111111000);
  */
 public class Game {
     private List<Player> players = new ArrayList<>();
-    private final static Logger logger = Logger.getLogger(Game.class.getName());
+    // copy on write so that getChanges() can add the publisher from any thread while rolls are being added
+    private final List<GameListener> listeners = new CopyOnWriteArrayList<>();
     private int activePlayerIndex;
+    // the number of players whose scorecard is complete, so the game is over when it reaches the number of players
+    private int completedScorecards;
+    // only written by the thread adding rolls, read by any thread
+    private volatile GameView view;
+    // made by the first call to getChanges(), so a game nobody subscribes to has no listeners to tell about its rolls
+    private volatile GameEventPublisher changes;
+    private int laneNumber;
+    private boolean isAbandoned;
 
     public List<Player> getPlayers() {
         return players;
@@ -37,22 +56,101 @@ public class Game {
             }
             activePlayerIndex = 0;
             players.get(0).setActivePlayer(true);
+            this.publishAll(0);
         } else {
             throw new RuntimeException(ErrorMessages.cannotStartGameWithNoNames);
         }
     }
 
+    public int getActivePlayerIndex() {
+        return activePlayerIndex;
+    }
+
     /**
-     * Checks each player's score card to see if it is complete
-     * @return boolean representing if the game is over
+     * @return the lane the game is bowled on, or 0 if it is not on a lane
      */
-    public boolean isGameOver() {
-        for (Player p : players) {
-            if (!p.isPlayerScoreCardComplete()) {
-                return false;
+    public int getLaneNumber() {
+        return laneNumber;
+    }
+
+    /**
+     * Tells the game which lane it is bowled on, so that its flight recorder events can be told apart by lane
+     * @param laneNumber the lane number
+     */
+    public void setLaneNumber(int laneNumber) {
+        this.laneNumber = laneNumber;
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).setLaneNumber(laneNumber);
+        }
+    }
+
+    /**
+     * Gets the latest view of the game. Unlike getPlayers(), this is safe to call from any thread while rolls are being
+     * added, and the view never changes once it has been returned.
+     * @return the view published after the last accepted roll
+     */
+    public GameView getView() {
+        return view;
+    }
+
+    /**
+     * Gets a publisher of the changes to the game: each roll, each frame that gets its final score, each change of the
+     * active player and the end of the game. Every subscriber has its own demand. A subscriber that falls behind is
+     * sent the latest view of the game in place of the events it missed, so a slow subscriber never holds up the rolls.
+     * Events are delivered on the common ForkJoinPool.
+     * @return the publisher, see GameEvent
+     */
+    public Flow.Publisher<GameEvent> getChanges() {
+        GameEventPublisher publisher = changes;
+        if (publisher == null) {
+            synchronized (listeners) {
+                publisher = changes;
+                if (publisher == null) {
+                    publisher = new GameEventPublisher(this, ForkJoinPool.commonPool());
+                    listeners.add(publisher);
+                    changes = publisher;
+                }
             }
         }
-        return true;
+        return publisher;
+    }
+
+    /**
+     * Makes a player the active player without a roll being bowled, used when a game is restored
+     * @param activePlayerIndex the index of the player who bowls next
+     * @throws RuntimeException if there is no player at the index
+     */
+    void setActivePlayerIndex(int activePlayerIndex) throws RuntimeException {
+        if (activePlayerIndex < 0 || activePlayerIndex >= players.size()) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidActivePlayerIndex, activePlayerIndex,
+                    players.size()));
+        }
+        players.get(this.activePlayerIndex).setActivePlayer(false);
+        this.activePlayerIndex = activePlayerIndex;
+        players.get(activePlayerIndex).setActivePlayer(true);
+        this.countCompletedScorecards();
+        // the scorecards of a restored game were filled in without publishing, so every player is copied
+        this.publishAll(view.getVersion() + 1);
+    }
+
+    /**
+     * @param listener told about every roll that is accepted from now on and when the game is over
+     */
+    public void addGameListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeGameListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Checks if every player's score card is complete. The completed score cards are counted as their last ball is
+     * added, so this does not look at the score cards.
+     * @return boolean representing if the game is over
+     */
+    public boolean isGameOver() {
+        return completedScorecards == players.size();
     }
 
     /**
@@ -61,13 +159,158 @@ public class Game {
      * false represents that the pin has been knocked over
      */
     public void addScore(List<Boolean> pins) {
+        long start = RollMetrics.startTimer();
         int score = 0;
         for (Boolean pin : pins) {
             if (pin) { score++; }
         }
+        RollMetrics.record(RollPhase.PIN_COUNT, start);
         this.addScore(score);
     }
 
+    /**
+     * Adds the pins knocked down by a ball to the current active player. Bit 0 of the mask is the head pin (pin 1)
+     * and bit 9 is pin 10. The mask is kept on the player's scorecard, see Scorecard.getPinMask().
+     * @param pinMask the pins that were knocked down by this ball
+     * @throws RuntimeException if the game is already over or was abandoned, the mask has bits other than the ten pins
+     * set, or the mask knocks down a pin that was already down
+     */
+    public void addPinMask(int pinMask) throws RuntimeException {
+        throwIfRejected(this.tryAddPinMask(pinMask));
+    }
+
+    /**
+     * Adds the pins knocked down by a ball like addPinMask(), but returns a roll result instead of throwing when the
+     * ball is rejected. Nothing in the game changes when a ball is rejected.
+     * @param pinMask the pins that were knocked down by this ball
+     * @return the roll result, see RollError
+     */
+    public long tryAddPinMask(int pinMask) {
+        RollEvent event = new RollEvent();
+        event.begin();
+        Player player = players.get(activePlayerIndex);
+        long result = this.addPinMaskRoll(pinMask);
+        this.commitRollEvent(event, player, Integer.bitCount(pinMask), result);
+        return result;
+    }
+
+    private long addPinMaskRoll(int pinMask) {
+        if (isGameOver() || isAbandoned) {
+            return this.rejectFinishedGame(pinMask);
+        }
+        Scorecard scorecard = players.get(activePlayerIndex).getScorecard();
+        int settledFrameCount = scorecard.getSettledFrameCount();
+        long start = RollMetrics.startTimer();
+        long result = scorecard.tryAddPinMaskRoll(pinMask);
+        return this.settleRoll(scorecard, result, Integer.bitCount(pinMask), pinMask, settledFrameCount, start);
+    }
+
+    /**
+     * Adds a batch of scores, for example when a game is imported or recovered. The scores go to the players in turn
+     * order starting with the active player, and the frame scores are worked out once at the end. If any score is
+     * rejected, none of the batch is added.
+     * @param scores the number of pins knocked down by each ball
+     * @throws RuntimeException if the game is over before the batch ends, was abandoned or a score is not valid
+     */
+    public void addScores(int[] scores) throws RuntimeException {
+        this.addBatch(scores, false);
+    }
+
+    /**
+     * Adds a batch of pin masks in the same way as addScores()
+     * @param pinMasks the pins knocked down by each ball, see addPinMask()
+     * @throws RuntimeException if the game is over before the batch ends, was abandoned or a pin mask is not valid
+     */
+    public void addPinMasks(int[] pinMasks) throws RuntimeException {
+        this.addBatch(pinMasks, true);
+    }
+
+    /**
+     * Adds the rolls of a batch one after the other without scoring frames or touching isActivePlayer, then does both
+     * once. The scorecards are copied first so that they can be put back if a roll is rejected, and they hold back
+     * the log lines and flight recorder events of the rolls until the whole batch is kept.
+     * @param rolls the scores or pin masks of the batch
+     * @param isPinMasks true if the rolls are pin masks
+     * @throws RuntimeException if a roll is rejected, with the rejection as its cause
+     */
+    private void addBatch(int[] rolls, boolean isPinMasks) throws RuntimeException {
+        if (rolls.length == 0) {
+            return;
+        }
+        Scorecard[] copies = new Scorecard[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            copies[i] = players.get(i).getScorecard().copy();
+            players.get(i).getScorecard().beginBatch();
+        }
+        // the copies have the settled frame counts from before the batch
+        int firstActivePlayerIndex = activePlayerIndex;
+        int firstCompletedScorecards = completedScorecards;
+        // the rolls are only passed to the listeners once the whole batch has been accepted
+        int[] acceptedRolls = listeners.isEmpty() ? null : new int[rolls.length];
+        int rollIndex = 0;
+        try {
+            if (isAbandoned) {
+                throw RollRejectedException.of(RollError.rejected(RollError.GAME_WAS_ABANDONED, rolls[0], 0));
+            }
+            boolean isOver = isGameOver();
+            for (; rollIndex < rolls.length; rollIndex++) {
+                if (isOver) {
+                    throw RollRejectedException.of(RollError.rejected(RollError.GAME_IS_OVER, rolls[rollIndex], 0));
+                }
+                Scorecard scorecard = players.get(activePlayerIndex).getScorecard();
+                int ball = isPinMasks ? scorecard.addPinMaskRoll(rolls[rollIndex]) : scorecard.addRoll(rolls[rollIndex]);
+                if (acceptedRolls != null) {
+                    acceptedRolls[rollIndex] = activePlayerIndex << 8 | scorecard.getIndexOfCurrentFrame() << 4 | ball;
+                }
+                if (scorecard.isReadyForNextFrame()) {
+                    if (scorecard.isScorecardComplete()) {
+                        completedScorecards++;
+                    }
+                    activePlayerIndex = (activePlayerIndex + 1) % players.size();
+                    isOver = isGameOver();
+                }
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < players.size(); i++) {
+                players.get(i).getScorecard().restore(copies[i]);
+                players.get(i).getScorecard().endBatch(false);
+            }
+            activePlayerIndex = firstActivePlayerIndex;
+            completedScorecards = firstCompletedScorecards;
+            if (e instanceof RollRejectedException) {
+                RollMetrics.rollRejected(((RollRejectedException) e).getError().name());
+            }
+            throw new RuntimeException(String.format(ErrorMessages.rollInBatchRejected, rollIndex, e.getMessage()), e);
+        }
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).getScorecard().endBatch(true);
+            players.get(i).getScorecard().settleScores();
+            players.get(i).setActivePlayer(i == activePlayerIndex);
+        }
+        this.publishAll(view.getVersion() + 1);
+        RollMetrics.rollsAccepted(rolls.length);
+        EventLog.log(EventType.BATCH_ADDED, rolls.length, activePlayerIndex, null);
+        if (acceptedRolls != null) {
+            for (int i = 0; i < rolls.length; i++) {
+                int pinMask = isPinMasks ? rolls[i] : -1;
+                int score = isPinMasks ? Integer.bitCount(rolls[i]) : rolls[i];
+                for (int j = 0; j < listeners.size(); j++) {
+                    listeners.get(j).rollAccepted(this, acceptedRolls[i] >>> 8, acceptedRolls[i] >>> 4 & 0xF,
+                            acceptedRolls[i] & 0xF, score, pinMask);
+                }
+            }
+            for (int i = 0; i < players.size(); i++) {
+                this.notifyFramesScored(i, copies[i].getSettledFrameCount());
+            }
+            if (activePlayerIndex != firstActivePlayerIndex) {
+                this.notifyActivePlayerChanged();
+            }
+        }
+        if (isGameOver()) {
+            this.finishGame();
+        }
+    }
+
     /**
      * Adds the score to the current active player. If their turn is over, it will move the
      * activePlayerIndex to the next player. This also sets isActivePlayer on the Player model
@@ -75,18 +318,219 @@ public class Game {
      * @throws RuntimeException if the game is already over and a new score is attempted to be added
      */
     protected void addScore(int score) {
-        if (!isGameOver()) {
-            Player currentActivePlayer = players.get(activePlayerIndex);
-            currentActivePlayer.addScoreToPlayer(score);
-            logger.info("Adding score of " + score + " to " + currentActivePlayer.getName());
-            if (currentActivePlayer.isPlayersTurnOver()) {
-                players.get(activePlayerIndex).setActivePlayer(false);
-                activePlayerIndex = (activePlayerIndex + 1) % players.size();
-                players.get(activePlayerIndex).setActivePlayer(true);
-                logger.info("Setting active player to " + players.get(activePlayerIndex).getName());
+        throwIfRejected(this.tryAddScore(score));
+    }
+
+    /**
+     * Adds the score to the current active player like addScore(), but returns a roll result instead of throwing
+     * @param score the score to be added to the player
+     * @return the roll result, see RollError
+     */
+    protected long tryAddScore(int score) {
+        RollEvent event = new RollEvent();
+        event.begin();
+        Player player = players.get(activePlayerIndex);
+        long result = this.addScoreRoll(score);
+        this.commitRollEvent(event, player, score, result);
+        return result;
+    }
+
+    private long addScoreRoll(int score) {
+        if (isGameOver() || isAbandoned) {
+            return this.rejectFinishedGame(score);
+        }
+        Scorecard scorecard = players.get(activePlayerIndex).getScorecard();
+        int settledFrameCount = scorecard.getSettledFrameCount();
+        long start = RollMetrics.startTimer();
+        long result = scorecard.tryAddRoll(score);
+        return this.settleRoll(scorecard, result, score, -1, settledFrameCount, start);
+    }
+
+    /**
+     * Rejects a roll for a game that is over or was abandoned
+     * @param value the score or pin mask of the roll
+     * @return the roll result
+     */
+    private long rejectFinishedGame(int value) {
+        RollError error = isAbandoned ? RollError.GAME_WAS_ABANDONED : RollError.GAME_IS_OVER;
+        RollMetrics.rollRejected(error.name());
+        return RollError.rejected(error, value, 0);
+    }
+
+    /**
+     * Settles the frame scores and finishes the roll if the scorecard accepted it, timing each phase if the roll is
+     * sampled by RollMetrics
+     * @param start when the roll was handed to the scorecard, or 0 if its phases are not timed
+     * @return the roll result
+     */
+    private long settleRoll(Scorecard scorecard, long result, int score, int pinMask, int settledFrameCount,
+                            long start) {
+        if (!RollError.isAccepted(result)) {
+            RollMetrics.rollRejected(RollError.of(result).name());
+            return result;
+        }
+        long time = RollMetrics.record(RollPhase.SCORECARD_UPDATE, start);
+        ScoreCalculationEvent event = new ScoreCalculationEvent();
+        event.begin();
+        int totalScore = scorecard.settleScores();
+        scorecard.commitScoreCalculation(event, totalScore, false);
+        time = RollMetrics.record(RollPhase.CALCULATE_SCORE, time);
+        this.finishRoll(score, pinMask, RollError.getBall(result), settledFrameCount);
+        RollMetrics.record(RollPhase.TURN_CHANGE, time);
+        RollMetrics.rollAccepted();
+        return result;
+    }
+
+    /**
+     * Records a roll with the flight recorder, if a recording wants it
+     * @param event the event begun when the roll came in
+     * @param player the player who bowled the ball
+     * @param pinCount the number of pins the ball knocked down
+     * @param result the roll result
+     */
+    private void commitRollEvent(RollEvent event, Player player, int pinCount, long result) {
+        if (event.shouldCommit()) {
+            event.lane = laneNumber;
+            event.player = player.getName();
+            event.frame = Math.max(0, player.getScorecard().getFrames().size() - 1);
+            event.pinCount = pinCount;
+            event.accepted = RollError.isAccepted(result);
+            event.commit();
+        }
+    }
+
+    private static void throwIfRejected(long result) throws RuntimeException {
+        if (!RollError.isAccepted(result)) {
+            throw RollRejectedException.of(result);
+        }
+    }
+
+    /**
+     * Moves the activePlayerIndex to the next player if the current active player's turn is over, publishes the new
+     * view and then tells the listeners about the roll
+     * @param score the number of pins the ball knocked down
+     * @param pinMask the pins the ball knocked down or -1 if only the number is known
+     * @param ball the ball of the frame that was bowled
+     * @param settledFrameCount the number of frames of the player that had their final score before the roll
+     */
+    private void finishRoll(int score, int pinMask, int ball, int settledFrameCount) {
+        int rollPlayerIndex = activePlayerIndex;
+        Player currentActivePlayer = players.get(activePlayerIndex);
+        EventLog.log(EventType.SCORE_ADDED, score, activePlayerIndex, currentActivePlayer.getName());
+        int frameIndex = currentActivePlayer.getScorecard().getIndexOfCurrentFrame();
+        boolean isTurnOver = currentActivePlayer.isPlayersTurnOver();
+        if (isTurnOver) {
+            if (currentActivePlayer.isPlayerScoreCardComplete()) {
+                completedScorecards++;
             }
-        } else {
-            throw new RuntimeException(ErrorMessages.cannotAddScoreIfTheGameIsOver);
+            players.get(activePlayerIndex).setActivePlayer(false);
+            activePlayerIndex = (activePlayerIndex + 1) % players.size();
+            players.get(activePlayerIndex).setActivePlayer(true);
+            EventLog.log(EventType.ACTIVE_PLAYER_CHANGED, activePlayerIndex, 0,
+                    players.get(activePlayerIndex).getName());
+        }
+        this.publish(rollPlayerIndex);
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).rollAccepted(this, rollPlayerIndex, frameIndex, ball, score, pinMask);
+        }
+        this.notifyFramesScored(rollPlayerIndex, settledFrameCount);
+        if (isTurnOver) {
+            this.notifyActivePlayerChanged();
+            if (isGameOver()) {
+                this.finishGame();
+            }
+        }
+    }
+
+    /**
+     * Tells the listeners about the frames of a player that got their final score since settledFrameCount
+     * @param playerIndex the index of the player
+     * @param settledFrameCount the number of frames that had their final score before
+     */
+    private void notifyFramesScored(int playerIndex, int settledFrameCount) {
+        Scorecard scorecard = players.get(playerIndex).getScorecard();
+        for (int frameIndex = settledFrameCount; frameIndex < scorecard.getSettledFrameCount(); frameIndex++) {
+            int frameScore = scorecard.getFrameScore(frameIndex);
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).frameScored(this, playerIndex, frameIndex, frameScore);
+            }
+        }
+    }
+
+    private void notifyActivePlayerChanged() {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).activePlayerChanged(this, activePlayerIndex);
+        }
+    }
+
+    /**
+     * Publishes a new view that shares every player with the last view except the one whose scorecard changed
+     * @param playerIndex the player whose scorecard changed
+     */
+    private void publish(int playerIndex) {
+        this.view = view.next(playerIndex, players.get(playerIndex).getScorecard().toView(), activePlayerIndex,
+                isGameOver());
+    }
+
+    /**
+     * Publishes a new view with every player copied, used when any of the scorecards could have changed
+     * @param version the version of the view
+     */
+    private void publishAll(long version) {
+        PlayerView[] playerViews = new PlayerView[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            playerViews[i] = new PlayerView(players.get(i).getName(), players.get(i).getScorecard().toView());
+        }
+        this.view = new GameView(version, playerViews, activePlayerIndex, isGameOver());
+    }
+
+    /**
+     * Counts the complete score cards again, for when the score cards were filled in without going through the game
+     */
+    private void countCompletedScorecards() {
+        int count = 0;
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).isPlayerScoreCardComplete()) {
+                count++;
+            }
+        }
+        this.completedScorecards = count;
+    }
+
+    /**
+     * Tells the listeners that the game will never be finished, for example because another game was started on its
+     * lane, and rejects any roll added to it from then on. Abandoning a game that is over, or that was already
+     * abandoned, does nothing.
+     */
+    public void abandon() {
+        if (isGameOver() || isAbandoned) {
+            return;
+        }
+        isAbandoned = true;
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).gameAbandoned(this);
+        }
+    }
+
+    private void finishGame() {
+        EventLog.log(EventType.GAME_OVER, players.size(), 0, null);
+        RollMetrics.gameCompleted();
+        GameCompletedEvent event = new GameCompletedEvent();
+        if (event.shouldCommit()) {
+            Player winner = players.get(0);
+            for (int i = 1; i < players.size(); i++) {
+                if (players.get(i).getScorecard().getTotalScore() > winner.getScorecard().getTotalScore()) {
+                    winner = players.get(i);
+                }
+            }
+            event.lane = laneNumber;
+            event.player = winner.getName();
+            event.players = players.size();
+            event.score = winner.getScorecard().getTotalScore();
+            event.commit();
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).gameOver(this);
         }
     }
 }
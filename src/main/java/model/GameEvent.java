@@ -0,0 +1,80 @@
+package model;
+
+/**
+ * A change to a game, see Game.getChanges(). Every event carries the view of the game that was published with it, so
+ * a subscriber that only cares about the latest state can ignore the rest of the event. Fields that do not apply to
+ * the type of event are -1.
+ */
+public final class GameEvent {
+    public enum Type {
+        // a roll was accepted: playerIndex, frameIndex, ball, pinCount and pinMask are set
+        ROLL_ACCEPTED,
+        // a frame got its final score: playerIndex, frameIndex and score are set
+        FRAME_SCORED,
+        // the turn moved on: playerIndex is the player who bowls next
+        ACTIVE_PLAYER_CHANGED,
+        GAME_OVER,
+        // sent first to a new subscriber, and in place of the events that a subscriber fell too far behind to be sent
+        LATEST_STATE
+    }
+
+    private final Type type;
+    private final GameView view;
+    private final int playerIndex;
+    private final int frameIndex;
+    private final int ball;
+    private final int pinCount;
+    private final int pinMask;
+    private final int score;
+
+    GameEvent(Type type, GameView view, int playerIndex, int frameIndex, int ball, int pinCount, int pinMask,
+              int score) {
+        this.type = type;
+        this.view = view;
+        this.playerIndex = playerIndex;
+        this.frameIndex = frameIndex;
+        this.ball = ball;
+        this.pinCount = pinCount;
+        this.pinMask = pinMask;
+        this.score = score;
+    }
+
+    static GameEvent of(Type type, GameView view, int playerIndex) {
+        return new GameEvent(type, view, playerIndex, -1, -1, -1, -1, -1);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public GameView getView() {
+        return view;
+    }
+
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+
+    public int getFrameIndex() {
+        return frameIndex;
+    }
+
+    public int getBall() {
+        return ball;
+    }
+
+    public int getPinCount() {
+        return pinCount;
+    }
+
+    /**
+     * @return the pins knocked down by the roll or -1 if the roll was added as a number of pins
+     */
+    public int getPinMask() {
+        return pinMask;
+    }
+
+    public int getScore() {
+        return score;
+    }
+}
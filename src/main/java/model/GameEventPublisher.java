@@ -0,0 +1,229 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the changes to a game to any number of subscribers, see Game.getChanges(). It listens to the game on the
+ * thread that adds rolls and only ever puts events in a subscriber's buffer there. The events are passed to the
+ * subscriber by a task on the executor, as far as the subscriber's demand allows.
+ *
+ * A subscriber's buffer holds at most bufferSize events. When it is full, the events in it are dropped and replaced
+ * with one LATEST_STATE event, which then keeps being replaced with the latest view until the subscriber takes it. So a
+ * subscriber that stops requesting costs one event of memory and the game is never held up.
+ */
+final class GameEventPublisher implements Flow.Publisher<GameEvent>, GameListener {
+    static final int bufferSize = 256;
+    private static final ChangeSubscription[] noSubscriptions = new ChangeSubscription[0];
+    private final Game game;
+    private final Executor executor;
+    // copied on write so that the thread adding rolls can read it without a lock
+    private volatile ChangeSubscription[] subscriptions = noSubscriptions;
+
+    GameEventPublisher(Game game, Executor executor) {
+        this.game = game;
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribes to the game. The first event the subscriber is sent is the LATEST_STATE of the game. Events for a roll
+     * that is being added while the subscriber subscribes can also be sent, so the version of the views can be used
+     * to skip events that are already part of the first state.
+     * @param subscriber the subscriber
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        Objects.requireNonNull(subscriber);
+        ChangeSubscription subscription = new ChangeSubscription(subscriber);
+        synchronized (this) {
+            ChangeSubscription[] current = subscriptions;
+            ChangeSubscription[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = subscription;
+            subscriptions = next;
+        }
+        // read after the subscription is added, so any roll that this view misses is offered to the subscription
+        GameView view = game.getView();
+        subscription.offer(GameEvent.of(GameEvent.Type.LATEST_STATE, view, view.getActivePlayerIndex()),
+                view.isGameOver());
+        // the subscriber has not been told about the subscription yet, so the task has to run without any demand
+        subscription.schedule();
+    }
+
+    @Override
+    public void rollAccepted(Game game, int playerIndex, int frameIndex, int ball, int pinCount, int pinMask) {
+        ChangeSubscription[] current = subscriptions;
+        if (current.length > 0) {
+            offerToAll(current, new GameEvent(GameEvent.Type.ROLL_ACCEPTED, game.getView(), playerIndex, frameIndex,
+                    ball, pinCount, pinMask, -1), false);
+        }
+    }
+
+    @Override
+    public void frameScored(Game game, int playerIndex, int frameIndex, int score) {
+        ChangeSubscription[] current = subscriptions;
+        if (current.length > 0) {
+            offerToAll(current, new GameEvent(GameEvent.Type.FRAME_SCORED, game.getView(), playerIndex, frameIndex,
+                    -1, -1, -1, score), false);
+        }
+    }
+
+    @Override
+    public void activePlayerChanged(Game game, int playerIndex) {
+        ChangeSubscription[] current = subscriptions;
+        if (current.length > 0) {
+            offerToAll(current, GameEvent.of(GameEvent.Type.ACTIVE_PLAYER_CHANGED, game.getView(), playerIndex), false);
+        }
+    }
+
+    @Override
+    public void gameOver(Game game) {
+        ChangeSubscription[] current = subscriptions;
+        if (current.length > 0) {
+            offerToAll(current, GameEvent.of(GameEvent.Type.GAME_OVER, game.getView(), -1), true);
+        }
+    }
+
+    private static void offerToAll(ChangeSubscription[] current, GameEvent event, boolean isLast) {
+        for (ChangeSubscription subscription : current) {
+            subscription.offer(event, isLast);
+        }
+    }
+
+    private synchronized void remove(ChangeSubscription subscription) {
+        ChangeSubscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                ChangeSubscription[] next = Arrays.copyOf(current, current.length - 1);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                subscriptions = next.length == 0 ? noSubscriptions : next;
+                return;
+            }
+        }
+    }
+
+    /**
+     * The buffer and demand of one subscriber. Only one task at a time passes events to the subscriber, so the
+     * subscriber's methods are never called at the same time.
+     */
+    private final class ChangeSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super GameEvent> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingRuns = new AtomicInteger();
+        // guarded by this
+        private final ArrayDeque<GameEvent> buffer = new ArrayDeque<>();
+        private boolean isCoalescing;
+        private boolean isCompleteAfterBuffer;
+        // only used by the task passing events to the subscriber
+        private boolean isSubscribed;
+        private volatile boolean isCancelled;
+        // a request for n <= 0 events is only reported to the subscriber by the task, so it is kept until then
+        private volatile long invalidRequest = 1;
+
+        ChangeSubscription(Flow.Subscriber<? super GameEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Buffers an event and makes sure a task is going to pass it on. Without demand there is nothing for a task to
+         * do, so none is started; request() starts one.
+         * @param event the event
+         * @param isLast true if no more events will follow, so the subscriber is completed once it has been sent
+         */
+        void offer(GameEvent event, boolean isLast) {
+            if (isCancelled) {
+                return;
+            }
+            synchronized (this) {
+                if (isCoalescing || buffer.size() >= bufferSize) {
+                    buffer.clear();
+                    buffer.add(GameEvent.of(GameEvent.Type.LATEST_STATE, event.getView(),
+                            event.getView().getActivePlayerIndex()));
+                    isCoalescing = true;
+                } else {
+                    buffer.add(event);
+                }
+                isCompleteAfterBuffer |= isLast;
+            }
+            if (isLast || demand.get() > 0) {
+                schedule();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = n;
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            isCancelled = true;
+            remove(this);
+        }
+
+        private void schedule() {
+            if (pendingRuns.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int runs = 1;
+            do {
+                this.passEvents();
+                runs = pendingRuns.addAndGet(-runs);
+            } while (runs != 0);
+        }
+
+        private void passEvents() {
+            if (isCancelled) {
+                return;
+            }
+            try {
+                if (!isSubscribed) {
+                    isSubscribed = true;
+                    subscriber.onSubscribe(this);
+                }
+                if (invalidRequest <= 0) {
+                    this.cancel();
+                    subscriber.onError(new IllegalArgumentException(
+                            String.format(ErrorMessages.invalidSubscriptionRequest, invalidRequest)));
+                    return;
+                }
+                while (!isCancelled && demand.get() > 0) {
+                    GameEvent event;
+                    synchronized (this) {
+                        event = buffer.poll();
+                        isCoalescing = false;
+                    }
+                    if (event == null) {
+                        break;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(event);
+                }
+                boolean isComplete;
+                synchronized (this) {
+                    isComplete = isCompleteAfterBuffer && buffer.isEmpty();
+                }
+                if (isComplete && !isCancelled) {
+                    this.cancel();
+                    subscriber.onComplete();
+                }
+            } catch (RuntimeException e) {
+                // a subscriber that throws has broken the Flow rules, so it is not sent anything else
+                this.cancel();
+            }
+        }
+    }
+}
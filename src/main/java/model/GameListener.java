@@ -0,0 +1,55 @@
+package model;
+
+/**
+ * Listens to a game for rolls being accepted, frames being scored, the turn moving on and the game being over. The
+ * methods are called on the thread that added the roll, after the roll has been added to the scorecard and the game's
+ * view has been published, so they should be quick.
+ *
+ * Example usage:
+ * game.addGameListener((g, playerIndex, frameIndex, ball, pinCount, pinMask) -> journal.append(...));
+ */
+public interface GameListener {
+    /**
+     * Called for every roll the game accepts. Rolls of a batch are passed on once the whole batch has been accepted.
+     * @param game the game the roll was added to
+     * @param playerIndex the index of the player who bowled
+     * @param frameIndex the index of the frame the roll was added to
+     * @param ball the ball of the frame: 0, 1 or 2
+     * @param pinCount the number of pins knocked down
+     * @param pinMask the pins knocked down (bit 0 is pin 1) or -1 if the roll was added as a number of pins
+     */
+    void rollAccepted(Game game, int playerIndex, int frameIndex, int ball, int pinCount, int pinMask);
+
+    /**
+     * Called once for each frame when it gets its final score, after the roll that settled it
+     * @param game the game the frame is in
+     * @param playerIndex the index of the player whose frame it is
+     * @param frameIndex the index of the frame
+     * @param score the player's score up to and including the frame
+     */
+    default void frameScored(Game game, int playerIndex, int frameIndex, int score) {
+    }
+
+    /**
+     * Called when the turn moves on to another player
+     * @param game the game
+     * @param playerIndex the index of the player who bowls next
+     */
+    default void activePlayerChanged(Game game, int playerIndex) {
+    }
+
+    /**
+     * Called once when the last roll of the game has been accepted
+     * @param game the game that is over
+     */
+    default void gameOver(Game game) {
+    }
+
+    /**
+     * Called once when a game that is not over will never be finished, for example because another game was started
+     * on its lane
+     * @param game the game that was abandoned
+     */
+    default void gameAbandoned(Game game) {
+    }
+}
@@ -0,0 +1,244 @@
+package model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes a game to a compact binary snapshot and reads it back, so that a running game can be checkpointed or handed
+ * to another host. A snapshot holds the players' names, the balls each player has bowled (with their pin masks) and
+ * the active player. The frame scores are not stored, they are worked out again when the snapshot is read.
+ *
+ * Layout, where varint is an unsigned LEB128 number:
+ *  magic byte, version byte, varint number of players, varint active player index
+ *  then for each player:
+ *   varint name length, name in UTF-8, varint number of balls << 2 | encoding, varint index of the current frame,
+ *   then the balls packed into bits, padded to a whole byte. The encoding says how each ball is packed:
+ *   counts is 4 bits of pins, pinMasks is 10 bits of mask and mixed is a 1 bit flag followed by either.
+ *
+ * A full game of six players fits in about 120 bytes, or about 220 bytes if every ball was added as a pin mask.
+ *
+ * Example usage:
+ * byte[] snapshot = GameSnapshot.toBytes(game);
+ * Game restored = GameSnapshot.read(ByteBuffer.wrap(snapshot));
+ */
+public final class GameSnapshot {
+    private static final byte magic = (byte) 0xB5;
+    private static final byte version = 1;
+    private static final int maxRolls = 21;
+    private static final int countBits = 4;
+    private static final int pinMaskBits = 10;
+    private static final int counts = 0;
+    private static final int pinMasks = 1;
+    private static final int mixed = 2;
+    // magic and version, two varints, then per player two varints, the longest name and the mixed encoding of each ball
+    private static final int maxHeaderBytes = 2 + 5 + 5;
+    private static final int maxPlayerBytes = 5 + 31 * 3 + 5 + 5 + (maxRolls * (1 + pinMaskBits) + 7) / 8;
+
+    private GameSnapshot() {
+    }
+
+    /**
+     * @param game the game to take a snapshot of
+     * @return the snapshot of the game
+     */
+    public static byte[] toBytes(Game game) {
+        ByteBuffer buffer = ByteBuffer.allocate(maxHeaderBytes + maxPlayerBytes * game.getPlayers().size());
+        write(game, buffer);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Writes a snapshot of the game at the buffer's position and moves the position past it
+     * @param game the game to take a snapshot of
+     * @param buffer where the snapshot is written
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException if the snapshot does not fit in the buffer
+     */
+    public static int write(Game game, ByteBuffer buffer) {
+        int start = buffer.position();
+        List<Player> players = game.getPlayers();
+        int[] pins = new int[maxRolls];
+        int[] masks = new int[maxRolls];
+        buffer.put(magic);
+        buffer.put(version);
+        writeVarint(buffer, players.size());
+        writeVarint(buffer, game.getActivePlayerIndex());
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            byte[] name = player.getName().getBytes(StandardCharsets.UTF_8);
+            writeVarint(buffer, name.length);
+            buffer.put(name);
+            Scorecard scorecard = player.getScorecard();
+            int numberOfRolls = scorecard.getRolls(pins, masks);
+            int encoding = encodingOf(masks, numberOfRolls);
+            writeVarint(buffer, numberOfRolls << 2 | encoding);
+            writeVarint(buffer, scorecard.getIndexOfCurrentFrame());
+            writeRolls(buffer, pins, masks, numberOfRolls, encoding);
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * Reads a snapshot at the buffer's position and moves the position past it. The buffer is read in place, nothing
+     * is copied out of it except the names.
+     * @param buffer holds the snapshot
+     * @return a game in the same state as the game the snapshot was taken of, with no listeners
+     * @throws RuntimeException if the data is not a snapshot or the balls in it are not valid
+     */
+    public static Game read(ByteBuffer buffer) throws RuntimeException {
+        try {
+            if (buffer.get() != magic || buffer.get() != version) {
+                throw new RuntimeException(ErrorMessages.notAGameSnapshot);
+            }
+            int numberOfPlayers = readVarint(buffer);
+            int activePlayerIndex = readVarint(buffer);
+            // every player takes at least one byte, so a count larger than what is left is corrupt
+            boolean isCorrupt = numberOfPlayers < 1 || numberOfPlayers > buffer.remaining()
+                    || activePlayerIndex < 0 || activePlayerIndex >= numberOfPlayers;
+            if (isCorrupt) {
+                throw new RuntimeException(ErrorMessages.notAGameSnapshot);
+            }
+            List<String> names = new ArrayList<>(numberOfPlayers);
+            int[][] rolls = new int[numberOfPlayers][];
+            int[] indexesOfCurrentFrame = new int[numberOfPlayers];
+            for (int i = 0; i < numberOfPlayers; i++) {
+                names.add(readName(buffer));
+                int header = readVarint(buffer);
+                if (header >>> 2 > maxRolls) {
+                    throw new RuntimeException(ErrorMessages.notAGameSnapshot);
+                }
+                indexesOfCurrentFrame[i] = readVarint(buffer);
+                rolls[i] = readRolls(buffer, header >>> 2, header & 3);
+            }
+            Game game = new Game(names);
+            for (int i = 0; i < numberOfPlayers; i++) {
+                Scorecard scorecard = game.getPlayers().get(i).getScorecard();
+                for (int roll : rolls[i]) {
+                    if (roll >= 0) {
+                        scorecard.addRoll(roll);
+                    } else {
+                        scorecard.addPinMaskRoll(~roll);
+                    }
+                }
+                if (rolls[i].length > 0) {
+                    scorecard.settleScores();
+                }
+                if (scorecard.getIndexOfCurrentFrame() != indexesOfCurrentFrame[i]) {
+                    throw new RuntimeException(ErrorMessages.notAGameSnapshot);
+                }
+            }
+            game.setActivePlayerIndex(activePlayerIndex);
+            return game;
+        } catch (BufferUnderflowException e) {
+            throw new RuntimeException(ErrorMessages.notAGameSnapshot, e);
+        }
+    }
+
+    private static int encodingOf(int[] masks, int numberOfRolls) {
+        int withMask = 0;
+        for (int i = 0; i < numberOfRolls; i++) {
+            if (masks[i] >= 0) {
+                withMask++;
+            }
+        }
+        if (withMask == 0) {
+            return counts;
+        }
+        return withMask == numberOfRolls ? pinMasks : mixed;
+    }
+
+    private static void writeRolls(ByteBuffer buffer, int[] pins, int[] masks, int numberOfRolls, int encoding) {
+        long bits = 0;
+        int numberOfBits = 0;
+        for (int i = 0; i < numberOfRolls; i++) {
+            boolean hasMask = encoding == pinMasks || (encoding == mixed && masks[i] >= 0);
+            if (encoding == mixed) {
+                bits |= (hasMask ? 1L : 0L) << numberOfBits++;
+            }
+            bits |= (long) (hasMask ? masks[i] : pins[i]) << numberOfBits;
+            numberOfBits += hasMask ? pinMaskBits : countBits;
+            for (; numberOfBits >= 8; numberOfBits -= 8) {
+                buffer.put((byte) bits);
+                bits >>>= 8;
+            }
+        }
+        if (numberOfBits > 0) {
+            buffer.put((byte) bits);
+        }
+    }
+
+    /**
+     * @return the balls, each one either the number of pins or the complement of its pin mask
+     */
+    private static int[] readRolls(ByteBuffer buffer, int numberOfRolls, int encoding) {
+        if (encoding != counts && encoding != pinMasks && encoding != mixed) {
+            throw new RuntimeException(ErrorMessages.notAGameSnapshot);
+        }
+        int[] rolls = new int[numberOfRolls];
+        long bits = 0;
+        int numberOfBits = 0;
+        for (int i = 0; i < numberOfRolls; i++) {
+            // bytes are only read when the bits are needed so that nothing past the end of the player is read
+            boolean hasMask = encoding == pinMasks;
+            if (encoding == mixed) {
+                if (numberOfBits == 0) {
+                    bits = buffer.get() & 0xFF;
+                    numberOfBits = 8;
+                }
+                hasMask = (bits & 1) != 0;
+                bits >>>= 1;
+                numberOfBits--;
+            }
+            int width = hasMask ? pinMaskBits : countBits;
+            for (; numberOfBits < width; numberOfBits += 8) {
+                bits |= (long) (buffer.get() & 0xFF) << numberOfBits;
+            }
+            int value = (int) (bits & ((1L << width) - 1));
+            rolls[i] = hasMask ? ~value : value;
+            bits >>>= width;
+            numberOfBits -= width;
+        }
+        return rolls;
+    }
+
+    private static String readName(ByteBuffer buffer) {
+        int length = readVarint(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new RuntimeException(ErrorMessages.notAGameSnapshot);
+        }
+        String name;
+        if (buffer.hasArray()) {
+            name = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return name;
+    }
+
+    private static void writeVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new RuntimeException(ErrorMessages.notAGameSnapshot);
+    }
+}
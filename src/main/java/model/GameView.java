@@ -0,0 +1,62 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable copy of a game that is published after every accepted roll, so that scoreboards and other readers on
+ * any thread can read a game while rolls are still being added to it. Reading the latest view is a single volatile
+ * read with no locking, see Game.getView(). A new view only copies the players whose scorecards changed and shares
+ * the rest with the view before it.
+ *
+ * Example usage:
+ * GameView view = gameController.getView();
+ * int score = view.getPlayers().get(view.getActivePlayerIndex()).getScorecard().getTotalScore();
+ */
+public final class GameView {
+    private final long version;
+    private final PlayerView[] players;
+    private final int activePlayerIndex;
+    private final boolean isGameOver;
+
+    GameView(long version, PlayerView[] players, int activePlayerIndex, boolean isGameOver) {
+        this.version = version;
+        this.players = players;
+        this.activePlayerIndex = activePlayerIndex;
+        this.isGameOver = isGameOver;
+    }
+
+    /**
+     * @return a number that goes up by one with each view published for the game
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public List<PlayerView> getPlayers() {
+        return Collections.unmodifiableList(Arrays.asList(players));
+    }
+
+    public int getActivePlayerIndex() {
+        return activePlayerIndex;
+    }
+
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /**
+     * Makes the next view, sharing every player but one with this view
+     * @param playerIndex the player whose scorecard changed
+     * @param scorecard the player's new scorecard
+     * @param activePlayerIndex the player who bowls next
+     * @param isGameOver whether the game is over
+     * @return the next view
+     */
+    GameView next(int playerIndex, ScorecardView scorecard, int activePlayerIndex, boolean isGameOver) {
+        PlayerView[] nextPlayers = players.clone();
+        nextPlayers[playerIndex] = new PlayerView(players[playerIndex].getName(), scorecard);
+        return new GameView(version + 1, nextPlayers, activePlayerIndex, isGameOver);
+    }
+}
@@ -13,6 +13,7 @@ public class Player {
     private Scorecard scorecard;
     private String name;
     private boolean isActivePlayer;
+    private int laneNumber;
     private static final int maxLengthOfName = 32;
 
     /**
@@ -20,8 +21,8 @@ public class Player {
      * @param name the name that is given to the player
      */
     public Player(String name) {
-        setName(name);
         this.scorecard = new Scorecard();
+        setName(name);
         isActivePlayer = false;
     }
 
@@ -37,10 +38,25 @@ public class Player {
         return scorecard;
     }
 
+    /**
+     * @return the player's statistics for this game, see PlayerStatistics.merge() to add them to a season
+     */
+    public PlayerStatistics getStatistics() {
+        return scorecard.getStatistics();
+    }
+
     public String getName() {
         return name;
     }
 
+    /**
+     * @param laneNumber the lane the player's game is bowled on, or 0 if it is not on a lane
+     */
+    void setLaneNumber(int laneNumber) {
+        this.laneNumber = laneNumber;
+        this.scorecard.setOwner(this.name, laneNumber);
+    }
+
     /**
      * Sets the name and validates that the name is between 1 and 31 (inclusive) characters
      * @param name name of the player
@@ -49,6 +65,7 @@ public class Player {
     public void setName(String name) throws RuntimeException {
         if (name.length() > 0 && name.length() < maxLengthOfName) {
             this.name = name;
+            this.scorecard.setOwner(name, this.laneNumber);
         } else {
             throw new RuntimeException(ErrorMessages.invalidNameLength);
         }
@@ -58,6 +75,10 @@ public class Player {
         scorecard.addScoreToScorecard(score);
     }
 
+    public void addPinMaskToPlayer(int pinMask) {
+        scorecard.addPinMaskToScorecard(pinMask);
+    }
+
     public boolean isPlayerScoreCardComplete() {
         return scorecard.isScorecardComplete();
     }
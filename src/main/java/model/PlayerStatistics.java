@@ -0,0 +1,138 @@
+package model;
+
+/**
+ * League statistics for a bowler with the following attributes:
+ * gamesPlayed, totalPins, highGame, framesPlayed, strikes, spares, spareChances and openFrames
+ *
+ * A scorecard updates its statistics as each frame gets its final score and again when the game is complete, so
+ * reading them never walks the frames. Statistics from different games, sessions or lanes can be added together with
+ * merge(). Strikes, spares and open frames are counted once per frame from the first two balls, including in the last
+ * frame.
+ *
+ * Example usage:
+ * PlayerStatistics season = new PlayerStatistics();
+ * season.merge(player.getStatistics());
+ * season.getAverage();
+ */
+public class PlayerStatistics {
+    private static final int maxPins = 10;
+    private int gamesPlayed;
+    private long totalPins;
+    private int highGame;
+    private long framesPlayed;
+    private long strikes;
+    private long spares;
+    private long spareChances;
+    private long openFrames;
+
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * @return the total score of every complete game
+     */
+    public long getTotalPins() {
+        return totalPins;
+    }
+
+    public int getHighGame() {
+        return highGame;
+    }
+
+    public long getFramesPlayed() {
+        return framesPlayed;
+    }
+
+    public long getStrikes() {
+        return strikes;
+    }
+
+    public long getSpares() {
+        return spares;
+    }
+
+    /**
+     * @return the number of frames where the first ball left pins standing
+     */
+    public long getSpareChances() {
+        return spareChances;
+    }
+
+    public long getOpenFrames() {
+        return openFrames;
+    }
+
+    /**
+     * @return the average score of the complete games or 0 if no game is complete
+     */
+    public double getAverage() {
+        return gamesPlayed == 0 ? 0 : (double) totalPins / gamesPlayed;
+    }
+
+    /**
+     * @return the percentage of frames that were strikes or 0 if no frame has been played
+     */
+    public double getStrikePercentage() {
+        return framesPlayed == 0 ? 0 : 100.0 * strikes / framesPlayed;
+    }
+
+    /**
+     * @return the percentage of spare chances that were converted or 0 if there have been none
+     */
+    public double getSpareConversionPercentage() {
+        return spareChances == 0 ? 0 : 100.0 * spares / spareChances;
+    }
+
+    /**
+     * Adds the statistics of other games to these statistics
+     * @param other the statistics to add, which are left as they are
+     */
+    public void merge(PlayerStatistics other) {
+        this.gamesPlayed += other.gamesPlayed;
+        this.totalPins += other.totalPins;
+        this.highGame = Math.max(this.highGame, other.highGame);
+        this.framesPlayed += other.framesPlayed;
+        this.strikes += other.strikes;
+        this.spares += other.spares;
+        this.spareChances += other.spareChances;
+        this.openFrames += other.openFrames;
+    }
+
+    /**
+     * Counts a frame once it has its final score
+     * @param frame the packed frame, see Frame
+     */
+    void frameCompleted(int frame) {
+        framesPlayed++;
+        if (Frame.isStrike(frame)) {
+            strikes++;
+            return;
+        }
+        spareChances++;
+        if (Frame.getFirstPins(frame) + Frame.getSecondPins(frame) == maxPins) {
+            spares++;
+        } else {
+            openFrames++;
+        }
+    }
+
+    /**
+     * Counts a game once every frame has its final score
+     * @param score the total score of the game
+     */
+    void gameCompleted(int score) {
+        gamesPlayed++;
+        totalPins += score;
+        highGame = Math.max(highGame, score);
+    }
+
+    /**
+     * @return a copy of the statistics that shares nothing with them
+     */
+    PlayerStatistics copy() {
+        PlayerStatistics copy = new PlayerStatistics();
+        copy.merge(this);
+        return copy;
+    }
+}
@@ -0,0 +1,22 @@
+package model;
+
+/**
+ * An immutable copy of a player at one point in a game, see GameView
+ */
+public final class PlayerView {
+    private final String name;
+    private final ScorecardView scorecard;
+
+    PlayerView(String name, ScorecardView scorecard) {
+        this.name = name;
+        this.scorecard = scorecard;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ScorecardView getScorecard() {
+        return scorecard;
+    }
+}
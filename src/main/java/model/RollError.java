@@ -0,0 +1,125 @@
+package model;
+
+/**
+ * The reasons a roll can be rejected, each with its text from ErrorMessages. The try methods of Game and Scorecard
+ * return a roll result instead of throwing: a long that holds the error, the value that was rejected and one more
+ * number the message needs, such as the pins that were standing. The message is only formatted when getMessage() is
+ * called, so a pinsetter that sends bad reads costs a comparison per roll rather than an exception.
+ *
+ * Usage example:
+ * long result = game.tryAddPinMask(pinMask);
+ * if (!RollError.isAccepted(result)) {
+ *     countRejection(RollError.of(result));
+ * }
+ */
+public enum RollError {
+    NONE(null),
+    PIN_BELOW_MIN_VALUE(ErrorMessages.pinBelowMinValue),
+    PIN_EXCEEDS_MAX_VALUE(ErrorMessages.pinExceedsMaxValue),
+    FIRST_PIN_MUST_BE_PRESENT_BEFORE_SECOND(ErrorMessages.firstPinMustBePresentBeforeSecond),
+    FIRST_PLUS_SECOND_EXCEEDS_MAX(ErrorMessages.firstPlusSecondExceedsMax),
+    NO_THIRD_PIN_IF_NOT_LAST_FRAME(ErrorMessages.noThirdPinIfNotLastFrame),
+    NO_THIRD_PIN_IF_NO_SECOND_PIN(ErrorMessages.noThirdPinIfNoSecondPin),
+    NO_THIRD_PIN_IF_NO_STRIKE_OR_SPARE(ErrorMessages.noThirdPinIfNoStrikeOrSpare),
+    THIRD_PIN_EXCEEDS_MAX_GIVEN_STRIKE(ErrorMessages.noThirdPinValueExceedsMaxGivenStrike),
+    SCORECARD_ALREADY_COMPLETE(ErrorMessages.scorecardAlreadyComplete),
+    GAME_IS_OVER(ErrorMessages.cannotAddScoreIfTheGameIsOver),
+    INVALID_PIN_MASK(ErrorMessages.invalidPinMask),
+    PIN_MASK_KNOCKS_DOWN_FALLEN_PIN(ErrorMessages.pinMaskKnocksDownFallenPin),
+    GAME_WAS_ABANDONED(ErrorMessages.cannotAddScoreIfTheGameWasAbandoned);
+
+    private static final int maxPins = 10;
+    private static final RollError[] errors = values();
+    // a roll result is the error in the low byte, the value from bit 8 and the detail from bit 40
+    private static final int valueShift = 8;
+    private static final int detailShift = 40;
+    private final String template;
+
+    RollError(String template) {
+        this.template = template;
+    }
+
+    /**
+     * @return the ErrorMessages text of the error, or null for NONE
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return true if the message of the error does not depend on the roll
+     */
+    boolean hasFixedMessage() {
+        return template != null && !template.contains("%");
+    }
+
+    /**
+     * @param result a roll result
+     * @return true if the roll was added
+     */
+    public static boolean isAccepted(long result) {
+        return (result & 0xFF) == 0;
+    }
+
+    /**
+     * @param result a roll result
+     * @return the reason the roll was rejected, or NONE if it was added
+     */
+    public static RollError of(long result) {
+        return errors[(int) result & 0xFF];
+    }
+
+    /**
+     * Formats the message of a rejected roll, which is the same message the throwing methods use
+     * @param result a roll result
+     * @return the message, or null if the roll was added
+     */
+    public static String getMessage(long result) {
+        RollError error = of(result);
+        int value = (int) (result >>> valueShift);
+        int detail = (int) (result >>> detailShift);
+        switch (error) {
+            case NONE:
+                return null;
+            case PIN_BELOW_MIN_VALUE:
+                return String.format(error.template, value);
+            case PIN_EXCEEDS_MAX_VALUE:
+            case INVALID_PIN_MASK:
+                return String.format(error.template, value, maxPins);
+            case FIRST_PLUS_SECOND_EXCEEDS_MAX:
+                return String.format(error.template, detail, value, maxPins);
+            case THIRD_PIN_EXCEEDS_MAX_GIVEN_STRIKE:
+                return String.format(error.template, value, maxPins, detail);
+            case PIN_MASK_KNOCKS_DOWN_FALLEN_PIN:
+                return String.format(error.template, value, detail);
+            default:
+                return error.template;
+        }
+    }
+
+    /**
+     * @param ball the ball of the frame the roll was added to
+     * @return the result of a roll that was added
+     */
+    static long accepted(int ball) {
+        return (long) ball << valueShift;
+    }
+
+    /**
+     * @param result the result of a roll that was added
+     * @return the ball of the frame the roll was added to: 0, 1 or 2
+     */
+    static int getBall(long result) {
+        return (int) (result >>> valueShift);
+    }
+
+    /**
+     * @param error the reason the roll was rejected
+     * @param value the pins or pin mask that were rejected
+     * @param detail the other number in the message, see getMessage(), in 16 bits
+     * @return the result of a rejected roll
+     */
+    static long rejected(RollError error, int value, int detail) {
+        return error.ordinal() | (value & 0xFFFFFFFFL) << valueShift | (long) (detail & 0xFFFF) << detailShift;
+    }
+}
@@ -0,0 +1,48 @@
+package model;
+
+/**
+ * Thrown when a roll is rejected, see RollError. It has no stack trace, and its message is only formatted when it is
+ * read. The exceptions for errors whose message does not depend on the roll are made once and shared.
+ */
+public class RollRejectedException extends RuntimeException {
+    private static final RollRejectedException[] shared = new RollRejectedException[RollError.values().length];
+    private final long result;
+
+    static {
+        for (RollError error : RollError.values()) {
+            if (error.hasFixedMessage()) {
+                shared[error.ordinal()] = new RollRejectedException(RollError.rejected(error, 0, 0));
+            }
+        }
+    }
+
+    private RollRejectedException(long result) {
+        super(null, null, false, false);
+        this.result = result;
+    }
+
+    /**
+     * @param result the result of a rejected roll
+     * @return an exception for the rejection
+     */
+    public static RollRejectedException of(long result) {
+        RollRejectedException exception = shared[RollError.of(result).ordinal()];
+        return exception != null ? exception : new RollRejectedException(result);
+    }
+
+    public RollError getError() {
+        return RollError.of(result);
+    }
+
+    /**
+     * @return the roll result the exception was made from
+     */
+    public long getResult() {
+        return result;
+    }
+
+    @Override
+    public String getMessage() {
+        return RollError.getMessage(result);
+    }
+}
@@ -0,0 +1,115 @@
+package model;
+
+/**
+ * The most points and the expected points that the balls still to come can add to a scorecard, worked out once for
+ * every turn state and pending bonus so that a scorecard only has to look them up after each ball.
+ *
+ * A pending bonus is how many frames still count the next ball and the ball after it as bonus balls: up to two for the
+ * next ball (after a double) and up to one for the ball after it (after a strike). There are six of them, numbered
+ * nextBall * 2 + ballAfter. Every ball is worth its pins once for its own frame and once more for each frame that
+ * counts it as a bonus ball, so a scorecard keeps the points of the balls bowled so far and adds the outlook of its
+ * state to get the final score.
+ *
+ * The expected points assume a typical league bowler who averages around 170 (see firstBall and conversion). The
+ * projection is a guide for the overhead display rather than a prediction for any one bowler.
+ */
+final class ScoreOutlook {
+    private static final int maxNumberOfFrames = 10;
+    private static final int maxNumberOfPins = 10;
+    static final int bonuses = 6;
+    // the chance of knocking down each number of pins on a full rack
+    private static final double[] firstBall = {0.01, 0.005, 0.005, 0.01, 0.02, 0.03, 0.06, 0.10, 0.15, 0.25, 0.36};
+    // the chance of knocking down every pin left standing, by the number standing
+    private static final double[] conversion = {1.0, 0.85, 0.55, 0.45, 0.35, 0.25, 0.20, 0.15, 0.10, 0.05};
+    // the chance of leaving one pin when a spare is missed, the rest of the misses are spread over the other counts
+    private static final double nearMiss = 0.7;
+    private static final short[] maxPoints = new short[(TurnTable.complete + 1) * bonuses];
+    private static final float[] expectedPoints = new float[(TurnTable.complete + 1) * bonuses];
+
+    static {
+        // a ball never goes back to an earlier frame or ball, so every state after this one is already filled in
+        for (int state = TurnTable.complete - 1; state >= 0; state--) {
+            double[] chances = chances(TurnTable.getPinsStanding(state));
+            for (int bonus = 0; bonus < bonuses; bonus++) {
+                int most = 0;
+                double expected = 0;
+                for (int pins = 0; pins < chances.length; pins++) {
+                    int next = TurnTable.next(state, pins);
+                    if (next < 0) {
+                        continue;
+                    }
+                    int index = next * bonuses + nextBonus(state, bonus, pins);
+                    int points = pins * getMultiplier(bonus);
+                    most = Math.max(most, points + maxPoints[index]);
+                    expected += chances[pins] * (points + expectedPoints[index]);
+                }
+                maxPoints[state * bonuses + bonus] = (short) most;
+                expectedPoints[state * bonuses + bonus] = (float) expected;
+            }
+        }
+    }
+
+    private ScoreOutlook() {
+    }
+
+    /**
+     * @param pinsStanding the number of pins standing for the ball
+     * @return the chance of the ball knocking down each number of pins, from 0 to pinsStanding
+     */
+    private static double[] chances(int pinsStanding) {
+        if (pinsStanding == maxNumberOfPins) {
+            return firstBall;
+        }
+        double[] chances = new double[pinsStanding + 1];
+        chances[pinsStanding] = conversion[pinsStanding];
+        double miss = 1 - conversion[pinsStanding];
+        if (pinsStanding == 1) {
+            chances[0] = miss;
+        } else if (pinsStanding > 1) {
+            chances[pinsStanding - 1] = miss * nearMiss;
+            for (int pins = 0; pins < pinsStanding - 1; pins++) {
+                chances[pins] = miss * (1 - nearMiss) / (pinsStanding - 1);
+            }
+        }
+        return chances;
+    }
+
+    /**
+     * @param bonus the pending bonus before the ball
+     * @return how many times the pins of the next ball are counted
+     */
+    static int getMultiplier(int bonus) {
+        return 1 + bonus / 2;
+    }
+
+    /**
+     * @param state the turn state before the ball, see TurnTable
+     * @param bonus the pending bonus before the ball
+     * @param pins the number of pins the ball knocked down
+     * @return the pending bonus after the ball. Strikes and spares in the last frame do not earn bonus balls, the fill
+     * balls are part of the frame
+     */
+    static int nextBonus(int state, int bonus, int pins) {
+        int ballAfter = bonus % 2;
+        boolean isLastFrame = TurnTable.getFrameIndex(state) == maxNumberOfFrames - 1;
+        if (isLastFrame || pins != TurnTable.getPinsStanding(state)) {
+            return ballAfter * 2;
+        }
+        boolean isStrike = TurnTable.getBall(state) == 0;
+        return (ballAfter + 1) * 2 + (isStrike ? 1 : 0);
+    }
+
+    /**
+     * @return the most points the balls still to come can add
+     */
+    static int getMaxPoints(int state, int bonus) {
+        return maxPoints[state * bonuses + bonus];
+    }
+
+    /**
+     * @return the points the balls still to come are expected to add
+     */
+    static float getExpectedPoints(int state, int bonus) {
+        return expectedPoints[state * bonuses + bonus];
+    }
+}
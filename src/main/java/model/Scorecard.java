@@ -1,14 +1,21 @@
 package model;
 
-import java.util.ArrayList;
+import logging.EventLog;
+import logging.EventType;
+import metrics.FrameEvent;
+import metrics.ScoreCalculationEvent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
-import java.util.logging.Logger;
 
 /**
  * Encapsulates of scorecard in bowling and has the following attributes:
  * List<@see org.example.BowlingScoreKeeper.Frame>, totalScore, and indexOfCurrentFrame
  *
+ * The frames are stored as one packed int per frame (see Frame). The frames returned by getFrames() are views over
+ * that storage rather than separate objects.
+ *
  * Example Usage:
  * Scorecard scorecard = new Scorecard();
  * scorecard.addScoreToScorecard(5);
@@ -16,44 +23,113 @@ import java.util.logging.Logger;
 public class Scorecard {
     private static final int maxNumberOfFrames = 10;
     private static final int maxNumberOfPins = 10;
+    private static final int maxBallsPerFrame = 3;
+    private static final int allPins = (1 << maxNumberOfPins) - 1;
+    // Pin masks are stored with this bit set so that 0 can mean there is no mask for the ball
+    private static final int pinMaskPresent = 1 << maxNumberOfPins;
+    private static final int noBatch = -1;
     private int totalScore;
-    private List<Frame> frames = new ArrayList<>();
+    private final int[] frames = new int[maxNumberOfFrames];
+    private final short[] pinMasks = new short[maxNumberOfFrames * maxBallsPerFrame];
+    private int numberOfFrames;
     private int indexOfCurrentFrame;
-    private final static Logger logger = Logger.getLogger(Scorecard.class.getName());
+    private int settledFrameCount;
+    private int settledScore;
+    private int recordedFrameCount;
+    // where the next ball is bowled, see TurnTable
+    private int turnState = TurnTable.start;
+    // the points of the balls bowled so far, counting each ball once more for every frame it is a bonus ball for, and
+    // the bonus still pending on the next balls, see ScoreOutlook
+    private int pointsBowled;
+    private int pendingBonus;
+    private PlayerStatistics statistics = new PlayerStatistics();
+    // the turn state when the batch being added began, or noBatch, see beginBatch()
+    private int batchState = noBatch;
+    // the flight recorder events of the frames finished by the batch, committed once the batch is kept
+    private FrameEvent[] heldFrameEvents;
+    private int heldFrameEventCount;
+    // who the scorecard belongs to, only read to fill in flight recorder events
+    private String playerName;
+    private int laneNumber;
 
     /**
      * Sets indexOfCurrentFrame to 0
      */
     public Scorecard() {
         this.indexOfCurrentFrame = 0;
-        Frame frame = new Frame();
-        frames.add(frame);
+        this.numberOfFrames = 1;
     }
 
+    /**
+     * @return a live list of the frames that have been started. Changes made through a frame are made to the scorecard
+     */
     public List<Frame> getFrames() {
-        return frames;
+        return new AbstractList<Frame>() {
+            @Override
+            public Frame get(int index) {
+                if (index < 0 || index >= numberOfFrames) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + numberOfFrames);
+                }
+                return new Frame(frames, index);
+            }
+
+            @Override
+            public int size() {
+                return numberOfFrames;
+            }
+        };
     }
 
     public int getTotalScore() {
         return totalScore;
     }
 
+    public int getIndexOfCurrentFrame() {
+        return indexOfCurrentFrame;
+    }
+
+    /**
+     * @return the highest final score the scorecard can still reach, which is the total score once it is complete
+     */
+    public int getMaxPossibleScore() {
+        return this.pointsBowled + ScoreOutlook.getMaxPoints(this.turnState, this.pendingBonus);
+    }
+
+    /**
+     * Projects the final score from the balls bowled so far and the chances of a typical league bowler knocking down
+     * each number of pins with the balls still to come, see ScoreOutlook
+     * @return the expected final score, which is the total score once the scorecard is complete
+     */
+    public int getProjectedScore() {
+        return Math.round(this.pointsBowled + ScoreOutlook.getExpectedPoints(this.turnState, this.pendingBonus));
+    }
+
     /**
-     * Determines if the scorecard should go onto the next frame
+     * @return the statistics of the frames that have their final score, and of the game once it is complete
+     */
+    public PlayerStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets the pins that were knocked down by a ball, if the ball was added with addPinMaskToScorecard(). Bit 0 of the
+     * mask is the head pin (pin 1) and bit 9 is pin 10.
+     * @param frameIndex the index of the frame
+     * @param ball 0, 1 or 2 for the first, second or third ball of the frame
+     * @return the pins knocked down by the ball or -1 if the ball has not been bowled or was added as a count
+     */
+    public int getPinMask(int frameIndex, int ball) {
+        int pinMask = pinMasks[frameIndex * maxBallsPerFrame + ball];
+        return pinMask == 0 ? -1 : pinMask & allPins;
+    }
+
+    /**
+     * Determines if the scorecard should go onto the next frame. This and isScorecardComplete() follow the balls added
+     * to the scorecard and the frames passed to addFrame(), not changes made later through a frame.
      * @return boolean representing if the current frame has been completed
      */
     public boolean isReadyForNextFrame() {
-        if (this.isScorecardComplete() || this.indexOfCurrentFrame > frames.size()) {
-            return true;
-        } else if (frames.get(this.indexOfCurrentFrame).getSecondPinCount().isPresent()) {
-            Frame frame = frames.get(this.indexOfCurrentFrame);
-            if (frame.getLastFrame() && (frame.wasSpare() || frame.wasStrike())) {
-                return false;
-            } else {
-                return true;
-            }
-        }
-        return false;
+        return TurnTable.isFrameOver(this.turnState);
     }
 
     /**
@@ -61,132 +137,551 @@ public class Scorecard {
      * @return boolean representing if the scorecard is complete
      */
     public boolean isScorecardComplete() {
-        if (this.frames.size() == maxNumberOfFrames) {
-            Frame lastFrame = this.frames.get(maxNumberOfFrames - 1);
-            return lastFrame.getSecondPinCount().isPresent() && (lastFrame.getThirdPinCount().isPresent()
-                    || (!lastFrame.wasStrike() && !lastFrame.wasSpare()));
-        }
-        return false;
+        return this.turnState == TurnTable.complete;
     }
 
     /**
      * Adds a frame to the scorecard. If the frame is the last frame, the frame will be marked as such.
-     * When the frame is added the indexOfCurrentFrame is also incremented
+     * When the frame is added the indexOfCurrentFrame is also incremented. The frame is copied into the scorecard and
+     * from then on is a view over the scorecard's copy.
      * @param frame the frame to be added to the scorecard.
      * @throws RuntimeException will throw an exception if the number of frames exceeds the max
      */
     protected void addFrame (Frame frame) throws RuntimeException {
-        if (this.frames.size() >= maxNumberOfFrames) {
-            throw new RuntimeException(String.format(ErrorMessages.numberOfFramesExceedsMax, this.frames.size() + 1,
+        FrameEvent event = new FrameEvent();
+        event.begin();
+        this.startFrame(frame.getWord());
+        frame.bind(this.frames, this.indexOfCurrentFrame);
+        this.turnState = TurnTable.fromFrame(this.indexOfCurrentFrame, this.frames[this.indexOfCurrentFrame]);
+        this.countPointsBowled();
+        this.commitFrameEvent(event, this.indexOfCurrentFrame);
+    }
+
+    /**
+     * Records a finished frame with the flight recorder, if a recording wants it. In a batch the event is held until
+     * the batch is kept, see endBatch().
+     * @param event the event begun when the frame, or the ball that finished it, came in
+     * @param frameIndex the index of the frame
+     */
+    private void commitFrameEvent(FrameEvent event, int frameIndex) {
+        boolean isInBatch = this.batchState != noBatch;
+        if (isInBatch) {
+            event.end();
+        }
+        if (!event.shouldCommit()) {
+            return;
+        }
+        int word = this.frames[frameIndex];
+        event.lane = this.laneNumber;
+        event.player = this.playerName;
+        event.frame = frameIndex;
+        event.pinCount = pinsOf(Frame.getFirstPins(word)) + pinsOf(Frame.getSecondPins(word))
+                + pinsOf(Frame.getThirdPins(word));
+        if (!isInBatch) {
+            event.commit();
+            return;
+        }
+        if (this.heldFrameEvents == null) {
+            this.heldFrameEvents = new FrameEvent[maxNumberOfFrames];
+        }
+        this.heldFrameEvents[this.heldFrameEventCount++] = event;
+    }
+
+    private static int pinsOf(int pinCount) {
+        return pinCount == Frame.emptyPinCount ? 0 : pinCount;
+    }
+
+    /**
+     * Tells the scorecard who it belongs to, for the flight recorder events it records
+     * @param playerName the name of the player
+     * @param laneNumber the lane the game is bowled on, or 0 if it is not on a lane
+     */
+    void setOwner(String playerName, int laneNumber) {
+        this.playerName = playerName;
+        this.laneNumber = laneNumber;
+    }
+
+    /**
+     * Works out the points bowled and the pending bonus from the frames, for frames that were not filled in ball by
+     * ball
+     */
+    private void countPointsBowled() {
+        this.pointsBowled = 0;
+        this.pendingBonus = 0;
+        for (int i = 0; i < this.numberOfFrames; i++) {
+            int frame = this.frames[i];
+            int state = TurnTable.stateOf(i, 0, maxNumberOfPins, false);
+            for (int ball = 0; ball < maxBallsPerFrame && state >= 0 && TurnTable.getFrameIndex(state) == i; ball++) {
+                int pinCount = ball == 0 ? Frame.getFirstPins(frame)
+                        : ball == 1 ? Frame.getSecondPins(frame) : Frame.getThirdPins(frame);
+                if (pinCount == Frame.emptyPinCount) {
+                    break;
+                }
+                this.pointsBowled += pinCount * ScoreOutlook.getMultiplier(this.pendingBonus);
+                this.pendingBonus = ScoreOutlook.nextBonus(state, this.pendingBonus, pinCount);
+                state = TurnTable.next(state, pinCount);
+            }
+        }
+    }
+
+    /**
+     * Stores a new frame after the current frame and makes it the current frame
+     * @param frame the packed frame to store
+     * @throws RuntimeException will throw an exception if the number of frames exceeds the max
+     */
+    private void startFrame(int frame) throws RuntimeException {
+        if (this.numberOfFrames >= maxNumberOfFrames) {
+            throw new RuntimeException(String.format(ErrorMessages.numberOfFramesExceedsMax, this.numberOfFrames + 1,
                     maxNumberOfFrames));
         }
-        if (this.frames.size() + 1 == maxNumberOfFrames) {
-            frame.setLastFrame(true);
+        if (this.numberOfFrames + 1 == maxNumberOfFrames) {
+            frame = Frame.withLastFrame(frame);
         }
-        this.frames.add(frame);
+        this.frames[this.numberOfFrames++] = frame;
         indexOfCurrentFrame++;
-        logger.info("Adding a new frame");
+        if (this.batchState == noBatch) {
+            EventLog.log(EventType.FRAME_STARTED, indexOfCurrentFrame, 0, null);
+        }
     }
 
     /**
      * Adds a score to the scorecard. If the current frames are all filled in, it will add a new frame. If a strike
      * is passed in for the score, it will automatically set the second pin to 0 unless it's the last frame. It will
-     * also call calculateScore() so that the frames and total score are always up to date
+     * also rescore the frames that are still waiting on bonus balls so that the frames and total score are always up
+     * to date
      * @param score the score to be added
      * @throws RuntimeException will throw an exception if the scorecard has already been completely filled in
      */
     public void addScoreToScorecard (int score) throws RuntimeException {
-        if (isScorecardComplete()) {
-            throw new RuntimeException(ErrorMessages.scorecardAlreadyComplete);
+        this.addRoll(score);
+        this.settleScores();
+    }
+
+    /**
+     * Adds a ball to the scorecard from the pins that it knocked down, then keeps the pins for later analysis. The pins
+     * are checked against the pins left standing by the earlier balls of the frame whenever those balls were also added
+     * as pin masks.
+     * @param pinMask the pins knocked down, bit 0 is the head pin (pin 1) and bit 9 is pin 10
+     * @throws RuntimeException if the scorecard is complete, the mask has bits other than the ten pins set, the mask
+     * knocks down a pin that is already down, or the score is not valid for the frame
+     */
+    public void addPinMaskToScorecard(int pinMask) throws RuntimeException {
+        this.addPinMaskRoll(pinMask);
+        this.settleScores();
+    }
+
+    /**
+     * Adds a score to the scorecard like addScoreToScorecard(), but returns a roll result instead of throwing when the
+     * score is rejected. Nothing on the scorecard changes when a score is rejected.
+     * @param score the score to be added
+     * @return the roll result, see RollError
+     */
+    public long tryAddScoreToScorecard(int score) {
+        long result = this.tryAddRoll(score);
+        if (RollError.isAccepted(result)) {
+            this.settleScores();
+        }
+        return result;
+    }
+
+    /**
+     * Adds a ball from its pin mask like addPinMaskToScorecard(), but returns a roll result instead of throwing when
+     * the ball is rejected
+     * @param pinMask the pins knocked down, bit 0 is the head pin (pin 1) and bit 9 is pin 10
+     * @return the roll result, see RollError
+     */
+    public long tryAddPinMaskToScorecard(int pinMask) {
+        long result = this.tryAddPinMaskRoll(pinMask);
+        if (RollError.isAccepted(result)) {
+            this.settleScores();
         }
-        if (this.isReadyForNextFrame()) {
-            this.addFrame(new Frame());
+        return result;
+    }
+
+    /**
+     * Adds a score to the scorecard like addScoreToScorecard() but leaves the frame scores alone. Used when several
+     * rolls are added at once, see settleScores().
+     * @param score the score to be added
+     * @return the ball of the current frame that the score was added to: 0, 1 or 2
+     * @throws RuntimeException will throw an exception if the scorecard has already been completely filled in
+     */
+    int addRoll(int score) throws RuntimeException {
+        return RollError.getBall(throwIfRejected(this.tryAddRoll(score)));
+    }
+
+    /**
+     * Adds a score like addRoll() but returns a roll result instead of throwing. The score is checked against the
+     * frame it would go into before anything is stored, so a rejected score does not start a new frame.
+     * @param score the score to be added
+     * @return the roll result, see RollError
+     */
+    long tryAddRoll(int score) {
+        int state = this.turnState;
+        if (state == TurnTable.complete) {
+            return RollError.rejected(RollError.SCORECARD_ALREADY_COMPLETE, score, 0);
+        }
+        boolean isNewFrame = TurnTable.isFrameOver(state);
+        int frame = !isNewFrame ? this.frames[this.indexOfCurrentFrame]
+                : this.numberOfFrames + 1 == maxNumberOfFrames ? Frame.withLastFrame(0) : 0;
+        int ball = TurnTable.getBall(state);
+        long result = ball == 0 ? Frame.checkFirstPins(score)
+                : ball == 1 ? Frame.checkSecondPins(frame, score) : Frame.checkThirdPins(frame, score);
+        if (!RollError.isAccepted(result)) {
+            return result;
+        }
+        int nextState = TurnTable.next(state, score);
+        if (nextState < 0) {
+            // the checks above should reject every ball the turn table cannot take, this keeps the table consistent
+            return RollError.rejected(RollError.FIRST_PLUS_SECOND_EXCEEDS_MAX, score, Frame.getFirstPins(frame));
         }
-        Frame currentFrame = frames.get(this.indexOfCurrentFrame);
-        if (!currentFrame.getFirstPinCount().isPresent()) {
-            currentFrame.setFirstPinCount(score);
-            if (score == maxNumberOfPins && !currentFrame.getLastFrame()) {
-                currentFrame.setSecondPinCount(0);
+        FrameEvent event = new FrameEvent();
+        event.begin();
+        if (isNewFrame) {
+            this.startFrame(0);
+        }
+        if (ball == 0) {
+            frame = Frame.withFirstPins(frame, score);
+            if (score == maxNumberOfPins && !Frame.isLastFrame(frame)) {
+                frame = Frame.withSecondPins(frame, 0);
             }
-        } else if (!currentFrame.getSecondPinCount().isPresent()) {
-            currentFrame.setSecondPinCount(score);
+        } else if (ball == 1) {
+            frame = Frame.withSecondPins(frame, score);
         } else {
-            currentFrame.setThirdPinCount(score);
+            frame = Frame.withThirdPins(frame, score);
+        }
+        this.frames[this.indexOfCurrentFrame] = frame;
+        this.pointsBowled += score * ScoreOutlook.getMultiplier(this.pendingBonus);
+        this.pendingBonus = ScoreOutlook.nextBonus(state, this.pendingBonus, score);
+        this.turnState = nextState;
+        if (this.batchState == noBatch) {
+            EventLog.log(EventType.ROLL_ADDED, score, this.indexOfCurrentFrame, null);
+        }
+        if (TurnTable.isFrameOver(nextState)) {
+            this.commitFrameEvent(event, this.indexOfCurrentFrame);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a ball from its pin mask like addPinMaskToScorecard() but leaves the frame scores alone
+     * @param pinMask the pins knocked down, bit 0 is the head pin (pin 1) and bit 9 is pin 10
+     * @return the ball of the current frame that the pins were added to: 0, 1 or 2
+     * @throws RuntimeException if the mask or the score is not valid, see addPinMaskToScorecard()
+     */
+    int addPinMaskRoll(int pinMask) throws RuntimeException {
+        return RollError.getBall(throwIfRejected(this.tryAddPinMaskRoll(pinMask)));
+    }
+
+    /**
+     * Adds a ball from its pin mask like addPinMaskRoll() but returns a roll result instead of throwing
+     * @param pinMask the pins knocked down, bit 0 is the head pin (pin 1) and bit 9 is pin 10
+     * @return the roll result, see RollError
+     */
+    long tryAddPinMaskRoll(int pinMask) {
+        if ((pinMask & ~allPins) != 0) {
+            return RollError.rejected(RollError.INVALID_PIN_MASK, pinMask, 0);
+        }
+        if (isScorecardComplete()) {
+            return RollError.rejected(RollError.SCORECARD_ALREADY_COMPLETE, pinMask, 0);
         }
-        this.calculateScore();
-        logger.info("Added new score of " + score);
+        int frameIndex = TurnTable.getFrameIndex(this.turnState);
+        int ball = TurnTable.getBall(this.turnState);
+        int pinsStanding = this.getPinsStanding(frameIndex, ball);
+        if ((pinMask & ~pinsStanding) != 0) {
+            return RollError.rejected(RollError.PIN_MASK_KNOCKS_DOWN_FALLEN_PIN, pinMask, pinsStanding);
+        }
+        long result = this.tryAddRoll(Integer.bitCount(pinMask));
+        if (RollError.isAccepted(result)) {
+            this.pinMasks[frameIndex * maxBallsPerFrame + ball] = (short) (pinMask | pinMaskPresent);
+        }
+        return result;
+    }
+
+    private static long throwIfRejected(long result) throws RuntimeException {
+        if (!RollError.isAccepted(result)) {
+            throw RollRejectedException.of(result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of frames at the start of the scorecard that have their final score
+     */
+    int getSettledFrameCount() {
+        return this.settledFrameCount;
+    }
+
+    /**
+     * @param frameIndex the index of the frame
+     * @return the score up to and including the frame or -1 if it has no score
+     */
+    int getFrameScore(int frameIndex) {
+        return Frame.getFrameScore(this.frames[frameIndex]);
+    }
+
+    /**
+     * @return an immutable copy of the frames and score, see GameView
+     */
+    ScorecardView toView() {
+        return new ScorecardView(Arrays.copyOf(this.frames, this.numberOfFrames), this.indexOfCurrentFrame,
+                this.totalScore, this.isScorecardComplete());
+    }
+
+    /**
+     * @return a copy of the scorecard that shares nothing with it, used to undo a batch of rolls
+     */
+    Scorecard copy() {
+        Scorecard copy = new Scorecard();
+        copy.restore(this);
+        return copy;
+    }
+
+    /**
+     * Puts the scorecard back to the state of a copy made with copy()
+     * @param copy the copy to restore
+     */
+    void restore(Scorecard copy) {
+        System.arraycopy(copy.frames, 0, this.frames, 0, maxNumberOfFrames);
+        System.arraycopy(copy.pinMasks, 0, this.pinMasks, 0, this.pinMasks.length);
+        this.totalScore = copy.totalScore;
+        this.numberOfFrames = copy.numberOfFrames;
+        this.indexOfCurrentFrame = copy.indexOfCurrentFrame;
+        this.settledFrameCount = copy.settledFrameCount;
+        this.settledScore = copy.settledScore;
+        this.recordedFrameCount = copy.recordedFrameCount;
+        this.turnState = copy.turnState;
+        this.pointsBowled = copy.pointsBowled;
+        this.pendingBonus = copy.pendingBonus;
+        this.statistics = copy.statistics.copy();
+    }
+
+    /**
+     * Holds back the event log lines and flight recorder events of the rolls added from now on until endBatch(), so a
+     * batch that is undone with restore() leaves no trace of its rolls
+     */
+    void beginBatch() {
+        this.batchState = this.turnState;
+    }
+
+    /**
+     * Ends the batch begun with beginBatch(). If the batch is kept, its rolls and the frames they started are logged
+     * and the frames they finished are recorded with the flight recorder, as if the rolls had been added one by one.
+     * @param isKept true if the rolls of the batch are kept, false if the scorecard was restored to before the batch
+     */
+    void endBatch(boolean isKept) {
+        int state = this.batchState;
+        this.batchState = noBatch;
+        // FRAME_STARTED is logged at a finer level than ROLL_ADDED, so there is nothing to log without ROLL_ADDED
+        if (isKept && EventLog.isLoggable(EventType.ROLL_ADDED)) {
+            while (state >= 0 && state != this.turnState) {
+                int frameIndex = TurnTable.getFrameIndex(state);
+                int ball = TurnTable.getBall(state);
+                int frame = this.frames[frameIndex];
+                int pinCount = ball == 0 ? Frame.getFirstPins(frame)
+                        : ball == 1 ? Frame.getSecondPins(frame) : Frame.getThirdPins(frame);
+                if (TurnTable.isFrameOver(state)) {
+                    EventLog.log(EventType.FRAME_STARTED, frameIndex, 0, null);
+                }
+                EventLog.log(EventType.ROLL_ADDED, pinCount, frameIndex, null);
+                state = TurnTable.next(state, pinCount);
+            }
+        }
+        for (int i = 0; i < this.heldFrameEventCount; i++) {
+            if (isKept) {
+                this.heldFrameEvents[i].commit();
+            }
+            this.heldFrameEvents[i] = null;
+        }
+        this.heldFrameEventCount = 0;
+    }
+
+    /**
+     * Lists the balls that have been bowled, in order. The second ball that is filled in automatically after a strike
+     * is not a real ball, so it is left out. Adding the balls to a new scorecard in the same order, as pin masks where
+     * there is one, gives back this scorecard.
+     * @param pins filled in with the number of pins knocked down by each ball, needs room for 21 balls
+     * @param pinMasks filled in with the pin mask of each ball or -1 if the ball was added as a count
+     * @return the number of balls bowled
+     */
+    public int getRolls(int[] pins, int[] pinMasks) {
+        int numberOfRolls = 0;
+        for (int i = 0; i < this.numberOfFrames; i++) {
+            int frame = this.frames[i];
+            for (int ball = 0; ball < maxBallsPerFrame; ball++) {
+                int pinCount = ball == 0 ? Frame.getFirstPins(frame)
+                        : ball == 1 ? Frame.getSecondPins(frame) : Frame.getThirdPins(frame);
+                if (pinCount == Frame.emptyPinCount) {
+                    break;
+                }
+                if (ball == 1 && Frame.isStrike(frame) && !Frame.isLastFrame(frame)) {
+                    break;
+                }
+                pins[numberOfRolls] = pinCount;
+                pinMasks[numberOfRolls++] = this.getPinMask(i, ball);
+            }
+        }
+        return numberOfRolls;
+    }
+
+    /**
+     * Works out which pins are standing for a ball from the pin masks of the earlier balls of the frame
+     * @param frameIndex the index of the frame
+     * @param ball the ball of the frame that is about to be bowled
+     * @return the pins standing, or all pins if the rack was reset or the earlier ball has no pin mask
+     */
+    private int getPinsStanding(int frameIndex, int ball) {
+        if (ball == 0) {
+            return allPins;
+        }
+        int previousPinMask = this.getPinMask(frameIndex, ball - 1);
+        if (previousPinMask < 0) {
+            return allPins;
+        }
+        if (ball == 1) {
+            // only the last frame can get here after a strike, and then the pins are reset
+            return previousPinMask == allPins ? allPins : allPins & ~previousPinMask;
+        }
+        // third ball of the last frame: the pins are reset after a spare or a second strike
+        int frame = this.frames[frameIndex];
+        if (Frame.isSpare(frame) || Frame.getSecondPins(frame) == maxNumberOfPins) {
+            return allPins;
+        }
+        return allPins & ~previousPinMask;
     }
 
     /**
      * Calculates the total score for the scorecard, sets the totalScore on the model, populates the score of each frame.
+     * This is a full pass over every frame. When scores are added through addScoreToScorecard() only the frames that
+     * are still waiting on bonus balls are rescored, so there is normally no need to call this directly.
      * @return returns the total score of the scorecard
      */
     public int calculateScore() {
-        int totalScore = 0;
-        // creating a copy of the score to make the calculation logic simpler
-        List<Optional<Integer>> scores = this.getCopyOfScores();
-
-        for (int i = 0; i < frames.size(); i++) {
-            // I want to make sure this frame has both values populated. Otherwise, no need to calculate the score.
-            if (scores.get(i * 2).isPresent() && scores.get(i * 2 + 1).isPresent()) {
-                if (frames.get(i).wasSpare()) {
-                    // In the case of spare, need first pin of next frame to calculate
-                    if (scores.get(i * 2 + 2).isPresent()) {
-                        totalScore += maxNumberOfPins + scores.get(i * 2 + 2).get();
-                    }
-                } else if (frames.get(i).wasStrike()) {
-                    // In the case of strike, need second pin of next frame to calculate the score.
-                    if (scores.get(i * 2 + 2).isPresent()) {
-                        if (frames.get(i).getLastFrame()) {
-                            // If it's the last frame, we need to add the next two scores to the strike
-                            totalScore += maxNumberOfPins + scores.get(i * 2 + 1).get() + scores.get(i * 2 + 2).get();
-                        } else if (scores.get(i * 2 + 2).get() == maxNumberOfPins && scores.get(i * 2 + 4).isPresent()) {
-                            // If the next frame is a strike, we need to add the first roll of 2 frames over to the two strikes
-                            totalScore += 2 * maxNumberOfPins + scores.get(i * 2 + 4).get();
-                        } else if (scores.get(i * 2 + 2).get() != maxNumberOfPins && scores.get(i * 2 + 3).isPresent()) {
-                            // If the next frame is not a strike, we need to add the first and second roll of the next frame
-                            totalScore += maxNumberOfPins + scores.get(i * 2 + 2).get() + scores.get(i * 2 + 3).get();
-                        }
-                    }
-                } else {
-                    // in the case where it's neither a strike or spare, we simply add the two scores together
-                    totalScore += scores.get(i * 2).get() + scores.get(i * 2 + 1).get();
-                }
+        ScoreCalculationEvent event = new ScoreCalculationEvent();
+        event.begin();
+        this.settledFrameCount = 0;
+        this.settledScore = 0;
+        int totalScore = this.settleScores();
+        this.commitScoreCalculation(event, totalScore, true);
+        return totalScore;
+    }
+
+    /**
+     * Records working out the frame scores with the flight recorder, if a recording wants it
+     * @param event the event begun before the frames were scored
+     * @param totalScore the score of the scorecard
+     * @param isFullPass true if every frame was scored, false if only the frames that were not settled
+     */
+    void commitScoreCalculation(ScoreCalculationEvent event, int totalScore, boolean isFullPass) {
+        if (event.shouldCommit()) {
+            event.lane = this.laneNumber;
+            event.player = this.playerName;
+            event.frames = this.numberOfFrames;
+            event.score = totalScore;
+            event.fullPass = isFullPass;
+            event.commit();
+        }
+    }
+
+    /**
+     * Scores every frame from the first frame that is not yet final up to the current frame. Frames before
+     * settledFrameCount already have their final score, so in a normal game this touches at most the last three frames
+     * (a double waiting on the next ball plus the frame being bowled).
+     * @return returns the total score of the scorecard
+     */
+    int settleScores() {
+        int totalScore = this.settledScore;
+        boolean isSettled = true;
+        for (int i = this.settledFrameCount; i < numberOfFrames; i++) {
+            int frameScore = this.scoreOfFrame(i);
+            if (frameScore >= 0) {
+                totalScore += frameScore;
+            } else {
+                isSettled = false;
             }
-            logger.info("Setting frame " + i + " to score of " + totalScore);
-            frames.get(i).setFrameScore(totalScore);
+            if (isSettled) {
+                // once a frame can be scored its score never changes, so it does not need to be looked at again
+                this.settledFrameCount = i + 1;
+                this.settledScore = totalScore;
+                EventLog.log(EventType.FRAME_SCORED, i, totalScore, null);
+                this.recordStatistics(i, totalScore);
+            }
+            frames[i] = Frame.withFrameScore(frames[i], totalScore);
         }
         this.totalScore = totalScore;
         return totalScore;
     }
 
     /**
-     * This is a utility method to return the scores of a scorecard as a list of integers to make the logic of
-     * calculateScore() simpler
-     * @return a list of score from the scorecard
+     * Adds a frame that has just got its final score to the statistics. calculateScore() settles the frames again, so
+     * a frame that has already been counted is skipped.
+     * @param index the index of the frame
+     * @param totalScore the score of the scorecard up to and including the frame
      */
-    private List<Optional<Integer>> getCopyOfScores() {
-        // creating a copy of the score to make the calculation logic simpler
-        ArrayList<Optional<Integer>> scores = new ArrayList<>();
-        for (int i = 0; i < maxNumberOfFrames; i++) {
-            if (i < frames.size()) {
-                scores.add(frames.get(i).getFirstPinCount());
-                scores.add(frames.get(i).getSecondPinCount());
-                if (frames.get(i).getLastFrame()) {
-                    scores.add(frames.get(i).getThirdPinCount());
-                }
-            } else {
-                // if the frame is not present, I want to add the rest of the scores so I do not need to worry about
-                // out of bounds exceptions
-                Frame f = new Frame();
-                if (i + 1 == maxNumberOfFrames) {
-                    f.setLastFrame(true);
-                    scores.add(f.getThirdPinCount());
-                }
-                scores.add(f.getFirstPinCount());
-                scores.add(f.getSecondPinCount());
+    private void recordStatistics(int index, int totalScore) {
+        if (index < this.recordedFrameCount) {
+            return;
+        }
+        this.recordedFrameCount = index + 1;
+        this.statistics.frameCompleted(frames[index]);
+        if (index == maxNumberOfFrames - 1) {
+            this.statistics.gameCompleted(totalScore);
+        }
+    }
+
+    /**
+     * Determines the number of points a single frame is worth, including any bonus balls.
+     * @param index the index of the frame to score
+     * @return the points for the frame or -1 if the frame cannot be scored yet
+     */
+    private int scoreOfFrame(int index) {
+        int frame = frames[index];
+        int first = Frame.getFirstPins(frame);
+        int second = Frame.getSecondPins(frame);
+        // I want to make sure this frame has both values populated. Otherwise, no need to calculate the score.
+        if (first == Frame.emptyPinCount || second == Frame.emptyPinCount) {
+            return -1;
+        }
+        if (Frame.isLastFrame(frame)) {
+            // In the last frame the bonus balls are part of the frame itself
+            if (Frame.isStrike(frame) || Frame.isSpare(frame)) {
+                int third = Frame.getThirdPins(frame);
+                return third != Frame.emptyPinCount ? first + second + third : -1;
             }
+            return first + second;
+        }
+        if (Frame.isSpare(frame)) {
+            // In the case of spare, need the next roll to calculate
+            int nextRoll = this.getRollAfterFrame(index, 0);
+            return nextRoll >= 0 ? maxNumberOfPins + nextRoll : -1;
+        }
+        if (Frame.isStrike(frame)) {
+            // In the case of strike, need the next two rolls to calculate
+            int nextRoll = this.getRollAfterFrame(index, 0);
+            int rollAfterNext = this.getRollAfterFrame(index, 1);
+            return nextRoll >= 0 && rollAfterNext >= 0 ? maxNumberOfPins + nextRoll + rollAfterNext : -1;
+        }
+        // in the case where it's neither a strike or spare, we simply add the two scores together
+        return first + second;
+    }
+
+    /**
+     * Finds a roll that was bowled after the given frame. The second ball that is filled in automatically after a
+     * strike is not a real roll, so it is skipped.
+     * @param index the index of the frame
+     * @param offset 0 for the first roll after the frame, 1 for the second roll after the frame
+     * @return the number of pins knocked down by the roll or -1 if it has not been bowled yet
+     */
+    private int getRollAfterFrame(int index, int offset) {
+        if (index + 1 >= numberOfFrames) {
+            return -1;
+        }
+        int nextFrame = frames[index + 1];
+        if (offset == 0) {
+            return Frame.getFirstPins(nextFrame);
+        }
+        if (Frame.isStrike(nextFrame) && !Frame.isLastFrame(nextFrame)) {
+            return this.getRollAfterFrame(index + 1, 0);
         }
-        return scores;
+        return Frame.getSecondPins(nextFrame);
     }
 }
@@ -0,0 +1,76 @@
+package model;
+
+import java.util.Optional;
+
+/**
+ * An immutable copy of a scorecard at one point in a game, see GameView. The frames are read by their index instead
+ * of as Frame objects because a Frame can be changed.
+ */
+public final class ScorecardView {
+    private final int[] frames;
+    private final int indexOfCurrentFrame;
+    private final int totalScore;
+    private final boolean isComplete;
+
+    ScorecardView(int[] frames, int indexOfCurrentFrame, int totalScore, boolean isComplete) {
+        this.frames = frames;
+        this.indexOfCurrentFrame = indexOfCurrentFrame;
+        this.totalScore = totalScore;
+        this.isComplete = isComplete;
+    }
+
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    public int getIndexOfCurrentFrame() {
+        return indexOfCurrentFrame;
+    }
+
+    /**
+     * @return the number of frames that have been started
+     */
+    public int getNumberOfFrames() {
+        return frames.length;
+    }
+
+    public boolean isScorecardComplete() {
+        return isComplete;
+    }
+
+    public Optional<Integer> getFirstPinCount(int frameIndex) {
+        return toOptional(Frame.getFirstPins(frames[frameIndex]));
+    }
+
+    public Optional<Integer> getSecondPinCount(int frameIndex) {
+        return toOptional(Frame.getSecondPins(frames[frameIndex]));
+    }
+
+    public Optional<Integer> getThirdPinCount(int frameIndex) {
+        return toOptional(Frame.getThirdPins(frames[frameIndex]));
+    }
+
+    public Optional<Integer> getFrameScore(int frameIndex) {
+        return toOptional(Frame.getFrameScore(frames[frameIndex]));
+    }
+
+    /**
+     * @param frameIndex the index of the frame
+     * @return the shared immutable copy of the frame's balls, or empty if the frame has not been completed
+     */
+    public Optional<CompletedFrame> getCompletedFrame(int frameIndex) {
+        return Optional.ofNullable(CompletedFrame.fromWord(frames[frameIndex]));
+    }
+
+    public boolean wasStrike(int frameIndex) {
+        return Frame.isStrike(frames[frameIndex]);
+    }
+
+    public boolean wasSpare(int frameIndex) {
+        return Frame.isSpare(frames[frameIndex]);
+    }
+
+    private static Optional<Integer> toOptional(int value) {
+        return value == Frame.emptyPinCount ? Optional.empty() : Optional.of(value);
+    }
+}
@@ -0,0 +1,129 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The progression of a scorecard through its frames and balls, worked out once for every state and pin count so that
+ * a scorecard only has to look it up after each ball.
+ *
+ * A state is where the next ball is bowled: the index of the frame, the ball of the frame, the number of pins standing
+ * and whether a fill ball has been earned in the last frame. A strike on the first ball of the last frame earns the
+ * fill ball before the second ball is bowled, which is why it is part of the state. One more state, complete, is for a
+ * scorecard with every frame filled in.
+ */
+final class TurnTable {
+    private static final int maxNumberOfFrames = 10;
+    private static final int maxNumberOfPins = 10;
+    private static final int maxBallsPerFrame = 3;
+    private static final int pinCounts = maxNumberOfPins + 1;
+    static final int complete = maxNumberOfFrames * maxBallsPerFrame * pinCounts * 2;
+    static final int start = stateOf(0, 0, maxNumberOfPins, false);
+    // the state after knocking down n pins in state s is at s * pinCounts + n, or -1 if that many are not standing
+    private static final short[] transitions = new short[(complete + 1) * pinCounts];
+
+    static {
+        Arrays.fill(transitions, (short) -1);
+        int lastFrame = maxNumberOfFrames - 1;
+        for (int frameIndex = 0; frameIndex < lastFrame; frameIndex++) {
+            int nextFrame = stateOf(frameIndex + 1, 0, maxNumberOfPins, false);
+            for (int pins = 0; pins <= maxNumberOfPins; pins++) {
+                put(stateOf(frameIndex, 0, maxNumberOfPins, false), pins, pins == maxNumberOfPins ? nextFrame
+                        : stateOf(frameIndex, 1, maxNumberOfPins - pins, false));
+            }
+            for (int standing = 0; standing <= maxNumberOfPins; standing++) {
+                for (int pins = 0; pins <= standing; pins++) {
+                    put(stateOf(frameIndex, 1, standing, false), pins, nextFrame);
+                }
+            }
+        }
+        for (int pins = 0; pins <= maxNumberOfPins; pins++) {
+            boolean isStrike = pins == maxNumberOfPins;
+            put(stateOf(lastFrame, 0, maxNumberOfPins, false), pins,
+                    stateOf(lastFrame, 1, isStrike ? maxNumberOfPins : maxNumberOfPins - pins, isStrike));
+            // after a strike the pins are reset for the second ball, and again after a second strike
+            put(stateOf(lastFrame, 1, maxNumberOfPins, true), pins,
+                    stateOf(lastFrame, 2, isStrike ? maxNumberOfPins : maxNumberOfPins - pins, true));
+        }
+        for (int standing = 0; standing <= maxNumberOfPins; standing++) {
+            for (int pins = 0; pins <= standing; pins++) {
+                // a spare earns the fill ball on a fresh rack, an open frame ends the scorecard
+                put(stateOf(lastFrame, 1, standing, false), pins,
+                        pins == standing ? stateOf(lastFrame, 2, maxNumberOfPins, true) : complete);
+                put(stateOf(lastFrame, 2, standing, true), pins, complete);
+            }
+        }
+    }
+
+    private TurnTable() {
+    }
+
+    /**
+     * @param state the state before the ball
+     * @param pins the number of pins the ball knocked down
+     * @return the state after the ball, or -1 if the ball cannot knock down that many pins or the scorecard is complete
+     */
+    static int next(int state, int pins) {
+        if (pins < 0 || pins > maxNumberOfPins) {
+            return -1;
+        }
+        return transitions[state * pinCounts + pins];
+    }
+
+    /**
+     * @return true if the ball before the state finished a frame, so the next ball starts a new frame or there is none
+     */
+    static boolean isFrameOver(int state) {
+        return state == complete || (getBall(state) == 0 && getFrameIndex(state) > 0);
+    }
+
+    static int getFrameIndex(int state) {
+        return state / (2 * pinCounts * maxBallsPerFrame);
+    }
+
+    static int getBall(int state) {
+        return state / (2 * pinCounts) % maxBallsPerFrame;
+    }
+
+    static int getPinsStanding(int state) {
+        return state / 2 % pinCounts;
+    }
+
+    static boolean isFillBallEarned(int state) {
+        return state % 2 == 1;
+    }
+
+    /**
+     * Works out the state of a scorecard from the frame it is on, for frames that were not filled in ball by ball
+     * @param frameIndex the index of the current frame
+     * @param frame the packed current frame, see Frame
+     * @return the state for the next ball
+     */
+    static int fromFrame(int frameIndex, int frame) {
+        int first = Frame.getFirstPins(frame);
+        int second = Frame.getSecondPins(frame);
+        if (first == Frame.emptyPinCount) {
+            return stateOf(frameIndex, 0, maxNumberOfPins, false);
+        }
+        boolean isStrike = first == maxNumberOfPins;
+        if (second == Frame.emptyPinCount) {
+            return stateOf(frameIndex, 1, isStrike ? maxNumberOfPins : maxNumberOfPins - first,
+                    isStrike && Frame.isLastFrame(frame));
+        }
+        if (!Frame.isLastFrame(frame)) {
+            return stateOf(frameIndex + 1, 0, maxNumberOfPins, false);
+        }
+        if ((isStrike || Frame.isSpare(frame)) && Frame.getThirdPins(frame) == Frame.emptyPinCount) {
+            boolean isFreshRack = !isStrike || second == maxNumberOfPins;
+            return stateOf(frameIndex, 2, isFreshRack ? maxNumberOfPins : maxNumberOfPins - second, true);
+        }
+        return complete;
+    }
+
+    static int stateOf(int frameIndex, int ball, int pinsStanding, boolean isFillBallEarned) {
+        return ((frameIndex * maxBallsPerFrame + ball) * pinCounts + pinsStanding) * 2 + (isFillBallEarned ? 1 : 0);
+    }
+
+    private static void put(int state, int pins, int next) {
+        transitions[state * pinCounts + pins] = (short) next;
+    }
+}
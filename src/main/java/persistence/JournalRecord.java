@@ -0,0 +1,43 @@
+package persistence;
+
+/**
+ * The layout of the fixed size records of a RollJournal. Every record is 32 bytes and the type is the first byte. The
+ * type is written last so that a record cut short by a crash still reads as the end of the journal.
+ *
+ * HEADER:        magic at 8, version at 24
+ * GAME_STARTED:  number of players at 1, lane at 4, game id at 8, timestamp at 16
+ * PLAYER_NAME:   player index at 1, chunk length at 3, lane at 4, game id at 8, up to 16 bytes of UTF-8 name at 16
+ * ROLL:          player index at 1, frame at 2, ball at 3, lane at 4, pin mask at 6, game id at 8, timestamp at 16,
+ *                pin count at 24
+ * GAME_OVER:     lane at 4, game id at 8, timestamp at 16, also written for a game that was abandoned
+ */
+final class JournalRecord {
+    static final int size = 32;
+    static final long magic = 0x424f574c4a524e4cL; // "BOWLJRNL"
+    static final int version = 1;
+
+    static final byte end = 0;
+    static final byte header = 1;
+    static final byte gameStarted = 2;
+    static final byte playerName = 3;
+    static final byte roll = 4;
+    static final byte gameOver = 5;
+
+    static final int typeOffset = 0;
+    static final int playerOffset = 1;
+    static final int frameOffset = 2;
+    static final int ballOffset = 3;
+    static final int chunkLengthOffset = 3;
+    static final int laneOffset = 4;
+    static final int pinMaskOffset = 6;
+    static final int gameIdOffset = 8;
+    static final int magicOffset = 8;
+    static final int timestampOffset = 16;
+    static final int chunkOffset = 16;
+    static final int maxChunkLength = 16;
+    static final int pinCountOffset = 24;
+    static final int versionOffset = 24;
+
+    private JournalRecord() {
+    }
+}
@@ -0,0 +1,441 @@
+package persistence;
+
+import logging.EventLog;
+import logging.EventType;
+import model.ErrorMessages;
+import model.Game;
+import model.GameListener;
+import model.Player;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An append only journal of every roll accepted by the games of a center, kept in a memory mapped file so that the
+ * games can be rebuilt if the process dies. Appending a roll is a copy into the mapped file. A background thread
+ * forces the file to disk every forceIntervalMillis, so rolls appended close together share one fsync.
+ *
+ * When a journal is opened, the open games that are already in it are rebuilt by replaying their rolls through Game,
+ * and from then on they are journaled again. Games that were over or abandoned are skipped, as are games replaced by a
+ * newer game on the same lane.
+ *
+ * So that the file does not grow forever and opening it does not replay the whole history, the journal is rotated
+ * when its last open game ends and it has grown past one region: a new file holding only the header is moved over it.
+ *
+ * Example usage:
+ * RollJournal journal = RollJournal.open(Paths.get("rolls.journal"), 5);
+ * Map<Integer, Game> recovered = journal.getOpenGames();
+ * Game game = new Game(names);
+ * journal.startGame(7, game);
+ * game.addPinMask(0b1111111111);
+ * journal.close();
+ */
+public class RollJournal implements AutoCloseable {
+    private static final long defaultRegionSize = 8L << 20;
+    private final Path path;
+    private final long regionSize;
+    private final long forceIntervalNanos;
+    private final SortedMap<Integer, Game> openGames = new TreeMap<>();
+    // the id of the game being journaled on each lane, until it is over or abandoned
+    private final Map<Integer, Long> gameOnLane = new HashMap<>();
+    private final Thread flusher;
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long position;
+    private long nextGameId;
+    private volatile boolean isDirty;
+    private volatile boolean isOpen = true;
+
+    private RollJournal(Path path, FileChannel channel, long forceIntervalMillis, long regionSize) {
+        this.path = path;
+        this.channel = channel;
+        this.regionSize = regionSize;
+        this.forceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(forceIntervalMillis);
+        this.flusher = new Thread(this::flushPeriodically, "roll-journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Opens a journal, creating it if it does not exist, and rebuilds the open games that are in it
+     * @param path the journal file
+     * @param forceIntervalMillis how often appended records are forced to disk
+     * @return the opened journal
+     * @throws IOException if the file cannot be read or written
+     * @throws RuntimeException if the file is not a journal
+     */
+    public static RollJournal open(Path path, long forceIntervalMillis) throws IOException {
+        return open(path, forceIntervalMillis, defaultRegionSize);
+    }
+
+    /**
+     * Opens a journal that maps the file regionSize bytes at a time
+     */
+    static RollJournal open(Path path, long forceIntervalMillis, long regionSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        RollJournal journal = new RollJournal(path, channel, forceIntervalMillis, regionSize);
+        try {
+            journal.recover();
+        } catch (IOException | RuntimeException e) {
+            journal.channel.close();
+            throw e;
+        }
+        journal.flusher.start();
+        return journal;
+    }
+
+    /**
+     * @return the games that were still open when the journal was last closed, by lane. They are journaled again
+     */
+    public SortedMap<Integer, Game> getOpenGames() {
+        return openGames;
+    }
+
+    /**
+     * Journals a new game and every roll that the game accepts from now on
+     * @param lane the lane the game is bowled on
+     * @param game the game, which must not have any rolls yet
+     */
+    public synchronized void startGame(int lane, Game game) {
+        long gameId = nextGameId++;
+        List<Player> players = game.getPlayers();
+        int record = claim();
+        region.put(record + JournalRecord.playerOffset, (byte) players.size());
+        region.putShort(record + JournalRecord.laneOffset, (short) lane);
+        region.putLong(record + JournalRecord.gameIdOffset, gameId);
+        region.putLong(record + JournalRecord.timestampOffset, System.currentTimeMillis());
+        commit(record, JournalRecord.gameStarted);
+        for (int i = 0; i < players.size(); i++) {
+            byte[] name = players.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            for (int start = 0; start < name.length; start += JournalRecord.maxChunkLength) {
+                int length = Math.min(JournalRecord.maxChunkLength, name.length - start);
+                record = claim();
+                region.put(record + JournalRecord.playerOffset, (byte) i);
+                region.put(record + JournalRecord.chunkLengthOffset, (byte) length);
+                region.putShort(record + JournalRecord.laneOffset, (short) lane);
+                region.putLong(record + JournalRecord.gameIdOffset, gameId);
+                for (int b = 0; b < length; b++) {
+                    region.put(record + JournalRecord.chunkOffset + b, name[start + b]);
+                }
+                commit(record, JournalRecord.playerName);
+            }
+        }
+        gameOnLane.put(lane, gameId);
+        game.addGameListener(new JournaledGame(lane, gameId));
+    }
+
+    /**
+     * Forces every record appended so far to disk without waiting for the background thread
+     */
+    public void sync() {
+        MappedByteBuffer current;
+        synchronized (this) {
+            current = region;
+            isDirty = false;
+        }
+        current.force();
+    }
+
+    /**
+     * Forces the journal to disk and closes it
+     */
+    @Override
+    public void close() throws IOException {
+        isOpen = false;
+        flusher.interrupt();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            region.force();
+            channel.close();
+        }
+    }
+
+    private synchronized void appendRoll(int lane, long gameId, int playerIndex, int frameIndex, int ball,
+                                         int pinCount, int pinMask) {
+        int record = claim();
+        region.put(record + JournalRecord.playerOffset, (byte) playerIndex);
+        region.put(record + JournalRecord.frameOffset, (byte) frameIndex);
+        region.put(record + JournalRecord.ballOffset, (byte) ball);
+        region.putShort(record + JournalRecord.laneOffset, (short) lane);
+        region.putShort(record + JournalRecord.pinMaskOffset, (short) pinMask);
+        region.putLong(record + JournalRecord.gameIdOffset, gameId);
+        region.putLong(record + JournalRecord.timestampOffset, System.currentTimeMillis());
+        region.put(record + JournalRecord.pinCountOffset, (byte) pinCount);
+        commit(record, JournalRecord.roll);
+    }
+
+    private synchronized void appendGameOver(int lane, long gameId) {
+        int record = claim();
+        region.putShort(record + JournalRecord.laneOffset, (short) lane);
+        region.putLong(record + JournalRecord.gameIdOffset, gameId);
+        region.putLong(record + JournalRecord.timestampOffset, System.currentTimeMillis());
+        commit(record, JournalRecord.gameOver);
+        gameOnLane.remove(lane, gameId);
+        rotateIfIdle();
+    }
+
+    /**
+     * Replaces the journal with one that holds only the header if no game is open and the journal has grown past one
+     * region. The new file is written next to the journal and moved over it, so a crash leaves either the old journal,
+     * whose games are all over, or the new one. If the new file cannot be written the journal is kept as it is.
+     */
+    private void rotateIfIdle() {
+        if (!gameOnLane.isEmpty() || position <= regionSize) {
+            return;
+        }
+        Path rotated = path.resolveSibling(path.getFileName() + ".rotated");
+        FileChannel rotatedChannel = null;
+        try {
+            rotatedChannel = FileChannel.open(rotated, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer rotatedRegion = rotatedChannel.map(FileChannel.MapMode.READ_WRITE, 0, regionSize);
+            rotatedRegion.putLong(JournalRecord.magicOffset, JournalRecord.magic);
+            rotatedRegion.putInt(JournalRecord.versionOffset, JournalRecord.version);
+            rotatedRegion.put(JournalRecord.typeOffset, JournalRecord.header);
+            rotatedRegion.force();
+            Files.move(rotated, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel.close();
+            channel = rotatedChannel;
+            region = rotatedRegion;
+            regionStart = 0;
+            position = JournalRecord.size;
+        } catch (IOException e) {
+            if (rotatedChannel != null) {
+                try {
+                    rotatedChannel.close();
+                    Files.deleteIfExists(rotated);
+                } catch (IOException ignored) {
+                    // the next rotation truncates it
+                }
+            }
+            if (EventLog.isLoggable(EventType.JOURNAL_NOT_ROTATED)) {
+                EventLog.log(EventType.JOURNAL_NOT_ROTATED, 0, 0, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the offset in the mapped region of the next free record, mapping a new region if the current one is full
+     */
+    private int claim() {
+        if (position - regionStart + JournalRecord.size > regionSize) {
+            region.force();
+            mapRegion(position);
+        }
+        return (int) (position - regionStart);
+    }
+
+    private void commit(int record, byte type) {
+        region.put(record + JournalRecord.typeOffset, type);
+        position += JournalRecord.size;
+        isDirty = true;
+    }
+
+    private void mapRegion(long start) {
+        try {
+            region = channel.map(FileChannel.MapMode.READ_WRITE, start, regionSize);
+            regionStart = start;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flushPeriodically() {
+        while (isOpen) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(forceIntervalNanos);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (isDirty) {
+                sync();
+            }
+        }
+    }
+
+    /**
+     * Reads the journal from the start, rebuilds the open games and leaves the journal ready to append after the
+     * last record, rotating it first if none of its games are open. Only an empty file is made into a new journal.
+     * @throws RuntimeException if the file is not empty and does not start with a journal header
+     */
+    private synchronized void recover() throws IOException {
+        Map<Long, RecoveredGame> games = new HashMap<>();
+        boolean isNew = channel.size() == 0;
+        if (!isNew) {
+            // checked before the file is mapped, because mapping it grows it to a whole region
+            throwIfNotAJournal();
+        }
+        mapRegion(0);
+        position = 0;
+        while (true) {
+            int record = claim();
+            byte type = region.get(record + JournalRecord.typeOffset);
+            if (type == JournalRecord.end) {
+                break;
+            }
+            long gameId = region.getLong(record + JournalRecord.gameIdOffset);
+            int lane = region.getShort(record + JournalRecord.laneOffset);
+            RecoveredGame game = games.get(gameId);
+            if (position == 0 && type != JournalRecord.header) {
+                throw new RuntimeException(ErrorMessages.notARollJournal);
+            }
+            if (type == JournalRecord.header) {
+                if (region.getLong(record + JournalRecord.magicOffset) != JournalRecord.magic
+                        || region.getInt(record + JournalRecord.versionOffset) != JournalRecord.version) {
+                    throw new RuntimeException(ErrorMessages.notARollJournal);
+                }
+            } else if (type == JournalRecord.gameStarted) {
+                games.put(gameId, new RecoveredGame(region.get(record + JournalRecord.playerOffset) & 0xFF));
+                Long replacedGameId = gameOnLane.put(lane, gameId);
+                if (replacedGameId != null) {
+                    games.remove(replacedGameId);
+                }
+                nextGameId = Math.max(nextGameId, gameId + 1);
+            } else if (type == JournalRecord.playerName && game != null) {
+                byte[] chunk = new byte[region.get(record + JournalRecord.chunkLengthOffset)];
+                for (int b = 0; b < chunk.length; b++) {
+                    chunk[b] = region.get(record + JournalRecord.chunkOffset + b);
+                }
+                game.addToName(region.get(record + JournalRecord.playerOffset), chunk);
+            } else if (type == JournalRecord.roll && game != null) {
+                game.addRoll(region.get(record + JournalRecord.pinCountOffset),
+                        region.getShort(record + JournalRecord.pinMaskOffset));
+            } else if (type == JournalRecord.gameOver) {
+                games.remove(gameId);
+                gameOnLane.remove(lane, gameId);
+            }
+            position += JournalRecord.size;
+        }
+        if (isNew) {
+            int record = claim();
+            region.putLong(record + JournalRecord.magicOffset, JournalRecord.magic);
+            region.putInt(record + JournalRecord.versionOffset, JournalRecord.version);
+            commit(record, JournalRecord.header);
+        }
+        for (Map.Entry<Integer, Long> entry : gameOnLane.entrySet()) {
+            Game game = games.get(entry.getValue()).replay();
+            game.addGameListener(new JournaledGame(entry.getKey(), entry.getValue()));
+            openGames.put(entry.getKey(), game);
+        }
+        rotateIfIdle();
+    }
+
+    /**
+     * Reads the first record of the file without mapping it
+     * @throws RuntimeException if the first record is not the header of a journal of this version
+     */
+    private void throwIfNotAJournal() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(JournalRecord.size);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // keep reading until the record is read or the file ends
+        }
+        if (header.hasRemaining() || header.get(JournalRecord.typeOffset) != JournalRecord.header
+                || header.getLong(JournalRecord.magicOffset) != JournalRecord.magic
+                || header.getInt(JournalRecord.versionOffset) != JournalRecord.version) {
+            throw new RuntimeException(ErrorMessages.notARollJournal);
+        }
+    }
+
+    /**
+     * Appends the rolls of one game to the journal
+     */
+    private class JournaledGame implements GameListener {
+        private final int lane;
+        private final long gameId;
+
+        JournaledGame(int lane, long gameId) {
+            this.lane = lane;
+            this.gameId = gameId;
+        }
+
+        @Override
+        public void rollAccepted(Game game, int playerIndex, int frameIndex, int ball, int pinCount, int pinMask) {
+            appendRoll(lane, gameId, playerIndex, frameIndex, ball, pinCount, pinMask);
+        }
+
+        @Override
+        public void gameOver(Game game) {
+            appendGameOver(lane, gameId);
+        }
+
+        @Override
+        public void gameAbandoned(Game game) {
+            appendGameOver(lane, gameId);
+        }
+    }
+
+    /**
+     * The names and rolls of a game read back from the journal
+     */
+    private static class RecoveredGame {
+        private final byte[][] names;
+        private int[] pinCounts = new int[32];
+        private int[] pinMasks = new int[32];
+        private int numberOfRolls;
+
+        RecoveredGame(int numberOfPlayers) {
+            this.names = new byte[numberOfPlayers][0];
+        }
+
+        void addToName(int playerIndex, byte[] chunk) {
+            byte[] name = Arrays.copyOf(names[playerIndex], names[playerIndex].length + chunk.length);
+            System.arraycopy(chunk, 0, name, names[playerIndex].length, chunk.length);
+            names[playerIndex] = name;
+        }
+
+        void addRoll(int pinCount, int pinMask) {
+            if (numberOfRolls == pinCounts.length) {
+                pinCounts = Arrays.copyOf(pinCounts, numberOfRolls * 2);
+                pinMasks = Arrays.copyOf(pinMasks, numberOfRolls * 2);
+            }
+            pinCounts[numberOfRolls] = pinCount;
+            pinMasks[numberOfRolls] = pinMask;
+            numberOfRolls++;
+        }
+
+        /**
+         * Rebuilds the game by adding its rolls in batches, one batch for each run of rolls that were added the same
+         * way (as pin masks or as pin counts)
+         */
+        Game replay() {
+            List<String> playerNames = new ArrayList<>();
+            for (byte[] name : names) {
+                playerNames.add(new String(name, StandardCharsets.UTF_8));
+            }
+            Game game = new Game(playerNames);
+            int start = 0;
+            for (int i = 1; i <= numberOfRolls; i++) {
+                if (i == numberOfRolls || (pinMasks[i] < 0) != (pinMasks[start] < 0)) {
+                    if (pinMasks[start] < 0) {
+                        game.addScores(Arrays.copyOfRange(pinCounts, start, i));
+                    } else {
+                        game.addPinMasks(Arrays.copyOfRange(pinMasks, start, i));
+                    }
+                    start = i;
+                }
+            }
+            return game;
+        }
+    }
+}
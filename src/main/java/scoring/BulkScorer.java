@@ -0,0 +1,201 @@
+package scoring;
+
+import model.ErrorMessages;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores many single player games at once, for example when years of archived rolls have to be scored again. The
+ * games are given in a flat layout instead of as Scorecards: all of the rolls are in one int[] and game g is the rolls
+ * from offsets[g] up to offsets[g + 1]. A roll is the number of pins knocked down by one ball, so a strike in the first
+ * nine frames is a single roll.
+ *
+ * The frame scores are the running totals that Scorecard.calculateScore() gives, so a frame that is still waiting on
+ * bonus balls has the total of the frames before it. A frame that has not been started is -1. The games are split
+ * across the threads of a ForkJoinPool.
+ *
+ * Example usage:
+ * int[] rolls = {10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 3, 4};
+ * int[] offsets = {0, 12, 14};
+ * int[] totalScores = new int[2];
+ * new BulkScorer().score(rolls, offsets, null, totalScores);
+ */
+public class BulkScorer {
+    public static final int framesPerGame = 10;
+    private static final int maxPins = 10;
+    private static final int notStarted = -1;
+    // a task scores this many games itself rather than splitting them further
+    private static final int gamesPerTask = 2048;
+    private final ForkJoinPool pool;
+
+    /**
+     * Scores games on the common pool
+     */
+    public BulkScorer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool the pool that the games are scored on
+     */
+    public BulkScorer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Scores every game
+     * @param rolls the rolls of all of the games
+     * @param offsets where each game starts in rolls, followed by where the last game ends
+     * @param frameScores filled in with the ten frame scores of each game, or null if they are not needed
+     * @param totalScores filled in with the total score of each game
+     * @throws RuntimeException if a game has a roll that a Scorecard would not accept
+     */
+    public void score(int[] rolls, int[] offsets, int[] frameScores, int[] totalScores) throws RuntimeException {
+        int numberOfGames = offsets.length - 1;
+        if (numberOfGames <= 0) {
+            return;
+        }
+        if (numberOfGames <= gamesPerTask) {
+            scoreGames(rolls, offsets, 0, numberOfGames, frameScores, totalScores);
+        } else {
+            pool.invoke(new ScoreTask(rolls, offsets, 0, numberOfGames, frameScores, totalScores));
+        }
+    }
+
+    /**
+     * Scores a range of games on the calling thread
+     */
+    static void scoreGames(int[] rolls, int[] offsets, int fromGame, int toGame, int[] frameScores,
+                           int[] totalScores) throws RuntimeException {
+        for (int g = fromGame; g < toGame; g++) {
+            totalScores[g] = scoreGame(g, rolls, offsets[g], offsets[g + 1], frameScores, g * framesPerGame);
+        }
+    }
+
+    /**
+     * Scores one game in a single pass over its rolls
+     * @param game the index of the game, used in the error message
+     * @param rolls the rolls of all of the games
+     * @param from the first roll of the game
+     * @param to the end of the rolls of the game
+     * @param frameScores where the frame scores are written, or null
+     * @param frameOffset the index in frameScores of the game's first frame
+     * @return the total score of the game
+     * @throws RuntimeException if a roll is not valid
+     */
+    static int scoreGame(int game, int[] rolls, int from, int to, int[] frameScores, int frameOffset)
+            throws RuntimeException {
+        int totalScore = 0;
+        int ball = from;
+        for (int frame = 0; frame < framesPerGame; frame++) {
+            int frameScore = notStarted;
+            if (ball < to) {
+                int first = checkRoll(game, rolls, from, ball, maxPins);
+                if (frame < framesPerGame - 1) {
+                    if (first == maxPins) {
+                        if (ball + 2 < to) {
+                            totalScore += maxPins + rolls[ball + 1] + rolls[ball + 2];
+                        }
+                        ball++;
+                    } else if (ball + 1 < to) {
+                        int second = checkRoll(game, rolls, from, ball + 1, maxPins - first);
+                        if (first + second < maxPins) {
+                            totalScore += first + second;
+                        } else if (ball + 2 < to) {
+                            totalScore += maxPins + rolls[ball + 2];
+                        }
+                        ball += 2;
+                    } else {
+                        ball++;
+                    }
+                } else {
+                    int lastFrameScore = scoreLastFrame(game, rolls, from, ball, to);
+                    if (lastFrameScore >= 0) {
+                        totalScore += lastFrameScore;
+                    }
+                    ball = to;
+                }
+                frameScore = totalScore;
+            }
+            if (frameScores != null) {
+                frameScores[frameOffset + frame] = frameScore;
+            }
+        }
+        return totalScore;
+    }
+
+    /**
+     * Checks the rolls of the last frame, where the bonus balls are part of the frame
+     * @return the score of the frame or -1 if it cannot be scored yet
+     */
+    private static int scoreLastFrame(int game, int[] rolls, int from, int ball, int to) throws RuntimeException {
+        int first = rolls[ball];
+        if (ball + 1 >= to) {
+            return -1;
+        }
+        int second = checkRoll(game, rolls, from, ball + 1, first == maxPins ? maxPins : maxPins - first);
+        if (first + second < maxPins) {
+            if (ball + 2 < to) {
+                throw new RuntimeException(String.format(ErrorMessages.invalidRollInGame, game, ball + 2 - from,
+                        rolls[ball + 2], ErrorMessages.noThirdPinIfNoStrikeOrSpare));
+            }
+            return first + second;
+        }
+        if (ball + 2 >= to) {
+            return -1;
+        }
+        boolean isFreshRack = first + second == maxPins || second == maxPins;
+        int third = checkRoll(game, rolls, from, ball + 2, isFreshRack ? maxPins : maxPins - second);
+        if (ball + 3 < to) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidRollInGame, game, ball + 3 - from,
+                    rolls[ball + 3], ErrorMessages.scorecardAlreadyComplete));
+        }
+        return first + second + third;
+    }
+
+    private static int checkRoll(int game, int[] rolls, int from, int ball, int pinsStanding) throws RuntimeException {
+        int roll = rolls[ball];
+        if (roll < 0) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidRollInGame, game, ball - from, roll,
+                    String.format(ErrorMessages.pinBelowMinValue, roll)));
+        }
+        if (roll > pinsStanding) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidRollInGame, game, ball - from, roll,
+                    String.format(ErrorMessages.pinExceedsMaxValue, roll, pinsStanding)));
+        }
+        return roll;
+    }
+
+    /**
+     * Splits a range of games in half until it is small enough to score on one thread
+     */
+    private static class ScoreTask extends RecursiveAction {
+        private final int[] rolls;
+        private final int[] offsets;
+        private final int fromGame;
+        private final int toGame;
+        private final int[] frameScores;
+        private final int[] totalScores;
+
+        ScoreTask(int[] rolls, int[] offsets, int fromGame, int toGame, int[] frameScores, int[] totalScores) {
+            this.rolls = rolls;
+            this.offsets = offsets;
+            this.fromGame = fromGame;
+            this.toGame = toGame;
+            this.frameScores = frameScores;
+            this.totalScores = totalScores;
+        }
+
+        @Override
+        protected void compute() {
+            if (toGame - fromGame <= gamesPerTask) {
+                scoreGames(rolls, offsets, fromGame, toGame, frameScores, totalScores);
+                return;
+            }
+            int middle = (fromGame + toGame) >>> 1;
+            invokeAll(new ScoreTask(rolls, offsets, fromGame, middle, frameScores, totalScores),
+                    new ScoreTask(rolls, offsets, middle, toGame, frameScores, totalScores));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package server;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The messages sent between a pinsetter and the PinsetterServer. Both are 8 bytes in network byte order.
+ *
+ * A roll, sent by the pinsetter:
+ *  unsigned short lane number, unsigned short pin mask (bit 0 is pin 1), int sequence number
+ * An acknowledgement, sent by the server once the roll has been scored or rejected:
+ *  int sequence number of the roll, unsigned short lane number, byte status, byte unused
+ *
+ * The sequence number is chosen by the pinsetter and only echoed back, so that a pinsetter can match acknowledgements
+ * to rolls. Acknowledgements are sent in the order the rolls were received on the connection.
+ */
+public final class PinsetterProtocol {
+    public static final int messageSize = 8;
+    public static final byte scored = 0;
+    public static final byte rejected = 1;
+
+    private PinsetterProtocol() {
+    }
+
+    public static void putRoll(ByteBuffer buffer, int laneNumber, int pinMask, int sequence) {
+        buffer.putShort((short) laneNumber);
+        buffer.putShort((short) pinMask);
+        buffer.putInt(sequence);
+    }
+
+    public static void putAcknowledgement(ByteBuffer buffer, int sequence, int laneNumber, byte status) {
+        buffer.putInt(sequence);
+        buffer.putShort((short) laneNumber);
+        buffer.put(status);
+        buffer.put((byte) 0);
+    }
+}
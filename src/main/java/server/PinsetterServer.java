@@ -0,0 +1,215 @@
+package server;
+
+import controller.LaneManager;
+import logging.EventLog;
+import logging.EventType;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts rolls from pinsetters over TCP and sends them to the lanes of a LaneManager, see PinsetterProtocol. Every
+ * connection gets a thread of its own that reads a roll, waits for the lane to score it and then acknowledges it, so
+ * the code for a connection is plain blocking code.
+ *
+ * On Java 21 and later the connection threads are virtual threads, so thousands of pinsetters cost a few kilobytes
+ * each. On older versions they are platform threads unless another ThreadFactory is given.
+ *
+ * Usage example:
+ * LaneManager laneManager = new LaneManager(24, 4);
+ * PinsetterServer server = PinsetterServer.start(laneManager, new InetSocketAddress(InetAddress.getLoopbackAddress(), 9000));
+ * ...
+ * server.close();
+ */
+public class PinsetterServer implements AutoCloseable {
+    private static final long minAcceptBackoffMillis = 10;
+    private static final long maxAcceptBackoffMillis = 1000;
+    private final LaneManager laneManager;
+    private final ServerSocketChannel serverChannel;
+    private final ThreadFactory connectionThreads;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    private PinsetterServer(LaneManager laneManager, ServerSocketChannel serverChannel,
+                            ThreadFactory connectionThreads) {
+        this.laneManager = laneManager;
+        this.serverChannel = serverChannel;
+        this.connectionThreads = connectionThreads;
+        this.acceptor = new Thread(this::acceptConnections, "pinsetter-acceptor");
+        this.acceptor.setDaemon(true);
+    }
+
+    /**
+     * Starts a server with a connection thread factory that makes virtual threads where the JVM has them
+     * @param laneManager the center the rolls are sent to
+     * @param address where to listen, port 0 picks a free port
+     * @return the running server
+     * @throws IOException if the address cannot be bound
+     */
+    public static PinsetterServer start(LaneManager laneManager, InetSocketAddress address) throws IOException {
+        return start(laneManager, address, defaultConnectionThreads());
+    }
+
+    /**
+     * @param laneManager the center the rolls are sent to
+     * @param address where to listen, port 0 picks a free port
+     * @param connectionThreads makes the thread that serves each connection
+     * @return the running server
+     * @throws IOException if the address cannot be bound
+     */
+    public static PinsetterServer start(LaneManager laneManager, InetSocketAddress address,
+                                        ThreadFactory connectionThreads) throws IOException {
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 4096);
+        PinsetterServer server = new PinsetterServer(laneManager, serverChannel, connectionThreads);
+        server.acceptor.start();
+        return server;
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Stops accepting connections and closes the ones that are open. The lane manager is left running.
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (SocketChannel connection : connections) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Accepts connections until the server is closed. An accept that fails, for example because the process is out of
+     * file descriptors, is logged and retried after a pause that doubles with each failure in a row, so the server
+     * keeps accepting once the connections that use them up are closed.
+     */
+    private void acceptConnections() {
+        long backoffMillis = 0;
+        while (serverChannel.isOpen()) {
+            SocketChannel connection;
+            try {
+                connection = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                // the server was closed
+                return;
+            } catch (IOException e) {
+                EventLog.log(EventType.CONNECTION_FAILED, 0, 0, e.getMessage());
+                backoffMillis = Math.min(maxAcceptBackoffMillis, Math.max(minAcceptBackoffMillis, backoffMillis * 2));
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                continue;
+            }
+            backoffMillis = 0;
+            try {
+                connection.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            } catch (IOException e) {
+                EventLog.log(EventType.CONNECTION_FAILED, 0, 0, e.getMessage());
+                closeQuietly(connection);
+                continue;
+            }
+            connections.add(connection);
+            EventLog.log(EventType.CONNECTION_ACCEPTED, connections.size(), 0, null);
+            connectionThreads.newThread(() -> serve(connection)).start();
+        }
+    }
+
+    /**
+     * Reads rolls from a connection until the pinsetter disconnects. Each roll in the buffer is scored and acknowledged
+     * before the next one, and the acknowledgements of everything that was read together are written together.
+     */
+    private void serve(SocketChannel connection) {
+        ByteBuffer rolls = ByteBuffer.allocateDirect(64 * PinsetterProtocol.messageSize);
+        ByteBuffer acknowledgements = ByteBuffer.allocateDirect(64 * PinsetterProtocol.messageSize);
+        try {
+            while (connection.read(rolls) >= 0) {
+                rolls.flip();
+                while (rolls.remaining() >= PinsetterProtocol.messageSize) {
+                    int laneNumber = rolls.getShort() & 0xFFFF;
+                    int pinMask = rolls.getShort() & 0xFFFF;
+                    int sequence = rolls.getInt();
+                    byte status = score(laneNumber, pinMask);
+                    PinsetterProtocol.putAcknowledgement(acknowledgements, sequence, laneNumber, status);
+                }
+                rolls.compact();
+                acknowledgements.flip();
+                while (acknowledgements.hasRemaining()) {
+                    connection.write(acknowledgements);
+                }
+                acknowledgements.clear();
+            }
+        } catch (IOException e) {
+            // a pinsetter that goes away mid roll is expected, but a server that is closed is not worth logging
+            if (serverChannel.isOpen()) {
+                EventLog.log(EventType.CONNECTION_FAILED, 0, 0, e.getMessage());
+            }
+        } finally {
+            connections.remove(connection);
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(SocketChannel connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // nothing more can be done with the connection
+        }
+    }
+
+    /**
+     * @return scored once the lane has scored the roll, or rejected if the lane or the game did not accept it
+     */
+    private byte score(int laneNumber, int pinMask) {
+        try {
+            laneManager.scorePinMask(laneNumber, pinMask).join();
+            return PinsetterProtocol.scored;
+        } catch (CompletionException e) {
+            if (EventLog.isLoggable(EventType.WORK_REJECTED)) {
+                EventLog.log(EventType.WORK_REJECTED, laneNumber, 0, e.getCause().getMessage());
+            }
+            return PinsetterProtocol.rejected;
+        } catch (RuntimeException e) {
+            // the lane number is not a lane of the center
+            EventLog.log(EventType.WORK_REJECTED, laneNumber, 0, e.getMessage());
+            return PinsetterProtocol.rejected;
+        }
+    }
+
+    /**
+     * Uses Thread.ofVirtual() when the JVM has it. It is looked up by reflection because the code is built for a
+     * version of Java that does not.
+     */
+    static ThreadFactory defaultConnectionThreads() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builderType.getMethod("name", String.class, long.class).invoke(builder, "pinsetter-", 1L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            return runnable -> {
+                Thread thread = new Thread(null, runnable, "pinsetter-" + threadNumber.incrementAndGet(), 64 * 1024);
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package simulation;
+
+import model.ErrorMessages;
+
+import java.util.SplittableRandom;
+
+/**
+ * How well a simulated bowler bowls. A first ball is a strike with the strike probability. Otherwise the number of
+ * pins it knocks down is drawn from the leave weights, and the pins left standing are picked at random from the rack,
+ * so a leave can be a split. A second ball knocks down every pin left standing with the spare conversion probability,
+ * and otherwise knocks down some of them.
+ *
+ * A profile is immutable and each with method returns a changed copy.
+ *
+ * Usage example:
+ * BowlerProfile weekendBowler = BowlerProfile.of(0.15, 0.4);
+ * BowlerProfile crankers = BowlerProfile.professional().withLeaveWeights(0, 0, 0, 0, 0, 1, 2, 4, 10, 30);
+ */
+public final class BowlerProfile {
+    private static final int maxPins = 10;
+    // the weight of knocking down 0 to 9 pins with a first ball that is not a strike
+    private static final double[] defaultLeaveWeights = {1, 1, 1, 2, 3, 5, 8, 14, 24, 41};
+    private static final BowlerProfile beginner = of(0.05, 0.2).withLeaveWeights(3, 3, 4, 6, 8, 10, 12, 14, 14, 12);
+    private static final BowlerProfile league = of(0.3, 0.6);
+    private static final BowlerProfile professional = of(0.6, 0.9).withLeaveWeights(0, 0, 0, 0, 1, 1, 3, 10, 30, 55);
+    private final double strikeProbability;
+    private final double spareConversion;
+    // the chance of knocking down at most n pins with a first ball that is not a strike, for n from 0 to 9
+    private final double[] leaveChances;
+
+    private BowlerProfile(double strikeProbability, double spareConversion, double[] leaveChances) {
+        this.strikeProbability = strikeProbability;
+        this.spareConversion = spareConversion;
+        this.leaveChances = leaveChances;
+    }
+
+    /**
+     * @param strikeProbability the chance of a strike with the first ball of a frame
+     * @param spareConversion the chance of knocking down every pin left standing with the second ball
+     * @return a profile with the default leave weights
+     * @throws RuntimeException if either probability is not between 0 and 1
+     */
+    public static BowlerProfile of(double strikeProbability, double spareConversion) throws RuntimeException {
+        checkProbability("Strike probability", strikeProbability);
+        checkProbability("Spare conversion", spareConversion);
+        return new BowlerProfile(strikeProbability, spareConversion, toChances(defaultLeaveWeights));
+    }
+
+    /**
+     * @return a bowler who averages around 95
+     */
+    public static BowlerProfile beginner() {
+        return beginner;
+    }
+
+    /**
+     * @return a bowler who averages around 165
+     */
+    public static BowlerProfile league() {
+        return league;
+    }
+
+    /**
+     * @return a bowler who averages around 225
+     */
+    public static BowlerProfile professional() {
+        return professional;
+    }
+
+    /**
+     * @param weights the weight of knocking down 0 to 9 pins with a first ball that is not a strike
+     * @return a copy of the profile with the leave weights
+     * @throws RuntimeException if there are not 10 weights, a weight is negative or the weights add up to 0
+     */
+    public BowlerProfile withLeaveWeights(double... weights) throws RuntimeException {
+        if (weights.length != maxPins) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidLeaveWeights, maxPins));
+        }
+        return new BowlerProfile(strikeProbability, spareConversion, toChances(weights));
+    }
+
+    public double getStrikeProbability() {
+        return strikeProbability;
+    }
+
+    public double getSpareConversion() {
+        return spareConversion;
+    }
+
+    /**
+     * @return the pins knocked down by the first ball of a frame, bit 0 is the head pin (pin 1)
+     */
+    int firstBall(SplittableRandom random) {
+        if (random.nextDouble() < strikeProbability) {
+            return (1 << maxPins) - 1;
+        }
+        double draw = random.nextDouble();
+        int pins = 0;
+        while (pins < maxPins - 1 && draw >= leaveChances[pins]) {
+            pins++;
+        }
+        return pick(random, (1 << maxPins) - 1, pins);
+    }
+
+    /**
+     * @param pinsStanding the pins left standing by the first ball
+     * @return the pins knocked down by the second ball
+     */
+    int secondBall(SplittableRandom random, int pinsStanding) {
+        if (random.nextDouble() < spareConversion) {
+            return pinsStanding;
+        }
+        return pick(random, pinsStanding, random.nextInt(Integer.bitCount(pinsStanding)));
+    }
+
+    /**
+     * Picks some of the standing pins at random
+     * @param pinsStanding the pins to pick from
+     * @param count how many to pick, fewer than are standing
+     * @return the picked pins
+     */
+    private static int pick(SplittableRandom random, int pinsStanding, int count) {
+        int picked = 0;
+        int left = pinsStanding;
+        for (int i = 0; i < count; i++) {
+            int skip = random.nextInt(Integer.bitCount(left));
+            int pins = left;
+            for (int s = 0; s < skip; s++) {
+                pins &= pins - 1;
+            }
+            int pin = Integer.lowestOneBit(pins);
+            picked |= pin;
+            left &= ~pin;
+        }
+        return picked;
+    }
+
+    private static double[] toChances(double[] weights) throws RuntimeException {
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0) {
+                throw new RuntimeException(String.format(ErrorMessages.invalidLeaveWeights, maxPins));
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidLeaveWeights, maxPins));
+        }
+        double[] chances = new double[weights.length];
+        double sum = 0;
+        for (int pins = 0; pins < weights.length; pins++) {
+            sum += weights[pins];
+            chances[pins] = sum / total;
+        }
+        return chances;
+    }
+
+    private static void checkProbability(String name, double probability) throws RuntimeException {
+        if (!(probability >= 0 && probability <= 1)) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidProbability, name, probability));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package simulation;
+
+import model.ErrorMessages;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * A file of simulated games, so that benchmarks and soak tests can run over the same games without simulating them
+ * again. Each game is its number of balls in one byte followed by the pin mask of each ball in two bytes, which is
+ * about 35 bytes a game.
+ *
+ * HEADER (32 bytes): magic at 0, version at 8, number of games at 16, seed at 24
+ *
+ * Usage example:
+ * GameCorpus.write(Paths.get("league.corpus"), new GameSimulator(BowlerProfile.league()), 10_000_000, 42);
+ * GameCorpus.read(Paths.get("league.corpus"), batch -> totals.add(batch.score(scorer)));
+ */
+public final class GameCorpus {
+    static final long magic = 0x424f574c434f5250L; // "BOWLCORP"
+    static final int version = 1;
+    private static final int headerSize = 32;
+    private static final int maxGameSize = 1 + GameSimulator.maxRolls * Short.BYTES;
+    private static final int bufferSize = 1 << 20;
+
+    private GameCorpus() {
+    }
+
+    /**
+     * Simulates games straight into a corpus file, replacing the file if it exists
+     * @param path the corpus file
+     * @param simulator the simulator
+     * @param numberOfGames the number of games
+     * @param seed the seed, the same seed always gives the same file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, GameSimulator simulator, long numberOfGames, long seed) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+            buffer.putLong(magic).putInt(version).putInt(0).putLong(numberOfGames).putLong(seed);
+            IOException[] failure = new IOException[1];
+            simulator.simulate(numberOfGames, seed, batch -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    writeBatch(channel, buffer, batch);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            buffer.flip();
+            writeFully(channel, buffer);
+        }
+    }
+
+    private static void writeBatch(FileChannel channel, ByteBuffer buffer, SimulatedGames batch) throws IOException {
+        int[] pinMasks = batch.getPinMasks();
+        int[] offsets = batch.getOffsets();
+        for (int g = 0; g < batch.getNumberOfGames(); g++) {
+            if (buffer.remaining() < maxGameSize) {
+                buffer.flip();
+                writeFully(channel, buffer);
+                buffer.clear();
+            }
+            buffer.put((byte) (offsets[g + 1] - offsets[g]));
+            for (int r = offsets[g]; r < offsets[g + 1]; r++) {
+                buffer.putShort((short) pinMasks[r]);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads the games of a corpus file in batches of up to GameSimulator.gamesPerBatch games
+     * @param path the corpus file
+     * @param batches the consumer of the batches, called in order on the calling thread
+     * @return the number of games read
+     * @throws IOException if the file cannot be read
+     * @throws RuntimeException if the file is not a corpus or ends before its last game
+     */
+    public static long read(Path path, Consumer<SimulatedGames> batches) throws IOException, RuntimeException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+            buffer.limit(0);
+            if (!fill(channel, buffer, headerSize) || buffer.getLong() != magic || buffer.getInt() != version) {
+                throw new RuntimeException(String.format(ErrorMessages.notAGameCorpus, path));
+            }
+            buffer.getInt();
+            long numberOfGames = buffer.getLong();
+            buffer.getLong();
+            int[] pinMasks = new int[GameSimulator.gamesPerBatch * GameSimulator.maxRolls];
+            for (long firstGame = 0; firstGame < numberOfGames; firstGame += GameSimulator.gamesPerBatch) {
+                int batchSize = (int) Math.min(GameSimulator.gamesPerBatch, numberOfGames - firstGame);
+                int[] offsets = new int[batchSize + 1];
+                for (int g = 0; g < batchSize; g++) {
+                    fill(channel, buffer, maxGameSize);
+                    boolean isCutShort = !buffer.hasRemaining()
+                            || buffer.remaining() < 1 + buffer.get(buffer.position()) * Short.BYTES;
+                    if (isCutShort) {
+                        throw new RuntimeException(String.format(ErrorMessages.notAGameCorpus, path));
+                    }
+                    int numberOfRolls = buffer.get();
+                    offsets[g + 1] = offsets[g] + numberOfRolls;
+                    for (int r = offsets[g]; r < offsets[g + 1]; r++) {
+                        pinMasks[r] = buffer.getShort();
+                    }
+                }
+                int[] rolls = new int[offsets[batchSize]];
+                int[] batchPinMasks = new int[rolls.length];
+                for (int r = 0; r < rolls.length; r++) {
+                    batchPinMasks[r] = pinMasks[r];
+                    rolls[r] = Integer.bitCount(pinMasks[r]);
+                }
+                batches.accept(new SimulatedGames(firstGame, rolls, batchPinMasks, offsets));
+            }
+            return numberOfGames;
+        }
+    }
+
+    /**
+     * Reads more of the file into the buffer until it has at least the given number of bytes left to read
+     * @return false if the file ended first
+     */
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        buffer.compact();
+        int read = 0;
+        while (buffer.position() < bytes && read >= 0) {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+        return buffer.remaining() >= bytes;
+    }
+}
@@ -0,0 +1,179 @@
+package simulation;
+
+import model.ErrorMessages;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Simulates complete single player games for load tests and benchmarks. Every game follows the rules of Scorecard,
+ * with the pins of each ball drawn from a BowlerProfile. When there are several profiles the games take turns between
+ * them, so game g is bowled by profile g % profiles.length.
+ *
+ * The games are split across the threads of a ForkJoinPool and each task draws from its own SplittableRandom, split
+ * off its parent's. The tasks are split the same way whatever the number of threads, so the same seed always gives
+ * the same games.
+ *
+ * Usage example:
+ * GameSimulator simulator = new GameSimulator(BowlerProfile.league(), BowlerProfile.professional());
+ * SimulatedGames games = simulator.simulate(100_000, 42);
+ * simulator.simulate(1_000_000_000L, 42, batch -> scorer.score(batch.getRolls(), batch.getOffsets(), null, totals));
+ */
+public class GameSimulator {
+    public static final int gamesPerBatch = 1 << 16;
+    static final int maxRolls = 21;
+    private static final int framesPerGame = 10;
+    private static final int allPins = (1 << 10) - 1;
+    // a task simulates this many games itself rather than splitting them further
+    private static final int gamesPerTask = 1024;
+    private final ForkJoinPool pool;
+    private final BowlerProfile[] profiles;
+
+    /**
+     * Simulates games on the common pool
+     * @param profiles the bowlers, in the order they take turns
+     * @throws RuntimeException if there are no profiles
+     */
+    public GameSimulator(BowlerProfile... profiles) throws RuntimeException {
+        this(ForkJoinPool.commonPool(), profiles);
+    }
+
+    /**
+     * @param pool the pool that the games are simulated on
+     * @param profiles the bowlers, in the order they take turns
+     * @throws RuntimeException if there are no profiles
+     */
+    public GameSimulator(ForkJoinPool pool, BowlerProfile... profiles) throws RuntimeException {
+        if (profiles.length == 0) {
+            throw new RuntimeException(ErrorMessages.noBowlerProfiles);
+        }
+        this.pool = pool;
+        this.profiles = profiles.clone();
+    }
+
+    /**
+     * Simulates one batch of games
+     * @param numberOfGames the number of games
+     * @param seed the seed, the same seed always gives the same games
+     * @return the games
+     */
+    public SimulatedGames simulate(int numberOfGames, long seed) {
+        return this.simulate(0, numberOfGames, new SplittableRandom(seed));
+    }
+
+    /**
+     * Simulates any number of games in batches of gamesPerBatch, handing each batch to the consumer on the calling
+     * thread before the next is simulated so that only one batch is in memory at a time
+     * @param numberOfGames the number of games
+     * @param seed the seed, the same seed always gives the same games
+     * @param batches the consumer of the batches, called in order
+     */
+    public void simulate(long numberOfGames, long seed, Consumer<SimulatedGames> batches) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (long firstGame = 0; firstGame < numberOfGames; firstGame += gamesPerBatch) {
+            int batchSize = (int) Math.min(gamesPerBatch, numberOfGames - firstGame);
+            batches.accept(this.simulate(firstGame, batchSize, random.split()));
+        }
+    }
+
+    private SimulatedGames simulate(long firstGame, int numberOfGames, SplittableRandom random) {
+        int[] pinMasks = new int[numberOfGames * maxRolls];
+        int[] rollCounts = new int[numberOfGames];
+        if (numberOfGames <= gamesPerTask) {
+            this.simulateGames(random, firstGame, 0, numberOfGames, pinMasks, rollCounts);
+        } else {
+            pool.invoke(new SimulateTask(random, firstGame, 0, numberOfGames, pinMasks, rollCounts));
+        }
+        // each game was simulated into room for 21 rolls, the batch keeps them packed one after the other
+        int[] offsets = new int[numberOfGames + 1];
+        for (int g = 0; g < numberOfGames; g++) {
+            offsets[g + 1] = offsets[g] + rollCounts[g];
+        }
+        int[] rolls = new int[offsets[numberOfGames]];
+        int[] packedPinMasks = new int[rolls.length];
+        for (int g = 0; g < numberOfGames; g++) {
+            for (int r = 0; r < rollCounts[g]; r++) {
+                int pinMask = pinMasks[g * maxRolls + r];
+                packedPinMasks[offsets[g] + r] = pinMask;
+                rolls[offsets[g] + r] = Integer.bitCount(pinMask);
+            }
+        }
+        return new SimulatedGames(firstGame, rolls, packedPinMasks, offsets);
+    }
+
+    /**
+     * Simulates a range of games of a batch on the calling thread
+     */
+    private void simulateGames(SplittableRandom random, long firstGame, int fromGame, int toGame, int[] pinMasks,
+                               int[] rollCounts) {
+        for (int g = fromGame; g < toGame; g++) {
+            BowlerProfile profile = profiles[(int) ((firstGame + g) % profiles.length)];
+            rollCounts[g] = simulateGame(random, profile, pinMasks, g * maxRolls);
+        }
+    }
+
+    /**
+     * Simulates one game
+     * @param random the random number generator
+     * @param profile the bowler
+     * @param pinMasks filled in with the pin mask of each ball from offset, needs room for 21 balls
+     * @param offset where the first ball goes in pinMasks
+     * @return the number of balls bowled
+     */
+    static int simulateGame(SplittableRandom random, BowlerProfile profile, int[] pinMasks, int offset) {
+        int ball = offset;
+        for (int frame = 0; frame < framesPerGame - 1; frame++) {
+            int first = profile.firstBall(random);
+            pinMasks[ball++] = first;
+            if (first != allPins) {
+                pinMasks[ball++] = profile.secondBall(random, allPins & ~first);
+            }
+        }
+        // in the last frame the pins are reset after every strike and spare, and either earns a third ball
+        int first = profile.firstBall(random);
+        pinMasks[ball++] = first;
+        int second = first == allPins ? profile.firstBall(random) : profile.secondBall(random, allPins & ~first);
+        pinMasks[ball++] = second;
+        if (first == allPins || (first | second) == allPins) {
+            boolean isFreshRack = first != allPins || second == allPins;
+            pinMasks[ball++] = isFreshRack ? profile.firstBall(random) : profile.secondBall(random, allPins & ~second);
+        }
+        return ball - offset;
+    }
+
+    /**
+     * Splits a range of games in half until it is small enough to simulate on one thread. The first half gets a
+     * random number generator split off this task's, and the second half keeps this task's.
+     */
+    private class SimulateTask extends RecursiveAction {
+        private final SplittableRandom random;
+        private final long firstGame;
+        private final int fromGame;
+        private final int toGame;
+        private final int[] pinMasks;
+        private final int[] rollCounts;
+
+        SimulateTask(SplittableRandom random, long firstGame, int fromGame, int toGame, int[] pinMasks,
+                     int[] rollCounts) {
+            this.random = random;
+            this.firstGame = firstGame;
+            this.fromGame = fromGame;
+            this.toGame = toGame;
+            this.pinMasks = pinMasks;
+            this.rollCounts = rollCounts;
+        }
+
+        @Override
+        protected void compute() {
+            if (toGame - fromGame <= gamesPerTask) {
+                simulateGames(random, firstGame, fromGame, toGame, pinMasks, rollCounts);
+                return;
+            }
+            int middle = (fromGame + toGame) >>> 1;
+            invokeAll(new SimulateTask(random.split(), firstGame, fromGame, middle, pinMasks, rollCounts),
+                    new SimulateTask(random, firstGame, middle, toGame, pinMasks, rollCounts));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package simulation;
+
+import model.Game;
+import scoring.BulkScorer;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * A batch of simulated single player games in the flat layout of BulkScorer: all of the rolls are in one int[] and
+ * game g is the rolls from offsets[g] up to offsets[g + 1]. The pin mask of each roll is kept next to it, so the games
+ * can also be bowled into a Game ball by ball.
+ *
+ * The arrays are handed out as they are rather than copied, so they must not be changed.
+ *
+ * Usage example:
+ * SimulatedGames games = simulator.simulate(100_000, 42);
+ * int[] totalScores = games.score(new BulkScorer());
+ * Game first = games.toGame(0, "Billy");
+ */
+public final class SimulatedGames {
+    private final long firstGame;
+    private final int[] rolls;
+    private final int[] pinMasks;
+    private final int[] offsets;
+
+    SimulatedGames(long firstGame, int[] rolls, int[] pinMasks, int[] offsets) {
+        this.firstGame = firstGame;
+        this.rolls = rolls;
+        this.pinMasks = pinMasks;
+        this.offsets = offsets;
+    }
+
+    /**
+     * @return the number of games simulated before this batch
+     */
+    public long getFirstGame() {
+        return firstGame;
+    }
+
+    public int getNumberOfGames() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return the number of pins knocked down by each roll of every game
+     */
+    public int[] getRolls() {
+        return rolls;
+    }
+
+    /**
+     * @return the pins knocked down by each roll of every game, bit 0 is the head pin (pin 1)
+     */
+    public int[] getPinMasks() {
+        return pinMasks;
+    }
+
+    /**
+     * @return where each game starts in the rolls, followed by where the last game ends
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Scores every game of the batch
+     * @param scorer the scorer
+     * @return the total score of each game
+     */
+    public int[] score(BulkScorer scorer) {
+        int[] totalScores = new int[getNumberOfGames()];
+        scorer.score(rolls, offsets, null, totalScores);
+        return totalScores;
+    }
+
+    /**
+     * Bowls one of the games into a new Game
+     * @param game the index of the game in the batch
+     * @param name the name of the bowler
+     * @return the game, which is over
+     */
+    public Game toGame(int game, String name) {
+        Game bowled = new Game(Collections.singletonList(name));
+        bowled.addPinMasks(Arrays.copyOfRange(pinMasks, offsets[game], offsets[game + 1]));
+        return bowled;
+    }
+}
@@ -0,0 +1,99 @@
+package tournament;
+
+/**
+ * A match of the match play bracket: one game between two qualifiers, where the higher score goes through to the next
+ * round. The first entrant is always the higher seed and wins a tie. A match is immutable, the bracket replaces it
+ * as entrants arrive and the game is bowled.
+ */
+public final class Match {
+    public static final int noEntrant = -1;
+    private static final int notBowled = -1;
+    private final int round;
+    private final int number;
+    private final int firstEntrant;
+    private final int secondEntrant;
+    private final int firstScore;
+    private final int secondScore;
+
+    Match(int round, int number, int firstEntrant, int secondEntrant) {
+        this(round, number, firstEntrant, secondEntrant, notBowled, notBowled);
+    }
+
+    private Match(int round, int number, int firstEntrant, int secondEntrant, int firstScore, int secondScore) {
+        this.round = round;
+        this.number = number;
+        this.firstEntrant = firstEntrant;
+        this.secondEntrant = secondEntrant;
+        this.firstScore = firstScore;
+        this.secondScore = secondScore;
+    }
+
+    /**
+     * @return the round of the bracket, starting from 0
+     */
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * @return the number of the match within its round, starting from 0
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * @return the index of the higher seeded entrant, or noEntrant if the match before has not been decided
+     */
+    public int getFirstEntrant() {
+        return firstEntrant;
+    }
+
+    /**
+     * @return the index of the lower seeded entrant, or noEntrant if the match before has not been decided or the
+     * first entrant has a bye
+     */
+    public int getSecondEntrant() {
+        return secondEntrant;
+    }
+
+    public int getFirstScore() {
+        return firstScore;
+    }
+
+    public int getSecondScore() {
+        return secondScore;
+    }
+
+    /**
+     * @return true if the first entrant goes through without bowling because there are not enough qualifiers
+     */
+    public boolean isBye() {
+        return round == 0 && secondEntrant == noEntrant;
+    }
+
+    /**
+     * @return true if both entrants are known and the game has not been bowled
+     */
+    public boolean isReady() {
+        return firstEntrant != noEntrant && secondEntrant != noEntrant && firstScore == notBowled;
+    }
+
+    public boolean isDecided() {
+        return isBye() || firstScore != notBowled;
+    }
+
+    /**
+     * @return the index of the entrant who goes through, or noEntrant if the match has not been decided
+     */
+    public int getWinner() {
+        if (!isDecided()) {
+            return noEntrant;
+        }
+        return secondScore > firstScore ? secondEntrant : firstEntrant;
+    }
+
+    Match withScores(int firstScore, int secondScore) {
+        return new Match(round, number, firstEntrant, secondEntrant, firstScore, secondScore);
+    }
+}
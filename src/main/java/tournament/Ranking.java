@@ -0,0 +1,114 @@
+package tournament;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the entrants of a tournament in order of pinfall, highest first, with ties going to the entrant who entered
+ * first. Each entrant is a sort key that holds both the pinfall and the entrant, so the order is a plain long[] that
+ * sorts without comparators or boxing.
+ *
+ * When a few entrants change, which is what a finished frame or game does, the changed keys are sorted on their own
+ * and merged into the order in one pass. When many change at once a full parallel sort is cheaper than merging, so
+ * the whole order is sorted again instead. Not thread safe, see Tournament.
+ */
+class Ranking {
+    // above one changed entrant in this many, the order is sorted again rather than merged
+    private static final int mergeLimitDivisor = 8;
+    private final long[] keys;
+    private final boolean[] isChanged;
+    private long[] order;
+    // the order before the last merge, kept so that the next merge has somewhere to write
+    private long[] spare;
+
+    /**
+     * @param numberOfEntrants the number of entrants, who all start on 0 pins
+     */
+    Ranking(int numberOfEntrants) {
+        this.keys = new long[numberOfEntrants];
+        this.isChanged = new boolean[numberOfEntrants];
+        for (int entrant = 0; entrant < numberOfEntrants; entrant++) {
+            keys[entrant] = key(0, entrant);
+        }
+        this.order = keys.clone();
+        this.spare = new long[numberOfEntrants];
+    }
+
+    /**
+     * @param pinfall the entrant's pinfall
+     * @param entrant the index of the entrant
+     * @return a key that sorts before the keys of entrants with less pinfall, or the same pinfall and a higher index
+     */
+    static long key(int pinfall, int entrant) {
+        return (long) (Integer.MAX_VALUE - pinfall) << 32 | entrant;
+    }
+
+    static int getEntrant(long key) {
+        return (int) key;
+    }
+
+    static int getPinfall(long key) {
+        return Integer.MAX_VALUE - (int) (key >>> 32);
+    }
+
+    int getNumberOfEntrants() {
+        return keys.length;
+    }
+
+    /**
+     * @param place the place in the order, 0 being the leader
+     * @return the key of the entrant in that place
+     */
+    long getKeyAt(int place) {
+        return order[place];
+    }
+
+    /**
+     * Moves entrants to their place for their new pinfall
+     * @param entrants the entrants whose pinfall changed, each at most once
+     * @param pinfalls the new pinfall of each entrant
+     * @param count the number of entrants to take from the arrays
+     */
+    void update(int[] entrants, int[] pinfalls, int count) {
+        long[] changed = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[entrants[i]] = key(pinfalls[i], entrants[i]);
+            changed[i] = keys[entrants[i]];
+        }
+        if ((long) count * mergeLimitDivisor > keys.length) {
+            System.arraycopy(keys, 0, order, 0, keys.length);
+            Arrays.parallelSort(order);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            isChanged[entrants[i]] = true;
+        }
+        Arrays.sort(changed);
+        merge(changed);
+        for (int i = 0; i < count; i++) {
+            isChanged[entrants[i]] = false;
+        }
+    }
+
+    /**
+     * Merges the sorted keys of the changed entrants with the order, leaving out the old keys of those entrants
+     * @param changed the new keys of the changed entrants, sorted
+     */
+    private void merge(long[] changed) {
+        long[] merged = spare;
+        int from = 0;
+        int next = 0;
+        int to = 0;
+        while (to < merged.length) {
+            while (from < order.length && isChanged[getEntrant(order[from])]) {
+                from++;
+            }
+            if (from == order.length || next < changed.length && changed[next] < order[from]) {
+                merged[to++] = changed[next++];
+            } else {
+                merged[to++] = order[from++];
+            }
+        }
+        this.spare = order;
+        this.order = merged;
+    }
+}
@@ -0,0 +1,53 @@
+package tournament;
+
+/**
+ * One qualifying game of a tournament: which entrants bowl it, on which lane, and when. Entrants bowl in squads when
+ * there are more of them than the lanes can hold at once, and each group moves to another lane after every game of
+ * the series.
+ */
+public final class ScheduledGame {
+    private final int squad;
+    private final int gameNumber;
+    private final int laneNumber;
+    private final int[] entrants;
+
+    ScheduledGame(int squad, int gameNumber, int laneNumber, int[] entrants) {
+        this.squad = squad;
+        this.gameNumber = gameNumber;
+        this.laneNumber = laneNumber;
+        this.entrants = entrants;
+    }
+
+    /**
+     * @return the squad that bowls the game, starting from 0
+     */
+    public int getSquad() {
+        return squad;
+    }
+
+    /**
+     * @return the game of the series, starting from 0
+     */
+    public int getGameNumber() {
+        return gameNumber;
+    }
+
+    public int getLaneNumber() {
+        return laneNumber;
+    }
+
+    /**
+     * @return the indexes of the entrants in the order they bowl
+     */
+    public int[] getEntrants() {
+        return entrants.clone();
+    }
+
+    int getEntrant(int playerIndex) {
+        return entrants[playerIndex];
+    }
+
+    int getNumberOfEntrants() {
+        return entrants.length;
+    }
+}
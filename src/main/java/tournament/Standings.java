@@ -0,0 +1,83 @@
+package tournament;
+
+import java.util.List;
+
+/**
+ * An immutable copy of the qualifying standings of a tournament, published every time a frame of a qualifying game
+ * gets its final score. The pinfall of an entrant is every pin of their finished games plus the settled frames of the
+ * game they are bowling, so the standings move while a squad is still on the lanes. Reading the latest standings is a
+ * single volatile read, see Tournament.getStandings().
+ *
+ * Example usage:
+ * Standings standings = tournament.getStandings();
+ * int leader = standings.getEntrantAt(0);
+ * System.out.println(standings.getName(leader) + " " + standings.getPinfall(leader));
+ */
+public final class Standings {
+    private final long version;
+    private final List<String> names;
+    private final int[] entrantsByPlace;
+    private final int[] places;
+    private final int[] pinfalls;
+    private final int[] gamesBowled;
+
+    Standings(long version, List<String> names, Ranking ranking, int[] gamesBowled) {
+        int numberOfEntrants = ranking.getNumberOfEntrants();
+        this.version = version;
+        this.names = names;
+        this.entrantsByPlace = new int[numberOfEntrants];
+        this.places = new int[numberOfEntrants];
+        this.pinfalls = new int[numberOfEntrants];
+        for (int place = 0; place < numberOfEntrants; place++) {
+            long key = ranking.getKeyAt(place);
+            int entrant = Ranking.getEntrant(key);
+            entrantsByPlace[place] = entrant;
+            places[entrant] = place;
+            pinfalls[entrant] = Ranking.getPinfall(key);
+        }
+        this.gamesBowled = gamesBowled.clone();
+    }
+
+    /**
+     * @return a number that goes up by one with each set of standings published for the tournament
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getNumberOfEntrants() {
+        return entrantsByPlace.length;
+    }
+
+    /**
+     * @param place the place in the standings, 0 being the leader
+     * @return the index of the entrant in that place
+     */
+    public int getEntrantAt(int place) {
+        return entrantsByPlace[place];
+    }
+
+    /**
+     * @param entrant the index of the entrant
+     * @return the entrant's place in the standings, 0 being the leader
+     */
+    public int getPlace(int entrant) {
+        return places[entrant];
+    }
+
+    public String getName(int entrant) {
+        return names.get(entrant);
+    }
+
+    public int getPinfall(int entrant) {
+        return pinfalls[entrant];
+    }
+
+    /**
+     * @param entrant the index of the entrant
+     * @return the number of qualifying games the entrant has finished
+     */
+    public int getGamesBowled(int entrant) {
+        return gamesBowled[entrant];
+    }
+}
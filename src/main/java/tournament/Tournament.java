@@ -0,0 +1,528 @@
+package tournament;
+
+import controller.LaneManager;
+import model.ErrorMessages;
+import model.Game;
+import model.GameListener;
+import model.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs a tournament on top of ordinary games. Every entrant bowls a qualifying series of three to eight games, the
+ * entrants with the most pinfall make the cut, and the qualifiers then bowl a bracket of one game matches until one is
+ * left.
+ *
+ * The tournament listens to each of its games, so the standings move as soon as a frame gets its final score rather
+ * than when the series is over. Only the entrants of that game change, so they are merged into the rest of the
+ * standings in one pass, see Ranking. The games run on the lanes of a LaneManager in parallel, so the tournament is
+ * thread safe, and the standings are published as an immutable copy that any thread can read without locking.
+ *
+ * Usage example:
+ * Tournament tournament = new Tournament(entrantNames, 6);
+ * for (ScheduledGame game : tournament.scheduleQualifying(laneManager.getNumberOfLanes(), 4)) {
+ *     tournament.startGame(laneManager, game);
+ *     ...
+ * }
+ * tournament.cut(16);
+ * for (Match match : tournament.getReadyMatches()) {
+ *     tournament.startMatch(laneManager, laneNumber, match);
+ * }
+ */
+public class Tournament {
+    public static final int minGamesPerSeries = 3;
+    public static final int maxGamesPerSeries = 8;
+    private static final int maxGameScore = 300;
+    private final List<String> names;
+    private final int gamesPerSeries;
+    private final Ranking ranking;
+    // the pins of each entrant's finished qualifying games, and the settled frames of the game they are bowling
+    private final int[] finishedPinfall;
+    private final int[] gamePinfall;
+    private final int[] gamesStarted;
+    private final int[] gamesBowled;
+    private long version;
+    private volatile Standings standings;
+    // the match play bracket by round, null until the cut
+    private Match[][] rounds;
+    // the seed of each entrant, 0 being the top qualifier, or -1 if the entrant did not make the cut
+    private int[] seeds;
+
+    /**
+     * @param entrantNames the names of the entrants. An entrant is known by their index in this list.
+     * @param gamesPerSeries the number of qualifying games each entrant bowls
+     * @throws RuntimeException if there are no entrants, a name is not a valid player name, or the number of games is
+     * not between minGamesPerSeries and maxGamesPerSeries
+     */
+    public Tournament(List<String> entrantNames, int gamesPerSeries) throws RuntimeException {
+        if (entrantNames.isEmpty()) {
+            throw new RuntimeException(ErrorMessages.cannotStartTournamentWithNoEntrants);
+        }
+        if (gamesPerSeries < minGamesPerSeries || gamesPerSeries > maxGamesPerSeries) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidGamesPerSeries, gamesPerSeries,
+                    minGamesPerSeries, maxGamesPerSeries));
+        }
+        for (String name : entrantNames) {
+            // checks the name in the same way the games will
+            new Player(name);
+        }
+        int numberOfEntrants = entrantNames.size();
+        this.names = Collections.unmodifiableList(new ArrayList<>(entrantNames));
+        this.gamesPerSeries = gamesPerSeries;
+        this.ranking = new Ranking(numberOfEntrants);
+        this.finishedPinfall = new int[numberOfEntrants];
+        this.gamePinfall = new int[numberOfEntrants];
+        this.gamesStarted = new int[numberOfEntrants];
+        this.gamesBowled = new int[numberOfEntrants];
+        this.standings = new Standings(version, names, ranking, gamesBowled);
+    }
+
+    public List<String> getEntrants() {
+        return names;
+    }
+
+    public int getGamesPerSeries() {
+        return gamesPerSeries;
+    }
+
+    /**
+     * @return the latest qualifying standings
+     */
+    public Standings getStandings() {
+        return standings;
+    }
+
+    /**
+     * Puts the entrants in groups of bowlersPerLane, in the order they entered, and gives every group a lane for each
+     * game of the series. If there are more groups than lanes, the groups bowl in squads one after the other. Within
+     * a squad every group moves one lane to the right after each game.
+     * @param numberOfLanes the number of lanes the tournament can use, numbered from 1
+     * @param bowlersPerLane the largest number of entrants in a game
+     * @return the qualifying games in the order they should be bowled: by squad, then by game of the series
+     * @throws RuntimeException if there are no lanes or no bowlers per lane
+     */
+    public List<ScheduledGame> scheduleQualifying(int numberOfLanes, int bowlersPerLane) throws RuntimeException {
+        if (numberOfLanes <= 0 || bowlersPerLane <= 0) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidLaneSchedule, bowlersPerLane, numberOfLanes));
+        }
+        int numberOfEntrants = names.size();
+        int numberOfGroups = (numberOfEntrants + bowlersPerLane - 1) / bowlersPerLane;
+        List<ScheduledGame> schedule = new ArrayList<>(numberOfGroups * gamesPerSeries);
+        for (int squadStart = 0; squadStart < numberOfGroups; squadStart += numberOfLanes) {
+            int groupsInSquad = Math.min(numberOfLanes, numberOfGroups - squadStart);
+            for (int gameNumber = 0; gameNumber < gamesPerSeries; gameNumber++) {
+                for (int group = 0; group < groupsInSquad; group++) {
+                    int firstEntrant = (squadStart + group) * bowlersPerLane;
+                    int[] entrants = new int[Math.min(bowlersPerLane, numberOfEntrants - firstEntrant)];
+                    for (int i = 0; i < entrants.length; i++) {
+                        entrants[i] = firstEntrant + i;
+                    }
+                    int laneNumber = (group + gameNumber) % groupsInSquad + 1;
+                    schedule.add(new ScheduledGame(squadStart / numberOfLanes, gameNumber, laneNumber, entrants));
+                }
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * Makes the game for a qualifying game of the schedule. The standings follow the game as rolls are added to it.
+     * @param scheduledGame the game from the schedule
+     * @return the game, with the entrants as its players
+     * @throws RuntimeException if qualifying is over or an entrant has already started every game of their series
+     */
+    public Game startGame(ScheduledGame scheduledGame) throws RuntimeException {
+        Game game = new Game(namesOf(scheduledGame));
+        game.addGameListener(this.reserve(scheduledGame));
+        return game;
+    }
+
+    /**
+     * Starts a qualifying game of the schedule on its lane
+     * @param laneManager the center the tournament is bowled in
+     * @param scheduledGame the game from the schedule
+     * @throws RuntimeException if qualifying is over, an entrant has already started every game of their series, or
+     * the lane is not a lane of the center
+     */
+    public void startGame(LaneManager laneManager, ScheduledGame scheduledGame) throws RuntimeException {
+        GameListener qualifyingGame = this.reserve(scheduledGame);
+        try {
+            laneManager.startGame(scheduledGame.getLaneNumber(), namesOf(scheduledGame), qualifyingGame);
+        } catch (RuntimeException e) {
+            this.release(scheduledGame);
+            throw e;
+        }
+    }
+
+    /**
+     * Adds finished qualifying games that were not bowled through the tournament, for example a squad that was bowled
+     * at another center. A whole squad changes the standings at once, so they are sorted again in parallel rather than
+     * merged. Either every game is added or none is.
+     * @param entrants the entrant who bowled each game. An entrant may appear more than once.
+     * @param scores the score of each game
+     * @throws RuntimeException if qualifying is over, a score is not between 0 and 300, or an entrant would bowl more
+     * than their series
+     */
+    public synchronized void addGameScores(int[] entrants, int[] scores) throws RuntimeException {
+        throwIfQualifyingIsOver();
+        int[] gamesAdded = new int[names.size()];
+        for (int i = 0; i < entrants.length; i++) {
+            if (scores[i] < 0 || scores[i] > maxGameScore) {
+                throw new RuntimeException(String.format(ErrorMessages.invalidGameScore, scores[i]));
+            }
+            if (gamesStarted[entrants[i]] + ++gamesAdded[entrants[i]] > gamesPerSeries) {
+                throw new RuntimeException(String.format(ErrorMessages.seriesAlreadyBowled, names.get(entrants[i]),
+                        gamesPerSeries));
+            }
+        }
+        int[] changedEntrants = new int[entrants.length];
+        int[] changedPinfalls = new int[entrants.length];
+        int count = 0;
+        for (int i = 0; i < entrants.length; i++) {
+            int entrant = entrants[i];
+            finishedPinfall[entrant] += scores[i];
+            gamesStarted[entrant]++;
+            gamesBowled[entrant]++;
+            // the first game of each entrant puts them in the changed entrants
+            if (gamesAdded[entrant] != 0) {
+                gamesAdded[entrant] = 0;
+                changedEntrants[count++] = entrant;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            changedPinfalls[i] = getPinfall(changedEntrants[i]);
+        }
+        ranking.update(changedEntrants, changedPinfalls, count);
+        this.publish();
+    }
+
+    /**
+     * Ends qualifying and seeds the qualifiers into a bracket in the usual order, so that the top two seeds can only
+     * meet in the final. If the number of qualifiers is not a power of two, the top seeds get a bye through the first
+     * round.
+     * @param numberOfQualifiers the number of entrants who make the cut
+     * @return the matches of the first round
+     * @throws RuntimeException if qualifying is already over, an entrant has not finished their series, or the number
+     * of qualifiers is less than 2 or more than the number of entrants
+     */
+    public synchronized List<Match> cut(int numberOfQualifiers) throws RuntimeException {
+        throwIfQualifyingIsOver();
+        int numberOfEntrants = names.size();
+        if (numberOfQualifiers < 2 || numberOfQualifiers > numberOfEntrants) {
+            throw new RuntimeException(String.format(ErrorMessages.invalidNumberOfQualifiers, numberOfQualifiers,
+                    numberOfEntrants));
+        }
+        for (int entrant = 0; entrant < numberOfEntrants; entrant++) {
+            if (gamesBowled[entrant] < gamesPerSeries) {
+                throw new RuntimeException(String.format(ErrorMessages.qualifyingNotFinished, names.get(entrant),
+                        gamesBowled[entrant], gamesPerSeries));
+            }
+        }
+        int bracketSize = Integer.highestOneBit(numberOfQualifiers - 1) << 1;
+        int[] entrantsBySeed = new int[numberOfQualifiers];
+        this.seeds = new int[numberOfEntrants];
+        Arrays.fill(seeds, -1);
+        for (int seed = 0; seed < numberOfQualifiers; seed++) {
+            entrantsBySeed[seed] = Ranking.getEntrant(ranking.getKeyAt(seed));
+            seeds[entrantsBySeed[seed]] = seed;
+        }
+        this.rounds = new Match[Integer.numberOfTrailingZeros(bracketSize)][];
+        for (int round = 0; round < rounds.length; round++) {
+            rounds[round] = new Match[bracketSize >> (round + 1)];
+            for (int number = 0; number < rounds[round].length; number++) {
+                rounds[round][number] = new Match(round, number, Match.noEntrant, Match.noEntrant);
+            }
+        }
+        int[] order = bracketOrder(bracketSize);
+        for (int number = 0; number < rounds[0].length; number++) {
+            int secondSeed = order[2 * number + 1];
+            int secondEntrant = secondSeed < numberOfQualifiers ? entrantsBySeed[secondSeed] : Match.noEntrant;
+            rounds[0][number] = new Match(0, number, entrantsBySeed[order[2 * number]], secondEntrant);
+        }
+        for (Match match : rounds[0]) {
+            if (match.isBye()) {
+                this.advance(match);
+            }
+        }
+        return getMatches(0);
+    }
+
+    /**
+     * @return the number of rounds of the bracket, or 0 before the cut
+     */
+    public synchronized int getNumberOfRounds() {
+        return rounds == null ? 0 : rounds.length;
+    }
+
+    /**
+     * @param round the round of the bracket, starting from 0
+     * @return the matches of the round as they are now
+     */
+    public synchronized List<Match> getMatches(int round) {
+        return Collections.unmodifiableList(Arrays.asList(rounds[round].clone()));
+    }
+
+    /**
+     * @return every match whose entrants are known and that has not been bowled yet
+     */
+    public synchronized List<Match> getReadyMatches() {
+        List<Match> ready = new ArrayList<>();
+        for (int round = 0; rounds != null && round < rounds.length; round++) {
+            for (Match match : rounds[round]) {
+                if (match.isReady()) {
+                    ready.add(match);
+                }
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * @return the index of the entrant who won the final, or Match.noEntrant if the final has not been bowled
+     */
+    public synchronized int getChampion() {
+        return rounds == null ? Match.noEntrant : rounds[rounds.length - 1][0].getWinner();
+    }
+
+    /**
+     * Makes the game for a match of the bracket. The higher seed bowls first. When the game is over the winner goes
+     * through to the next round. A match only counts once, so the game of a match that was bowled twice is ignored.
+     * @param match a ready match, see getReadyMatches()
+     * @return the game
+     * @throws RuntimeException if the match is not ready
+     */
+    public Game startMatch(Match match) throws RuntimeException {
+        Match current = this.checkReady(match);
+        Game game = new Game(Arrays.asList(names.get(current.getFirstEntrant()), names.get(current.getSecondEntrant())));
+        game.addGameListener(new MatchGame(current.getRound(), current.getNumber()));
+        return game;
+    }
+
+    /**
+     * Starts a match of the bracket on a lane, see startMatch()
+     * @param laneManager the center the tournament is bowled in
+     * @param laneNumber the lane to bowl the match on
+     * @param match a ready match, see getReadyMatches()
+     * @throws RuntimeException if the match is not ready or the lane is not a lane of the center
+     */
+    public void startMatch(LaneManager laneManager, int laneNumber, Match match) throws RuntimeException {
+        Match current = this.checkReady(match);
+        laneManager.startGame(laneNumber, Arrays.asList(names.get(current.getFirstEntrant()),
+                names.get(current.getSecondEntrant())), new MatchGame(current.getRound(), current.getNumber()));
+    }
+
+    /**
+     * The seeds of a bracket in the order they are paired, so that seed s meets seed size - 1 - s in the first round
+     * and the top seeds are as far apart as they can be. For eight that is 0 7 3 4 1 6 2 5.
+     * @param bracketSize the number of places in the first round, a power of two
+     * @return the seeds, starting from 0
+     */
+    static int[] bracketOrder(int bracketSize) {
+        int[] order = {0};
+        while (order.length < bracketSize) {
+            int[] next = new int[order.length * 2];
+            for (int i = 0; i < order.length; i++) {
+                next[2 * i] = order[i];
+                next[2 * i + 1] = next.length - 1 - order[i];
+            }
+            order = next;
+        }
+        return order;
+    }
+
+    private List<String> namesOf(ScheduledGame scheduledGame) {
+        List<String> gameNames = new ArrayList<>(scheduledGame.getNumberOfEntrants());
+        for (int i = 0; i < scheduledGame.getNumberOfEntrants(); i++) {
+            gameNames.add(names.get(scheduledGame.getEntrant(i)));
+        }
+        return gameNames;
+    }
+
+    private int getPinfall(int entrant) {
+        return finishedPinfall[entrant] + gamePinfall[entrant];
+    }
+
+    private void throwIfQualifyingIsOver() throws RuntimeException {
+        if (rounds != null) {
+            throw new RuntimeException(ErrorMessages.qualifyingIsOver);
+        }
+    }
+
+    /**
+     * Counts a qualifying game as started for each of its entrants
+     * @param scheduledGame the game from the schedule
+     * @return the listener that keeps the standings up to date with the game
+     * @throws RuntimeException if qualifying is over or an entrant has already started every game of their series
+     */
+    private synchronized GameListener reserve(ScheduledGame scheduledGame) throws RuntimeException {
+        throwIfQualifyingIsOver();
+        for (int i = 0; i < scheduledGame.getNumberOfEntrants(); i++) {
+            int entrant = scheduledGame.getEntrant(i);
+            if (gamesStarted[entrant] >= gamesPerSeries) {
+                throw new RuntimeException(String.format(ErrorMessages.seriesAlreadyBowled, names.get(entrant),
+                        gamesPerSeries));
+            }
+        }
+        for (int i = 0; i < scheduledGame.getNumberOfEntrants(); i++) {
+            gamesStarted[scheduledGame.getEntrant(i)]++;
+        }
+        return new QualifyingGame(scheduledGame);
+    }
+
+    /**
+     * Gives back the games reserved for a qualifying game that will never be finished, and takes the frames it scored
+     * out of the standings
+     * @param scheduledGame the game from the schedule
+     */
+    private synchronized void release(ScheduledGame scheduledGame) {
+        int count = scheduledGame.getNumberOfEntrants();
+        int[] entrants = new int[count];
+        int[] pinfalls = new int[count];
+        for (int i = 0; i < count; i++) {
+            int entrant = scheduledGame.getEntrant(i);
+            gamesStarted[entrant]--;
+            gamePinfall[entrant] = 0;
+            entrants[i] = entrant;
+            pinfalls[i] = getPinfall(entrant);
+        }
+        ranking.update(entrants, pinfalls, count);
+        this.publish();
+    }
+
+    /**
+     * Moves an entrant to their place for the frames of their game that have their final score
+     * @param entrant the index of the entrant
+     * @param score the entrant's score up to and including the frame that was just scored
+     */
+    private synchronized void frameScored(int entrant, int score) {
+        gamePinfall[entrant] = score;
+        ranking.update(new int[] {entrant}, new int[] {getPinfall(entrant)}, 1);
+        this.publish();
+    }
+
+    private synchronized void gameOver(ScheduledGame scheduledGame, Game game) {
+        int count = scheduledGame.getNumberOfEntrants();
+        int[] entrants = new int[count];
+        int[] pinfalls = new int[count];
+        for (int i = 0; i < count; i++) {
+            int entrant = scheduledGame.getEntrant(i);
+            finishedPinfall[entrant] += game.getPlayers().get(i).getScorecard().getTotalScore();
+            gamePinfall[entrant] = 0;
+            gamesBowled[entrant]++;
+            entrants[i] = entrant;
+            pinfalls[i] = getPinfall(entrant);
+        }
+        ranking.update(entrants, pinfalls, count);
+        this.publish();
+    }
+
+    private void publish() {
+        this.standings = new Standings(++version, names, ranking, gamesBowled);
+    }
+
+    private synchronized Match checkReady(Match match) throws RuntimeException {
+        Match current = rounds == null ? null : rounds[match.getRound()][match.getNumber()];
+        if (current == null || !current.isReady()) {
+            throw new RuntimeException(String.format(ErrorMessages.matchNotReady, match.getNumber(), match.getRound()));
+        }
+        return current;
+    }
+
+    private synchronized void matchBowled(int round, int number, int firstScore, int secondScore) {
+        Match current = rounds[round][number];
+        if (current.isDecided()) {
+            return;
+        }
+        Match bowled = current.withScores(firstScore, secondScore);
+        rounds[round][number] = bowled;
+        this.advance(bowled);
+    }
+
+    /**
+     * Puts the winner of a match into their match of the next round, with the higher seed first
+     * @param match the match that was decided
+     */
+    private void advance(Match match) {
+        int round = match.getRound() + 1;
+        if (round == rounds.length) {
+            return;
+        }
+        Match next = rounds[round][match.getNumber() / 2];
+        int first = match.getNumber() % 2 == 0 ? match.getWinner() : next.getFirstEntrant();
+        int second = match.getNumber() % 2 == 0 ? next.getSecondEntrant() : match.getWinner();
+        if (first != Match.noEntrant && second != Match.noEntrant && seeds[second] < seeds[first]) {
+            int higherSeed = second;
+            second = first;
+            first = higherSeed;
+        }
+        rounds[round][next.getNumber()] = new Match(round, next.getNumber(), first, second);
+    }
+
+    /**
+     * Follows a qualifying game and keeps the standings up to date with it
+     */
+    private class QualifyingGame implements GameListener {
+        private final ScheduledGame scheduledGame;
+        // set once the game's series slots are given back, after which it must not touch the standings again
+        private volatile boolean isReleased;
+
+        QualifyingGame(ScheduledGame scheduledGame) {
+            this.scheduledGame = scheduledGame;
+        }
+
+        @Override
+        public void rollAccepted(Game game, int playerIndex, int frameIndex, int ball, int pinCount, int pinMask) {
+        }
+
+        @Override
+        public void frameScored(Game game, int playerIndex, int frameIndex, int score) {
+            if (isReleased) {
+                return;
+            }
+            Tournament.this.frameScored(scheduledGame.getEntrant(playerIndex), score);
+        }
+
+        @Override
+        public void gameOver(Game game) {
+            if (isReleased) {
+                return;
+            }
+            Tournament.this.gameOver(scheduledGame, game);
+        }
+
+        @Override
+        public void gameAbandoned(Game game) {
+            if (isReleased) {
+                return;
+            }
+            isReleased = true;
+            Tournament.this.release(scheduledGame);
+        }
+    }
+
+    /**
+     * Follows the game of a match and decides the match when it is over
+     */
+    private class MatchGame implements GameListener {
+        private final int round;
+        private final int number;
+
+        MatchGame(int round, int number) {
+            this.round = round;
+            this.number = number;
+        }
+
+        @Override
+        public void rollAccepted(Game game, int playerIndex, int frameIndex, int ball, int pinCount, int pinMask) {
+        }
+
+        @Override
+        public void gameOver(Game game) {
+            matchBowled(round, number, game.getPlayers().get(0).getScorecard().getTotalScore(),
+                    game.getPlayers().get(1).getScorecard().getTotalScore());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package archive;
+
+import model.ErrorMessages;
+import model.Game;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Bowls a game where each player knocks down the same number of pins with every ball
+     */
+    private static Game game(int[] pinsByPlayer, String... names) {
+        Game game = new Game(Arrays.asList(names));
+        while (!game.isGameOver()) {
+            game.addScores(new int[] {pinsByPlayer[game.getActivePlayerIndex()]});
+        }
+        return game;
+    }
+
+    @Test
+    public void archivedGameReadsBack() throws IOException {
+        try (GameArchive archive = GameArchive.open(directory)) {
+            Game game = new Game(Collections.singletonList("Billy"));
+            game.addScores(new int[] {10, 7, 3, 9, 0, 10, 10, 10, 10, 10, 10, 10, 4, 6});
+            archive.append(12, 1000, game);
+
+            int[] pins = new int[21];
+            assertEquals(1, archive.getNumberOfGames());
+            assertEquals("Billy", archive.getBowler(0));
+            assertEquals(12, archive.getLane(0));
+            assertEquals(1000, archive.getTimestamp(0));
+            assertEquals(game.getPlayers().get(0).getScorecard().getTotalScore(), archive.getTotalScore(0));
+            assertEquals(20, archive.getFrameScore(0, 0));
+            assertEquals(14, archive.getRolls(0, pins));
+            assertEquals(true, Arrays.equals(new int[] {10, 7, 3, 9, 0, 10, 10, 10, 10, 10, 10, 10, 4, 6},
+                    Arrays.copyOf(pins, 14)));
+        }
+    }
+
+    @Test
+    public void scansAcrossSegmentsAndReopens() throws IOException {
+        try (GameArchive archive = GameArchive.open(directory, 8)) {
+            for (int i = 0; i < 10; i++) {
+                // Billy bowls 9 pins a frame, Joe bowls 4, and every other game is on lane 12
+                archive.append(i % 2 == 0 ? 12 : 3, i * 100L, game(new int[] {i % 5, 2}, "Billy", "Joe"));
+            }
+            archive.append(12, 2000, game(new int[] {5, 0}, "Billy", "Ann"));
+
+            assertEquals(22, archive.getNumberOfGames());
+            assertEquals(12, archive.count(ArchiveFilter.all().onLane(12)));
+            assertEquals(3, archive.count(ArchiveFilter.all().withScoreAtLeast(80)));
+            assertEquals(true, Arrays.equals(new long[] {8, 20},
+                    archive.find(ArchiveFilter.all().onLane(12).withScoreAtLeast(80))));
+        }
+        try (GameArchive archive = GameArchive.open(directory, 8)) {
+            Map<String, Double> averages = archive.averageByBowler(ArchiveFilter.all().between(0, 500));
+
+            assertEquals(22, archive.getNumberOfGames());
+            assertEquals(40.0, averages.get("Billy"));
+            assertEquals(40.0, averages.get("Joe"));
+            assertEquals(false, averages.containsKey("Ann"));
+            assertEquals(0, archive.count(ArchiveFilter.all().byBowler("Nobody")));
+            assertEquals(1, archive.count(ArchiveFilter.all().byBowler("Ann")));
+            assertEquals("Ann", archive.getBowler(21));
+        }
+    }
+
+    @Test
+    public void onlyFinishedGamesAreArchived() throws IOException {
+        try (GameArchive archive = GameArchive.open(directory)) {
+            Game game = new Game(Collections.singletonList("Billy"));
+            archive.follow(4, game);
+            game.addScores(new int[] {3, 4});
+
+            RuntimeException thrown = assertThrows(RuntimeException.class, () -> archive.append(4, 0, game), "");
+
+            assertEquals(ErrorMessages.cannotArchiveUnfinishedGame, thrown.getMessage());
+            while (!game.isGameOver()) {
+                game.addScores(new int[] {3});
+            }
+            assertEquals(1, archive.getNumberOfGames());
+            assertEquals(4, archive.getLane(0));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameBitmapTest {
+    /**
+     * Adds every id below limit picked with the given chance, so a high chance gives bitmap containers and a low chance
+     * gives array containers
+     */
+    private static GameBitmap random(Random random, int limit, double chance, BitSet expected) {
+        GameBitmap bitmap = new GameBitmap();
+        for (int gameId = 0; gameId < limit; gameId++) {
+            if (random.nextDouble() < chance) {
+                bitmap.add(gameId);
+                expected.set(gameId);
+            }
+        }
+        return bitmap;
+    }
+
+    private static long[] toArray(BitSet bits) {
+        return bits.stream().asLongStream().toArray();
+    }
+
+    @Test
+    public void combinesLikeSets() {
+        Random random = new Random(21);
+        int limit = 5 * 65536 + 100;
+        for (double[] chances : new double[][] {{0.5, 0.01}, {0.01, 0.5}, {0.5, 0.3}, {0.02, 0.03}}) {
+            BitSet first = new BitSet();
+            BitSet second = new BitSet();
+            GameBitmap a = random(random, limit, chances[0], first);
+            GameBitmap b = random(random, limit, chances[1], second);
+
+            BitSet and = (BitSet) first.clone();
+            and.and(second);
+            BitSet or = (BitSet) first.clone();
+            or.or(second);
+            BitSet andNot = (BitSet) first.clone();
+            andNot.andNot(second);
+            assertEquals(true, Arrays.equals(toArray(first), a.toArray()));
+            assertEquals(first.cardinality(), a.getCardinality());
+            assertEquals(true, Arrays.equals(toArray(and), a.and(b).toArray()));
+            assertEquals(true, Arrays.equals(toArray(or), a.or(b).toArray()));
+            assertEquals(true, Arrays.equals(toArray(andNot), a.andNot(b).toArray()));
+            assertEquals(and.cardinality(), a.and(b).getCardinality());
+        }
+    }
+
+    @Test
+    public void containsAndSnapshot() {
+        GameBitmap bitmap = GameBitmap.of(new long[] {3, 70000, 70001});
+        GameBitmap snapshot = bitmap.snapshot();
+        bitmap.add(70002);
+
+        assertEquals(true, snapshot.contains(70000));
+        assertEquals(false, snapshot.contains(70002));
+        assertEquals(false, snapshot.contains(4));
+        assertEquals(3, snapshot.getCardinality());
+        assertEquals(true, bitmap.contains(70002));
+        assertEquals(true, GameBitmap.empty().isEmpty());
+        assertEquals(true, bitmap.and(GameBitmap.of(new long[] {5})).isEmpty());
+    }
+}
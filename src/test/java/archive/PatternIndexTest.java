@@ -0,0 +1,103 @@
+package archive;
+
+import model.Game;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatternIndexTest {
+    private static final int allPins = 0x3FF;
+    private static final int sevenTen = 1 << 6 | 1 << 9;
+
+    @TempDir
+    Path directory;
+
+    private static Game game(int... pins) {
+        Game game = new Game(Collections.singletonList("Billy"));
+        game.addScores(pins);
+        return game;
+    }
+
+    @Test
+    public void indexesPatterns() throws IOException {
+        try (GameArchive archive = GameArchive.open(directory, 8)) {
+            // 0: perfect game
+            archive.append(1, 0, game(10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10));
+            // 1: nine pins a frame
+            archive.append(1, 0, game(9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0, 9, 0));
+            // 2: five strikes in a row then spares
+            archive.append(2, 0, game(10, 10, 10, 10, 10, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5));
+            // 3: a 7-10 split converted in the first frame, then open frames
+            Game split = new Game(Collections.singletonList("Joe"));
+            split.addPinMask(allPins & ~sevenTen);
+            split.addPinMask(sevenTen);
+            while (!split.isGameOver()) {
+                split.addScores(new int[] {1});
+            }
+            archive.append(2, 0, split);
+            PatternIndex index = PatternIndex.build(archive);
+
+            assertEquals(4, index.getNumberOfGames());
+            assertEquals(true, Arrays.equals(new long[] {0}, index.perfectGame().toArray()));
+            assertEquals(true, Arrays.equals(new long[] {0, 2}, index.strikesInARow(5).toArray()));
+            assertEquals(true, Arrays.equals(new long[] {0}, index.strikesInARow(6).toArray()));
+            assertEquals(true, index.strikesInARow(13).isEmpty());
+            assertEquals(true, Arrays.equals(new long[] {0, 2}, index.cleanGame().toArray()));
+            assertEquals(true, Arrays.equals(new long[] {2, 3}, index.spareInFrame(0).or(index.spareInFrame(5))
+                    .toArray()));
+            assertEquals(true, Arrays.equals(new long[] {3}, index.splitConverted(7, 10).toArray()));
+            assertEquals(true, index.splitConverted(4, 6).isEmpty());
+            assertEquals(true, Arrays.equals(new long[] {3}, index.splitLeft().toArray()));
+
+            // games archived after the index was built are added by update
+            GameBitmap before = index.strikeInFrame(0);
+            archive.append(3, 0, game(10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10));
+            index.update();
+
+            assertEquals(true, Arrays.equals(new long[] {0, 2}, before.toArray()));
+            assertEquals(true, Arrays.equals(new long[] {0, 4}, index.perfectGame().toArray()));
+            assertEquals(true, Arrays.equals(new long[] {4},
+                    index.perfectGame().and(index.matching(ArchiveFilter.all().onLane(3))).toArray()));
+        }
+    }
+
+    @Test
+    public void countsAGameOnceWhenItConvertsTheSameSplitTwice() throws IOException {
+        try (GameArchive archive = GameArchive.open(directory, 8)) {
+            Game split = new Game(Collections.singletonList("Joe"));
+            for (int frame = 0; frame < 2; frame++) {
+                split.addPinMask(allPins & ~sevenTen);
+                split.addPinMask(sevenTen);
+            }
+            while (!split.isGameOver()) {
+                split.addScores(new int[] {1});
+            }
+            archive.append(1, 0, split);
+            PatternIndex index = PatternIndex.build(archive);
+
+            assertEquals(1, index.splitConverted(7, 10).getCardinality());
+            assertEquals(true, Arrays.equals(new long[] {0}, index.splitConverted(7, 10).toArray()));
+        }
+    }
+
+    @Test
+    public void recognisesSplits() {
+        assertEquals(true, PatternIndex.isSplit(sevenTen));
+        // 5-6, the 3 pin is down in front of them
+        assertEquals(true, PatternIndex.isSplit(1 << 4 | 1 << 5));
+        // 4-7-10 and the 3-10 baby split
+        assertEquals(true, PatternIndex.isSplit(1 << 3 | 1 << 6 | 1 << 9));
+        assertEquals(true, PatternIndex.isSplit(1 << 2 | 1 << 9));
+        // 3-6 and 2-8 are not splits, nor is anything with the head pin standing
+        assertEquals(false, PatternIndex.isSplit(1 << 2 | 1 << 5));
+        assertEquals(false, PatternIndex.isSplit(1 << 1 | 1 << 7));
+        assertEquals(false, PatternIndex.isSplit(1 | sevenTen));
+        assertEquals(false, PatternIndex.isSplit(1 << 9));
+    }
+}
@@ -0,0 +1,119 @@
+package controller;
+
+import model.ErrorMessages;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LaneManagerTest {
+    private static final List<Boolean> strike = Collections.nCopies(10, true);
+    private static final List<Boolean> threePins = Arrays.asList(true, true, true, false, false, false, false, false,
+            false, false);
+
+    @Test
+    public void routesRollsToEachLane() {
+        try (LaneManager laneManager = new LaneManager(16, 4)) {
+            for (int lane = 1; lane <= 16; lane++) {
+                laneManager.startGame(lane, Collections.singletonList("Bowler" + lane));
+            }
+            for (int i = 0; i < 12; i++) {
+                for (int lane = 1; lane <= 16; lane++) {
+                    laneManager.addScore(lane, lane % 2 == 0 ? strike : threePins);
+                }
+            }
+            for (int i = 0; i < 8; i++) {
+                for (int lane = 1; lane <= 16; lane += 2) {
+                    laneManager.addScore(lane, threePins);
+                }
+            }
+            for (int lane = 1; lane <= 16; lane++) {
+                int expected = lane % 2 == 0 ? 300 : 60;
+                assertEquals(expected, laneManager.readLane(lane,
+                        controller -> controller.getPlayers().get(0).getScorecard().getTotalScore()).join());
+                assertEquals(true, laneManager.readLane(lane, GameController::isGameOver).join());
+            }
+        }
+    }
+
+    @Test
+    public void passesRejectedRollsToHandler() {
+        List<String> rejections = Collections.synchronizedList(new ArrayList<>());
+        try (LaneManager laneManager = new LaneManager(2, 1, (lane, e) -> rejections.add(lane + ":" + e.getMessage()))) {
+            laneManager.addScore(2, threePins);
+            laneManager.readLane(2, controller -> controller).handle((controller, e) -> null).join();
+        }
+        assertEquals(Collections.singletonList("2:" + String.format(ErrorMessages.noGameOnLane, 2)), rejections);
+    }
+
+    @Test
+    public void readLaneFailsIfThereIsNoGame() {
+        try (LaneManager laneManager = new LaneManager(2, 1)) {
+            CompletionException thrown = assertThrows(
+                    CompletionException.class,
+                    () -> laneManager.readLane(1, GameController::isGameOver).join(),
+                    ""
+            );
+            assertEquals(String.format(ErrorMessages.noGameOnLane, 1), thrown.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void getViewReadsLaneWithoutWaiting() {
+        try (LaneManager laneManager = new LaneManager(2, 1)) {
+            laneManager.startGame(1, Collections.singletonList("Billy"));
+            laneManager.addScore(1, threePins);
+            laneManager.addScore(1, threePins);
+            laneManager.readLane(1, GameController::isGameOver).join();
+
+            assertEquals(6, laneManager.getView(1).getPlayers().get(0).getScorecard().getTotalScore());
+            RuntimeException thrown = assertThrows(
+                    RuntimeException.class,
+                    () -> laneManager.getView(2),
+                    ""
+            );
+            assertEquals(String.format(ErrorMessages.noGameOnLane, 2), thrown.getMessage());
+        }
+    }
+
+    @Test
+    public void cannotSendToLaneOutsideCenter() {
+        try (LaneManager laneManager = new LaneManager(2, 1)) {
+            RuntimeException thrown = assertThrows(
+                    RuntimeException.class,
+                    () -> laneManager.addScore(3, threePins),
+                    ""
+            );
+            assertEquals(String.format(ErrorMessages.invalidLaneNumber, 3, 2), thrown.getMessage());
+        }
+    }
+
+    @Test
+    public void closeRunsQueuedWorkThenRefusesMore() {
+        List<RuntimeException> rejections = Collections.synchronizedList(new ArrayList<>());
+        LaneManager laneManager = new LaneManager(1, 1, (lane, e) -> rejections.add(e));
+        List<Integer> scores = Collections.synchronizedList(new ArrayList<>());
+        // more than a lane runs before giving its worker back, so the lane has to schedule itself again
+        for (int game = 0; game < 40; game++) {
+            laneManager.startGame(1, Collections.singletonList("Billy"));
+            for (int ball = 0; ball < 12; ball++) {
+                laneManager.addScore(1, strike);
+            }
+            laneManager.readLane(1, controller -> controller.getPlayers().get(0).getScorecard().getTotalScore())
+                    .thenAccept(scores::add);
+        }
+        laneManager.close();
+
+        assertEquals(Collections.nCopies(40, 300), scores);
+        assertEquals(true, rejections.isEmpty());
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> laneManager.addScore(1, strike), "");
+        assertEquals(String.format(ErrorMessages.laneManagerClosed, 1), thrown.getMessage());
+        laneManager.close();
+    }
+}
@@ -0,0 +1,103 @@
+package controller;
+
+import model.ErrorMessages;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollPipelineTest {
+    private static final int strike = 0x3FF;
+    private static final int threePins = 0b111;
+    private static final int nextThreePins = 0b111000;
+
+    @Test
+    public void appliesRollsFromManySendersInLaneOrder() throws InterruptedException {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            // a buffer much smaller than the number of rolls makes the senders wrap around and wait for the consumers
+            try (RollPipeline pipeline = new RollPipeline(16, 3, 8, waitStrategy)) {
+                List<Thread> senders = new ArrayList<>();
+                for (int sender = 0; sender < 4; sender++) {
+                    int firstLane = sender * 4 + 1;
+                    Thread thread = new Thread(() -> {
+                        for (int lane = firstLane; lane < firstLane + 4; lane++) {
+                            pipeline.startGame(lane, Collections.singletonList("Bowler" + lane));
+                        }
+                        for (int roll = 0; roll < 20; roll++) {
+                            for (int lane = firstLane; lane < firstLane + 4; lane++) {
+                                pipeline.addPinMask(lane, lane % 2 == 0 ? strike : roll % 2 == 0 ? threePins : nextThreePins);
+                            }
+                        }
+                    });
+                    senders.add(thread);
+                    thread.start();
+                }
+                for (Thread sender : senders) {
+                    sender.join();
+                }
+                pipeline.awaitProcessed();
+
+                for (int lane = 1; lane <= 16; lane++) {
+                    int expected = lane % 2 == 0 ? 300 : 60;
+                    assertEquals(expected, pipeline.getView(lane).getPlayers().get(0).getScorecard().getTotalScore());
+                    assertEquals(true, pipeline.getView(lane).isGameOver());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void startingAGameReplacesTheOldOne() {
+        try (RollPipeline pipeline = new RollPipeline(2, 2, 16, WaitStrategy.YIELD)) {
+            pipeline.startGame(2, Collections.singletonList("Billy"));
+            pipeline.addPinMask(2, strike);
+            pipeline.startGame(2, Collections.singletonList("Joe"));
+            pipeline.addPinMask(2, threePins);
+            pipeline.awaitProcessed();
+
+            assertEquals("Joe", pipeline.getView(2).getPlayers().get(0).getName());
+            assertEquals(3, pipeline.getView(2).getPlayers().get(0).getScorecard().getFirstPinCount(0).get());
+        }
+    }
+
+    @Test
+    public void rejectedRollsGoToTheHandler() {
+        List<String> rejections = Collections.synchronizedList(new ArrayList<>());
+        try (RollPipeline pipeline = new RollPipeline(4, 2, 16, WaitStrategy.PARK,
+                (lane, e) -> rejections.add(lane + ": " + e.getMessage()))) {
+            pipeline.addPinMask(3, strike);
+            pipeline.startGame(1, Collections.singletonList("Billy"));
+            pipeline.addPinMask(1, 0x400);
+            pipeline.addPinMask(1, threePins);
+            pipeline.awaitProcessed();
+
+            assertEquals(2, rejections.size());
+            assertEquals(true, rejections.contains("3: " + String.format(ErrorMessages.noGameOnLane, 3)));
+            assertEquals(3, pipeline.getView(1).getPlayers().get(0).getScorecard().getFirstPinCount(0).get());
+        }
+    }
+
+    @Test
+    public void invalidLaneOrBufferSizeThrows() {
+        try (RollPipeline pipeline = new RollPipeline(4, 1, 16, WaitStrategy.BUSY_SPIN)) {
+            assertThrows(RuntimeException.class, () -> pipeline.addPinMask(5, strike), "");
+            assertThrows(RuntimeException.class, () -> pipeline.getView(1), "");
+        }
+        assertThrows(RuntimeException.class, () -> new RollPipeline(4, 1, 12, WaitStrategy.YIELD), "");
+    }
+
+    @Test
+    public void closedPipelineThrows() {
+        RollPipeline pipeline = new RollPipeline(4, 2, 16, WaitStrategy.PARK);
+        pipeline.startGame(1, Collections.singletonList("Billy"));
+        pipeline.addPinMask(1, strike);
+
+        pipeline.close();
+
+        assertEquals(true, pipeline.getView(1).getPlayers().get(0).getScorecard().getFirstPinCount(0).isPresent());
+        assertThrows(RuntimeException.class, () -> pipeline.addPinMask(1, strike), "");
+    }
+}
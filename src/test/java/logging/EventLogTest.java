@@ -0,0 +1,117 @@
+package logging;
+
+import model.Game;
+import model.Scorecard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.logging.Level;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogTest {
+    @AfterEach
+    public void tearDown() {
+        EventLog.stop();
+        for (Subsystem subsystem : Subsystem.values()) {
+            EventLog.setLevel(subsystem, Level.INFO);
+            EventLog.setSampleRate(subsystem, 1);
+        }
+    }
+
+    @Test
+    public void nothingIsLoggableBeforeStart() {
+        EventLog.setLevel(Subsystem.SCORECARD, Level.ALL);
+        assertEquals(false, EventLog.isLoggable(EventType.ROLL_ADDED));
+    }
+
+    @Test
+    public void writesEventsAsKeyValuePairs() {
+        StringWriter out = new StringWriter();
+        EventLog.setLevel(Subsystem.SCORECARD, Level.FINE);
+        EventLog.start(out);
+        Scorecard scorecard = new Scorecard();
+        scorecard.addScoreToScorecard(7);
+        scorecard.addScoreToScorecard(2);
+        EventLog.stop();
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].endsWith(" SCORECARD ROLL_ADDED pins=7 frame=0"));
+        assertTrue(lines[1].endsWith(" SCORECARD ROLL_ADDED pins=2 frame=0"));
+        assertTrue(lines[2].endsWith(" SCORECARD FRAME_SCORED frame=0 score=9"));
+    }
+
+    @Test
+    public void logsTheRollsOfABatchOnlyOnceTheBatchIsKept() {
+        StringWriter out = new StringWriter();
+        EventLog.setLevel(Subsystem.SCORECARD, Level.FINER);
+        EventLog.start(out);
+        Game game = new Game(Arrays.asList("Billy"));
+        game.addScores(new int[] {10, 7, 2});
+        assertThrows(RuntimeException.class, () -> game.addScores(new int[] {3, 9}), "");
+        EventLog.stop();
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(6, lines.length);
+        assertTrue(lines[0].endsWith(" SCORECARD ROLL_ADDED pins=10 frame=0"));
+        assertTrue(lines[1].endsWith(" SCORECARD FRAME_STARTED frame=1"));
+        assertTrue(lines[2].endsWith(" SCORECARD ROLL_ADDED pins=7 frame=1"));
+        assertTrue(lines[3].endsWith(" SCORECARD ROLL_ADDED pins=2 frame=1"));
+        assertTrue(lines[4].endsWith(" SCORECARD FRAME_SCORED frame=0 score=19"));
+        assertTrue(lines[5].endsWith(" SCORECARD FRAME_SCORED frame=1 score=28"));
+    }
+
+    @Test
+    public void filtersBySubsystemLevel() {
+        StringWriter out = new StringWriter();
+        EventLog.setLevel(Subsystem.SCORECARD, Level.OFF);
+        EventLog.start(out);
+        EventLog.log(EventType.ROLL_ADDED, 7, 0, null);
+        EventLog.log(EventType.GAME_OVER, 2, 0, null);
+        EventLog.stop();
+
+        assertFalse(out.toString().contains("ROLL_ADDED"));
+        assertTrue(out.toString().contains("GAME GAME_OVER players=2"));
+    }
+
+    @Test
+    public void samplesEvents() {
+        StringWriter out = new StringWriter();
+        EventLog.setSampleRate(Subsystem.GAME, 10);
+        EventLog.start(out, 1 << 16);
+        for (int i = 0; i < 10000; i++) {
+            EventLog.log(EventType.GAME_OVER, 1, 0, null);
+        }
+        EventLog.stop();
+
+        int lines = out.toString().split(System.lineSeparator()).length;
+        assertTrue(lines > 500 && lines < 1500, "expected about 1000 lines but got " + lines);
+    }
+
+    @Test
+    public void dropsEventsWhenBufferIsFull() {
+        StringWriter out = new StringWriter() {
+            @Override
+            public void flush() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        EventLog.start(out, 16);
+        for (int i = 0; i < 1000; i++) {
+            EventLog.log(EventType.GAME_OVER, i, 0, null);
+        }
+        assertTrue(EventLog.getDroppedCount() > 0);
+    }
+
+    @Test
+    public void rejectsSampleRateBelowOne() {
+        assertThrows(RuntimeException.class, () -> EventLog.setSampleRate(Subsystem.GAME, 0), "");
+    }
+}
@@ -0,0 +1,171 @@
+package metrics;
+
+import controller.GameController;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import model.Game;
+import model.Scorecard;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEventsTest {
+    private static final int strike = 0b1111111111;
+
+    @Test
+    public void recordsRollsAndTheEndOfTheGame() throws IOException {
+        List<RecordedEvent> events = record(Duration.ZERO, () -> {
+            Game game = new Game(Arrays.asList("Billy", "Joe"));
+            game.setLaneNumber(3);
+            GameController gameController = new GameController(game);
+            for (int frame = 0; frame < 9; frame++) {
+                gameController.addPinMask(strike);
+                gameController.addPinMask(0b0000000111);
+                gameController.addPinMask(0b0000011000);
+            }
+            for (int ball = 0; ball < 3; ball++) {
+                gameController.addPinMask(strike);
+            }
+            gameController.addPinMask(0b0000000111);
+            gameController.addPinMask(0b0000011000);
+        });
+
+        List<RecordedEvent> rolls = ofType(events, "bowling.Roll");
+        assertEquals(32, rolls.size());
+        assertEquals(3, rolls.get(0).getInt("lane"));
+        assertEquals("Billy", rolls.get(0).getString("player"));
+        assertEquals(10, rolls.get(0).getInt("pinCount"));
+        assertEquals("Joe", rolls.get(1).getString("player"));
+        assertEquals(3, rolls.get(1).getInt("pinCount"));
+        assertEquals(2, rolls.get(2).getInt("pinCount"));
+        assertEquals(9, rolls.get(29).getInt("frame"));
+        assertEquals(true, rolls.get(29).getBoolean("accepted"));
+
+        List<RecordedEvent> gamesCompleted = ofType(events, "bowling.GameCompleted");
+        assertEquals(1, gamesCompleted.size());
+        assertEquals("Billy", gamesCompleted.get(0).getString("player"));
+        assertEquals(300, gamesCompleted.get(0).getInt("score"));
+        assertEquals(2, gamesCompleted.get(0).getInt("players"));
+    }
+
+    @Test
+    public void recordsFramesAndScoreCalculationsOfAGameBowledBallByBall() throws IOException {
+        List<RecordedEvent> events = record(Duration.ZERO, () -> {
+            Game game = new Game(Arrays.asList("Billy"));
+            game.setLaneNumber(5);
+            game.addPinMask(strike);
+            game.addPinMask(0b0000000111);
+            game.addPinMask(0b0000011000);
+        });
+
+        List<RecordedEvent> frames = ofType(events, "bowling.Frame");
+        assertEquals(2, frames.size());
+        assertEquals(5, frames.get(0).getInt("lane"));
+        assertEquals("Billy", frames.get(0).getString("player"));
+        assertEquals(0, frames.get(0).getInt("frame"));
+        assertEquals(10, frames.get(0).getInt("pinCount"));
+        assertEquals(1, frames.get(1).getInt("frame"));
+        assertEquals(5, frames.get(1).getInt("pinCount"));
+
+        List<RecordedEvent> calculations = ofType(events, "bowling.ScoreCalculation");
+        assertEquals(3, calculations.size());
+        assertEquals(20, calculations.get(2).getInt("score"));
+        assertEquals(false, calculations.get(2).getBoolean("fullPass"));
+        assertEquals("Billy", calculations.get(2).getString("player"));
+    }
+
+    @Test
+    public void recordsFramesOfABatchOnlyOnceTheBatchIsKept() throws IOException {
+        List<RecordedEvent> events = record(Duration.ZERO, () -> {
+            Game game = new Game(Arrays.asList("Billy"));
+            game.addPinMasks(new int[] {strike, 0b0000000111, 0b0000011000});
+            assertThrows(RuntimeException.class, () -> game.addPinMasks(new int[] {strike, strike, 1 << 10}), "");
+        });
+
+        List<RecordedEvent> frames = ofType(events, "bowling.Frame");
+        assertEquals(2, frames.size());
+        assertEquals(0, frames.get(0).getInt("frame"));
+        assertEquals(1, frames.get(1).getInt("frame"));
+        assertEquals(5, frames.get(1).getInt("pinCount"));
+    }
+
+    @Test
+    public void recordsRejectedRolls() throws IOException {
+        List<RecordedEvent> events = record(Duration.ZERO, () -> {
+            GameController gameController = new GameController(new ArrayList<>(Arrays.asList("Billy")));
+            gameController.addPinMask(0b0000000111);
+            gameController.tryAddPinMask(0b0000000001);
+        });
+
+        List<RecordedEvent> rolls = ofType(events, "bowling.Roll");
+        assertEquals(2, rolls.size());
+        assertEquals(0, rolls.get(1).getInt("lane"));
+        assertEquals(false, rolls.get(1).getBoolean("accepted"));
+    }
+
+    @Test
+    public void recordsScoreCalculations() throws IOException {
+        List<RecordedEvent> events = record(Duration.ZERO, () -> {
+            Scorecard scorecard = new Scorecard();
+            scorecard.addScoreToScorecard(10);
+            scorecard.addScoreToScorecard(7);
+            scorecard.addScoreToScorecard(2);
+            scorecard.calculateScore();
+        });
+
+        List<RecordedEvent> calculations = ofType(events, "bowling.ScoreCalculation");
+        assertEquals(1, calculations.size());
+        assertEquals(2, calculations.get(0).getInt("frames"));
+        assertEquals(28, calculations.get(0).getInt("score"));
+        assertEquals(true, calculations.get(0).getBoolean("fullPass"));
+    }
+
+    @Test
+    public void leavesOutEventsUnderTheThreshold() throws IOException {
+        List<RecordedEvent> events = record(Duration.ofHours(1), () -> {
+            GameController gameController = new GameController(new ArrayList<>(Arrays.asList("Billy")));
+            gameController.addPinMask(strike);
+            new Scorecard().calculateScore();
+        });
+
+        assertEquals(0, ofType(events, "bowling.Roll").size());
+        assertEquals(0, ofType(events, "bowling.ScoreCalculation").size());
+    }
+
+    private static List<RecordedEvent> record(Duration threshold, Runnable bowling) throws IOException {
+        Path file = Files.createTempFile("bowling", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : Arrays.asList("bowling.Roll", "bowling.Frame", "bowling.ScoreCalculation")) {
+                recording.enable(name).withThreshold(threshold);
+            }
+            recording.enable("bowling.GameCompleted");
+            recording.start();
+            bowling.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                matching.add(event);
+            }
+        }
+        matching.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+        return matching;
+    }
+}
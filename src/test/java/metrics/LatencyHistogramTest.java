@@ -0,0 +1,55 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    public void everyLatencyFallsInABucketThatHoldsIt() {
+        for (long nanos = 0; nanos < 100_000; nanos++) {
+            int bucket = LatencyHistogram.bucketOf(nanos);
+            assertEquals(true, nanos <= LatencyHistogram.highestInBucket(bucket));
+            assertEquals(true, bucket == 0 || nanos > LatencyHistogram.highestInBucket(bucket - 1));
+        }
+        assertEquals(LatencyHistogram.numberOfBuckets - 1, LatencyHistogram.bucketOf((1L << 41) - 1));
+    }
+
+    @Test
+    public void bucketsAreNeverMoreThanAnEighthWide() {
+        for (int bucket = 1; bucket < LatencyHistogram.numberOfBuckets; bucket++) {
+            long lowest = LatencyHistogram.highestInBucket(bucket - 1) + 1;
+            long width = LatencyHistogram.highestInBucket(bucket) - lowest + 1;
+            assertEquals(true, width <= Math.max(1, lowest / 8));
+        }
+    }
+
+    @Test
+    public void percentilesOfUniformLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 1000; nanos++) {
+            histogram.record(nanos);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMeanNanos(), 0.001);
+        assertEquals(1000, histogram.getMaxNanos());
+        assertEquals(true, Math.abs(histogram.getP50Nanos() - 500) <= 500 / 8);
+        assertEquals(true, Math.abs(histogram.getP90Nanos() - 900) <= 900 / 8);
+        assertEquals(true, Math.abs(histogram.getP99Nanos() - 990) <= 990 / 8);
+        assertEquals(1000, histogram.getP999Nanos());
+    }
+
+    @Test
+    public void emptyAndResetHistogramsReportZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getP99Nanos());
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getP50Nanos());
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0.0, histogram.getMeanNanos());
+    }
+}
@@ -0,0 +1,137 @@
+package metrics;
+
+import controller.GameController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollMetricsTest {
+    private static final int strike = 0b1111111111;
+
+    @AfterEach
+    public void tearDown() {
+        RollMetrics.stop();
+        RollMetrics.setSampleRate(16);
+    }
+
+    @Test
+    public void nothingIsRecordedBeforeStart() {
+        long rolls = RollMetrics.getCenter().getRolls();
+        long count = RollMetrics.getLatency(RollPhase.END_TO_END).getCount();
+        GameController gameController = new GameController(new ArrayList<>(Arrays.asList("Billy")));
+        gameController.addPinMask(strike);
+        assertEquals(rolls, RollMetrics.getCenter().getRolls());
+        assertEquals(count, RollMetrics.getLatency(RollPhase.END_TO_END).getCount());
+        assertEquals(0, RollMetrics.startTimer());
+    }
+
+    @Test
+    public void countsRollsGamesAndRejectedRolls() {
+        RollMetrics.start();
+        RollMetrics.setSampleRate(1);
+        long rolls = RollMetrics.getCenter().getRolls();
+        long games = RollMetrics.getCenter().getGamesCompleted();
+        long endToEnd = RollMetrics.getLatency(RollPhase.END_TO_END).getCount();
+        long turnChanges = RollMetrics.getLatency(RollPhase.TURN_CHANGE).getCount();
+        long gameOver = rejected("GAME_IS_OVER");
+        long fallenPin = rejected("PIN_MASK_KNOCKS_DOWN_FALLEN_PIN");
+
+        GameController gameController = new GameController(new ArrayList<>(Arrays.asList("Billy")));
+        gameController.addPinMask(0b0000000111);
+        gameController.tryAddPinMask(0b0000000001);
+        for (int ball = 0; ball < 12; ball++) {
+            gameController.addPinMask(ball == 0 ? 0b1111111000 : strike);
+        }
+        gameController.tryAddPinMask(strike);
+
+        assertEquals(rolls + 13, RollMetrics.getCenter().getRolls());
+        assertEquals(games + 1, RollMetrics.getCenter().getGamesCompleted());
+        assertEquals(endToEnd + 13, RollMetrics.getLatency(RollPhase.END_TO_END).getCount());
+        assertEquals(turnChanges + 13, RollMetrics.getLatency(RollPhase.TURN_CHANGE).getCount());
+        assertEquals(gameOver + 1, rejected("GAME_IS_OVER"));
+        assertEquals(fallenPin + 1, rejected("PIN_MASK_KNOCKS_DOWN_FALLEN_PIN"));
+    }
+
+    @Test
+    public void countsBatchesWhenTheyAreAddedOrRolledBack() {
+        RollMetrics.start();
+        long rolls = RollMetrics.getCenter().getRolls();
+        long fallenPin = rejected("PIN_MASK_KNOCKS_DOWN_FALLEN_PIN");
+        long gameOver = rejected("GAME_IS_OVER");
+
+        GameController gameController = new GameController(new ArrayList<>(Arrays.asList("Billy")));
+        gameController.addPinMasks(new int[] {strike, 0b0000000111, 0b0000011000});
+        assertThrows(RuntimeException.class, () -> gameController.addPinMasks(new int[] {0b1, 0b1}), "");
+        assertEquals(rolls + 3, RollMetrics.getCenter().getRolls());
+        assertEquals(fallenPin + 1, rejected("PIN_MASK_KNOCKS_DOWN_FALLEN_PIN"));
+
+        gameController.addScores(new int[] {10, 10, 10, 10, 10, 10, 10, 10, 10, 10});
+        assertThrows(RuntimeException.class, () -> gameController.addScores(new int[] {1}), "");
+        assertEquals(rolls + 13, RollMetrics.getCenter().getRolls());
+        assertEquals(gameOver + 1, rejected("GAME_IS_OVER"));
+    }
+
+    @Test
+    public void timesPinCountingWhenSampled() {
+        RollMetrics.start();
+        RollMetrics.setSampleRate(1);
+        long pinCounts = RollMetrics.getLatency(RollPhase.PIN_COUNT).getCount();
+        GameController gameController = new GameController(new ArrayList<>(Arrays.asList("Billy")));
+        gameController.addScore(Arrays.asList(true, true, true, false, false, false, false, false, false, false));
+        assertEquals(pinCounts + 1, RollMetrics.getLatency(RollPhase.PIN_COUNT).getCount());
+    }
+
+    @Test
+    public void publishesMXBeansWhileStarted() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        LaneMetrics lane = RollMetrics.getLane(7);
+        assertSame(lane, RollMetrics.getLane(7));
+        assertEquals(false, server.isRegistered(RollMetrics.centerName()));
+
+        RollMetrics.start();
+        lane.rollAccepted();
+        assertEquals(true, server.isRegistered(RollMetrics.latencyName(RollPhase.CALCULATE_SCORE)));
+        assertEquals(RollMetrics.getCenter().getGamesCompleted(),
+                server.getAttribute(RollMetrics.centerName(), "GamesCompleted"));
+        assertEquals(lane.getRolls(), server.getAttribute(RollMetrics.laneName(7), "Rolls"));
+        RollMetrics.getLane(8);
+        assertEquals(true, server.isRegistered(RollMetrics.laneName(8)));
+
+        RollMetrics.stop();
+        assertEquals(false, server.isRegistered(RollMetrics.centerName()));
+        assertEquals(false, server.isRegistered(RollMetrics.laneName(7)));
+    }
+
+    @Test
+    public void readingARateDoesNotChangeIt() {
+        LongAdder rolls = new LongAdder();
+        RateMeter rate = new RateMeter(rolls::sum);
+        rate.sample();
+        assertEquals(0.0, rate.perSecond());
+
+        rolls.add(100);
+        rate.sample();
+        double rollsPerSecond = rate.perSecond();
+        assertEquals(true, rollsPerSecond > 0);
+        // a second JMX client reading the rate sees the same rate
+        assertEquals(rollsPerSecond, rate.perSecond());
+    }
+
+    @Test
+    public void sampleRateMustBePositive() {
+        assertThrows(RuntimeException.class, () -> RollMetrics.setSampleRate(0), "");
+    }
+
+    private static long rejected(String reason) {
+        Map<String, Long> rejectedRolls = RollMetrics.getCenter().getRejectedRolls();
+        return rejectedRolls.getOrDefault(reason, 0L);
+    }
+}
@@ -0,0 +1,80 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletedFrameTest {
+    @Test
+    public void everyCompletedFrameIsMadeOnce() {
+        assertEquals(66 + 241, CompletedFrame.getNumberOfFrames());
+        assertSame(CompletedFrame.of(7, 2), CompletedFrame.of(7, 2));
+        assertSame(CompletedFrame.ofLastFrame(10, 10, 10), CompletedFrame.ofLastFrame(10, 10, 10));
+        assertNotSame(CompletedFrame.of(7, 2), CompletedFrame.ofLastFrame(7, 2, -1));
+    }
+
+    @Test
+    public void framesOfAGameAreShared() {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        while (!game.isGameOver()) {
+            game.addScore(10);
+        }
+        ScorecardView billy = game.getView().getPlayers().get(0).getScorecard();
+        ScorecardView joe = game.getView().getPlayers().get(1).getScorecard();
+
+        for (int frameIndex = 0; frameIndex < 9; frameIndex++) {
+            assertSame(CompletedFrame.of(10, 0), billy.getCompletedFrame(frameIndex).get());
+            assertSame(billy.getCompletedFrame(frameIndex).get(), joe.getCompletedFrame(frameIndex).get());
+        }
+        assertSame(CompletedFrame.ofLastFrame(10, 10, 10), billy.getCompletedFrame(9).get());
+        assertEquals(300, billy.getTotalScore());
+    }
+
+    @Test
+    public void unfinishedFrameIsNotCompleted() {
+        Game game = new Game(Collections.singletonList("Billy"));
+        game.addScore(7);
+
+        assertEquals(false, game.getView().getPlayers().get(0).getScorecard().getCompletedFrame(0).isPresent());
+        game.addScore(3);
+        assertSame(CompletedFrame.of(7, 3), game.getView().getPlayers().get(0).getScorecard().getCompletedFrame(0).get());
+        assertSame(CompletedFrame.of(7, 3), game.getPlayers().get(0).getScorecard().getFrames().get(0)
+                .toCompletedFrame().get());
+    }
+
+    @Test
+    public void lastFrameNeedsItsFillBall() {
+        Frame frame = new Frame();
+        frame.setLastFrame(true);
+        frame.setFirstPinCount(10);
+        frame.setSecondPinCount(4);
+
+        assertEquals(false, frame.toCompletedFrame().isPresent());
+        frame.setThirdPinCount(6);
+        assertSame(CompletedFrame.ofLastFrame(10, 4, 6), frame.toCompletedFrame().get());
+    }
+
+    @Test
+    public void invalidBallsAreNotACompletedFrame() {
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> CompletedFrame.of(7, 4), "");
+
+        assertEquals(String.format(ErrorMessages.notACompletedFrame, 7, 4, -1, "regular"), thrown.getMessage());
+        assertThrows(RuntimeException.class, () -> CompletedFrame.ofLastFrame(10, 4, 7), "");
+        assertThrows(RuntimeException.class, () -> CompletedFrame.ofLastFrame(3, 4, 2), "");
+        assertThrows(RuntimeException.class, () -> CompletedFrame.of(11, 0), "");
+    }
+
+    @Test
+    public void writesScoreSheetMarks() {
+        assertEquals("X", CompletedFrame.of(10, 0).toString());
+        assertEquals("7/", CompletedFrame.of(7, 3).toString());
+        assertEquals("8-", CompletedFrame.of(8, 0).toString());
+        assertEquals("XXX", CompletedFrame.ofLastFrame(10, 10, 10).toString());
+        assertEquals("X3/", CompletedFrame.ofLastFrame(10, 3, 7).toString());
+        assertEquals("9/X", CompletedFrame.ofLastFrame(9, 1, 10).toString());
+        assertEquals("-5", CompletedFrame.ofLastFrame(0, 5, -1).toString());
+    }
+}
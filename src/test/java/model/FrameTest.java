@@ -65,6 +65,19 @@ class FrameTest {
       assertEquals(String.format(ErrorMessages.firstPlusSecondExceedsMax, 7, 4, 10), thrown.getMessage());
    }
 
+   @Test
+   public void testWontSetSecondPinOverPinsStandingInLastFrame() {
+      Frame frame = new Frame();
+      frame.setLastFrame(true);
+      frame.setFirstPinCount(3);
+      RuntimeException thrown = assertThrows(
+              RuntimeException.class,
+              () -> frame.setSecondPinCount(10),
+              ""
+      );
+      assertEquals(String.format(ErrorMessages.firstPlusSecondExceedsMax, 3, 10, 10), thrown.getMessage());
+   }
+
    @Test
    public void testWillSetThirdPinIfStrike() {
       Frame frame = new Frame();
@@ -226,4 +239,32 @@ class FrameTest {
 
       assertEquals(String.format(ErrorMessages.invalidFrameScore, 301), thrown.getMessage());
    }
-}
\ No newline at end of file
+
+   @Test
+   public void testWontSetFirstPinIfNegative() {
+      Frame frame = new Frame();
+      RuntimeException thrown = assertThrows(
+              RuntimeException.class,
+              () -> frame.setFirstPinCount(-1),
+              ""
+      );
+
+      assertEquals(String.format(ErrorMessages.pinBelowMinValue, -1), thrown.getMessage());
+      assertEquals(false, frame.getFirstPinCount().isPresent());
+   }
+
+   @Test
+   public void testPinCountsAndFrameScoreAreIndependent() {
+      Frame frame = new Frame();
+      frame.setLastFrame(true);
+      frame.setFirstPinCount(10);
+      frame.setSecondPinCount(10);
+      frame.setThirdPinCount(0);
+      frame.setFrameScore(300);
+      assertEquals(10, frame.getFirstPinCount().get());
+      assertEquals(10, frame.getSecondPinCount().get());
+      assertEquals(0, frame.getThirdPinCount().get());
+      assertEquals(300, frame.getFrameScore().get());
+      assertEquals(true, frame.getLastFrame());
+   }
+}
@@ -0,0 +1,182 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventPublisherTest {
+    @Test
+    public void sendsChangesInOrder() {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        subscribeInline(game, subscriber);
+
+        game.addScore(10);
+        game.addScore(3);
+        game.addScore(4);
+
+        assertEquals(Arrays.asList(GameEvent.Type.LATEST_STATE,
+                GameEvent.Type.ROLL_ACCEPTED, GameEvent.Type.ACTIVE_PLAYER_CHANGED,
+                GameEvent.Type.ROLL_ACCEPTED,
+                GameEvent.Type.ROLL_ACCEPTED, GameEvent.Type.FRAME_SCORED, GameEvent.Type.ACTIVE_PLAYER_CHANGED),
+                subscriber.getTypes());
+        GameEvent frameScored = subscriber.events.get(5);
+        assertEquals(1, frameScored.getPlayerIndex());
+        assertEquals(0, frameScored.getFrameIndex());
+        assertEquals(7, frameScored.getScore());
+        assertEquals(0, subscriber.events.get(6).getPlayerIndex());
+        assertEquals(4, subscriber.events.get(4).getPinCount());
+        assertEquals(3, subscriber.events.get(4).getView().getVersion());
+    }
+
+    @Test
+    public void sendsFramesScoredByBatch() {
+        Game game = new Game(Collections.singletonList("Billy"));
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        subscribeInline(game, subscriber);
+
+        game.addScores(new int[]{10, 10, 3, 4});
+
+        List<Integer> frameScores = new ArrayList<>();
+        for (GameEvent event : subscriber.events) {
+            if (event.getType() == GameEvent.Type.FRAME_SCORED) {
+                frameScores.add(event.getScore());
+            }
+        }
+        assertEquals(Arrays.asList(23, 40, 47), frameScores);
+    }
+
+    @Test
+    public void completesWhenGameIsOver() {
+        Game game = new Game(Collections.singletonList("Billy"));
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        subscribeInline(game, subscriber);
+
+        while (!game.isGameOver()) {
+            game.addScore(10);
+        }
+
+        assertEquals(GameEvent.Type.GAME_OVER, subscriber.events.get(subscriber.events.size() - 1).getType());
+        assertEquals(true, subscriber.isComplete);
+    }
+
+    @Test
+    public void slowSubscriberGetsLatestStateInsteadOfEveryEvent() {
+        // eight players bowling open frames give more events than a subscriber's buffer holds
+        Game game = new Game(Arrays.asList("A", "B", "C", "D", "E", "F", "G", "H"));
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        subscribeInline(game, subscriber);
+
+        while (!game.isGameOver()) {
+            game.addScore(1);
+        }
+        assertEquals(1, subscriber.events.size());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(2, subscriber.events.size());
+        GameEvent latest = subscriber.events.get(1);
+        assertEquals(GameEvent.Type.LATEST_STATE, latest.getType());
+        assertEquals(true, latest.getView().isGameOver());
+        assertEquals(20, latest.getView().getPlayers().get(7).getScorecard().getTotalScore());
+        assertEquals(true, subscriber.isComplete);
+    }
+
+    @Test
+    public void lateSubscriberGetsFinishedGame() throws InterruptedException {
+        Game game = new Game(Collections.singletonList("Billy"));
+        for (int i = 0; i < 12; i++) {
+            game.addScore(10);
+        }
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+
+        game.getChanges().subscribe(subscriber);
+
+        assertEquals(true, subscriber.completed.await(10, TimeUnit.SECONDS));
+        assertEquals(1, subscriber.events.size());
+        assertEquals(300, subscriber.events.get(0).getView().getPlayers().get(0).getScorecard().getTotalScore());
+    }
+
+    @Test
+    public void invalidRequestIsAnError() {
+        Game game = new Game(Collections.singletonList("Billy"));
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        subscribeInline(game, subscriber);
+
+        assertEquals(IllegalArgumentException.class, subscriber.error.getClass());
+        assertEquals(String.format(ErrorMessages.invalidSubscriptionRequest, 0), subscriber.error.getMessage());
+    }
+
+    @Test
+    public void cancelledSubscriberIsNotSentEvents() {
+        Game game = new Game(Collections.singletonList("Billy"));
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        subscribeInline(game, subscriber);
+
+        subscriber.subscription.cancel();
+        game.addScore(5);
+
+        assertEquals(1, subscriber.events.size());
+    }
+
+    /**
+     * Subscribes through a publisher that passes the events on the thread adding rolls, so that tests can check what
+     * has been sent straight after adding a roll
+     */
+    private static void subscribeInline(Game game, RecordingSubscriber subscriber) {
+        GameEventPublisher publisher = new GameEventPublisher(game, Runnable::run);
+        game.addGameListener(publisher);
+        publisher.subscribe(subscriber);
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<GameEvent> {
+        private final long initialRequest;
+        private final List<GameEvent> events = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private volatile boolean isComplete;
+        private volatile Throwable error;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        List<GameEvent.Type> getTypes() {
+            List<GameEvent.Type> types = new ArrayList<>();
+            for (GameEvent event : events) {
+                types.add(event.getType());
+            }
+            return types;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(GameEvent item) {
+            events.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            isComplete = true;
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSnapshotTest {
+    @Test
+    public void restoresGameInProgress() {
+        Game game = new Game(Arrays.asList("Billy", "Joe", "Zo\u00eb"));
+        game.addScores(new int[]{10, 5, 5, 3, 4, 7, 2, 10, 0, 10, 9});
+
+        Game restored = GameSnapshot.read(ByteBuffer.wrap(GameSnapshot.toBytes(game)));
+
+        assertSameGame(game, restored);
+        assertEquals("Zo\u00eb", restored.getPlayers().get(2).getName());
+        assertEquals(true, restored.getPlayers().get(game.getActivePlayerIndex()).isActivePlayer());
+    }
+
+    @Test
+    public void restoresPinMasksAndCounts() {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        game.addPinMask(0b1111111111);
+        game.addScore(7);
+        game.addScore(1);
+        game.addPinMask(0b0000000000);
+        game.addPinMask(0b0000001111);
+
+        Game restored = GameSnapshot.read(ByteBuffer.wrap(GameSnapshot.toBytes(game)));
+
+        assertSameGame(game, restored);
+        assertEquals(0b1111111111, restored.getPlayers().get(0).getScorecard().getPinMask(0, 0));
+        assertEquals(-1, restored.getPlayers().get(1).getScorecard().getPinMask(0, 0));
+        assertEquals(0, restored.getPlayers().get(0).getScorecard().getPinMask(1, 0));
+        assertEquals(0b0000001111, restored.getPlayers().get(0).getScorecard().getPinMask(1, 1));
+    }
+
+    @Test
+    public void restoresRandomGames() {
+        Random random = new Random(7);
+        for (int n = 0; n < 200; n++) {
+            Game game = new Game(Arrays.asList("A", "B", "C", "D", "E", "F"));
+            int numberOfRolls = random.nextInt(130);
+            for (int i = 0; i < numberOfRolls && !game.isGameOver(); i++) {
+                Scorecard scorecard = game.getPlayers().get(game.getActivePlayerIndex()).getScorecard();
+                int standing = pinsStanding(scorecard);
+                int pinMask = random.nextInt(1 << 10) & standing;
+                if (random.nextBoolean()) {
+                    game.addPinMask(pinMask);
+                } else {
+                    game.addScore(Integer.bitCount(pinMask));
+                }
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+            int length = GameSnapshot.write(game, buffer);
+            buffer.flip();
+            Game restored = GameSnapshot.read(buffer);
+
+            assertEquals(length, buffer.position());
+            assertSameGame(game, restored);
+        }
+    }
+
+    @Test
+    public void sixPlayerGameIsSmall() {
+        Game game = new Game(Arrays.asList("Billy", "Joe", "Susan", "Maria", "Tom", "Alex"));
+        while (!game.isGameOver()) {
+            game.addPinMask(0b1111111111);
+        }
+
+        assertEquals(true, GameSnapshot.toBytes(game).length < 200);
+    }
+
+    @Test
+    public void rejectsDataThatIsNotASnapshot() {
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> GameSnapshot.read(ByteBuffer.wrap(new byte[]{1, 2, 3})),
+                ""
+        );
+
+        assertEquals(ErrorMessages.notAGameSnapshot, thrown.getMessage());
+    }
+
+    @Test
+    public void rejectsTruncatedSnapshot() {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        game.addScores(new int[]{3, 4, 5, 5});
+        byte[] snapshot = GameSnapshot.toBytes(game);
+
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> GameSnapshot.read(ByteBuffer.wrap(snapshot, 0, snapshot.length - 1)),
+                ""
+        );
+
+        assertEquals(ErrorMessages.notAGameSnapshot, thrown.getMessage());
+    }
+
+    @Test
+    public void rejectsCorruptCountsWithoutAllocatingThem() {
+        byte[][] corrupt = {
+                // two billion players
+                {(byte) 0xB5, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 0},
+                // -1 players
+                {(byte) 0xB5, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 0},
+                // no players
+                {(byte) 0xB5, 1, 0, 0},
+                // the third of two players is active
+                {(byte) 0xB5, 1, 2, 2, 1, 'A', 0, 0, 1, 'B', 0, 0},
+                // a name of -1 bytes
+                {(byte) 0xB5, 1, 1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 0, 0},
+        };
+        for (byte[] snapshot : corrupt) {
+            RuntimeException thrown = assertThrows(
+                    RuntimeException.class,
+                    () -> GameSnapshot.read(ByteBuffer.wrap(snapshot)),
+                    ""
+            );
+
+            assertEquals(ErrorMessages.notAGameSnapshot, thrown.getMessage());
+        }
+    }
+
+    private static int pinsStanding(Scorecard scorecard) {
+        int allPins = (1 << 10) - 1;
+        if (scorecard.isReadyForNextFrame()) {
+            return allPins;
+        }
+        Frame frame = scorecard.getFrames().get(scorecard.getIndexOfCurrentFrame());
+        if (!frame.getFirstPinCount().isPresent()) {
+            return allPins;
+        }
+        int ball = frame.getSecondPinCount().isPresent() ? 2 : 1;
+        int pins = frame.getFirstPinCount().get();
+        if (ball == 2) {
+            if (frame.wasSpare() || frame.getSecondPinCount().get() == 10) {
+                return allPins;
+            }
+            pins = frame.getSecondPinCount().get();
+        }
+        if (pins == 10) {
+            return allPins;
+        }
+        int pinMask = scorecard.getPinMask(scorecard.getIndexOfCurrentFrame(), ball - 1);
+        return pinMask >= 0 ? allPins & ~pinMask : (1 << (10 - pins)) - 1;
+    }
+
+    private static void assertSameGame(Game expected, Game actual) {
+        assertEquals(expected.getActivePlayerIndex(), actual.getActivePlayerIndex());
+        assertEquals(expected.isGameOver(), actual.isGameOver());
+        List<Player> expectedPlayers = expected.getPlayers();
+        List<Player> actualPlayers = actual.getPlayers();
+        assertEquals(expectedPlayers.size(), actualPlayers.size());
+        for (int i = 0; i < expectedPlayers.size(); i++) {
+            Scorecard expectedScorecard = expectedPlayers.get(i).getScorecard();
+            Scorecard actualScorecard = actualPlayers.get(i).getScorecard();
+            assertEquals(expectedPlayers.get(i).getName(), actualPlayers.get(i).getName());
+            assertEquals(expectedPlayers.get(i).isActivePlayer(), actualPlayers.get(i).isActivePlayer());
+            assertEquals(expectedScorecard.getTotalScore(), actualScorecard.getTotalScore());
+            assertEquals(expectedScorecard.getIndexOfCurrentFrame(), actualScorecard.getIndexOfCurrentFrame());
+            assertEquals(expectedScorecard.getFrames().size(), actualScorecard.getFrames().size());
+            for (int f = 0; f < expectedScorecard.getFrames().size(); f++) {
+                assertEquals(expectedScorecard.getFrames().get(f).getWord(), actualScorecard.getFrames().get(f).getWord());
+                for (int ball = 0; ball < 3; ball++) {
+                    assertEquals(expectedScorecard.getPinMask(f, ball), actualScorecard.getPinMask(f, ball));
+                }
+            }
+        }
+    }
+}
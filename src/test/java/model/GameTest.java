@@ -107,4 +107,72 @@ class GameTest {
         );
         assertEquals(String.format(ErrorMessages.pinExceedsMaxValue, 14, 10), thrown.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void addPinMaskMovesToNextPlayer() {
+        List<String> playerNames = Arrays.asList("Billy", "Joe");
+        Game game = new Game(playerNames);
+        game.addPinMask(0b1111111111);
+        game.addPinMask(0b0000011111);
+
+        assertEquals(10, game.getPlayers().get(0).getScorecard().getFrames().get(0).getFirstPinCount().get());
+        assertEquals(5, game.getPlayers().get(1).getScorecard().getFrames().get(0).getFirstPinCount().get());
+        assertEquals(true, game.getPlayers().get(1).isActivePlayer());
+    }
+
+    @Test
+    public void addScoresMatchesAddingOneAtATime() {
+        int[] scores = {10, 7, 3, 9, 0, 10, 10, 10, 10, 8, 2, 6, 4, 10, 0, 0, 10, 10, 10, 10, 5, 5, 10, 3, 4};
+        Game batchGame = new Game(Arrays.asList("Billy", "Joe", "Ann"));
+        Game game = new Game(Arrays.asList("Billy", "Joe", "Ann"));
+        batchGame.addScores(scores);
+        for (int score : scores) {
+            game.addScore(score);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            Player batchPlayer = batchGame.getPlayers().get(i);
+            Player player = game.getPlayers().get(i);
+            assertEquals(player.getScorecard().getTotalScore(), batchPlayer.getScorecard().getTotalScore());
+            assertEquals(player.getScorecard().getFrames().size(), batchPlayer.getScorecard().getFrames().size());
+            assertEquals(player.isActivePlayer(), batchPlayer.isActivePlayer());
+        }
+    }
+
+    @Test
+    public void addScoresRejectsWholeBatch() {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        game.addScores(new int[] {3, 4});
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> game.addScores(new int[] {10, 5, 6}),
+                ""
+        );
+
+        assertEquals(String.format(ErrorMessages.rollInBatchRejected, 2,
+                String.format(ErrorMessages.firstPlusSecondExceedsMax, 5, 6, 10)), thrown.getMessage());
+        assertEquals(1, game.getPlayers().get(0).getScorecard().getFrames().size());
+        assertEquals(7, game.getPlayers().get(0).getScorecard().getTotalScore());
+        assertEquals(false, game.getPlayers().get(1).getScorecard().getFrames().get(0).getFirstPinCount().isPresent());
+        assertEquals(true, game.getPlayers().get(1).isActivePlayer());
+    }
+
+    @Test
+    public void addPinMasksRejectsRollsAfterGameIsOver() {
+        Game game = new Game(Arrays.asList("Billy"));
+        int[] pinMasks = new int[13];
+        Arrays.fill(pinMasks, 0b1111111111);
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> game.addPinMasks(pinMasks),
+                ""
+        );
+
+        assertEquals(String.format(ErrorMessages.rollInBatchRejected, 12, ErrorMessages.cannotAddScoreIfTheGameIsOver),
+                thrown.getMessage());
+        assertEquals(0, game.getPlayers().get(0).getScorecard().getTotalScore());
+        game.addPinMasks(Arrays.copyOf(pinMasks, 12));
+        assertEquals(300, game.getPlayers().get(0).getScorecard().getTotalScore());
+        assertEquals(true, game.isGameOver());
+    }
+}
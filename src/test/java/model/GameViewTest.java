@@ -0,0 +1,101 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameViewTest {
+    @Test
+    public void publishesViewAfterEachRoll() {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        GameView first = game.getView();
+
+        game.addScore(7);
+        GameView second = game.getView();
+        game.addScore(2);
+        GameView third = game.getView();
+
+        assertEquals(0, first.getVersion());
+        assertEquals(1, second.getVersion());
+        assertEquals(2, third.getVersion());
+        assertEquals(false, first.getPlayers().get(0).getScorecard().getFirstPinCount(0).isPresent());
+        assertEquals(7, second.getPlayers().get(0).getScorecard().getFirstPinCount(0).get());
+        assertEquals(false, second.getPlayers().get(0).getScorecard().getSecondPinCount(0).isPresent());
+        assertEquals(9, third.getPlayers().get(0).getScorecard().getTotalScore());
+        assertEquals(0, second.getActivePlayerIndex());
+        assertEquals(1, third.getActivePlayerIndex());
+    }
+
+    @Test
+    public void sharesPlayersThatDidNotChange() {
+        Game game = new Game(Arrays.asList("Billy", "Joe", "Susan"));
+        GameView before = game.getView();
+
+        game.addScore(10);
+        GameView after = game.getView();
+
+        assertNotSame(before.getPlayers().get(0), after.getPlayers().get(0));
+        assertSame(before.getPlayers().get(1), after.getPlayers().get(1));
+        assertSame(before.getPlayers().get(2), after.getPlayers().get(2));
+    }
+
+    @Test
+    public void viewCannotBeChanged() {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        GameView view = game.getView();
+
+        assertThrows(UnsupportedOperationException.class, () -> view.getPlayers().set(0, null), "");
+    }
+
+    @Test
+    public void publishesBatchAndRestoredGame() {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        game.addScores(new int[]{10, 3, 4, 5, 5});
+
+        assertEquals(1, game.getView().getVersion());
+        assertEquals(7, game.getView().getPlayers().get(1).getScorecard().getTotalScore());
+        assertEquals(1, game.getView().getActivePlayerIndex());
+
+        Game restored = GameSnapshot.read(ByteBuffer.wrap(GameSnapshot.toBytes(game)));
+
+        assertEquals(7, restored.getView().getPlayers().get(1).getScorecard().getTotalScore());
+        assertEquals(20, restored.getView().getPlayers().get(0).getScorecard().getTotalScore());
+    }
+
+    @Test
+    public void readersOnOtherThreadsSeeWholeRolls() throws InterruptedException {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            long lastVersion = -1;
+            while (!game.getView().isGameOver()) {
+                GameView view = game.getView();
+                if (view.getVersion() < lastVersion) {
+                    failure.set("version went backwards");
+                }
+                lastVersion = view.getVersion();
+                for (PlayerView player : view.getPlayers()) {
+                    ScorecardView scorecard = player.getScorecard();
+                    int frames = scorecard.getNumberOfFrames();
+                    int lastScore = frames > 0 && scorecard.getFrameScore(frames - 1).isPresent()
+                            ? scorecard.getFrameScore(frames - 1).get() : 0;
+                    if (lastScore != scorecard.getTotalScore()) {
+                        failure.set("frame score " + lastScore + " does not match total " + scorecard.getTotalScore());
+                    }
+                }
+            }
+        });
+        reader.start();
+        while (!game.isGameOver()) {
+            game.addScore(4);
+        }
+        reader.join(10000);
+
+        assertNull(failure.get());
+        assertEquals(80, game.getView().getPlayers().get(1).getScorecard().getTotalScore());
+    }
+}
@@ -0,0 +1,95 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerStatisticsTest {
+    @Test
+    public void countsFramesAsTheyAreScored() {
+        Scorecard scorecard = new Scorecard();
+        scorecard.addScoreToScorecard(10);
+        scorecard.addScoreToScorecard(7);
+
+        assertEquals(0, scorecard.getStatistics().getFramesPlayed());
+
+        scorecard.addScoreToScorecard(3);
+
+        assertEquals(1, scorecard.getStatistics().getFramesPlayed());
+        assertEquals(1, scorecard.getStatistics().getStrikes());
+
+        scorecard.addScoreToScorecard(4);
+
+        assertEquals(2, scorecard.getStatistics().getFramesPlayed());
+        assertEquals(1, scorecard.getStatistics().getSpares());
+        assertEquals(1, scorecard.getStatistics().getSpareChances());
+        assertEquals(0, scorecard.getStatistics().getGamesPlayed());
+    }
+
+    @Test
+    public void countsCompleteGame() {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        game.addScores(new int[]{
+                10, 3, 4,
+                7, 3, 3, 4,
+                3, 4, 10,
+                10, 10,
+                5, 5, 0, 0,
+                0, 9, 9, 0,
+                8, 1, 8, 2,
+                10, 6, 4,
+                4, 4, 10,
+                10, 10, 10, 3, 4});
+
+        PlayerStatistics billy = game.getPlayers().get(0).getStatistics();
+        assertEquals(1, billy.getGamesPlayed());
+        assertEquals(game.getPlayers().get(0).getScorecard().getTotalScore(), billy.getTotalPins());
+        assertEquals(10, billy.getFramesPlayed());
+        assertEquals(4, billy.getStrikes());
+        assertEquals(6, billy.getSpareChances());
+        assertEquals(2, billy.getSpares());
+        assertEquals(4, billy.getOpenFrames());
+        assertEquals(billy.getTotalPins(), billy.getHighGame());
+        assertEquals(40.0, billy.getStrikePercentage());
+        assertEquals(100.0 * 2 / 6, billy.getSpareConversionPercentage());
+    }
+
+    @Test
+    public void calculateScoreDoesNotCountFramesAgain() {
+        Scorecard scorecard = new Scorecard();
+        for (int i = 0; i < 12; i++) {
+            scorecard.addScoreToScorecard(10);
+        }
+        scorecard.calculateScore();
+        scorecard.calculateScore();
+
+        assertEquals(1, scorecard.getStatistics().getGamesPlayed());
+        assertEquals(10, scorecard.getStatistics().getFramesPlayed());
+        assertEquals(300, scorecard.getStatistics().getHighGame());
+    }
+
+    @Test
+    public void mergesGames() {
+        Scorecard perfect = new Scorecard();
+        for (int i = 0; i < 12; i++) {
+            perfect.addScoreToScorecard(10);
+        }
+        Scorecard gutter = new Scorecard();
+        for (int i = 0; i < 20; i++) {
+            gutter.addScoreToScorecard(0);
+        }
+        PlayerStatistics season = new PlayerStatistics();
+        season.merge(perfect.getStatistics());
+        season.merge(gutter.getStatistics());
+
+        assertEquals(2, season.getGamesPlayed());
+        assertEquals(150.0, season.getAverage());
+        assertEquals(300, season.getHighGame());
+        assertEquals(20, season.getFramesPlayed());
+        assertEquals(10, season.getOpenFrames());
+        assertEquals(50.0, season.getStrikePercentage());
+        assertEquals(1, perfect.getStatistics().getGamesPlayed());
+    }
+}
@@ -0,0 +1,99 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollErrorTest {
+    @Test
+    public void acceptedRollHasNoError() {
+        Game game = new Game(Collections.singletonList("Billy"));
+
+        long result = game.tryAddPinMask(0b111);
+
+        assertEquals(true, RollError.isAccepted(result));
+        assertEquals(RollError.NONE, RollError.of(result));
+        assertEquals(null, RollError.getMessage(result));
+        assertEquals(3, game.getPlayers().get(0).getScorecard().getFrames().get(0).getFirstPinCount().get());
+    }
+
+    @Test
+    public void rejectedRollsHaveTheSameMessagesAsTheExceptions() {
+        Scorecard scorecard = new Scorecard();
+        scorecard.addPinMaskToScorecard(0b1111111);
+
+        long tooMany = scorecard.tryAddScoreToScorecard(4);
+        long negative = scorecard.tryAddScoreToScorecard(-1);
+        long fallenPin = scorecard.tryAddPinMaskToScorecard(0b1);
+
+        assertEquals(RollError.FIRST_PLUS_SECOND_EXCEEDS_MAX, RollError.of(tooMany));
+        assertEquals(String.format(ErrorMessages.firstPlusSecondExceedsMax, 7, 4, 10), RollError.getMessage(tooMany));
+        assertEquals(String.format(ErrorMessages.pinBelowMinValue, -1), RollError.getMessage(negative));
+        assertEquals(RollError.PIN_MASK_KNOCKS_DOWN_FALLEN_PIN, RollError.of(fallenPin));
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> scorecard.addScoreToScorecard(4), "");
+        assertEquals(RollError.getMessage(tooMany), thrown.getMessage());
+    }
+
+    @Test
+    public void rejectedRollChangesNothing() {
+        Scorecard scorecard = new Scorecard();
+        scorecard.addScoreToScorecard(10);
+
+        assertEquals(RollError.PIN_EXCEEDS_MAX_VALUE, RollError.of(scorecard.tryAddScoreToScorecard(11)));
+        assertEquals(RollError.INVALID_PIN_MASK, RollError.of(scorecard.tryAddPinMaskToScorecard(1 << 10)));
+        assertEquals(0, scorecard.getIndexOfCurrentFrame());
+        scorecard.addScoreToScorecard(3);
+        assertEquals(1, scorecard.getIndexOfCurrentFrame());
+        assertEquals(3, scorecard.getFrames().get(1).getFirstPinCount().get());
+    }
+
+    @Test
+    public void gameOverIsAnError() {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        while (!game.isGameOver()) {
+            game.addScore(0);
+        }
+
+        long result = game.tryAddPinMask(0);
+
+        assertEquals(RollError.GAME_IS_OVER, RollError.of(result));
+        assertEquals(ErrorMessages.cannotAddScoreIfTheGameIsOver, RollError.getMessage(result));
+    }
+
+    @Test
+    public void abandonedGameIsAnError() {
+        Game game = new Game(Arrays.asList("Billy", "Joe"));
+        game.addScore(7);
+        game.abandon();
+
+        long result = game.tryAddPinMask(0b1);
+
+        assertEquals(RollError.GAME_WAS_ABANDONED, RollError.of(result));
+        assertEquals(ErrorMessages.cannotAddScoreIfTheGameWasAbandoned, RollError.getMessage(result));
+        assertThrows(RuntimeException.class, () -> game.addScore(2), "");
+        assertThrows(RuntimeException.class, () -> game.addScores(new int[] {2}), "");
+        assertEquals(7, game.getPlayers().get(0).getScorecard().getFrames().get(0).getFirstPinCount().get());
+        assertEquals(false, game.getPlayers().get(0).getScorecard().getFrames().get(0).getSecondPinCount().isPresent());
+    }
+
+    @Test
+    public void exceptionsAreStacklessAndSharedWhenTheMessageIsFixed() {
+        Game game = new Game(Collections.singletonList("Billy"));
+        while (!game.isGameOver()) {
+            game.addScore(0);
+        }
+
+        RollRejectedException first = assertThrows(RollRejectedException.class, () -> game.addScore(0), "");
+        RollRejectedException second = assertThrows(RollRejectedException.class, () -> game.addPinMask(0), "");
+        RollRejectedException tooMany = assertThrows(RollRejectedException.class,
+                () -> new Scorecard().addScoreToScorecard(11), "");
+
+        assertSame(first, second);
+        assertEquals(0, first.getStackTrace().length);
+        assertEquals(RollError.PIN_EXCEEDS_MAX_VALUE, tooMany.getError());
+        assertEquals(String.format(ErrorMessages.pinExceedsMaxValue, 11, 10), tooMany.getMessage());
+    }
+}
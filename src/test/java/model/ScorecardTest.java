@@ -3,7 +3,9 @@ package model;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 class ScorecardTest {
@@ -533,4 +535,243 @@ class ScorecardTest {
 
         assertEquals(String.format(ErrorMessages.numberOfFramesExceedsMax, 11, 10), thrown.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void calculateScoreStrikeInNinthFrameUsesFirstTwoBallsOfLastFrame() {
+        Scorecard scorecard = new Scorecard();
+        for (int i = 0; i < 8; i++) {
+            scorecard.addScoreToScorecard(0);
+            scorecard.addScoreToScorecard(0);
+        }
+        scorecard.addScoreToScorecard(10);
+        scorecard.addScoreToScorecard(10);
+        scorecard.addScoreToScorecard(5);
+
+        List<Frame> frames = scorecard.getFrames();
+        assertEquals(25, frames.get(8).getFrameScore().get());
+        scorecard.addScoreToScorecard(3);
+        assertEquals(25, frames.get(8).getFrameScore().get());
+        assertEquals(43, scorecard.getTotalScore());
+        assertEquals(43, scorecard.calculateScore());
+    }
+
+    @Test
+    public void addScoreToScorecardKeepsScoreUpToDateAfterEveryRoll() {
+        Random random = new Random(42);
+        for (int game = 0; game < 200; game++) {
+            Scorecard scorecard = new Scorecard();
+            List<Integer> rolls = new ArrayList<>();
+            while (!scorecard.isScorecardComplete()) {
+                Frame currentFrame = scorecard.getFrames().get(scorecard.getFrames().size() - 1);
+                int pinsStanding = 10;
+                if (currentFrame.getFirstPinCount().isPresent() && !scorecard.isReadyForNextFrame()) {
+                    int lastPins = currentFrame.getSecondPinCount().orElse(currentFrame.getFirstPinCount().get());
+                    boolean isFreshRack = currentFrame.getSecondPinCount().isPresent() ? currentFrame.wasSpare()
+                            || lastPins == 10 : lastPins == 10;
+                    pinsStanding = isFreshRack ? 10 : 10 - lastPins;
+                }
+                int pins = random.nextInt(pinsStanding + 1);
+                scorecard.addScoreToScorecard(pins);
+                rolls.add(pins);
+
+                int[] expectedFrameScores = scoreByRule(rolls);
+                for (int i = 0; i < scorecard.getFrames().size(); i++) {
+                    assertEquals(expectedFrameScores[i], scorecard.getFrames().get(i).getFrameScore().get());
+                }
+                assertEquals(expectedFrameScores[9], scorecard.getTotalScore());
+            }
+            assertEquals(scorecard.getTotalScore(), scorecard.calculateScore());
+        }
+    }
+
+    /**
+     * Scores the rolls of a game by the rules, without the scorecard: a strike gets the next two balls and a spare the
+     * next ball, whichever frames they are in, so a strike in the ninth frame gets the first two balls of the tenth.
+     * Like the scorecard, a frame that cannot be scored yet adds nothing to the running total.
+     * @param rolls the pins knocked down by each ball so far
+     * @return the running total after each of the ten frames
+     */
+    private static int[] scoreByRule(List<Integer> rolls) {
+        int[] frameScores = new int[10];
+        int totalScore = 0;
+        int ball = 0;
+        for (int frame = 0; frame < 10; frame++) {
+            int frameScore = -1;
+            boolean isStrike = ball < rolls.size() && rolls.get(ball) == 10;
+            boolean hasTwoBalls = ball + 1 < rolls.size();
+            boolean isSpare = !isStrike && hasTwoBalls && rolls.get(ball) + rolls.get(ball + 1) == 10;
+            if (isStrike || isSpare) {
+                if (ball + 2 < rolls.size()) {
+                    frameScore = rolls.get(ball) + rolls.get(ball + 1) + rolls.get(ball + 2);
+                }
+            } else if (hasTwoBalls) {
+                frameScore = rolls.get(ball) + rolls.get(ball + 1);
+            }
+            ball += isStrike ? 1 : 2;
+            if (frameScore >= 0) {
+                totalScore += frameScore;
+            }
+            frameScores[frame] = totalScore;
+        }
+        return frameScores;
+    }
+
+    @Test
+    public void addFrameKeepsFrameInSyncWithScorecard() {
+        Scorecard scorecard = new Scorecard();
+        Frame frame = new Frame();
+        frame.setFirstPinCount(5);
+        scorecard.addFrame(frame);
+        frame.setSecondPinCount(3);
+
+        assertEquals(3, scorecard.getFrames().get(1).getSecondPinCount().get());
+        assertEquals(8, scorecard.calculateScore());
+        assertEquals(8, frame.getFrameScore().get());
+    }
+
+    @Test
+    public void addPinMaskToScorecardKeepsMasks() {
+        Scorecard scorecard = new Scorecard();
+        scorecard.addPinMaskToScorecard(0b0001111111);
+        scorecard.addPinMaskToScorecard(0b0010000000);
+        scorecard.addPinMaskToScorecard(0b1111111111);
+
+        assertEquals(7, scorecard.getFrames().get(0).getFirstPinCount().get());
+        assertEquals(1, scorecard.getFrames().get(0).getSecondPinCount().get());
+        assertEquals(10, scorecard.getFrames().get(1).getFirstPinCount().get());
+        assertEquals(0b0001111111, scorecard.getPinMask(0, 0));
+        assertEquals(0b0010000000, scorecard.getPinMask(0, 1));
+        assertEquals(0b1111111111, scorecard.getPinMask(1, 0));
+        assertEquals(-1, scorecard.getPinMask(1, 1));
+    }
+
+    @Test
+    public void addPinMaskToScorecardRejectsPinThatIsAlreadyDown() {
+        Scorecard scorecard = new Scorecard();
+        scorecard.addPinMaskToScorecard(0b0000000011);
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> scorecard.addPinMaskToScorecard(0b0000000110),
+                ""
+        );
+
+        assertEquals(String.format(ErrorMessages.pinMaskKnocksDownFallenPin, 0b0000000110, 0b1111111100),
+                thrown.getMessage());
+        assertEquals(false, scorecard.getFrames().get(0).getSecondPinCount().isPresent());
+    }
+
+    @Test
+    public void addPinMaskToScorecardRejectsBitsOutsideTenPins() {
+        Scorecard scorecard = new Scorecard();
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> scorecard.addPinMaskToScorecard(1 << 10),
+                ""
+        );
+
+        assertEquals(String.format(ErrorMessages.invalidPinMask, 1 << 10, 10), thrown.getMessage());
+    }
+
+    @Test
+    public void addPinMaskToScorecardResetsPinsInLastFrame() {
+        Scorecard scorecard = new Scorecard();
+        for (int i = 0; i < 9; i++) {
+            scorecard.addPinMaskToScorecard(0);
+            scorecard.addPinMaskToScorecard(0);
+        }
+        scorecard.addPinMaskToScorecard(0b1111111111);
+        scorecard.addPinMaskToScorecard(0b0000001111);
+        assertThrows(RuntimeException.class, () -> scorecard.addPinMaskToScorecard(0b0000000001));
+        scorecard.addPinMaskToScorecard(0b1111110000);
+
+        assertEquals(true, scorecard.isScorecardComplete());
+        assertEquals(20, scorecard.getTotalScore());
+    }
+
+    /**
+     * Finishes a copy of the scorecard by knocking down every pin left standing with every ball
+     */
+    private static int bestFinish(Scorecard scorecard) {
+        Scorecard copy = scorecard.copy();
+        while (!copy.isScorecardComplete()) {
+            int pins = 10;
+            while (!RollError.isAccepted(copy.tryAddScoreToScorecard(pins))) {
+                pins--;
+            }
+        }
+        return copy.getTotalScore();
+    }
+
+    @Test
+    public void maxPossibleScoreIsTheBestFinish() {
+        Random random = new Random(22);
+        for (int game = 0; game < 200; game++) {
+            Scorecard scorecard = new Scorecard();
+            assertEquals(300, scorecard.getMaxPossibleScore());
+            while (!scorecard.isScorecardComplete()) {
+                int pins = random.nextInt(11);
+                if (RollError.isAccepted(scorecard.tryAddScoreToScorecard(pins))) {
+                    assertEquals(bestFinish(scorecard), scorecard.getMaxPossibleScore());
+                }
+            }
+            assertEquals(scorecard.getTotalScore(), scorecard.getMaxPossibleScore());
+            assertEquals(scorecard.getTotalScore(), scorecard.getProjectedScore());
+        }
+    }
+
+    @Test
+    public void maxPossibleScoreCountsPendingBonuses() {
+        Scorecard scorecard = new Scorecard();
+        scorecard.addScoreToScorecard(7);
+        assertEquals(290, scorecard.getMaxPossibleScore());
+        scorecard.addScoreToScorecard(2);
+        assertEquals(279, scorecard.getMaxPossibleScore());
+        scorecard.addScoreToScorecard(10);
+        scorecard.addScoreToScorecard(10);
+        scorecard.addScoreToScorecard(4);
+        // the double can still be 24 and 20 and the fourth frame a spare worth 20
+        assertEquals(9 + 24 + 20 + 20 + 180, scorecard.getMaxPossibleScore());
+    }
+
+    @Test
+    public void projectedScoreIsBetweenTheScoreSoFarAndTheMax() {
+        Scorecard scorecard = new Scorecard();
+        assertEquals(true, scorecard.getProjectedScore() > 120 && scorecard.getProjectedScore() < 220);
+        for (int i = 0; i < 9; i++) {
+            scorecard.addScoreToScorecard(10);
+        }
+        assertEquals(true, scorecard.getProjectedScore() > 240 && scorecard.getProjectedScore() < 300);
+        scorecard.addScoreToScorecard(0);
+        scorecard.addScoreToScorecard(0);
+        assertEquals(240, scorecard.getProjectedScore());
+    }
+
+    @Test
+    public void maxPossibleScoreFollowsAddedFrames() {
+        Scorecard scorecard = new Scorecard();
+        Frame strike = new Frame();
+        strike.setFirstPinCount(10);
+        strike.setSecondPinCount(0);
+        scorecard.addFrame(strike);
+        Frame spare = new Frame();
+        spare.setFirstPinCount(6);
+        scorecard.addFrame(spare);
+
+        // the frames are added after the first frame, so seven frames are left after the spare
+        assertEquals(20 + 20 + 210, scorecard.getMaxPossibleScore());
+    }
+
+    @Test
+    public void lastFrameSecondBallCannotKnockDownFallenPins() {
+        Scorecard scorecard = new Scorecard();
+        for (int i = 0; i < 18; i++) {
+            scorecard.addScoreToScorecard(0);
+        }
+        scorecard.addScoreToScorecard(3);
+        long result = scorecard.tryAddScoreToScorecard(10);
+
+        assertEquals(RollError.FIRST_PLUS_SECOND_EXCEEDS_MAX, RollError.of(result));
+        assertEquals(false, scorecard.isScorecardComplete());
+        assertEquals(3 + 7 + 10, scorecard.getMaxPossibleScore());
+    }
+}
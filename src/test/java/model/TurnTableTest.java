@@ -0,0 +1,64 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TurnTableTest {
+    @Test
+    public void tableAgreesWithTheFramesAfterEveryBall() {
+        Random random = new Random(7);
+        for (int game = 0; game < 500; game++) {
+            Scorecard scorecard = new Scorecard();
+            int state = TurnTable.start;
+            while (state != TurnTable.complete) {
+                int pins = random.nextInt(TurnTable.getPinsStanding(state) + 1);
+                scorecard.addScoreToScorecard(pins);
+                state = TurnTable.next(state, pins);
+
+                int frameIndex = scorecard.getIndexOfCurrentFrame();
+                int frame = scorecard.getFrames().get(frameIndex).getWord();
+                assertEquals(TurnTable.fromFrame(frameIndex, frame), state);
+                assertEquals(scorecard.isScorecardComplete(), state == TurnTable.complete);
+            }
+        }
+    }
+
+    @Test
+    public void rejectsMorePinsThanAreStanding() {
+        int afterSeven = TurnTable.next(TurnTable.start, 7);
+
+        assertEquals(3, TurnTable.getPinsStanding(afterSeven));
+        assertEquals(-1, TurnTable.next(afterSeven, 4));
+        assertEquals(-1, TurnTable.next(TurnTable.start, 11));
+        assertEquals(-1, TurnTable.next(TurnTable.complete, 0));
+    }
+
+    @Test
+    public void strikeInLastFrameEarnsFillBallBeforeSecondBall() {
+        int lastFrame = TurnTable.stateOf(9, 0, 10, false);
+
+        int afterStrike = TurnTable.next(lastFrame, 10);
+        int afterStrikeAndThree = TurnTable.next(afterStrike, 3);
+        int afterGutter = TurnTable.next(lastFrame, 0);
+
+        assertEquals(true, TurnTable.isFillBallEarned(afterStrike));
+        assertEquals(10, TurnTable.getPinsStanding(afterStrike));
+        assertEquals(2, TurnTable.getBall(afterStrikeAndThree));
+        assertEquals(7, TurnTable.getPinsStanding(afterStrikeAndThree));
+        assertEquals(false, TurnTable.isFillBallEarned(afterGutter));
+        assertEquals(TurnTable.complete, TurnTable.next(afterGutter, 9));
+        assertEquals(true, TurnTable.isFillBallEarned(TurnTable.next(afterGutter, 10)));
+    }
+
+    @Test
+    public void frameIsOverAfterStrikeOrSecondBall() {
+        assertEquals(false, TurnTable.isFrameOver(TurnTable.start));
+        assertEquals(true, TurnTable.isFrameOver(TurnTable.next(TurnTable.start, 10)));
+        assertEquals(false, TurnTable.isFrameOver(TurnTable.next(TurnTable.start, 4)));
+        assertEquals(true, TurnTable.isFrameOver(TurnTable.next(TurnTable.next(TurnTable.start, 4), 2)));
+        assertEquals(true, TurnTable.isFrameOver(TurnTable.complete));
+    }
+}
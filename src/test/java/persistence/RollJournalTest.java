@@ -0,0 +1,174 @@
+package persistence;
+
+import model.ErrorMessages;
+import model.Game;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void newJournalHasNoOpenGames() throws IOException {
+        try (RollJournal journal = RollJournal.open(directory.resolve("rolls.journal"), 5)) {
+            assertEquals(true, journal.getOpenGames().isEmpty());
+        }
+    }
+
+    @Test
+    public void recoversOpenGames() throws IOException {
+        Path path = directory.resolve("rolls.journal");
+        try (RollJournal journal = RollJournal.open(path, 5)) {
+            Game game = new Game(Arrays.asList("Billy", "Zoë Ångström-Ünterwald"));
+            journal.startGame(3, game);
+            game.addPinMask(0b1111111111);
+            game.addPinMask(0b0000000111);
+            game.addPinMask(0b0001111000);
+            game.addScores(new int[] {9, 1, 10});
+
+            Game otherGame = new Game(Collections.singletonList("Joe"));
+            journal.startGame(12, otherGame);
+            otherGame.addPinMasks(new int[] {0b0000000001, 0b0000000010});
+        }
+
+        try (RollJournal journal = RollJournal.open(path, 5)) {
+            Map<Integer, Game> openGames = journal.getOpenGames();
+            assertEquals(2, openGames.size());
+            Game game = openGames.get(3);
+            assertEquals("Zoë Ångström-Ünterwald", game.getPlayers().get(1).getName());
+            assertEquals(0b0001111000, game.getPlayers().get(1).getScorecard().getPinMask(0, 1));
+            assertEquals(20, game.getPlayers().get(0).getScorecard().getTotalScore());
+            assertEquals(7, game.getPlayers().get(1).getScorecard().getTotalScore());
+            assertEquals(true, game.getPlayers().get(0).isActivePlayer());
+            assertEquals(2, openGames.get(12).getPlayers().get(0).getScorecard().getTotalScore());
+
+            // the recovered games keep being journaled
+            game.addScore(Collections.nCopies(10, true));
+        }
+
+        try (RollJournal journal = RollJournal.open(path, 5)) {
+            assertEquals(40, journal.getOpenGames().get(3).getPlayers().get(0).getScorecard().getTotalScore());
+        }
+    }
+
+    @Test
+    public void skipsFinishedAndReplacedGames() throws IOException {
+        Path path = directory.resolve("rolls.journal");
+        try (RollJournal journal = RollJournal.open(path, 5)) {
+            Game finishedGame = new Game(Collections.singletonList("Billy"));
+            journal.startGame(1, finishedGame);
+            int[] strikes = new int[12];
+            Arrays.fill(strikes, 10);
+            finishedGame.addScores(strikes);
+
+            Game replacedGame = new Game(Collections.singletonList("Joe"));
+            journal.startGame(2, replacedGame);
+            replacedGame.addScores(new int[] {5});
+            Game newGame = new Game(Collections.singletonList("Ann"));
+            journal.startGame(2, newGame);
+            newGame.addScores(new int[] {7});
+        }
+
+        try (RollJournal journal = RollJournal.open(path, 5)) {
+            assertEquals(Collections.singleton(2), journal.getOpenGames().keySet());
+            assertEquals("Ann", journal.getOpenGames().get(2).getPlayers().get(0).getName());
+            assertEquals(7, journal.getOpenGames().get(2).getPlayers().get(0).getScorecard().getFrames().get(0)
+                    .getFirstPinCount().get());
+        }
+    }
+
+    @Test
+    public void recoversManyGamesAcrossRegions() throws IOException {
+        Path path = directory.resolve("rolls.journal");
+        int numberOfLanes = 2000;
+        long regionSize = 64 * 1024;
+        try (RollJournal journal = RollJournal.open(path, 5, regionSize)) {
+            for (int lane = 1; lane <= numberOfLanes; lane++) {
+                Game game = new Game(Arrays.asList("Billy", "Joe", "Ann", "Sue"));
+                journal.startGame(lane, game);
+                for (int roll = 0; roll < 76; roll++) {
+                    game.addPinMask(roll % 2 == 0 ? 0b0000011111 : 0b0011100000);
+                }
+            }
+        }
+
+        try (RollJournal journal = RollJournal.open(path, 5, regionSize)) {
+            assertEquals(numberOfLanes, journal.getOpenGames().size());
+            for (Game game : journal.getOpenGames().values()) {
+                assertEquals(72, game.getPlayers().get(3).getScorecard().getTotalScore());
+            }
+        }
+    }
+
+    @Test
+    public void rotatesOnceNoGameIsOpen() throws IOException {
+        Path path = directory.resolve("rolls.journal");
+        long regionSize = 4096;
+        int[] strikes = new int[12];
+        Arrays.fill(strikes, 10);
+        try (RollJournal journal = RollJournal.open(path, 5, regionSize)) {
+            Game openGame = new Game(Collections.singletonList("Billy"));
+            journal.startGame(1, openGame);
+            openGame.addScores(new int[] {7});
+            for (int i = 0; i < 20; i++) {
+                Game game = new Game(Collections.singletonList("Joe"));
+                journal.startGame(2, game);
+                game.addScores(strikes);
+            }
+            // the game on lane 1 is still open, so every game is kept
+            assertEquals(true, Files.size(path) > regionSize);
+
+            openGame.abandon();
+            assertEquals(regionSize, Files.size(path));
+
+            Game nextGame = new Game(Collections.singletonList("Ann"));
+            journal.startGame(3, nextGame);
+            nextGame.addScores(new int[] {4});
+        }
+
+        try (RollJournal journal = RollJournal.open(path, 5, regionSize)) {
+            assertEquals(Collections.singleton(3), journal.getOpenGames().keySet());
+            assertEquals(4, journal.getOpenGames().get(3).getPlayers().get(0).getScorecard().getFrames().get(0)
+                    .getFirstPinCount().get());
+        }
+    }
+
+    @Test
+    public void rejectsFileThatIsNotAJournal() throws IOException {
+        Path path = directory.resolve("other.file");
+        Files.write(path, "not a journal".getBytes());
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> RollJournal.open(path, 5),
+                ""
+        );
+        assertEquals(ErrorMessages.notARollJournal, thrown.getMessage());
+    }
+
+    @Test
+    public void leavesAFileStartingWithZeroAlone() throws IOException {
+        Path path = directory.resolve("game.snapshot");
+        byte[] contents = new byte[100];
+        for (int i = 1; i < contents.length; i++) {
+            contents[i] = (byte) i;
+        }
+        Files.write(path, contents);
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> RollJournal.open(path, 5),
+                ""
+        );
+        assertEquals(ErrorMessages.notARollJournal, thrown.getMessage());
+        assertArrayEquals(contents, Files.readAllBytes(path));
+    }
+}
@@ -0,0 +1,108 @@
+package scoring;
+
+import model.ErrorMessages;
+import model.Scorecard;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkScorerTest {
+    @Test
+    public void scoresPerfectAndOpenGames() {
+        int[] rolls = {10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 3, 4};
+        int[] offsets = {0, 12, 14};
+        int[] frameScores = new int[20];
+        int[] totalScores = new int[2];
+
+        new BulkScorer().score(rolls, offsets, frameScores, totalScores);
+
+        assertEquals(300, totalScores[0]);
+        assertEquals(30, frameScores[0]);
+        assertEquals(300, frameScores[9]);
+        assertEquals(7, totalScores[1]);
+        assertEquals(7, frameScores[10]);
+        assertEquals(-1, frameScores[11]);
+    }
+
+    @Test
+    public void matchesScorecardForRandomGames() {
+        Random random = new Random(11);
+        int numberOfGames = 10000;
+        int[] rolls = new int[numberOfGames * 21];
+        int[] offsets = new int[numberOfGames + 1];
+        Scorecard[] scorecards = new Scorecard[numberOfGames];
+        int numberOfRolls = 0;
+        for (int g = 0; g < numberOfGames; g++) {
+            offsets[g] = numberOfRolls;
+            scorecards[g] = new Scorecard();
+            // some games are stopped part way through so that unfinished frames are checked too
+            int maxRolls = random.nextInt(4) == 0 ? random.nextInt(21) : 21;
+            for (int i = 0; i < maxRolls && !scorecards[g].isScorecardComplete(); i++) {
+                int roll = random.nextInt(pinsStanding(scorecards[g]) + 1);
+                scorecards[g].addScoreToScorecard(roll);
+                rolls[numberOfRolls++] = roll;
+            }
+        }
+        offsets[numberOfGames] = numberOfRolls;
+        int[] frameScores = new int[numberOfGames * BulkScorer.framesPerGame];
+        int[] totalScores = new int[numberOfGames];
+
+        new BulkScorer(new ForkJoinPool(4)).score(rolls, offsets, frameScores, totalScores);
+
+        for (int g = 0; g < numberOfGames; g++) {
+            assertEquals(scorecards[g].calculateScore(), totalScores[g]);
+            for (int f = 0; f < BulkScorer.framesPerGame; f++) {
+                int expected = f < scorecards[g].getFrames().size() && scorecards[g].getFrames().get(f).getFirstPinCount().isPresent()
+                        ? scorecards[g].getFrames().get(f).getFrameScore().get() : -1;
+                assertEquals(expected, frameScores[g * BulkScorer.framesPerGame + f]);
+            }
+        }
+    }
+
+    @Test
+    public void rejectsTooManyPinsInFrame() {
+        int[] rolls = {3, 4, 6, 5};
+        int[] offsets = {0, 4};
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> new BulkScorer().score(rolls, offsets, null, new int[1]),
+                ""
+        );
+
+        assertEquals(String.format(ErrorMessages.invalidRollInGame, 0, 3, 5,
+                String.format(ErrorMessages.pinExceedsMaxValue, 5, 4)), thrown.getMessage());
+    }
+
+    @Test
+    public void rejectsRollAfterGameIsComplete() {
+        int[] rolls = new int[21];
+        int[] offsets = {0, 21};
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> new BulkScorer().score(rolls, offsets, null, new int[1]),
+                ""
+        );
+
+        assertEquals(String.format(ErrorMessages.invalidRollInGame, 0, 20, 0,
+                ErrorMessages.noThirdPinIfNoStrikeOrSpare), thrown.getMessage());
+    }
+
+    private static int pinsStanding(Scorecard scorecard) {
+        if (scorecard.isReadyForNextFrame()) {
+            return 10;
+        }
+        int frameIndex = scorecard.getFrames().size() - 1;
+        if (!scorecard.getFrames().get(frameIndex).getFirstPinCount().isPresent()) {
+            return 10;
+        }
+        int first = scorecard.getFrames().get(frameIndex).getFirstPinCount().get();
+        if (!scorecard.getFrames().get(frameIndex).getSecondPinCount().isPresent()) {
+            return first == 10 ? 10 : 10 - first;
+        }
+        int second = scorecard.getFrames().get(frameIndex).getSecondPinCount().get();
+        return first + second == 10 || second == 10 ? 10 : 10 - second;
+    }
+}
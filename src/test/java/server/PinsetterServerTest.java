@@ -0,0 +1,137 @@
+package server;
+
+import controller.LaneManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PinsetterServerTest {
+    private static final int strike = 0x3FF;
+
+    @Test
+    public void scoresAndAcknowledgesRolls() throws Exception {
+        try (LaneManager laneManager = new LaneManager(2, 1);
+             PinsetterServer server = start(laneManager);
+             SocketChannel pinsetter = connect(server)) {
+            laneManager.startGame(2, Collections.singletonList("Billy"));
+
+            ByteBuffer acknowledgements = send(pinsetter, new int[][]{{2, strike, 7}, {2, 0b111, 8}, {2, 0b1000, 9}});
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(7 + i, acknowledgements.getInt());
+                assertEquals(2, acknowledgements.getShort());
+                assertEquals(PinsetterProtocol.scored, acknowledgements.get());
+                acknowledgements.get();
+            }
+            assertEquals(18, laneManager.getView(2).getPlayers().get(0).getScorecard().getTotalScore());
+        }
+    }
+
+    @Test
+    public void rejectsRollsThatCannotBeScored() throws Exception {
+        try (LaneManager laneManager = new LaneManager(2, 1);
+             PinsetterServer server = start(laneManager);
+             SocketChannel pinsetter = connect(server)) {
+            laneManager.startGame(1, Collections.singletonList("Billy"));
+
+            // no game on lane 2, no lane 3, a mask with a bit past pin 10 and then a roll that is fine
+            ByteBuffer acknowledgements = send(pinsetter,
+                    new int[][]{{2, strike, 1}, {3, strike, 2}, {1, 0x400, 3}, {1, 0b11, 4}});
+
+            assertEquals(PinsetterProtocol.rejected, acknowledgements.get(6));
+            assertEquals(PinsetterProtocol.rejected, acknowledgements.get(14));
+            assertEquals(PinsetterProtocol.rejected, acknowledgements.get(22));
+            assertEquals(PinsetterProtocol.scored, acknowledgements.get(30));
+            assertEquals(4, acknowledgements.getInt(24));
+            assertEquals(2, laneManager.getView(1).getPlayers().get(0).getScorecard().getFirstPinCount(0).get());
+        }
+    }
+
+    @Test
+    public void servesManyPinsettersAtOnce() throws Exception {
+        int numberOfLanes = 200;
+        ExecutorService pinsetters = Executors.newFixedThreadPool(numberOfLanes);
+        try (LaneManager laneManager = new LaneManager(numberOfLanes, 4);
+             PinsetterServer server = start(laneManager)) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int lane = 1; lane <= numberOfLanes; lane++) {
+                int laneNumber = lane;
+                laneManager.startGame(laneNumber, Collections.singletonList("Bowler" + laneNumber));
+                results.add(pinsetters.submit(() -> {
+                    try (SocketChannel pinsetter = connect(server)) {
+                        boolean isScored = true;
+                        for (int ball = 0; ball < 12; ball++) {
+                            ByteBuffer acknowledgement = send(pinsetter, new int[][]{{laneNumber, strike, ball}});
+                            isScored &= acknowledgement.get(6) == PinsetterProtocol.scored;
+                        }
+                        return isScored;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertEquals(true, result.get());
+            }
+            for (int lane = 1; lane <= numberOfLanes; lane++) {
+                assertEquals(300, laneManager.getView(lane).getPlayers().get(0).getScorecard().getTotalScore());
+            }
+        } finally {
+            pinsetters.shutdown();
+        }
+    }
+
+    @Test
+    public void closeDisconnectsPinsetters() throws Exception {
+        try (LaneManager laneManager = new LaneManager(1, 1)) {
+            PinsetterServer server = start(laneManager);
+            try (SocketChannel pinsetter = connect(server)) {
+                laneManager.startGame(1, Collections.singletonList("Billy"));
+                send(pinsetter, new int[][]{{1, strike, 0}});
+
+                server.close();
+
+                assertEquals(-1, pinsetter.read(ByteBuffer.allocate(PinsetterProtocol.messageSize)));
+            }
+        }
+    }
+
+    private static PinsetterServer start(LaneManager laneManager) throws IOException {
+        return PinsetterServer.start(laneManager, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    private static SocketChannel connect(PinsetterServer server) throws IOException {
+        return SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+    }
+
+    /**
+     * Sends rolls of {lane, pin mask, sequence} in one write and reads all their acknowledgements
+     */
+    private static ByteBuffer send(SocketChannel pinsetter, int[][] rolls) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(rolls.length * PinsetterProtocol.messageSize);
+        for (int[] roll : rolls) {
+            PinsetterProtocol.putRoll(buffer, roll[0], roll[1], roll[2]);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            pinsetter.write(buffer);
+        }
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (pinsetter.read(buffer) < 0) {
+                throw new IOException("Server closed the connection");
+            }
+        }
+        return buffer.flip();
+    }
+}
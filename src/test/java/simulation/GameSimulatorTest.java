@@ -0,0 +1,98 @@
+package simulation;
+
+import model.ErrorMessages;
+import model.Game;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import scoring.BulkScorer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSimulatorTest {
+    @TempDir
+    Path directory;
+
+    private static double average(int[] scores) {
+        return Arrays.stream(scores).average().orElse(0);
+    }
+
+    @Test
+    public void simulatedGamesFollowTheRules() {
+        SimulatedGames games = new GameSimulator(BowlerProfile.beginner(), BowlerProfile.league(),
+                BowlerProfile.professional()).simulate(3000, 23);
+        int[] totalScores = games.score(new BulkScorer());
+
+        assertEquals(3000, games.getNumberOfGames());
+        for (int g = 0; g < games.getNumberOfGames(); g++) {
+            Game game = games.toGame(g, "Billy");
+            assertEquals(true, game.isGameOver());
+            assertEquals(totalScores[g], game.getPlayers().get(0).getScorecard().getTotalScore());
+        }
+    }
+
+    @Test
+    public void profilesSetTheAverage() {
+        double beginner = average(new GameSimulator(BowlerProfile.beginner()).simulate(5000, 1).score(new BulkScorer()));
+        double league = average(new GameSimulator(BowlerProfile.league()).simulate(5000, 1).score(new BulkScorer()));
+        double professional = average(new GameSimulator(BowlerProfile.professional()).simulate(5000, 1)
+                .score(new BulkScorer()));
+
+        assertEquals(true, beginner > 60 && beginner < 120);
+        assertEquals(true, league > 145 && league < 195);
+        assertEquals(true, professional > 200 && professional < 245);
+        assertEquals(300.0, average(new GameSimulator(BowlerProfile.of(1, 0)).simulate(10, 1)
+                .score(new BulkScorer())));
+    }
+
+    @Test
+    public void sameSeedGivesSameGamesOnAnyNumberOfThreads() {
+        SimulatedGames one = new GameSimulator(new ForkJoinPool(1), BowlerProfile.league()).simulate(10000, 5);
+        SimulatedGames four = new GameSimulator(new ForkJoinPool(4), BowlerProfile.league()).simulate(10000, 5);
+        SimulatedGames other = new GameSimulator(new ForkJoinPool(4), BowlerProfile.league()).simulate(10000, 6);
+
+        assertEquals(true, Arrays.equals(one.getPinMasks(), four.getPinMasks()));
+        assertEquals(true, Arrays.equals(one.getOffsets(), four.getOffsets()));
+        assertEquals(false, Arrays.equals(one.getPinMasks(), other.getPinMasks()));
+    }
+
+    @Test
+    public void corpusReadsBackTheSimulatedGames() throws IOException {
+        Path path = directory.resolve("games.corpus");
+        GameSimulator simulator = new GameSimulator(BowlerProfile.league(), BowlerProfile.professional());
+        long numberOfGames = GameSimulator.gamesPerBatch + 100;
+        List<SimulatedGames> simulated = new ArrayList<>();
+        simulator.simulate(numberOfGames, 9, simulated::add);
+        GameCorpus.write(path, simulator, numberOfGames, 9);
+        List<SimulatedGames> read = new ArrayList<>();
+
+        assertEquals(numberOfGames, GameCorpus.read(path, read::add));
+        assertEquals(2, read.size());
+        for (int b = 0; b < read.size(); b++) {
+            assertEquals(simulated.get(b).getFirstGame(), read.get(b).getFirstGame());
+            assertEquals(true, Arrays.equals(simulated.get(b).getRolls(), read.get(b).getRolls()));
+            assertEquals(true, Arrays.equals(simulated.get(b).getPinMasks(), read.get(b).getPinMasks()));
+            assertEquals(true, Arrays.equals(simulated.get(b).getOffsets(), read.get(b).getOffsets()));
+        }
+    }
+
+    @Test
+    public void rejectsBadInput() throws IOException {
+        Path notACorpus = directory.resolve("other");
+        Files.write(notACorpus, new byte[] {1, 2, 3});
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> GameCorpus.read(notACorpus, batch -> { }),
+                "");
+        assertEquals(String.format(ErrorMessages.notAGameCorpus, notACorpus), thrown.getMessage());
+        assertThrows(RuntimeException.class, () -> BowlerProfile.of(1.5, 0.5), "");
+        assertThrows(RuntimeException.class, () -> BowlerProfile.league().withLeaveWeights(1, 2, 3), "");
+        assertThrows(RuntimeException.class, () -> new GameSimulator(), "");
+    }
+}
@@ -0,0 +1,53 @@
+package tournament;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankingTest {
+    @Test
+    public void mergedOrderMatchesAFullSort() {
+        Random random = new Random(19);
+        int numberOfEntrants = 2000;
+        Ranking ranking = new Ranking(numberOfEntrants);
+        int[] pinfalls = new int[numberOfEntrants];
+
+        for (int update = 0; update < 500; update++) {
+            // mostly a game's worth of entrants, sometimes a whole squad
+            int count = update % 50 == 0 ? 600 : 1 + random.nextInt(6);
+            int[] entrants = new int[count];
+            int[] newPinfalls = new int[count];
+            int first = random.nextInt(numberOfEntrants - count);
+            for (int i = 0; i < count; i++) {
+                entrants[i] = first + i;
+                newPinfalls[i] = pinfalls[first + i] + random.nextInt(301);
+                pinfalls[first + i] = newPinfalls[i];
+            }
+            ranking.update(entrants, newPinfalls, count);
+        }
+
+        long[] expected = new long[numberOfEntrants];
+        for (int entrant = 0; entrant < numberOfEntrants; entrant++) {
+            expected[entrant] = Ranking.key(pinfalls[entrant], entrant);
+        }
+        Arrays.sort(expected);
+        for (int place = 0; place < numberOfEntrants; place++) {
+            assertEquals(expected[place], ranking.getKeyAt(place));
+        }
+    }
+
+    @Test
+    public void tiesGoToTheEarlierEntrant() {
+        Ranking ranking = new Ranking(3);
+
+        ranking.update(new int[] {2, 1}, new int[] {150, 150}, 2);
+
+        assertEquals(1, Ranking.getEntrant(ranking.getKeyAt(0)));
+        assertEquals(2, Ranking.getEntrant(ranking.getKeyAt(1)));
+        assertEquals(150, Ranking.getPinfall(ranking.getKeyAt(0)));
+        assertEquals(0, Ranking.getPinfall(ranking.getKeyAt(2)));
+    }
+}
@@ -0,0 +1,187 @@
+package tournament;
+
+import controller.LaneManager;
+import model.ErrorMessages;
+import model.Game;
+import model.RollError;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+    private static List<String> entrants(int numberOfEntrants) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < numberOfEntrants; i++) {
+            names.add("Bowler " + i);
+        }
+        return names;
+    }
+
+    /**
+     * Bowls a game of open frames where each player knocks down the same number of pins with every ball
+     */
+    private static void bowl(Game game, int[] pinsByPlayer) {
+        while (!game.isGameOver()) {
+            game.addScores(new int[] {pinsByPlayer[game.getActivePlayerIndex()]});
+        }
+    }
+
+    @Test
+    public void standingsMoveAsFramesAreScored() {
+        Tournament tournament = new Tournament(entrants(3), 3);
+        Game game = tournament.startGame(tournament.scheduleQualifying(1, 3).get(0));
+
+        game.addScores(new int[] {1, 1, 4, 4, 2, 2});
+        Standings standings = tournament.getStandings();
+
+        assertEquals(1, standings.getEntrantAt(0));
+        assertEquals(8, standings.getPinfall(1));
+        assertEquals(2, standings.getPlace(0));
+        assertEquals(0, standings.getGamesBowled(1));
+        bowl(game, new int[] {1, 4, 2});
+        assertEquals(80, tournament.getStandings().getPinfall(1));
+        assertEquals(1, tournament.getStandings().getGamesBowled(1));
+    }
+
+    @Test
+    public void groupsMoveLanesAfterEachGame() {
+        Tournament tournament = new Tournament(entrants(10), 3);
+
+        List<ScheduledGame> schedule = tournament.scheduleQualifying(2, 4);
+
+        assertEquals(3 * 3, schedule.size());
+        assertEquals(1, schedule.get(0).getLaneNumber());
+        assertEquals(2, schedule.get(1).getLaneNumber());
+        assertEquals(2, schedule.get(2).getLaneNumber());
+        assertEquals(1, schedule.get(3).getLaneNumber());
+        assertEquals(1, schedule.get(6).getSquad());
+        assertEquals(true, Arrays.equals(new int[] {8, 9}, schedule.get(6).getEntrants()));
+    }
+
+    @Test
+    public void qualifiersPlayBracketToAChampion() {
+        Tournament tournament = new Tournament(entrants(6), 3);
+        int[] pins = {1, 5, 3, 4, 2, 0};
+        for (ScheduledGame scheduledGame : tournament.scheduleQualifying(2, 3)) {
+            int[] gamePins = new int[scheduledGame.getEntrants().length];
+            for (int i = 0; i < gamePins.length; i++) {
+                gamePins[i] = pins[scheduledGame.getEntrants()[i]];
+            }
+            bowl(tournament.startGame(scheduledGame), gamePins);
+        }
+
+        List<Match> firstRound = tournament.cut(3);
+
+        assertEquals(2, tournament.getNumberOfRounds());
+        assertEquals(true, firstRound.get(0).isBye());
+        assertEquals(1, firstRound.get(0).getWinner());
+        assertEquals(1, tournament.getReadyMatches().size());
+        Match semifinal = tournament.getReadyMatches().get(0);
+        assertEquals(3, semifinal.getFirstEntrant());
+        assertEquals(2, semifinal.getSecondEntrant());
+        // the lower seed wins the semifinal, but still bowls second in the final
+        bowl(tournament.startMatch(semifinal), new int[] {1, 5});
+        Match fin = tournament.getReadyMatches().get(0);
+        assertEquals(1, fin.getFirstEntrant());
+        assertEquals(2, fin.getSecondEntrant());
+        bowl(tournament.startMatch(fin), new int[] {2, 2});
+        assertEquals(1, tournament.getChampion());
+        assertThrows(RuntimeException.class, () -> tournament.startMatch(fin), "");
+    }
+
+    @Test
+    public void seriesCannotBeBowledTwice() {
+        Tournament tournament = new Tournament(entrants(2), 3);
+        tournament.addGameScores(new int[] {0, 0, 0, 1}, new int[] {200, 210, 190, 150});
+
+        RuntimeException tooManyGames = assertThrows(RuntimeException.class,
+                () -> tournament.addGameScores(new int[] {0}, new int[] {100}), "");
+        RuntimeException notFinished = assertThrows(RuntimeException.class, () -> tournament.cut(2), "");
+
+        assertEquals(String.format(ErrorMessages.seriesAlreadyBowled, "Bowler 0", 3), tooManyGames.getMessage());
+        assertEquals(String.format(ErrorMessages.qualifyingNotFinished, "Bowler 1", 1, 3), notFinished.getMessage());
+        assertEquals(600, tournament.getStandings().getPinfall(0));
+    }
+
+    @Test
+    public void gamesOnLanesUpdateTheStandings() {
+        Tournament tournament = new Tournament(entrants(8), 3);
+        try (LaneManager laneManager = new LaneManager(2, 2)) {
+            for (ScheduledGame scheduledGame : tournament.scheduleQualifying(2, 4)) {
+                tournament.startGame(laneManager, scheduledGame);
+                int laneNumber = scheduledGame.getLaneNumber();
+                for (int ball = 0; ball < 4 * 20; ball++) {
+                    laneManager.addPinMask(laneNumber, ball % 2 == 0 ? 0b1 : 0b10);
+                }
+            }
+            laneManager.readLane(1, controller -> null).join();
+            laneManager.readLane(2, controller -> null).join();
+        }
+
+        Standings standings = tournament.getStandings();
+        for (int entrant = 0; entrant < 8; entrant++) {
+            assertEquals(3, standings.getGamesBowled(entrant));
+            assertEquals(3 * 20, standings.getPinfall(entrant));
+            assertEquals(entrant, standings.getEntrantAt(entrant));
+        }
+    }
+
+    @Test
+    public void gamesThatNeverFinishGiveBackTheirSeriesSlot() {
+        Tournament tournament = new Tournament(entrants(2), 3);
+        List<ScheduledGame> schedule = tournament.scheduleQualifying(1, 2);
+        try (LaneManager laneManager = new LaneManager(1, 1)) {
+            ScheduledGame onMissingLane = new ScheduledGame(0, 0, 9, new int[] {0, 1});
+            assertThrows(RuntimeException.class, () -> tournament.startGame(laneManager, onMissingLane), "");
+
+            // a game that is replaced on its lane before it is over gives back its slot and its frames
+            tournament.startGame(laneManager, schedule.get(0));
+            for (int ball = 0; ball < 4; ball++) {
+                laneManager.addPinMask(1, ball % 2 == 0 ? 0b1 : 0b10);
+            }
+            laneManager.readLane(1, controller -> null).join();
+            assertEquals(2, tournament.getStandings().getPinfall(0));
+            laneManager.startGame(1, Arrays.asList("Walk-in"));
+            laneManager.readLane(1, controller -> null).join();
+            assertEquals(0, tournament.getStandings().getPinfall(0));
+
+            for (ScheduledGame scheduledGame : schedule) {
+                tournament.startGame(laneManager, scheduledGame);
+                for (int ball = 0; ball < 2 * 20; ball++) {
+                    laneManager.addPinMask(1, ball % 2 == 0 ? 0b1 : 0b10);
+                }
+            }
+            laneManager.readLane(1, controller -> null).join();
+        }
+
+        assertEquals(3, tournament.getStandings().getGamesBowled(0));
+        assertEquals(3 * 20, tournament.getStandings().getPinfall(1));
+        assertEquals(1, tournament.cut(2).size());
+    }
+
+    @Test
+    public void abandonedGamesCannotBeBowledOn() {
+        Tournament tournament = new Tournament(entrants(2), 3);
+        ScheduledGame scheduledGame = tournament.scheduleQualifying(1, 2).get(0);
+        Game game = tournament.startGame(scheduledGame);
+        game.addPinMasks(new int[] {0b1, 0b10, 0b1, 0b10});
+        game.abandon();
+
+        long result = game.tryAddPinMask(0b1);
+        assertEquals(RollError.GAME_WAS_ABANDONED, RollError.of(result));
+        assertThrows(RuntimeException.class, () -> game.addPinMasks(new int[36]), "");
+        assertEquals(0, tournament.getStandings().getPinfall(0));
+        assertEquals(0, tournament.getStandings().getGamesBowled(0));
+
+        // the slot that was given back can be bowled again
+        for (int g = 0; g < 3; g++) {
+            tournament.startGame(scheduledGame).addPinMasks(new int[40]);
+        }
+        assertEquals(3, tournament.getStandings().getGamesBowled(0));
+        assertThrows(RuntimeException.class, () -> tournament.startGame(scheduledGame), "");
+    }
+}